@@ -0,0 +1,106 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap.Eviction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of reads hitting a {@link BoundedConcurrentHashMap}, with each eviction algorithm and with
+ * an unbounded {@link ConcurrentHashMap} as the baseline, from 1 up to 64 reader threads.
+ * <p/>
+ * To compare against an older implementation of the map, build this module against both versions of infinispan-core
+ * and run the same benchmarks with each jar, e.g. {@code java -jar target/benchmarks.jar BoundedConcurrentHashMapRead}.
+ *
+ * @since 6.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoundedConcurrentHashMapReadBenchmark {
+
+   private static final int CAPACITY = 1 << 16;
+   private static final int KEYS_MASK = CAPACITY - 1;
+
+   @State(Scope.Benchmark)
+   public static class MapState {
+
+      @Param({"NONE", "LRU", "LIRS", "TINY_LFU", "CHM"})
+      String eviction;
+
+      ConcurrentMap<Integer, Integer> map;
+      Integer[] keys;
+
+      @Setup
+      public void setup() {
+         if ("CHM".equals(eviction)) {
+            map = new ConcurrentHashMap<Integer, Integer>(CAPACITY, 0.75f, 32);
+         } else {
+            map = new BoundedConcurrentHashMap<Integer, Integer>(2 * CAPACITY, 32, Eviction.valueOf(eviction),
+                  AnyEquivalence.<Integer>getInstance(), AnyEquivalence.<Integer>getInstance());
+         }
+         keys = new Integer[CAPACITY];
+         for (int i = 0; i < CAPACITY; i++) {
+            keys[i] = i;
+            map.put(i, i);
+         }
+      }
+   }
+
+   @State(Scope.Thread)
+   public static class ThreadState {
+      int index;
+
+      @Setup
+      public void setup() {
+         // start each reader at a different key, so that they do not read the same entries in lock step
+         index = new Random().nextInt(CAPACITY);
+      }
+   }
+
+   private static Integer read(MapState map, ThreadState thread) {
+      return map.map.get(map.keys[thread.index++ & KEYS_MASK]);
+   }
+
+   @Benchmark
+   @Threads(1)
+   public Integer get1(MapState map, ThreadState thread) {
+      return read(map, thread);
+   }
+
+   @Benchmark
+   @Threads(4)
+   public Integer get4(MapState map, ThreadState thread) {
+      return read(map, thread);
+   }
+
+   @Benchmark
+   @Threads(16)
+   public Integer get16(MapState map, ThreadState thread) {
+      return read(map, thread);
+   }
+
+   @Benchmark
+   @Threads(64)
+   public Integer get64(MapState map, ThreadState thread) {
+      return read(map, thread);
+   }
+}
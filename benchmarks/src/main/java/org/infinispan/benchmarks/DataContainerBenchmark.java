@@ -0,0 +1,94 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DataContainer#get(Object)} and {@link DataContainer#put(Object, Object, Metadata)} on the
+ * {@link org.infinispan.container.DefaultDataContainer} of a local cache, unbounded and with each eviction strategy.
+ * The bounded containers have room for twice the number of keys, so that puts update existing entries rather than
+ * evict, whatever the spread of the keys over the segments.
+ * <p/>
+ * Use JMH's {@code -t} option to run with more threads.
+ *
+ * @since 6.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataContainerBenchmark {
+
+   private static final int KEYS = 1 << 14;
+   private static final int KEYS_MASK = KEYS - 1;
+
+   @Param({"NONE", "LRU", "LIRS", "TINY_LFU"})
+   String eviction;
+
+   EmbeddedCacheManager cacheManager;
+   DataContainer container;
+   String[] keys;
+   Metadata metadata;
+
+   @Setup
+   public void setup() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.jmxStatistics().disable();
+      EvictionStrategy strategy = EvictionStrategy.valueOf(eviction);
+      if (strategy.isEnabled()) {
+         builder.eviction().strategy(strategy).maxEntries(2 * KEYS);
+      }
+      cacheManager = new DefaultCacheManager(builder.build());
+      container = cacheManager.getCache().getAdvancedCache().getDataContainer();
+      metadata = new EmbeddedMetadata.Builder().build();
+      keys = new String[KEYS];
+      for (int i = 0; i < KEYS; i++) {
+         keys[i] = "key-" + i;
+         container.put(keys[i], "value-" + i, metadata);
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      cacheManager.stop();
+   }
+
+   @State(Scope.Thread)
+   public static class ThreadState {
+      int index = new Random().nextInt(KEYS);
+   }
+
+   @Benchmark
+   public InternalCacheEntry get(ThreadState thread) {
+      return container.get(keys[thread.index++ & KEYS_MASK]);
+   }
+
+   @Benchmark
+   public void put(ThreadState thread) {
+      String key = keys[thread.index++ & KEYS_MASK];
+      container.put(key, key, metadata);
+   }
+}
@@ -0,0 +1,120 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.remote.SingleRpcCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.InfinispanCollections;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.entries.metadata.MetadataMortalCacheValue;
+import org.infinispan.container.versioning.NumericVersion;
+import org.infinispan.context.Flag;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.CompactMarshaller;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures marshalling and unmarshalling objects with the global marshaller of a cache manager, the one used for all
+ * the messages sent between nodes, either with the default JBoss Marshalling based marshaller or with the {@link
+ * CompactMarshaller}.
+ *
+ * @since 6.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GlobalMarshallerBenchmark {
+
+   @Param({"jboss", "compact"})
+   String marshallerType;
+
+   @Param({"STRING", "BYTES", "MAP", "CACHE_ENTRY", "METADATA_VALUE", "PUT_COMMAND"})
+   String payload;
+
+   EmbeddedCacheManager cacheManager;
+   StreamingMarshaller marshaller;
+   Object object;
+   byte[] bytes;
+
+   @Setup
+   public void setup() throws Exception {
+      GlobalConfigurationBuilder global = new GlobalConfigurationBuilder();
+      global.globalJmxStatistics().disable().allowDuplicateDomains(true);
+      if ("compact".equals(marshallerType))
+         global.serialization().marshaller(new CompactMarshaller());
+      cacheManager = new DefaultCacheManager(global.build());
+      // the global marshaller is only wired once a cache starts
+      Cache<Object, Object> cache = cacheManager.getCache();
+      marshaller = cacheManager.getGlobalComponentRegistry()
+            .getComponent(StreamingMarshaller.class, KnownComponentNames.GLOBAL_MARSHALLER);
+      object = createPayload(payload, cache.getName());
+      bytes = marshaller.objectToByteBuffer(object);
+   }
+
+   @TearDown
+   public void tearDown() {
+      cacheManager.stop();
+   }
+
+   @Benchmark
+   public byte[] marshall() throws Exception {
+      return marshaller.objectToByteBuffer(object);
+   }
+
+   @Benchmark
+   public Object unmarshall() throws Exception {
+      return marshaller.objectFromByteBuffer(bytes);
+   }
+
+   @Benchmark
+   public Object roundTrip() throws Exception {
+      return marshaller.objectFromByteBuffer(marshaller.objectToByteBuffer(object));
+   }
+
+   private static Object createPayload(String payload, String cacheName) {
+      if ("STRING".equals(payload)) {
+         return "a string of some sixty characters, like a typical cache value";
+      } else if ("BYTES".equals(payload)) {
+         return new byte[1024];
+      } else if ("MAP".equals(payload)) {
+         Map<String, Integer> map = new HashMap<String, Integer>();
+         for (int i = 0; i < 100; i++) {
+            map.put("key-" + i, i);
+         }
+         return map;
+      } else if ("CACHE_ENTRY".equals(payload)) {
+         return new ImmortalCacheEntry("key", new byte[256]);
+      } else if ("METADATA_VALUE".equals(payload)) {
+         return new MetadataMortalCacheValue(new byte[256],
+               new EmbeddedMetadata.Builder().lifespan(60000).version(new NumericVersion(3)).build(), 0);
+      } else if ("PUT_COMMAND".equals(payload)) {
+         // A replicated put, as sent by the primary owner to the backup owners
+         PutKeyValueCommand put = new PutKeyValueCommand("key-1234", new byte[256], false, null,
+               new EmbeddedMetadata.Builder().build(), InfinispanCollections.<Flag>emptySet());
+         return new SingleRpcCommand(cacheName, put);
+      }
+      throw new IllegalArgumentException("Unknown payload " + payload);
+   }
+}
@@ -0,0 +1,142 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.context.InvocationContextContainer;
+import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.remoting.transport.jgroups.JGroupsTransport;
+import org.infinispan.statetransfer.StateTransferManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the invocation of {@link org.infinispan.commands.write.PutKeyValueCommand} and
+ * {@link org.infinispan.commands.read.GetKeyValueCommand} through the whole {@link InterceptorChain} of a synchronous
+ * cache, in local, replicated and distributed mode. The clustered modes start all their nodes in this JVM, connected
+ * by the in-memory JGroups transport in {@code jgroups-shared-loopback.xml}, and invoke the commands on the first one.
+ *
+ * @since 6.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InterceptorChainBenchmark {
+
+   private static final String JGROUPS_CONFIGURATION = "jgroups-shared-loopback.xml";
+   private static final int KEYS = 1 << 10;
+   private static final int KEYS_MASK = KEYS - 1;
+   private static final long CLUSTER_TIMEOUT_MILLIS = 30000;
+
+   @Param({"LOCAL", "REPL_SYNC", "DIST_SYNC"})
+   String mode;
+
+   EmbeddedCacheManager[] cacheManagers;
+   InterceptorChain chain;
+   InvocationContextContainer icc;
+   CommandsFactory commandsFactory;
+   String[] keys;
+   Metadata metadata;
+
+   @Setup
+   public void setup() throws Exception {
+      CacheMode cacheMode = CacheMode.valueOf(mode);
+      int nodes = cacheMode.isReplicated() ? 2 : cacheMode.isDistributed() ? 3 : 1;
+      cacheManagers = new EmbeddedCacheManager[nodes];
+      for (int i = 0; i < nodes; i++) {
+         cacheManagers[i] = createCacheManager(cacheMode);
+         cacheManagers[i].getCache();
+      }
+      waitForCluster();
+
+      AdvancedCache<Object, Object> cache = cacheManagers[0].getCache().getAdvancedCache();
+      chain = cache.getComponentRegistry().getComponent(InterceptorChain.class);
+      icc = cache.getComponentRegistry().getComponent(InvocationContextContainer.class);
+      commandsFactory = cache.getComponentRegistry().getComponent(CommandsFactory.class);
+      metadata = new EmbeddedMetadata.Builder().build();
+      keys = new String[KEYS];
+      for (int i = 0; i < KEYS; i++) {
+         keys[i] = "key-" + i;
+         cache.put(keys[i], "value-" + i);
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      for (int i = cacheManagers.length - 1; i >= 0; i--) {
+         if (cacheManagers[i] != null) cacheManagers[i].stop();
+      }
+   }
+
+   @State(Scope.Thread)
+   public static class ThreadState {
+      int index = new Random().nextInt(KEYS);
+   }
+
+   @Benchmark
+   public Object get(ThreadState thread) {
+      String key = keys[thread.index++ & KEYS_MASK];
+      return chain.invoke(icc.createInvocationContext(false, 1),
+            commandsFactory.buildGetKeyValueCommand(key, null, false));
+   }
+
+   @Benchmark
+   public Object put(ThreadState thread) {
+      String key = keys[thread.index++ & KEYS_MASK];
+      return chain.invoke(icc.createInvocationContext(true, 1),
+            commandsFactory.buildPutKeyValueCommand(key, key, metadata, null));
+   }
+
+   private EmbeddedCacheManager createCacheManager(CacheMode cacheMode) {
+      GlobalConfigurationBuilder global = cacheMode.isClustered() ?
+            GlobalConfigurationBuilder.defaultClusteredBuilder() : new GlobalConfigurationBuilder();
+      global.globalJmxStatistics().disable().allowDuplicateDomains(true);
+      if (cacheMode.isClustered()) {
+         global.transport().defaultTransport().clusterName("benchmark-" + mode)
+               .addProperty(JGroupsTransport.CONFIGURATION_FILE, JGROUPS_CONFIGURATION);
+      }
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.jmxStatistics().disable().clustering().cacheMode(cacheMode);
+      if (cacheMode.isDistributed()) {
+         builder.clustering().hash().numOwners(2);
+      }
+      return new DefaultCacheManager(global.build(), builder.build());
+   }
+
+   private void waitForCluster() throws InterruptedException {
+      long deadline = System.currentTimeMillis() + CLUSTER_TIMEOUT_MILLIS;
+      for (EmbeddedCacheManager cacheManager : cacheManagers) {
+         StateTransferManager stm = cacheManager.getCache().getAdvancedCache().getComponentRegistry()
+               .getComponent(StateTransferManager.class);
+         while (stm != null && (stm.getCacheTopology().getMembers().size() < cacheManagers.length
+               || stm.isStateTransferInProgress())) {
+            if (System.currentTimeMillis() > deadline) {
+               throw new IllegalStateException("Timed out waiting for " + cacheManagers.length + " nodes to join");
+            }
+            Thread.sleep(50);
+         }
+      }
+   }
+}
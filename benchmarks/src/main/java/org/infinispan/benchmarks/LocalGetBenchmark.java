@@ -0,0 +1,90 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link Cache#get(Object)} on a local cache with {@link ConcurrentHashMap#get(Object)} on a map holding the
+ * same entries, i.e. the cost of going through the interceptor chain of a local cache. With {@code fastLocalReads},
+ * the cache reads the entries straight from the data container (see
+ * {@link org.infinispan.configuration.cache.UnsafeConfigurationBuilder#fastLocalReads(boolean)}).
+ * <p/>
+ * Use JMH's {@code -prof gc} option to compare the allocations per get as well.
+ *
+ * @since 6.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LocalGetBenchmark {
+
+   private static final int KEYS = 1 << 10;
+   private static final int KEYS_MASK = KEYS - 1;
+
+   @Param({"false", "true"})
+   boolean fastLocalReads;
+
+   EmbeddedCacheManager cacheManager;
+   Cache<String, String> cache;
+   ConcurrentHashMap<String, String> map;
+   String[] keys;
+
+   @Setup
+   public void setup() {
+      GlobalConfigurationBuilder global = new GlobalConfigurationBuilder();
+      global.globalJmxStatistics().disable().allowDuplicateDomains(true);
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.jmxStatistics().disable().unsafe().fastLocalReads(fastLocalReads);
+      cacheManager = new DefaultCacheManager(global.build(), builder.build());
+      cache = cacheManager.getCache();
+      map = new ConcurrentHashMap<String, String>();
+      keys = new String[KEYS];
+      for (int i = 0; i < KEYS; i++) {
+         keys[i] = "key-" + i;
+         cache.put(keys[i], "value-" + i);
+         map.put(keys[i], "value-" + i);
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      cacheManager.stop();
+   }
+
+   @State(Scope.Thread)
+   public static class ThreadState {
+      int index = new Random().nextInt(KEYS);
+   }
+
+   @Benchmark
+   public String cacheGet(ThreadState thread) {
+      return cache.get(keys[thread.index++ & KEYS_MASK]);
+   }
+
+   @Benchmark
+   public String concurrentHashMapGet(ThreadState thread) {
+      return map.get(keys[thread.index++ & KEYS_MASK]);
+   }
+}
@@ -0,0 +1,78 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.util.concurrent.locks.containers.LockContainer;
+import org.infinispan.util.concurrent.locks.containers.LockWordStripedLockContainer;
+import org.infinispan.util.concurrent.locks.containers.OwnableReentrantPerEntryLockContainer;
+import org.infinispan.util.concurrent.locks.containers.OwnableReentrantStripedLockContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares acquiring and releasing a lock with the owner based {@link LockContainer}s. All the threads pick their keys
+ * at random among the same keys, so the fewer the keys, the more the threads contend for the same locks.
+ * <p/>
+ * Use JMH's {@code -t} option to run with more threads.
+ *
+ * @since 6.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LockContainerBenchmark {
+
+   private static final int CONCURRENCY_LEVEL = 32;
+   private static final long TIMEOUT_MILLIS = 10000;
+
+   @Param({"perEntry", "striped", "lockWordStriped"})
+   String container;
+
+   @Param({"16", "1024", "65536"})
+   int numKeys;
+
+   LockContainer<?> lockContainer;
+   Object[] keys;
+
+   @Setup
+   public void setup() {
+      if ("perEntry".equals(container)) {
+         lockContainer = new OwnableReentrantPerEntryLockContainer(CONCURRENCY_LEVEL);
+      } else if ("striped".equals(container)) {
+         lockContainer = new OwnableReentrantStripedLockContainer(CONCURRENCY_LEVEL);
+      } else {
+         lockContainer = new LockWordStripedLockContainer(CONCURRENCY_LEVEL);
+      }
+      keys = new Object[numKeys];
+      for (int i = 0; i < numKeys; i++) {
+         keys[i] = "key" + i;
+      }
+   }
+
+   @State(Scope.Thread)
+   public static class ThreadState {
+      final Object owner = new Object();
+      final Random random = new Random();
+   }
+
+   @Benchmark
+   public boolean lockAndUnlock(ThreadState thread) throws InterruptedException {
+      Object key = keys[thread.random.nextInt(numKeys)];
+      boolean locked = lockContainer.acquireLock(thread.owner, key, TIMEOUT_MILLIS, TimeUnit.MILLISECONDS) != null;
+      lockContainer.releaseLock(thread.owner, key);
+      return locked;
+   }
+}
@@ -0,0 +1,96 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.context.SingleKeyNonTxInvocationContext;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.util.concurrent.locks.LockManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures acquiring and releasing a lock with the {@link org.infinispan.util.concurrent.locks.LockManagerImpl} of a
+ * local cache, with and without lock striping. Every thread locks its own keys, so threads only contend when their
+ * keys share a lock.
+ * <p/>
+ * Use JMH's {@code -t} option to run with more threads.
+ *
+ * @since 6.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LockManagerBenchmark {
+
+   private static final int KEYS_PER_THREAD = 1 << 8;
+   private static final int KEYS_MASK = KEYS_PER_THREAD - 1;
+   private static final long TIMEOUT_MILLIS = 10000;
+
+   @Param({"false", "true"})
+   boolean striping;
+
+   EmbeddedCacheManager cacheManager;
+   LockManager lockManager;
+
+   @Setup
+   public void setup() {
+      GlobalConfigurationBuilder global = new GlobalConfigurationBuilder();
+      global.globalJmxStatistics().disable().allowDuplicateDomains(true);
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.jmxStatistics().disable().locking().useLockStriping(striping);
+      cacheManager = new DefaultCacheManager(global.build(), builder.build());
+      lockManager = cacheManager.getCache().getAdvancedCache().getLockManager();
+   }
+
+   @TearDown
+   public void tearDown() {
+      cacheManager.stop();
+   }
+
+   @State(Scope.Thread)
+   public static class ThreadState {
+      final InvocationContext ctx = new SingleKeyNonTxInvocationContext(true, AnyEquivalence.getInstance());
+      final Object[] keys = new Object[KEYS_PER_THREAD];
+      final Collection<Object>[] lockedKeys;
+      int index;
+
+      @SuppressWarnings("unchecked")
+      public ThreadState() {
+         String prefix = Thread.currentThread().getName() + "-" + new Random().nextInt() + "-";
+         lockedKeys = new Collection[KEYS_PER_THREAD];
+         for (int i = 0; i < KEYS_PER_THREAD; i++) {
+            keys[i] = prefix + i;
+            lockedKeys[i] = Collections.singletonList(keys[i]);
+         }
+      }
+   }
+
+   @Benchmark
+   public boolean lockAndUnlock(ThreadState thread) throws InterruptedException {
+      int i = thread.index++ & KEYS_MASK;
+      boolean locked = lockManager.lockAndRecord(thread.keys[i], thread.ctx, TIMEOUT_MILLIS);
+      lockManager.unlock(thread.lockedKeys[i], thread.ctx.getLockOwner());
+      return locked;
+   }
+}
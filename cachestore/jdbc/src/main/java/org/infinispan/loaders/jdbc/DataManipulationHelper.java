@@ -8,14 +8,19 @@
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.loaders.CacheLoaderException;
 import org.infinispan.loaders.jdbc.connectionfactory.ConnectionFactory;
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.loaders.jdbc.logging.Log;
+import org.infinispan.loaders.spi.CacheLoader;
+import org.infinispan.loaders.spi.ParallelProcessor;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.LogFactory;
 
@@ -179,6 +184,64 @@ public final Set<InternalCacheEntry> loadAllSupport(boolean filterExpired) throw
       }
    }
 
+   /**
+    * Reads the rows of the table in the current thread and submits their deserialization to the processor, in batches
+    * of {@link ParallelProcessor#BATCH_SIZE} rows, then waits for the processor to complete.
+    */
+   public final void processSupport(CacheLoader.KeyFilter filter, ParallelProcessor processor, boolean filterExpired) throws CacheLoaderException {
+      Connection conn = null;
+      PreparedStatement ps = null;
+      ResultSet rs = null;
+      try {
+         String sql = filterExpired ? tableManipulation.getLoadNonExpiredAllRowsSql() : tableManipulation.getLoadAllRowsSql();
+         if (log.isTraceEnabled()) {
+            log.tracef("Running sql %s", sql);
+         }
+         conn = connectionFactory.getConnection();
+         ps = conn.prepareStatement(sql);
+         if (filterExpired) {
+            ps.setLong(1, timeService.wallClockTime());
+         }
+         rs = ps.executeQuery();
+         rs.setFetchSize(tableManipulation.getFetchSize());
+         List<byte[]> data = new ArrayList<byte[]>(ParallelProcessor.BATCH_SIZE);
+         List<String> ids = new ArrayList<String>(ParallelProcessor.BATCH_SIZE);
+         while (!processor.isStopped() && rs.next()) {
+            data.add(rs.getBytes(1));
+            ids.add(rs.getString(2));
+            if (data.size() == ParallelProcessor.BATCH_SIZE) {
+               submitRows(data, ids, filter, processor);
+               data = new ArrayList<byte[]>(ParallelProcessor.BATCH_SIZE);
+               ids = new ArrayList<String>(ParallelProcessor.BATCH_SIZE);
+            }
+         }
+         if (!data.isEmpty()) {
+            submitRows(data, ids, filter, processor);
+         }
+         processor.awaitCompletion();
+      } catch (SQLException e) {
+         log.sqlFailureFetchingAllStoredEntries(e);
+         throw new CacheLoaderException("SQL error while fetching all StoredEntries", e);
+      } finally {
+         JdbcUtil.safeClose(rs);
+         JdbcUtil.safeClose(ps);
+         connectionFactory.releaseConnection(conn);
+      }
+   }
+
+   private void submitRows(final List<byte[]> data, final List<String> ids, final CacheLoader.KeyFilter filter,
+                           final ParallelProcessor processor) throws CacheLoaderException {
+      processor.submit(new Callable<Void>() {
+         @Override
+         public Void call() throws Exception {
+            for (int i = 0; i < data.size() && !processor.isStopped(); i++) {
+               processRowProcess(data.get(i), ids.get(i), filter, processor);
+            }
+            return null;
+         }
+      });
+   }
+
    public Set<Object> loadAllKeysSupport(Set<Object> keysToExclude) throws CacheLoaderException {
       Connection conn = null;
       PreparedStatement ps = null;
@@ -253,6 +316,13 @@ protected boolean includeKey(Object key, Set<Object> keysToExclude) {
 
    protected abstract void loadAllKeysProcess(ResultSet rs, Set<Object> keys, Set<Object> keysToExclude) throws SQLException, CacheLoaderException;
 
+   /**
+    * Deserializes a row read by {@link #processSupport(CacheLoader.KeyFilter, ParallelProcessor, boolean)} and passes
+    * its non expired entries accepted by the filter to the processor. Invoked from the threads of the processor.
+    */
+   protected abstract void processRowProcess(byte[] data, String id, CacheLoader.KeyFilter filter, ParallelProcessor processor)
+         throws CacheLoaderException, InterruptedException;
+
    protected abstract void toStreamProcess(ResultSet rs, InputStream is, ObjectOutput objectOutput) throws CacheLoaderException, SQLException, IOException;
 
    protected abstract boolean fromStreamProcess(Object objFromStream, PreparedStatement ps, ObjectInput objectInput)
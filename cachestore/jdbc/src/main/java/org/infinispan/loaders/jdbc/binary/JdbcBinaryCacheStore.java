@@ -15,8 +15,10 @@
 import org.infinispan.loaders.jdbc.connectionfactory.ManagedConnectionFactory;
 import org.infinispan.loaders.jdbc.logging.Log;
 import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.loaders.spi.ParallelProcessor;
 import org.infinispan.util.logging.LogFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInput;
@@ -30,6 +32,7 @@
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * {@link BucketBasedCacheStore} implementation that will store all the buckets as rows in database, each row
@@ -117,6 +120,18 @@ public void loadAllKeysProcess(ResultSet rs, Set<Object> keys, Set<Object> keysT
             }
          }
 
+         @Override
+         protected void processRowProcess(byte[] data, String bucketName, KeyFilter filter, ParallelProcessor processor)
+               throws CacheLoaderException, InterruptedException {
+            Bucket bucket = unmarshallBucket(new ByteArrayInputStream(data));
+            long currentTimeMillis = timeService.wallClockTime();
+            for (InternalCacheEntry ice: bucket.getStoredEntries()) {
+               if (!ice.isExpired(currentTimeMillis) && (filter == null || filter.shouldLoadKey(ice.getKey()))) {
+                  processor.processEntry(ice);
+               }
+            }
+         }
+
          @Override
          public void toStreamProcess(ResultSet rs, InputStream is, ObjectOutput objectOutput) throws CacheLoaderException, SQLException, IOException {
             Bucket bucket = unmarshallBucket(is);
@@ -275,6 +290,14 @@ public Set<InternalCacheEntry> loadAllLockSafe() throws CacheLoaderException {
       return dmHelper.loadAllSupport(false);
    }
 
+   /**
+    * {@inheritDoc} This implementation reads the buckets with a single query and deserializes them on the executor.
+    */
+   @Override
+   public void process(KeyFilter filter, CacheLoaderTask task, Executor executor) throws CacheLoaderException {
+      dmHelper.processSupport(filter, new ParallelProcessor(task, executor), false);
+   }
+
    @Override
    public Set<Object> loadAllKeys(Set<Object> keysToExclude) throws CacheLoaderException {
       return dmHelper.loadAllKeysSupport(keysToExclude);
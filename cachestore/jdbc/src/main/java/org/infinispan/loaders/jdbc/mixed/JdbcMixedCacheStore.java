@@ -22,7 +22,13 @@
 
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Cache store that combines functionality of {@link JdbcBinaryCacheStore} and {@link JdbcStringBasedCacheStore}. It
@@ -131,6 +137,26 @@ public Set<InternalCacheEntry> loadAll() throws CacheLoaderException {
       return fromBuckets;
    }
 
+   /**
+    * Processes the entries of the binary store, then the entries of the string based store: a key is only held by one
+    * of them.
+    */
+   @Override
+   public void process(KeyFilter filter, final CacheLoaderTask task, Executor executor) throws CacheLoaderException {
+      final AtomicBoolean stopped = new AtomicBoolean();
+      CacheLoaderTask stopTracking = new CacheLoaderTask() {
+         @Override
+         public void processEntry(InternalCacheEntry entry, TaskContext taskContext) throws InterruptedException {
+            task.processEntry(entry, taskContext);
+            if (taskContext.isStopped()) stopped.set(true);
+         }
+      };
+      binaryCacheStore.process(filter, stopTracking, executor);
+      if (!stopped.get()) {
+         stringBasedCacheStore.process(filter, task, executor);
+      }
+   }
+
    @Override
    public Set<InternalCacheEntry> load(int numEntries) throws CacheLoaderException {
       if (numEntries < 0) return loadAll();
@@ -157,6 +183,34 @@ public void store(InternalCacheEntry ed) throws CacheLoaderException {
       getCacheStore(ed.getKey()).store(ed);
    }
 
+   @Override
+   public void storeBatch(Collection<InternalCacheEntry> entries) throws CacheLoaderException {
+      List<InternalCacheEntry> stringEntries = new ArrayList<InternalCacheEntry>();
+      List<InternalCacheEntry> binaryEntries = new ArrayList<InternalCacheEntry>();
+      for (InternalCacheEntry ed : entries) {
+         if (getCacheStore(ed.getKey()) == stringBasedCacheStore)
+            stringEntries.add(ed);
+         else
+            binaryEntries.add(ed);
+      }
+      if (!stringEntries.isEmpty()) stringBasedCacheStore.storeBatch(stringEntries);
+      if (!binaryEntries.isEmpty()) binaryCacheStore.storeBatch(binaryEntries);
+   }
+
+   @Override
+   public void removeAll(Set<Object> keys) throws CacheLoaderException {
+      Set<Object> stringKeys = new HashSet<Object>();
+      Set<Object> binaryKeys = new HashSet<Object>();
+      for (Object key : keys) {
+         if (getCacheStore(key) == stringBasedCacheStore)
+            stringKeys.add(key);
+         else
+            binaryKeys.add(key);
+      }
+      stringBasedCacheStore.removeAll(stringKeys);
+      binaryCacheStore.removeAll(binaryKeys);
+   }
+
    @Override
    public void fromStream(ObjectInput inputStream) throws CacheLoaderException {
       binaryCacheStore.fromStream(inputStream);
@@ -18,8 +18,10 @@
 import org.infinispan.loaders.keymappers.UnsupportedKeyTypeException;
 import org.infinispan.loaders.spi.LockSupportCacheStore;
 import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.loaders.spi.ParallelProcessor;
 import org.infinispan.util.logging.LogFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInput;
@@ -28,7 +30,11 @@
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * {@link org.infinispan.loaders.spi.CacheStore} implementation that stores the entries in a database. In contrast to the
@@ -145,6 +151,16 @@ public void loadAllKeysProcess(ResultSet rs, Set<Object> keys, Set<Object> keysT
             }
          }
 
+         @Override
+         protected void processRowProcess(byte[] data, String keyStr, KeyFilter filter, ParallelProcessor processor)
+               throws CacheLoaderException, InterruptedException {
+            Object key = ((TwoWayKey2StringMapper) key2StringMapper).getKeyMapping(keyStr);
+            if (filter == null || filter.shouldLoadKey(key)) {
+               InternalCacheValue icv = JdbcUtil.unmarshall(getMarshaller(), new ByteArrayInputStream(data));
+               processor.processEntry(icv.toInternalCacheEntry(key));
+            }
+         }
+
          @Override
          public void toStreamProcess(ResultSet rs, InputStream is, ObjectOutput objectOutput) throws CacheLoaderException, SQLException, IOException {
             InternalCacheValue icv = JdbcUtil.unmarshall(getMarshaller(), is);
@@ -271,6 +287,130 @@ public boolean removeLockSafe(Object key, String keyStr) throws CacheLoaderExcep
       }
    }
 
+   /**
+    * Updates the rows of the entries with JDBC batches, then inserts the rows that did not exist with another batch,
+    * instead of running a select and an update or insert statement for each entry.
+    */
+   @Override
+   protected void storeBatchLockSafe(List<InternalCacheEntry> entries, List<String> lockingKeys) throws CacheLoaderException {
+      Connection connection = null;
+      PreparedStatement ps = null;
+      try {
+         List<ByteBuffer> values = new ArrayList<ByteBuffer>(entries.size());
+         List<Integer> indexes = new ArrayList<Integer>(entries.size());
+         for (InternalCacheEntry ed : entries) {
+            indexes.add(values.size());
+            values.add(JdbcUtil.marshall(getMarshaller(), ed.toInternalCacheValue()));
+         }
+         connection = connectionFactory.getConnection();
+         String sql = tableManipulation.getUpdateRowSql();
+         if (log.isTraceEnabled()) {
+            log.tracef("Running sql '%s' on %d entries", sql, entries.size());
+         }
+         ps = connection.prepareStatement(sql);
+         int[] updateCounts = executeStoreBatch(ps, indexes, entries, lockingKeys, values);
+         JdbcUtil.safeClose(ps);
+         ps = null;
+
+         List<Integer> missing = new ArrayList<Integer>();
+         for (int i = 0; i < updateCounts.length; i++) {
+            // some drivers don't report the number of updated rows for batches
+            if (updateCounts[i] == 0 ||
+                  updateCounts[i] == Statement.SUCCESS_NO_INFO && !rowExists(connection, lockingKeys.get(i))) {
+               missing.add(i);
+            }
+         }
+         if (!missing.isEmpty()) {
+            sql = tableManipulation.getInsertRowSql();
+            if (log.isTraceEnabled()) {
+               log.tracef("Running sql '%s' on %d entries", sql, missing.size());
+            }
+            ps = connection.prepareStatement(sql);
+            executeStoreBatch(ps, missing, entries, lockingKeys, values);
+         }
+      } catch (SQLException ex) {
+         log.sqlFailureStoringKeys(ex);
+         throw new CacheLoaderException("SQL Error while storing string keys to database", ex);
+      } catch (InterruptedException e) {
+         if (log.isTraceEnabled()) {
+            log.trace("Interrupted while marshalling to store");
+         }
+         Thread.currentThread().interrupt();
+      } finally {
+         JdbcUtil.safeClose(ps);
+         connectionFactory.releaseConnection(connection);
+      }
+   }
+
+   /**
+    * Executes an update or insert statement for the entries at the given indexes, in batches of
+    * {@link TableManipulation#getBatchSize()} rows.
+    *
+    * @return the update counts of the entries, in the order of the indexes
+    */
+   private int[] executeStoreBatch(PreparedStatement ps, List<Integer> indexes, List<InternalCacheEntry> entries,
+                                   List<String> lockingKeys, List<ByteBuffer> values) throws SQLException {
+      int batchSize = tableManipulation.getBatchSize();
+      int[] updateCounts = new int[indexes.size()];
+      int executed = 0;
+      for (int j = 0; j < indexes.size(); j++) {
+         int i = indexes.get(j);
+         ByteBuffer byteBuffer = values.get(i);
+         ps.setBinaryStream(1, byteBuffer.getStream(), byteBuffer.getLength());
+         ps.setLong(2, entries.get(i).getExpiryTime());
+         ps.setString(3, lockingKeys.get(i));
+         ps.addBatch();
+         if ((j + 1) % batchSize == 0 || j == indexes.size() - 1) {
+            int[] batchCounts = ps.executeBatch();
+            System.arraycopy(batchCounts, 0, updateCounts, executed, batchCounts.length);
+            executed = j + 1;
+         }
+      }
+      return updateCounts;
+   }
+
+   private boolean rowExists(Connection connection, String lockingKey) throws SQLException {
+      PreparedStatement ps = null;
+      ResultSet rs = null;
+      try {
+         ps = connection.prepareStatement(tableManipulation.getSelectIdRowSql());
+         ps.setString(1, lockingKey);
+         rs = ps.executeQuery();
+         return rs.next();
+      } finally {
+         JdbcUtil.safeClose(rs);
+         JdbcUtil.safeClose(ps);
+      }
+   }
+
+   @Override
+   protected void removeAllLockSafe(List<Object> keys, List<String> lockingKeys) throws CacheLoaderException {
+      Connection connection = null;
+      PreparedStatement ps = null;
+      try {
+         String sql = tableManipulation.getDeleteRowSql();
+         if (log.isTraceEnabled()) {
+            log.tracef("Running sql '%s' on %d keys", sql, lockingKeys.size());
+         }
+         connection = connectionFactory.getConnection();
+         ps = connection.prepareStatement(sql);
+         int batchSize = tableManipulation.getBatchSize();
+         for (int i = 0; i < lockingKeys.size(); i++) {
+            ps.setString(1, lockingKeys.get(i));
+            ps.addBatch();
+            if ((i + 1) % batchSize == 0 || i == lockingKeys.size() - 1) {
+               ps.executeBatch();
+            }
+         }
+      } catch (SQLException ex) {
+         log.sqlFailureRemovingKeys(ex);
+         throw new CacheLoaderException("Error while removing string keys from database", ex);
+      } finally {
+         JdbcUtil.safeClose(ps);
+         connectionFactory.releaseConnection(connection);
+      }
+   }
+
    @Override
    public void fromStreamLockSafe(ObjectInput objectInput) throws CacheLoaderException {
       dmHelper.fromStreamSupport(objectInput);
@@ -291,6 +431,14 @@ protected Set<InternalCacheEntry> loadAllLockSafe() throws CacheLoaderException
       return dmHelper.loadAllSupport(true);
    }
 
+   /**
+    * {@inheritDoc} This implementation reads the rows with a single query and deserializes them on the executor.
+    */
+   @Override
+   public void process(KeyFilter filter, CacheLoaderTask task, Executor executor) throws CacheLoaderException {
+      dmHelper.processSupport(filter, new ParallelProcessor(task, executor), true);
+   }
+
    @Override
    protected Set<InternalCacheEntry> loadLockSafe(int maxEntries) throws CacheLoaderException {
       return dmHelper.loadSome(maxEntries);
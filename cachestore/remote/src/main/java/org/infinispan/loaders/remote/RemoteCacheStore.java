@@ -20,6 +20,7 @@
 import org.infinispan.loaders.remote.logging.Log;
 import org.infinispan.loaders.remote.wrapper.HotRodEntryMarshaller;
 import org.infinispan.loaders.spi.AbstractCacheStore;
+import org.infinispan.loaders.spi.ParallelProcessor;
 import org.infinispan.commons.api.BasicCacheContainer;
 import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.commons.marshall.StreamingMarshaller;
@@ -30,9 +31,15 @@
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -99,6 +106,50 @@ public void store(InternalCacheEntry entry) throws CacheLoaderException {
       remoteCache.put(entry.getKey(), configuration.rawValues() ? entry.getValue() : entry, toSeconds(entry.getLifespan(), entry, LIFESPAN), TimeUnit.SECONDS, toSeconds(entry.getMaxIdle(), entry, MAXIDLE), TimeUnit.SECONDS);
    }
 
+   /**
+    * Sends the writes of the batch concurrently, through the asynchronous operations of the Hot Rod client, and waits
+    * for all of them to complete.
+    */
+   @Override
+   public void storeBatch(Collection<InternalCacheEntry> entries) throws CacheLoaderException {
+      if (log.isTraceEnabled()) {
+         log.tracef("Adding batch of %d entries", entries.size());
+      }
+      List<Future<?>> futures = new ArrayList<Future<?>>(entries.size());
+      for (InternalCacheEntry entry : entries) {
+         futures.add(remoteCache.putAsync(entry.getKey(), configuration.rawValues() ? entry.getValue() : entry, toSeconds(entry.getLifespan(), entry, LIFESPAN), TimeUnit.SECONDS, toSeconds(entry.getMaxIdle(), entry, MAXIDLE), TimeUnit.SECONDS));
+      }
+      waitFor(futures);
+   }
+
+   /**
+    * Sends the removals concurrently, through the asynchronous operations of the Hot Rod client, and waits for all of
+    * them to complete.
+    */
+   @Override
+   public void removeAll(Set<Object> keys) throws CacheLoaderException {
+      List<Future<?>> futures = new ArrayList<Future<?>>(keys.size());
+      for (Object key : keys) {
+         futures.add(remoteCache.removeAsync(key));
+      }
+      waitFor(futures);
+   }
+
+   private void waitFor(List<Future<?>> futures) throws CacheLoaderException {
+      CacheLoaderException failure = null;
+      for (Future<?> future : futures) {
+         try {
+            future.get();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheLoaderException("Interrupted while waiting for the remote cache", e);
+         } catch (ExecutionException e) {
+            if (failure == null) failure = new CacheLoaderException(e.getCause());
+         }
+      }
+      if (failure != null) throw failure;
+   }
+
    @Override
    @SuppressWarnings("unchecked")
    public void fromStream(ObjectInput inputStream) throws CacheLoaderException {
@@ -145,6 +196,17 @@ public Set<InternalCacheEntry> load(int numEntries) throws CacheLoaderException
       return convertToInternalCacheEntries(remoteCache.getBulk(numEntries));
    }
 
+   /**
+    * {@inheritDoc} This implementation fetches the keys of the remote cache with a single bulk operation, then fetches
+    * the entries accepted by the filter in parallel on the executor.
+    */
+   @Override
+   public void process(KeyFilter filter, CacheLoaderTask task, Executor executor) throws CacheLoaderException {
+      ParallelProcessor processor = new ParallelProcessor(task, executor);
+      processor.submitKeys(this, remoteCache.keySet(), filter);
+      processor.awaitCompletion();
+   }
+
    @Override
    public Set<Object> loadAllKeys(Set<Object> keysToExclude) throws CacheLoaderException {
       log.sharedModeOnlyAllowed();
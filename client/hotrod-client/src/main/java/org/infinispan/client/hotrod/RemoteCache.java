@@ -27,7 +27,9 @@
  * <b>Synthetic operations</b>: aggregate operations are being implemented based on other Hot Rod operations. E.g. all
  * the {@link java.util.Map#putAll(java.util.Map)} is implemented through multiple individual puts. This means that the
  * these operations are not atomic and that they are costly, e.g. as the number of network round-trips is not one, but
- * the size of the added map. All these synthetic operations are documented as such.
+ * the size of the added map. All these synthetic operations are documented as such. With version 1.4 of the protocol,
+ * {@link java.util.Map#putAll(java.util.Map)} and {@link #getAll(java.util.Set)} send a single request per server
+ * instead, but they are still not atomic.
  * <p/>
  * <b>changing default behavior through {@link org.infinispan.client.hotrod.Flag}s</b>: it is possible to change the
  * default cache behaviour by using flags on an per invocation basis. E.g.
@@ -271,6 +273,17 @@
     */
    Map<K, V> getBulk(int size);
 
+   /**
+    * Retrieves the values of several keys at once. With version 1.4 of the protocol, the keys are grouped by the server
+    * owning them, and each group is read with a single request, all the requests being sent in parallel. With older
+    * versions, this is a synthetic operation reading the keys one by one.
+    *
+    * @param keys the keys whose associated values are to be returned
+    * @return an unmodifiable map with the value of each key found in the cache, without any mapping for the keys that
+    *         were not found
+    */
+   Map<K, V> getAll(Set<? extends K> keys);
+
 
    /**
     * Returns the HotRod protocol version supported by this RemoteCache implementation
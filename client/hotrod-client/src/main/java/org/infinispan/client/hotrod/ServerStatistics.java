@@ -59,6 +59,22 @@ public interface ServerStatistics {
     */
    String REMOVE_MISSES = "removeMisses";
 
+   /**
+    * Number of reads served by the client's near cache. Only present when the near cache is enabled, as the near cache
+    * statistics below.
+    */
+   String NEAR_CACHE_HITS = "nearCacheHits";
+
+   /**
+    * Number of reads the client's near cache could not serve, and which were sent to the server.
+    */
+   String NEAR_CACHE_MISSES = "nearCacheMisses";
+
+   /**
+    * Number of entries currently in the client's near cache.
+    */
+   String NEAR_CACHE_ENTRIES = "nearCacheEntries";
+
    Map<String, String> getStatsMap();
 
    String getStatistic(String statsName);
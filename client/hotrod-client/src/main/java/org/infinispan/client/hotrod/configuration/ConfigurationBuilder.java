@@ -39,6 +39,7 @@ public class ConfigurationBuilder implements ConfigurationChildBuilder, Builder<
    private int keySizeEstimate = ConfigurationProperties.DEFAULT_KEY_SIZE;
    private Class<? extends Marshaller> marshallerClass = GenericJBossMarshaller.class;
    private Marshaller marshaller;
+   private final NearCacheConfigurationBuilder nearCache;
    private boolean pingOnStartup = true;
    private String protocolVersion = ConfigurationProperties.DEFAULT_PROTOCOL_VERSION;
    private List<ServerConfigurationBuilder> servers = new ArrayList<ServerConfigurationBuilder>();
@@ -54,6 +55,7 @@ public ConfigurationBuilder() {
       this.connectionPool = new ConnectionPoolConfigurationBuilder(this);
       this.asyncExecutorFactory = new ExecutorFactoryConfigurationBuilder(this);
       this.ssl = new SslConfigurationBuilder(this);
+      this.nearCache = new NearCacheConfigurationBuilder(this);
    }
 
    @Override
@@ -156,6 +158,11 @@ public ConfigurationBuilder marshaller(Marshaller marshaller) {
       return this;
    }
 
+   @Override
+   public NearCacheConfigurationBuilder nearCache() {
+      return nearCache;
+   }
+
    @Override
    public ConfigurationBuilder pingOnStartup(boolean pingOnStartup) {
       this.pingOnStartup = pingOnStartup;
@@ -222,6 +229,7 @@ public ConfigurationBuilder withProperties(Properties properties) {
       if (typed.containsKey(ConfigurationProperties.MARSHALLER)) {
          this.marshaller(typed.getProperty(ConfigurationProperties.MARSHALLER));
       }
+      this.nearCache.withNearCacheProperties(typed);
       this.pingOnStartup(typed.getBooleanProperty(ConfigurationProperties.PING_ON_STARTUP, pingOnStartup));
       this.protocolVersion(typed.getProperty(ConfigurationProperties.PROTOCOL_VERSION, protocolVersion));
       this.servers.clear();
@@ -240,6 +248,7 @@ public void validate() {
       connectionPool.validate();
       asyncExecutorFactory.validate();
       ssl.validate();
+      nearCache.validate();
    }
 
    @Override
@@ -254,11 +263,11 @@ public Configuration create() {
       }
       if (marshaller == null) {
          return new Configuration(asyncExecutorFactory.create(), balancingStrategy, classLoader == null ? null : classLoader.get(), connectionPool.create(), connectionTimeout,
-               consistentHashImpl, forceReturnValues, keySizeEstimate, marshallerClass, pingOnStartup, protocolVersion, servers, socketTimeout, ssl.create(), tcpNoDelay, transportFactory,
+               consistentHashImpl, forceReturnValues, keySizeEstimate, marshallerClass, nearCache.create(), pingOnStartup, protocolVersion, servers, socketTimeout, ssl.create(), tcpNoDelay, transportFactory,
                valueSizeEstimate);
       } else {
          return new Configuration(asyncExecutorFactory.create(), balancingStrategy, classLoader == null ? null : classLoader.get(), connectionPool.create(), connectionTimeout,
-               consistentHashImpl, forceReturnValues, keySizeEstimate, marshaller, pingOnStartup, protocolVersion, servers, socketTimeout, ssl.create(), tcpNoDelay, transportFactory,
+               consistentHashImpl, forceReturnValues, keySizeEstimate, marshaller, nearCache.create(), pingOnStartup, protocolVersion, servers, socketTimeout, ssl.create(), tcpNoDelay, transportFactory,
                valueSizeEstimate);
       }
    }
@@ -289,6 +298,7 @@ public ConfigurationBuilder read(Configuration template) {
       this.keySizeEstimate = template.keySizeEstimate();
       this.marshaller = template.marshaller();
       this.marshallerClass = template.marshallerClass();
+      this.nearCache.read(template.nearCache());
       this.pingOnStartup = template.pingOnStartup();
       this.protocolVersion = template.protocolVersion();
       this.servers.clear();
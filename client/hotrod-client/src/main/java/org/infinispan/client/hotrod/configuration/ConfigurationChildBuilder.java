@@ -102,14 +102,20 @@ public interface ConfigurationChildBuilder {
     */
    ConfigurationBuilder marshaller(Marshaller marshaller);
 
+   /**
+    * Near cache configuration
+    */
+   NearCacheConfigurationBuilder nearCache();
+
    /**
     * If true, a ping request is sent to a back end server in order to fetch cluster's topology.
     */
    ConfigurationBuilder pingOnStartup(boolean pingOnStartup);
 
    /**
-    * This property defines the protocol version that this client should use. Defaults to 1.1. Other
-    * valid values include 1.0.
+    * This property defines the protocol version that this client should use. Defaults to 1.2. Other
+    * valid values include 1.0, 1.1 and 1.4. Version 1.4 lets getAll and putAll send a single request
+    * per server instead of one request per key, but it requires servers supporting it.
     */
    ConfigurationBuilder protocolVersion(String protocolVersion);
 
@@ -0,0 +1,35 @@
+package org.infinispan.client.hotrod.configuration;
+
+/**
+ * NearCacheConfiguration.
+ *
+ * @since 6.0
+ */
+public class NearCacheConfiguration {
+   private final boolean enabled;
+   private final int maxEntries;
+   private final long lifespan;
+
+   NearCacheConfiguration(boolean enabled, int maxEntries, long lifespan) {
+      this.enabled = enabled;
+      this.maxEntries = maxEntries;
+      this.lifespan = lifespan;
+   }
+
+   public boolean enabled() {
+      return enabled;
+   }
+
+   public int maxEntries() {
+      return maxEntries;
+   }
+
+   public long lifespan() {
+      return lifespan;
+   }
+
+   @Override
+   public String toString() {
+      return "NearCacheConfiguration [enabled=" + enabled + ", maxEntries=" + maxEntries + ", lifespan=" + lifespan + "]";
+   }
+}
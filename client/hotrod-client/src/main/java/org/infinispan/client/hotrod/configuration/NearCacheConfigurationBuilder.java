@@ -0,0 +1,100 @@
+package org.infinispan.client.hotrod.configuration;
+
+import org.infinispan.client.hotrod.impl.ConfigurationProperties;
+import org.infinispan.client.hotrod.impl.TypedProperties;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.configuration.Builder;
+
+/**
+ * Configures the near cache, which keeps the values recently read from the servers in the client, so that reading
+ * them again does not need a round trip to the server. Only the plain reads are served by the near cache: the reads
+ * returning the version or the metadata of an entry always go to the server.
+ *
+ * @since 6.0
+ */
+public class NearCacheConfigurationBuilder extends AbstractConfigurationChildBuilder implements Builder<NearCacheConfiguration> {
+   private static final Log log = LogFactory.getLog(NearCacheConfigurationBuilder.class, Log.class);
+   private boolean enabled = false;
+   private int maxEntries = ConfigurationProperties.DEFAULT_NEAR_CACHE_MAX_ENTRIES;
+   private long lifespan = ConfigurationProperties.DEFAULT_NEAR_CACHE_LIFESPAN;
+
+   protected NearCacheConfigurationBuilder(ConfigurationBuilder builder) {
+      super(builder);
+   }
+
+   /**
+    * Disables the near cache
+    */
+   public NearCacheConfigurationBuilder disable() {
+      this.enabled = false;
+      return this;
+   }
+
+   /**
+    * Enables the near cache
+    */
+   public NearCacheConfigurationBuilder enable() {
+      this.enabled = true;
+      return this;
+   }
+
+   /**
+    * Enables or disables the near cache
+    */
+   public NearCacheConfigurationBuilder enabled(boolean enabled) {
+      this.enabled = enabled;
+      return this;
+   }
+
+   /**
+    * Maximum number of entries kept by the near cache of each remote cache. The least recently used entries are
+    * evicted once it is reached. Defaults to 10000.
+    */
+   public NearCacheConfigurationBuilder maxEntries(int maxEntries) {
+      this.maxEntries = maxEntries;
+      return this;
+   }
+
+   /**
+    * Maximum time in milliseconds an entry is read from the near cache before it is read from the server again. This
+    * bounds how stale a value can be when it was modified by another client. Entries never outlive the expiration
+    * they have on the server. Defaults to 60000 (1 minute).
+    */
+   public NearCacheConfigurationBuilder lifespan(long lifespan) {
+      this.lifespan = lifespan;
+      return this;
+   }
+
+   public NearCacheConfigurationBuilder withNearCacheProperties(TypedProperties properties) {
+      this.enabled = properties.getBooleanProperty(ConfigurationProperties.NEAR_CACHE_ENABLED, enabled);
+      this.maxEntries = properties.getIntProperty(ConfigurationProperties.NEAR_CACHE_MAX_ENTRIES, maxEntries);
+      this.lifespan = properties.getLongProperty(ConfigurationProperties.NEAR_CACHE_LIFESPAN, lifespan);
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      if (enabled) {
+         if (maxEntries <= 0) {
+            throw log.invalidNearCacheMaxEntries(maxEntries);
+         }
+         if (lifespan <= 0) {
+            throw log.invalidNearCacheLifespan(lifespan);
+         }
+      }
+   }
+
+   @Override
+   public NearCacheConfiguration create() {
+      return new NearCacheConfiguration(enabled, maxEntries, lifespan);
+   }
+
+   @Override
+   public NearCacheConfigurationBuilder read(NearCacheConfiguration template) {
+      this.enabled = template.enabled();
+      this.maxEntries = template.maxEntries();
+      this.lifespan = template.lifespan();
+      return this;
+   }
+}
@@ -3,12 +3,15 @@
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -23,25 +26,31 @@
 import org.infinispan.client.hotrod.exceptions.HotRodClientException;
 import org.infinispan.client.hotrod.exceptions.RemoteCacheManagerNotStartedException;
 import org.infinispan.client.hotrod.impl.async.NotifyingFutureImpl;
+import org.infinispan.client.hotrod.impl.async.ResponseFuture;
+import org.infinispan.client.hotrod.impl.nearcache.NearCache;
 import org.infinispan.client.hotrod.impl.operations.BulkGetKeysOperation;
 import org.infinispan.client.hotrod.impl.operations.BulkGetOperation;
 import org.infinispan.client.hotrod.impl.operations.ClearOperation;
 import org.infinispan.client.hotrod.impl.operations.ContainsKeyOperation;
+import org.infinispan.client.hotrod.impl.operations.GetAllOperation;
 import org.infinispan.client.hotrod.impl.operations.GetOperation;
 import org.infinispan.client.hotrod.impl.operations.GetWithMetadataOperation;
 import org.infinispan.client.hotrod.impl.operations.GetWithVersionOperation;
 import org.infinispan.client.hotrod.impl.operations.OperationsFactory;
 import org.infinispan.client.hotrod.impl.operations.PingOperation;
+import org.infinispan.client.hotrod.impl.operations.PutAllOperation;
 import org.infinispan.client.hotrod.impl.operations.PutIfAbsentOperation;
 import org.infinispan.client.hotrod.impl.operations.PutOperation;
 import org.infinispan.client.hotrod.impl.operations.RemoveIfUnmodifiedOperation;
 import org.infinispan.client.hotrod.impl.operations.RemoveOperation;
 import org.infinispan.client.hotrod.impl.operations.ReplaceIfUnmodifiedOperation;
 import org.infinispan.client.hotrod.impl.operations.ReplaceOperation;
+import org.infinispan.client.hotrod.impl.operations.RetryOnFailureOperation;
 import org.infinispan.client.hotrod.impl.operations.StatsOperation;
 import org.infinispan.client.hotrod.logging.Log;
 import org.infinispan.client.hotrod.logging.LogFactory;
 import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.util.concurrent.FutureListener;
 import org.infinispan.commons.util.concurrent.NotifyingFuture;
 
 /**
@@ -59,6 +68,7 @@
    private OperationsFactory operationsFactory;
    private int estimateKeySize;
    private int estimateValueSize;
+   private NearCache nearCache;
 
 
    public RemoteCacheImpl(RemoteCacheManager rcm, String name) {
@@ -70,11 +80,17 @@ public RemoteCacheImpl(RemoteCacheManager rcm, String name) {
    }
 
    public void init(Marshaller marshaller, ExecutorService executorService, OperationsFactory operationsFactory, int estimateKeySize, int estimateValueSize) {
+      init(marshaller, executorService, operationsFactory, estimateKeySize, estimateValueSize, null);
+   }
+
+   public void init(Marshaller marshaller, ExecutorService executorService, OperationsFactory operationsFactory, int estimateKeySize, int estimateValueSize,
+         NearCache nearCache) {
       this.marshaller = marshaller;
       this.executorService = executorService;
       this.operationsFactory = operationsFactory;
       this.estimateKeySize = estimateKeySize;
       this.estimateValueSize = estimateValueSize;
+      this.nearCache = nearCache;
    }
 
    @Override
@@ -85,49 +101,43 @@ public RemoteCacheManager getRemoteCacheManager() {
    @Override
    public boolean removeWithVersion(K key, long version) {
       assertRemoteCacheManagerIsStarted();
-      RemoveIfUnmodifiedOperation op = operationsFactory.newRemoveIfUnmodifiedOperation(obj2bytes(key, true), version);
-      VersionedOperationResponse response = op.execute();
-      return response.getCode().isUpdated();
+      byte[] keyBytes = obj2bytes(key, true);
+      RemoveIfUnmodifiedOperation op = operationsFactory.newRemoveIfUnmodifiedOperation(keyBytes, version);
+      try {
+         VersionedOperationResponse response = op.execute();
+         return response.getCode().isUpdated();
+      } finally {
+         invalidateNearCache(keyBytes);
+      }
    }
 
    @Override
    public NotifyingFuture<Boolean> removeWithVersionAsync(final K key, final long version) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<Boolean> result = new NotifyingFutureImpl<Boolean>();
-      Future<Boolean> future = executorService.submit(new Callable<Boolean>() {
-         @Override
-         public Boolean call() throws Exception {
-            boolean removed = removeWithVersion(key, version);
-            result.notifyFutureCompletion();
-            return removed;
-         }
-      });
-      result.setExecuting(future);
-      return result;
+      byte[] keyBytes = obj2bytes(key, true);
+      RemoveIfUnmodifiedOperation op = operationsFactory.newRemoveIfUnmodifiedOperation(keyBytes, version);
+      return isUpdatedAsync(invalidateNearCacheAsync(keyBytes, op.executeAsync(executorService)));
    }
 
    @Override
    public boolean replaceWithVersion(K key, V newValue, long version, int lifespanSeconds, int maxIdleTimeSeconds) {
       assertRemoteCacheManagerIsStarted();
-      ReplaceIfUnmodifiedOperation op = operationsFactory.newReplaceIfUnmodifiedOperation(obj2bytes(key, true), obj2bytes(newValue, false), lifespanSeconds, maxIdleTimeSeconds, version);
-      VersionedOperationResponse response = op.execute();
-      return response.getCode().isUpdated();
+      byte[] keyBytes = obj2bytes(key, true);
+      ReplaceIfUnmodifiedOperation op = operationsFactory.newReplaceIfUnmodifiedOperation(keyBytes, obj2bytes(newValue, false), lifespanSeconds, maxIdleTimeSeconds, version);
+      try {
+         VersionedOperationResponse response = op.execute();
+         return response.getCode().isUpdated();
+      } finally {
+         invalidateNearCache(keyBytes);
+      }
    }
 
    @Override
    public NotifyingFuture<Boolean> replaceWithVersionAsync(final K key, final V newValue, final long version, final int lifespanSeconds, final int maxIdleSeconds) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<Boolean> result = new NotifyingFutureImpl<Boolean>();
-      Future<Boolean> future = executorService.submit(new Callable<Boolean>() {
-         @Override
-         public Boolean call() throws Exception {
-            boolean removed = replaceWithVersion(key, newValue, version, lifespanSeconds, maxIdleSeconds);
-            result.notifyFutureCompletion();
-            return removed;
-         }
-      });
-      result.setExecuting(future);
-      return result;
+      byte[] keyBytes = obj2bytes(key, true);
+      ReplaceIfUnmodifiedOperation op = operationsFactory.newReplaceIfUnmodifiedOperation(keyBytes, obj2bytes(newValue, false), lifespanSeconds, maxIdleSeconds, version);
+      return isUpdatedAsync(invalidateNearCacheAsync(keyBytes, op.executeAsync(executorService)));
    }
 
    @Override
@@ -141,16 +151,63 @@ public VersionedValue<V> getVersioned(K key) {
    @Override
    public MetadataValue<V> getWithMetadata(K key) {
       assertRemoteCacheManagerIsStarted();
-      GetWithMetadataOperation op = operationsFactory.newGetWithMetadataOperation(obj2bytes(key, true));
+      return binary2MetadataValue(readWithMetadata(obj2bytes(key, true)));
+   }
+
+   /**
+    * Reads the entry from the server, caching its value in the near cache if enabled.
+    */
+   private MetadataValue<byte[]> readWithMetadata(byte[] keyBytes) {
+      long stamp = nearCache != null ? nearCache.beginRead(keyBytes) : 0;
+      GetWithMetadataOperation op = operationsFactory.newGetWithMetadataOperation(keyBytes);
       MetadataValue<byte[]> value = op.execute();
-      return binary2MetadataValue(value);
+      if (value != null && nearCache != null) {
+         nearCache.put(keyBytes, value, stamp);
+      }
+      return value;
+   }
+
+   /**
+    * Reads the value from the near cache, or from the server if it is not cached, caching it.
+    */
+   private byte[] getCached(byte[] keyBytes) {
+      byte[] bytes = nearCache.get(keyBytes);
+      if (bytes == null) {
+         MetadataValue<byte[]> value = readWithMetadata(keyBytes);
+         bytes = value == null ? null : value.getValue();
+      }
+      return bytes;
    }
 
    @Override
    public void putAll(Map<? extends K, ? extends V> map, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       assertRemoteCacheManagerIsStarted();
+      if (!operationsFactory.isBulkOperationSupported()) {
+         for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue(), lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+         }
+         return;
+      }
+      if (map.isEmpty()) {
+         return;
+      }
+      Map<byte[], byte[]> entries = new HashMap<byte[], byte[]>(map.size() * 4 / 3 + 1);
       for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
-         put(entry.getKey(), entry.getValue(), lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+         entries.put(obj2bytes(entry.getKey(), true), obj2bytes(entry.getValue(), false));
+      }
+      int lifespanSecs = toSeconds(lifespan, lifespanUnit);
+      int maxIdleSecs = toSeconds(maxIdleTime, maxIdleTimeUnit);
+      applyDefaultExpirationFlags(lifespan, maxIdleTime);
+      if (log.isTraceEnabled()) {
+         log.tracef("About to add %d entries, lifespanSecs:%d, maxIdleSecs:%d", entries.size(), lifespanSecs, maxIdleSecs);
+      }
+      List<PutAllOperation> ops = operationsFactory.newPutAllOperations(entries, lifespanSecs, maxIdleSecs);
+      try {
+         executeAll(ops);
+      } finally {
+         for (byte[] keyBytes : entries.keySet()) {
+            invalidateNearCache(keyBytes);
+         }
       }
    }
 
@@ -192,6 +249,11 @@ public ServerStatistics stats() {
       for (Map.Entry<String, String> entry : statsMap.entrySet()) {
          stats.addStats(entry.getKey(), entry.getValue());
       }
+      if (nearCache != null) {
+         stats.addStats(ServerStatistics.NEAR_CACHE_HITS, String.valueOf(nearCache.getHits()));
+         stats.addStats(ServerStatistics.NEAR_CACHE_MISSES, String.valueOf(nearCache.getMisses()));
+         stats.addStats(ServerStatistics.NEAR_CACHE_ENTRIES, String.valueOf(nearCache.size()));
+      }
       return stats;
    }
 
@@ -199,15 +261,24 @@ public ServerStatistics stats() {
    @SuppressWarnings("unchecked")
    public V put(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       assertRemoteCacheManagerIsStarted();
+      byte[] keyBytes = obj2bytes(key, true);
+      PutOperation op = newPutOperation(keyBytes, key, value, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+      try {
+         byte[] result = op.execute();
+         return (V) bytes2obj(result);
+      } finally {
+         invalidateNearCache(keyBytes);
+      }
+   }
+
+   private PutOperation newPutOperation(byte[] keyBytes, K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       int lifespanSecs = toSeconds(lifespan, lifespanUnit);
       int maxIdleSecs = toSeconds(maxIdleTime, maxIdleTimeUnit);
       applyDefaultExpirationFlags(lifespan, maxIdleTime);
       if (log.isTraceEnabled()) {
          log.tracef("About to add (K,V): (%s, %s) lifespanSecs:%d, maxIdleSecs:%d", key, value, lifespanSecs, maxIdleSecs);
       }
-      PutOperation op = operationsFactory.newPutKeyValueOperation(obj2bytes(key, true), obj2bytes(value, false), lifespanSecs, maxIdleSecs);
-      byte[] result = op.execute();
-      return (V) bytes2obj(result);
+      return operationsFactory.newPutKeyValueOperation(keyBytes, obj2bytes(value, false), lifespanSecs, maxIdleSecs);
    }
 
 
@@ -215,104 +286,81 @@ public V put(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleT
    @SuppressWarnings("unchecked")
    public V putIfAbsent(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       assertRemoteCacheManagerIsStarted();
+      byte[] keyBytes = obj2bytes(key, true);
+      PutIfAbsentOperation op = newPutIfAbsentOperation(keyBytes, value, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+      try {
+         byte[] bytes = op.execute();
+         return (V) bytes2obj(bytes);
+      } finally {
+         invalidateNearCache(keyBytes);
+      }
+   }
+
+   private PutIfAbsentOperation newPutIfAbsentOperation(byte[] keyBytes, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       int lifespanSecs = toSeconds(lifespan, lifespanUnit);
       int maxIdleSecs = toSeconds(maxIdleTime, maxIdleTimeUnit);
       applyDefaultExpirationFlags(lifespan, maxIdleTime);
-      PutIfAbsentOperation op = operationsFactory.newPutIfAbsentOperation(obj2bytes(key, true), obj2bytes(value, false), lifespanSecs, maxIdleSecs);
-      byte[] bytes = op.execute();
-      return (V) bytes2obj(bytes);
+      return operationsFactory.newPutIfAbsentOperation(keyBytes, obj2bytes(value, false), lifespanSecs, maxIdleSecs);
    }
 
    @Override
    @SuppressWarnings("unchecked")
    public V replace(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       assertRemoteCacheManagerIsStarted();
+      byte[] keyBytes = obj2bytes(key, true);
+      ReplaceOperation op = newReplaceOperation(keyBytes, value, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+      try {
+         byte[] bytes = op.execute();
+         return (V) bytes2obj(bytes);
+      } finally {
+         invalidateNearCache(keyBytes);
+      }
+   }
+
+   private ReplaceOperation newReplaceOperation(byte[] keyBytes, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       int lifespanSecs = toSeconds(lifespan, lifespanUnit);
       int maxIdleSecs = toSeconds(maxIdleTime, maxIdleTimeUnit);
       applyDefaultExpirationFlags(lifespan, maxIdleTime);
-      ReplaceOperation op = operationsFactory.newReplaceOperation(obj2bytes(key, true), obj2bytes(value, false), lifespanSecs, maxIdleSecs);
-      byte[] bytes = op.execute();
-      return (V) bytes2obj(bytes);
+      return operationsFactory.newReplaceOperation(keyBytes, obj2bytes(value, false), lifespanSecs, maxIdleSecs);
    }
 
    @Override
    public NotifyingFuture<V> putAsync(final K key, final V value, final long lifespan, final TimeUnit lifespanUnit, final long maxIdle, final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
-      Future<V> future = executorService.submit(new Callable<V>() {
-         @Override
-         public V call() throws Exception {
-            V prevValue = put(key, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit);
-            result.notifyFutureCompletion();
-            return prevValue;
-         }
-      });
-      result.setExecuting(future);
-      return result;
+      byte[] keyBytes = obj2bytes(key, true);
+      PutOperation op = newPutOperation(keyBytes, key, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit);
+      return unmarshallAsync(invalidateNearCacheAsync(keyBytes, op.executeAsync(executorService)));
    }
 
    @Override
    public NotifyingFuture<Void> clearAsync() {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<Void> result = new NotifyingFutureImpl<Void>();
-      Future<Void> future = executorService.submit(new Callable<Void>() {
-         @Override
-         public Void call() throws Exception {
-            clear();
-            result.notifyFutureCompletion();
-            return null;
-         }
-      });
-      result.setExecuting(future);
-      return result;
+      ClearOperation op = operationsFactory.newClearOperation();
+      return clearNearCacheAsync(op.executeAsync(executorService));
    }
 
    @Override
    public NotifyingFuture<V> putIfAbsentAsync(final K key,final V value,final long lifespan,final TimeUnit lifespanUnit,final long maxIdle,final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
-      Future<V> future = executorService.submit(new Callable<V>() {
-         @Override
-         public V call() throws Exception {
-            V prevValue = putIfAbsent(key, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit);
-            result.notifyFutureCompletion();
-            return prevValue;
-         }
-      });
-      result.setExecuting(future);
-      return result;
+      byte[] keyBytes = obj2bytes(key, true);
+      PutIfAbsentOperation op = newPutIfAbsentOperation(keyBytes, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit);
+      return unmarshallAsync(invalidateNearCacheAsync(keyBytes, op.executeAsync(executorService)));
    }
 
    @Override
    public NotifyingFuture<V> removeAsync(final Object key) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
-      Future<V> future = executorService.submit(new Callable<V>() {
-         @Override
-         public V call() throws Exception {
-            V toReturn = remove(key);
-            result.notifyFutureCompletion();
-            return toReturn;
-         }
-      });
-      result.setExecuting(future);
-      return result;
+      byte[] keyBytes = obj2bytes(key, true);
+      RemoveOperation op = operationsFactory.newRemoveOperation(keyBytes);
+      return unmarshallAsync(invalidateNearCacheAsync(keyBytes, op.executeAsync(executorService)));
    }
 
    @Override
    public NotifyingFuture<V> replaceAsync(final K key,final V value,final long lifespan,final TimeUnit lifespanUnit,final long maxIdle,final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
-      Future<V> future = executorService.submit(new Callable<V>() {
-         @Override
-         public V call() throws Exception {
-            V v = replace(key, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit);
-            result.notifyFutureCompletion();
-            return v;
-         }
-      });
-      result.setExecuting(future);
-      return result;
+      byte[] keyBytes = obj2bytes(key, true);
+      ReplaceOperation op = newReplaceOperation(keyBytes, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit);
+      return unmarshallAsync(invalidateNearCacheAsync(keyBytes, op.executeAsync(executorService)));
    }
 
    @Override
@@ -327,8 +375,13 @@ public boolean containsKey(Object key) {
    public V get(Object key) {
       assertRemoteCacheManagerIsStarted();
       byte[] keyBytes = obj2bytes(key, true);
-      GetOperation gco = operationsFactory.newGetKeyOperation(keyBytes);
-      byte[] bytes = gco.execute();
+      byte[] bytes;
+      if (nearCache != null) {
+         bytes = getCached(keyBytes);
+      } else {
+         GetOperation gco = operationsFactory.newGetKeyOperation(keyBytes);
+         bytes = gco.execute();
+      }
       V result = (V) bytes2obj(bytes);
       if (log.isTraceEnabled()) {
          log.tracef("For key(%s) returning %s", key, result);
@@ -356,22 +409,100 @@ public Map<K, V> getBulk(int size) {
       return Collections.unmodifiableMap(toReturn);
    }
 
+   @Override
+   @SuppressWarnings("unchecked")
+   public Map<K, V> getAll(Set<? extends K> keys) {
+      assertRemoteCacheManagerIsStarted();
+      Map<K, V> toReturn = new HashMap<K, V>();
+      List<byte[]> toRead = new ArrayList<byte[]>(keys.size());
+      for (K key : keys) {
+         byte[] keyBytes = obj2bytes(key, true);
+         byte[] cached = nearCache != null ? nearCache.get(keyBytes) : null;
+         if (cached != null) {
+            toReturn.put(key, (V) bytes2obj(cached));
+         } else {
+            toRead.add(keyBytes);
+         }
+      }
+      if (!toRead.isEmpty() && !operationsFactory.isBulkOperationSupported()) {
+         for (byte[] keyBytes : toRead) {
+            byte[] bytes;
+            if (nearCache != null) {
+               bytes = getCached(keyBytes);
+            } else {
+               bytes = operationsFactory.newGetKeyOperation(keyBytes).execute();
+            }
+            if (bytes != null) {
+               toReturn.put((K) bytes2obj(keyBytes), (V) bytes2obj(bytes));
+            }
+         }
+      } else if (!toRead.isEmpty()) {
+         List<GetAllOperation> ops = operationsFactory.newGetAllOperations(toRead);
+         for (Map<byte[], byte[]> result : executeAll(ops)) {
+            for (Map.Entry<byte[], byte[]> entry : result.entrySet()) {
+               toReturn.put((K) bytes2obj(entry.getKey()), (V) bytes2obj(entry.getValue()));
+            }
+         }
+      }
+      return Collections.unmodifiableMap(toReturn);
+   }
+
+   /**
+    * Executes the given operations in parallel, the last one in the calling thread, and returns their results once all
+    * of them have completed.
+    */
+   private <T> List<T> executeAll(List<? extends RetryOnFailureOperation<T>> ops) {
+      List<NotifyingFuture<T>> futures = new ArrayList<NotifyingFuture<T>>(ops.size() - 1);
+      for (int i = 0; i < ops.size() - 1; i++) {
+         futures.add(ops.get(i).executeAsync(executorService));
+      }
+      T last = ops.get(ops.size() - 1).execute();
+      List<T> results = new ArrayList<T>(ops.size());
+      for (NotifyingFuture<T> future : futures) {
+         try {
+            results.add(future.get());
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HotRodClientException("Interrupted while waiting for the response of " + name, e);
+         } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof HotRodClientException) {
+               throw (HotRodClientException) cause;
+            }
+            throw new HotRodClientException(cause);
+         }
+      }
+      results.add(last);
+      return results;
+   }
+
    @Override
    @SuppressWarnings("unchecked")
    public V remove(Object key) {
       assertRemoteCacheManagerIsStarted();
-      RemoveOperation removeOperation = operationsFactory.newRemoveOperation(obj2bytes(key, true));
-      byte[] existingValue = removeOperation.execute();
-      // TODO: It sucks that you need the prev value to see if it works...
-      // We need to find a better API for RemoteCache...
-      return (V) bytes2obj(existingValue);
+      byte[] keyBytes = obj2bytes(key, true);
+      RemoveOperation removeOperation = operationsFactory.newRemoveOperation(keyBytes);
+      try {
+         byte[] existingValue = removeOperation.execute();
+         // TODO: It sucks that you need the prev value to see if it works...
+         // We need to find a better API for RemoteCache...
+         return (V) bytes2obj(existingValue);
+      } finally {
+         invalidateNearCache(keyBytes);
+      }
    }
 
    @Override
    public void clear() {
       assertRemoteCacheManagerIsStarted();
       ClearOperation op = operationsFactory.newClearOperation() ;
-      op.execute();
+      try {
+         op.execute();
+      } finally {
+         if (nearCache != null) {
+            nearCache.clear();
+         }
+      }
    }
 
    @Override
@@ -410,19 +541,20 @@ public RemoteCache<K, V> withFlags(Flag... flags) {
    }
 
    @Override
+   @SuppressWarnings("unchecked")
    public NotifyingFuture<V> getAsync(final K key) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
-      Future<V> future = executorService.submit(new Callable<V>() {
-         @Override
-         public V call() throws Exception {
-            V toReturn = get(key);
-            result.notifyFutureCompletion();
-            return toReturn;
+      byte[] keyBytes = obj2bytes(key, true);
+      if (nearCache != null) {
+         byte[] cached = nearCache.get(keyBytes);
+         if (cached != null) {
+            ResponseFuture<V> result = new ResponseFuture<V>();
+            result.complete((V) bytes2obj(cached));
+            return result;
          }
-      });
-      result.setExecuting(future);
-      return result;
+      }
+      GetOperation op = operationsFactory.newGetKeyOperation(keyBytes);
+      return unmarshallAsync(op.executeAsync(executorService));
    }
 
    public PingOperation.PingResult ping() {
@@ -451,6 +583,79 @@ private Object bytes2obj(byte[] bytes) {
       }
    }
 
+   /**
+    * Returns a future completed with the unmarshalled value of the given future, once the latter completes.
+    */
+   private NotifyingFuture<V> unmarshallAsync(NotifyingFuture<byte[]> future) {
+      ConvertingListener<byte[], V> listener = new ConvertingListener<byte[], V>() {
+         @Override
+         @SuppressWarnings("unchecked")
+         V convert(byte[] bytes) {
+            return (V) bytes2obj(bytes);
+         }
+      };
+      future.attachListener(listener);
+      return listener.result;
+   }
+
+   private void invalidateNearCache(byte[] keyBytes) {
+      if (nearCache != null) {
+         nearCache.invalidate(keyBytes);
+      }
+   }
+
+   /**
+    * Invalidates the key in the near cache once the given write completes, before the caller is notified.
+    */
+   private <T> NotifyingFuture<T> invalidateNearCacheAsync(final byte[] keyBytes, NotifyingFuture<T> future) {
+      if (nearCache == null) {
+         return future;
+      }
+      ConvertingListener<T, T> listener = new ConvertingListener<T, T>() {
+         @Override
+         T convert(T result) {
+            return result;
+         }
+
+         @Override
+         void beforeConvert() {
+            nearCache.invalidate(keyBytes);
+         }
+      };
+      future.attachListener(listener);
+      return listener.result;
+   }
+
+   private NotifyingFuture<Void> clearNearCacheAsync(NotifyingFuture<Void> future) {
+      if (nearCache == null) {
+         return future;
+      }
+      ConvertingListener<Void, Void> listener = new ConvertingListener<Void, Void>() {
+         @Override
+         Void convert(Void result) {
+            return result;
+         }
+
+         @Override
+         void beforeConvert() {
+            nearCache.clear();
+         }
+      };
+      future.attachListener(listener);
+      return listener.result;
+   }
+
+   private NotifyingFuture<Boolean> isUpdatedAsync(NotifyingFuture<VersionedOperationResponse> future) {
+      ConvertingListener<VersionedOperationResponse, Boolean> listener = new ConvertingListener<VersionedOperationResponse, Boolean>() {
+         @Override
+         Boolean convert(VersionedOperationResponse response) {
+            return response.getCode().isUpdated();
+         }
+      };
+      future.attachListener(listener);
+      return listener.result;
+   }
+
    @SuppressWarnings("unchecked")
    private VersionedValue<V> binary2VersionedValue(VersionedValue<byte[]> value) {
       if (value == null)
@@ -498,6 +703,27 @@ private void applyDefaultExpirationFlags(long lifespan, long maxIdle) {
       }
    }
 
+   private abstract static class ConvertingListener<S, T> implements FutureListener<S> {
+      final ResponseFuture<T> result = new ResponseFuture<T>();
+
+      abstract T convert(S source);
+
+      void beforeConvert() {
+      }
+
+      @Override
+      public void futureDone(Future<S> future) {
+         try {
+            beforeConvert();
+            result.complete(convert(future.get()));
+         } catch (ExecutionException e) {
+            result.completeExceptionally(e.getCause());
+         } catch (Throwable t) {
+            result.completeExceptionally(t);
+         }
+      }
+   }
+
    @Override
    public Set<K> keySet() {
 	   assertRemoteCacheManagerIsStarted();
@@ -0,0 +1,122 @@
+package org.infinispan.client.hotrod.impl.async;
+
+import org.infinispan.commons.util.concurrent.FutureListener;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Notifying future that is completed explicitly, typically by the transport once the response to a request has been
+ * received. Listeners are notified exactly once, including the ones attached after the future has completed.
+ *
+ * @since 6.0
+ */
+public class ResponseFuture<T> implements NotifyingFuture<T> {
+
+   private static final Runnable NO_OP = new Runnable() {
+      @Override
+      public void run() {
+      }
+   };
+
+   private final Completion completion = new Completion();
+   private List<FutureListener<T>> listeners;
+   private boolean notified;
+
+   /**
+    * Completes the future with the given value, unless it was completed already.
+    */
+   public void complete(T value) {
+      completion.set(value);
+   }
+
+   /**
+    * Completes the future with the given failure, unless it was completed already.
+    */
+   public void completeExceptionally(Throwable throwable) {
+      completion.setException(throwable);
+   }
+
+   @Override
+   public NotifyingFuture<T> attachListener(FutureListener<T> futureListener) {
+      boolean notifyNow;
+      synchronized (this) {
+         notifyNow = notified;
+         if (!notifyNow) {
+            if (listeners == null) {
+               listeners = new ArrayList<FutureListener<T>>(2);
+            }
+            listeners.add(futureListener);
+         }
+      }
+      if (notifyNow) {
+         futureListener.futureDone(this);
+      }
+      return this;
+   }
+
+   private void notifyFutureCompletion() {
+      List<FutureListener<T>> toNotify;
+      synchronized (this) {
+         notified = true;
+         toNotify = listeners;
+         listeners = null;
+      }
+      if (toNotify != null) {
+         for (FutureListener<T> listener : toNotify) {
+            listener.futureDone(this);
+         }
+      }
+   }
+
+   @Override
+   public boolean cancel(boolean mayInterruptIfRunning) {
+      return completion.cancel(mayInterruptIfRunning);
+   }
+
+   @Override
+   public boolean isCancelled() {
+      return completion.isCancelled();
+   }
+
+   @Override
+   public boolean isDone() {
+      return completion.isDone();
+   }
+
+   @Override
+   public T get() throws InterruptedException, ExecutionException {
+      return completion.get();
+   }
+
+   @Override
+   public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+      return completion.get(timeout, unit);
+   }
+
+   private class Completion extends FutureTask<T> {
+      Completion() {
+         super(NO_OP, null);
+      }
+
+      @Override
+      protected void set(T value) {
+         super.set(value);
+      }
+
+      @Override
+      protected void setException(Throwable throwable) {
+         super.setException(throwable);
+      }
+
+      @Override
+      protected void done() {
+         notifyFutureCompletion();
+      }
+   }
+}
@@ -0,0 +1,211 @@
+package org.infinispan.client.hotrod.impl.nearcache;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.jcip.annotations.ThreadSafe;
+
+import org.infinispan.client.hotrod.MetadataValue;
+import org.infinispan.client.hotrod.configuration.NearCacheConfiguration;
+
+/**
+ * Bounded cache of the values recently read from the servers, keyed by the marshalled key and holding the marshalled
+ * value.
+ * <p/>
+ * The near cache is bounded by lifespan only: entries are never revalidated against the server, they are read from
+ * the near cache until the configured {@link NearCacheConfiguration#lifespan()} elapses, or until they would have
+ * expired on the server, whichever comes first. Writes performed through the client invalidate the entries they
+ * modify; modifications performed by other clients become visible once the entry expires. Versions are not cached,
+ * since a stale version would only make the conditional writes based on it fail.
+ * <p/>
+ * The entries are split in segments, each one evicting its least recently used entries independently. A read that
+ * started before an invalidation of its segment does not populate the near cache, so a value read concurrently with a
+ * write is never installed after the write invalidated the key.
+ *
+ * @since 6.0
+ */
+@ThreadSafe
+public class NearCache {
+
+   private static final int MAX_SEGMENTS = 16;
+
+   private final Segment[] segments;
+   private final long lifespan;
+   private final AtomicLong hits = new AtomicLong();
+   private final AtomicLong misses = new AtomicLong();
+
+   public NearCache(NearCacheConfiguration configuration) {
+      this(configuration.maxEntries(), configuration.lifespan());
+   }
+
+   public NearCache(int maxEntries, long lifespan) {
+      int numSegments = 1;
+      while (numSegments < MAX_SEGMENTS && numSegments * 2 * 64 <= maxEntries) {
+         numSegments *= 2;
+      }
+      int segmentCapacity = (maxEntries + numSegments - 1) / numSegments;
+      this.segments = new Segment[numSegments];
+      for (int i = 0; i < numSegments; i++) {
+         segments[i] = new Segment(segmentCapacity);
+      }
+      this.lifespan = lifespan;
+   }
+
+   /**
+    * Returns the value cached for the given key, or {@code null} if it is not cached or has expired.
+    */
+   public byte[] get(byte[] key) {
+      Key k = new Key(key);
+      byte[] value = segmentFor(k).get(k, System.currentTimeMillis());
+      if (value != null) {
+         hits.incrementAndGet();
+      } else {
+         misses.incrementAndGet();
+      }
+      return value;
+   }
+
+   /**
+    * Must be invoked before reading the entry from the server, and the stamp returned passed to
+    * {@link #put(byte[], MetadataValue, long)}.
+    */
+   public long beginRead(byte[] key) {
+      return segmentFor(new Key(key)).stamp();
+   }
+
+   /**
+    * Caches the value of the entry read from the server, unless the key's segment was invalidated since the read began.
+    * The expiration metadata of the entry bounds how long the value is cached.
+    */
+   public void put(byte[] key, MetadataValue<byte[]> value, long stamp) {
+      long now = System.currentTimeMillis();
+      long expiry = now + lifespan;
+      if (value.getLifespan() >= 0 && value.getCreated() >= 0) {
+         expiry = Math.min(expiry, value.getCreated() + TimeUnit.SECONDS.toMillis(value.getLifespan()));
+      }
+      if (value.getMaxIdle() >= 0) {
+         expiry = Math.min(expiry, now + TimeUnit.SECONDS.toMillis(value.getMaxIdle()));
+      }
+      if (expiry > now) {
+         Key k = new Key(key);
+         segmentFor(k).put(k, new Entry(value.getValue(), expiry), stamp);
+      }
+   }
+
+   public void invalidate(byte[] key) {
+      Key k = new Key(key);
+      segmentFor(k).invalidate(k);
+   }
+
+   public void clear() {
+      for (Segment segment : segments) {
+         segment.clear();
+      }
+   }
+
+   public long getHits() {
+      return hits.get();
+   }
+
+   public long getMisses() {
+      return misses.get();
+   }
+
+   public int size() {
+      int size = 0;
+      for (Segment segment : segments) {
+         size += segment.size();
+      }
+      return size;
+   }
+
+   private Segment segmentFor(Key key) {
+      int h = key.hashCode;
+      h ^= (h >>> 20) ^ (h >>> 12);
+      h ^= (h >>> 7) ^ (h >>> 4);
+      return segments[h & (segments.length - 1)];
+   }
+
+   private static final class Key {
+      final byte[] bytes;
+      final int hashCode;
+
+      Key(byte[] bytes) {
+         this.bytes = bytes;
+         this.hashCode = Arrays.hashCode(bytes);
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         return o instanceof Key && Arrays.equals(bytes, ((Key) o).bytes);
+      }
+
+      @Override
+      public int hashCode() {
+         return hashCode;
+      }
+   }
+
+   private static final class Entry {
+      final byte[] value;
+      final long expiry;
+
+      Entry(byte[] value, long expiry) {
+         this.value = value;
+         this.expiry = expiry;
+      }
+   }
+
+   private static final class Segment {
+      private final LinkedHashMap<Key, Entry> entries;
+      private long stamp;
+
+      Segment(final int capacity) {
+         this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+               return size() > capacity;
+            }
+         };
+      }
+
+      synchronized byte[] get(Key key, long now) {
+         Entry entry = entries.get(key);
+         if (entry == null) {
+            return null;
+         }
+         if (entry.expiry <= now) {
+            entries.remove(key);
+            return null;
+         }
+         return entry.value;
+      }
+
+      synchronized long stamp() {
+         return stamp;
+      }
+
+      synchronized void put(Key key, Entry entry, long readStamp) {
+         if (readStamp == stamp) {
+            entries.put(key, entry);
+         }
+      }
+
+      synchronized void invalidate(Key key) {
+         stamp++;
+         entries.remove(key);
+      }
+
+      synchronized void clear() {
+         stamp++;
+         entries.clear();
+      }
+
+      synchronized int size() {
+         return entries.size();
+      }
+   }
+}
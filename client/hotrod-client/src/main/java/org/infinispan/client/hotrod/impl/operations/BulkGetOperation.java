@@ -31,10 +31,14 @@ protected Transport getTransport(int retryCount) {
    }
 
    @Override
-   protected Map<byte[], byte[]> executeOperation(Transport transport) {
+   protected HeaderParams writeRequest(Transport transport) {
       HeaderParams params = writeHeader(transport, BULK_GET_REQUEST);
       transport.writeVInt(entryCount);
-      transport.flush();
+      return params;
+   }
+
+   @Override
+   protected Map<byte[], byte[]> readResponse(Transport transport, HeaderParams params) {
       readHeaderAndValidate(transport, params);
       Map<byte[], byte[]> result = new HashMap<byte[], byte[]>();
       while ( transport.readByte() == 1) { //there's more!
@@ -2,6 +2,7 @@
 
 import org.infinispan.client.hotrod.Flag;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
 
@@ -26,8 +27,13 @@ protected Transport getTransport(int retryCount) {
    }
 
    @Override
-   protected PingOperation.PingResult executeOperation(Transport transport) {
-      return new PingOperation(codec, topologyId, transport, cacheName).execute();
+   protected HeaderParams writeRequest(Transport transport) {
+      return writeHeader(transport, PING_REQUEST);
+   }
+
+   @Override
+   protected PingOperation.PingResult readResponse(Transport transport, HeaderParams params) {
+      return new PingOperation(codec, topologyId, transport, cacheName).readResponse(params);
    }
 
 }
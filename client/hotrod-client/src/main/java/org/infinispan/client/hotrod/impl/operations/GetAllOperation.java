@@ -0,0 +1,63 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.jcip.annotations.Immutable;
+
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+
+/**
+ * Reads the values of several keys with a single request. The request is sent to the server owning the first key,
+ * which is expected to own the other keys too, see {@link OperationsFactory#newGetAllOperations(java.util.Collection)}.
+ *
+ * @since 6.0
+ */
+@Immutable
+public class GetAllOperation extends RetryOnFailureOperation<Map<byte[], byte[]>> {
+
+   private final List<byte[]> keys;
+
+   public GetAllOperation(Codec codec, TransportFactory transportFactory, List<byte[]> keys, byte[] cacheName,
+                          AtomicInteger topologyId, Flag[] flags) {
+      super(codec, transportFactory, cacheName, topologyId, flags);
+      this.keys = keys;
+   }
+
+   @Override
+   protected Transport getTransport(int retryCount) {
+      if (retryCount == 0) {
+         return transportFactory.getTransport(keys.get(0));
+      } else {
+         return transportFactory.getTransport();
+      }
+   }
+
+   //[header][key count][key length][key]...
+   @Override
+   protected HeaderParams writeRequest(Transport transport) {
+      HeaderParams params = writeHeader(transport, GET_ALL_REQUEST);
+      transport.writeVInt(keys.size());
+      for (byte[] key : keys) {
+         transport.writeArray(key);
+      }
+      return params;
+   }
+
+   @Override
+   protected Map<byte[], byte[]> readResponse(Transport transport, HeaderParams params) {
+      readHeaderAndValidate(transport, params);
+      int size = transport.readVInt();
+      Map<byte[], byte[]> result = new HashMap<byte[], byte[]>(size * 4 / 3 + 1);
+      for (int i = 0; i < size; i++) {
+         result.put(transport.readArray(), transport.readArray());
+      }
+      return result;
+   }
+}
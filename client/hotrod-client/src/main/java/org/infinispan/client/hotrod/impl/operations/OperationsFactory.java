@@ -4,13 +4,19 @@
 
 import org.infinispan.client.hotrod.Flag;
 import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHash;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
 import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
 
+import java.net.SocketAddress;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -46,6 +52,14 @@ public OperationsFactory(TransportFactory transportFactory, String cacheName,
       this.codec = codec;
    }
 
+   /**
+    * @return whether the negotiated protocol version supports {@link #newGetAllOperations} and
+    *         {@link #newPutAllOperations}
+    */
+   public boolean isBulkOperationSupported() {
+      return codec.isBulkOperationSupported();
+   }
+
    public GetOperation newGetKeyOperation(byte[] key) {
       return new GetOperation(
             codec, transportFactory, key, cacheNameBytes, topologyId, flags());
@@ -124,6 +138,59 @@ public BulkGetKeysOperation newBulkGetKeysOperation(int scope) {
     		codec, transportFactory, cacheNameBytes, topologyId, flags(), scope);
    }
 
+   /**
+    * Creates the operations reading the given keys, one per server owning some of them according to the consistent
+    * hash received from the servers, so that they can be sent in parallel. A single operation reads all the keys if the
+    * client has not received a consistent hash.
+    */
+   public List<GetAllOperation> newGetAllOperations(Collection<byte[]> keys) {
+      Flag[] flags = flags();
+      List<GetAllOperation> operations = new ArrayList<GetAllOperation>();
+      for (List<byte[]> group : groupByServer(keys)) {
+         operations.add(new GetAllOperation(
+               codec, transportFactory, group, cacheNameBytes, topologyId, flags));
+      }
+      return operations;
+   }
+
+   /**
+    * Creates the operations storing the given entries, one per server owning some of the keys, like
+    * {@link #newGetAllOperations(java.util.Collection)} does.
+    */
+   public List<PutAllOperation> newPutAllOperations(Map<byte[], byte[]> entries,
+            int lifespanSecs, int maxIdleSecs) {
+      Flag[] flags = flags();
+      List<PutAllOperation> operations = new ArrayList<PutAllOperation>();
+      for (List<byte[]> group : groupByServer(entries.keySet())) {
+         Map<byte[], byte[]> groupEntries = new HashMap<byte[], byte[]>(group.size() * 4 / 3 + 1);
+         for (byte[] key : group) {
+            groupEntries.put(key, entries.get(key));
+         }
+         operations.add(new PutAllOperation(
+               codec, transportFactory, groupEntries, cacheNameBytes, topologyId, flags,
+               lifespanSecs, maxIdleSecs));
+      }
+      return operations;
+   }
+
+   private Collection<List<byte[]>> groupByServer(Collection<byte[]> keys) {
+      ConsistentHash consistentHash = transportFactory.getConsistentHash();
+      if (consistentHash == null) {
+         return Collections.<List<byte[]>>singletonList(new ArrayList<byte[]>(keys));
+      }
+      Map<SocketAddress, List<byte[]>> groups = new HashMap<SocketAddress, List<byte[]>>();
+      for (byte[] key : keys) {
+         SocketAddress server = consistentHash.getServer(key);
+         List<byte[]> group = groups.get(server);
+         if (group == null) {
+            group = new ArrayList<byte[]>();
+            groups.put(server, group);
+         }
+         group.add(key);
+      }
+      return groups.values();
+   }
+
    /**
     * Construct a ping request directed to a particular node.
     *
@@ -37,10 +37,13 @@ public PingOperation(Codec codec, AtomicInteger topologyId, Transport transport,
 
    @Override
    public PingResult execute() {
-      try {
-         HeaderParams params = writeHeader(transport, HotRodConstants.PING_REQUEST);
-         transport.flush();
+      HeaderParams params = writeHeader(transport, HotRodConstants.PING_REQUEST);
+      transport.flush();
+      return readResponse(params);
+   }
 
+   PingResult readResponse(HeaderParams params) {
+      try {
          short respStatus = readHeaderAndValidate(transport, params);
          if (respStatus == HotRodConstants.NO_ERROR_STATUS) {
             if (log.isTraceEnabled())
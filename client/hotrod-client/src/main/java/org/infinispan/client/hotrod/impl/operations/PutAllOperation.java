@@ -0,0 +1,69 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.jcip.annotations.Immutable;
+
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.exceptions.InvalidResponseException;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+
+/**
+ * Stores several entries with a single request. The request is sent to the server owning the first key, which is
+ * expected to own the other keys too, see {@link OperationsFactory#newPutAllOperations(Map, int, int)}.
+ *
+ * @since 6.0
+ */
+@Immutable
+public class PutAllOperation extends RetryOnFailureOperation<Void> {
+
+   private final Map<byte[], byte[]> entries;
+
+   private final int lifespan;
+
+   private final int maxIdle;
+
+   public PutAllOperation(Codec codec, TransportFactory transportFactory, Map<byte[], byte[]> entries,
+                          byte[] cacheName, AtomicInteger topologyId, Flag[] flags, int lifespan, int maxIdle) {
+      super(codec, transportFactory, cacheName, topologyId, flags);
+      this.entries = entries;
+      this.lifespan = lifespan;
+      this.maxIdle = maxIdle;
+   }
+
+   @Override
+   protected Transport getTransport(int retryCount) {
+      if (retryCount == 0) {
+         return transportFactory.getTransport(entries.keySet().iterator().next());
+      } else {
+         return transportFactory.getTransport();
+      }
+   }
+
+   //[header][lifespan][max idle][entry count][key length][key][value length][value]...
+   @Override
+   protected HeaderParams writeRequest(Transport transport) {
+      HeaderParams params = writeHeader(transport, PUT_ALL_REQUEST);
+      transport.writeVInt(lifespan);
+      transport.writeVInt(maxIdle);
+      transport.writeVInt(entries.size());
+      for (Map.Entry<byte[], byte[]> entry : entries.entrySet()) {
+         transport.writeArray(entry.getKey());
+         transport.writeArray(entry.getValue());
+      }
+      return params;
+   }
+
+   @Override
+   protected Void readResponse(Transport transport, HeaderParams params) {
+      short status = readHeaderAndValidate(transport, params);
+      if (status != NO_ERROR_STATUS) {
+         throw new InvalidResponseException("Unexpected response status: " + Integer.toHexString(status));
+      }
+      return null;
+   }
+}
@@ -5,13 +5,24 @@
 import org.infinispan.client.hotrod.exceptions.HotRodClientException;
 import org.infinispan.client.hotrod.exceptions.RemoteNodeSuspectException;
 import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.async.ResponseFuture;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.transport.MultiplexedTransportFactory;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
 import org.infinispan.client.hotrod.logging.Log;
 import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.util.concurrent.FutureListener;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -43,6 +54,9 @@ public T execute() {
          try {
             // Transport retrieval should be retried
             transport = getTransport(retryCount);
+            if (transportFactory instanceof MultiplexedTransportFactory) {
+               return awaitResponse(send(transport), transport);
+            }
             return executeOperation(transport);
          } catch (TransportException te) {
             // Invalidate transport since this exception means that this
@@ -65,6 +79,129 @@ public T execute() {
       throw new IllegalStateException("We should not reach here!");
    }
 
+   /**
+    * Executes the operation without blocking the caller. If the transport factory multiplexes requests, the request is
+    * sent by the calling thread and the future is completed by the given executor once the response arrives, so that
+    * neither the result nor the listeners of the future are processed on the I/O threads; otherwise the operation is
+    * executed by the given executor. Retries, if needed, are executed by the given executor as well.
+    */
+   public NotifyingFuture<T> executeAsync(final ExecutorService executorService) {
+      final ResponseFuture<T> future = new ResponseFuture<T>();
+      if (transportFactory instanceof MultiplexedTransportFactory) {
+         sendAsync(0, future, executorService);
+      } else {
+         executorService.execute(new Runnable() {
+            @Override
+            public void run() {
+               try {
+                  future.complete(execute());
+               } catch (Throwable t) {
+                  future.completeExceptionally(t);
+               }
+            }
+         });
+      }
+      return future;
+   }
+
+   private void sendAsync(final int retryCount, final ResponseFuture<T> future, final ExecutorService executorService) {
+      final Transport transport;
+      final ResponseFuture<T> attempt;
+      try {
+         transport = getTransport(retryCount);
+         attempt = send(transport);
+      } catch (TransportException te) {
+         retryAsync(retryCount, te, future, executorService);
+         return;
+      } catch (Throwable t) {
+         future.completeExceptionally(t);
+         return;
+      }
+      attempt.attachListener(new FutureListener<T>() {
+         @Override
+         public void futureDone(final Future<T> f) {
+            try {
+               executorService.execute(new Runnable() {
+                  @Override
+                  public void run() {
+                     completeAsync(f, retryCount, transport, future, executorService);
+                  }
+               });
+            } catch (RejectedExecutionException e) {
+               future.completeExceptionally(e);
+            }
+         }
+      });
+   }
+
+   private void completeAsync(Future<T> attempt, int retryCount, Transport transport, ResponseFuture<T> future,
+                              ExecutorService executorService) {
+      try {
+         future.complete(attempt.get());
+      } catch (ExecutionException e) {
+         Throwable cause = e.getCause();
+         if (cause instanceof TransportException) {
+            transportFactory.invalidateTransport(((TransportException) cause).getServerAddress(), transport);
+            retryAsync(retryCount, (TransportException) cause, future, executorService);
+         } else if (cause instanceof RemoteNodeSuspectException) {
+            retryAsync(retryCount, (RemoteNodeSuspectException) cause, future, executorService);
+         } else {
+            future.completeExceptionally(cause);
+         }
+      } catch (Throwable t) {
+         future.completeExceptionally(t);
+      }
+   }
+
+   private void retryAsync(final int retryCount, HotRodClientException e, final ResponseFuture<T> future,
+                           final ExecutorService executorService) {
+      try {
+         logErrorAndThrowExceptionIfNeeded(retryCount, e);
+      } catch (HotRodClientException noRetriesLeft) {
+         future.completeExceptionally(noRetriesLeft);
+         return;
+      }
+      executorService.execute(new Runnable() {
+         @Override
+         public void run() {
+            sendAsync(retryCount + 1, future, executorService);
+         }
+      });
+   }
+
+   private ResponseFuture<T> send(Transport transport) {
+      final HeaderParams params = writeRequest(transport);
+      ResponseFuture<T> future = new ResponseFuture<T>();
+      ((MultiplexedTransportFactory) transportFactory).send(transport, params.messageId(),
+            new MultiplexedTransportFactory.ResponseReader<T>() {
+               @Override
+               public T readResponse(Transport responseTransport) {
+                  return RetryOnFailureOperation.this.readResponse(responseTransport, params);
+               }
+            }, future);
+      return future;
+   }
+
+   private T awaitResponse(ResponseFuture<T> future, Transport transport) {
+      try {
+         int timeout = transportFactory.getSoTimeout();
+         return timeout > 0 ? future.get(timeout, TimeUnit.MILLISECONDS) : future.get();
+      } catch (ExecutionException e) {
+         Throwable cause = e.getCause();
+         if (cause instanceof HotRodClientException) {
+            throw (HotRodClientException) cause;
+         }
+         throw new HotRodClientException(cause);
+      } catch (TimeoutException e) {
+         // abandons the request, its response is discarded when it arrives
+         future.cancel(false);
+         throw new TransportException("Timed out waiting for the response", e, transport.getRemoteSocketAddress());
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new HotRodClientException(e);
+      }
+   }
+
    protected boolean shouldRetry(int retryCount) {
       return retryCount < transportFactory.getTransportCount();
    }
@@ -86,5 +223,21 @@ protected void releaseTransport(Transport transport) {
 
    protected abstract Transport getTransport(int retryCount);
 
-   protected abstract T executeOperation(Transport transport);
+   protected T executeOperation(Transport transport) {
+      HeaderParams params = writeRequest(transport);
+      transport.flush();
+      return readResponse(transport, params);
+   }
+
+   /**
+    * Writes the request, header included, to the transport, without flushing it.
+    *
+    * @return the parameters of the header written, needed to read the response
+    */
+   protected abstract HeaderParams writeRequest(Transport transport);
+
+   /**
+    * Reads the response to the request written by {@link #writeRequest(Transport)}, header included.
+    */
+   protected abstract T readResponse(Transport transport, HeaderParams params);
 }
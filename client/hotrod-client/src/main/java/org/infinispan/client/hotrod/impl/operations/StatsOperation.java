@@ -31,12 +31,14 @@ protected Transport getTransport(int retryCount) {
    }
 
    @Override
-   protected Map<String, String> executeOperation(Transport transport) {
-      Map<String, String> result;
+   protected HeaderParams writeRequest(Transport transport) {
       // 1) write header
-      HeaderParams params = writeHeader(transport, STATS_REQUEST);
-      transport.flush();
+      return writeHeader(transport, STATS_REQUEST);
+   }
 
+   @Override
+   protected Map<String, String> readResponse(Transport transport, HeaderParams params) {
+      Map<String, String> result;
       readHeaderAndValidate(transport, params);
       int nrOfStats = transport.readVInt();
 
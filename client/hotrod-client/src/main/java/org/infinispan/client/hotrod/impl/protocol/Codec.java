@@ -23,6 +23,12 @@ public interface Codec {
     */
    short readHeader(Transport transport, HeaderParams params);
 
+   /**
+    * Whether the protocol version supports the GetAll and PutAll operations. Otherwise the bulk reads and writes are
+    * sent as one request per key.
+    */
+   boolean isBulkOperationSupported();
+
    /**
     * Logger for Hot Rod client codec
     */
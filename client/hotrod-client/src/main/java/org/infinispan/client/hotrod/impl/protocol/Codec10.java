@@ -107,6 +107,11 @@ public short readHeader(Transport transport, HeaderParams params) {
       return status;
    }
 
+   @Override
+   public boolean isBulkOperationSupported() {
+      return false;
+   }
+
    @Override
    public Log getLog() {
       return log;
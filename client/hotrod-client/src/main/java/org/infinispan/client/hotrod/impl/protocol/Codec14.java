@@ -0,0 +1,31 @@
+package org.infinispan.client.hotrod.impl.protocol;
+
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+
+/**
+ * A Hot Rod encoder/decoder for version 1.4 of the protocol, which adds the GetAll and PutAll operations.
+ *
+ * @since 6.0
+ */
+public class Codec14 extends Codec12 {
+
+   private static final Log log = LogFactory.getLog(Codec14.class, Log.class);
+
+   @Override
+   public HeaderParams writeHeader(Transport transport, HeaderParams params) {
+      return writeHeader(transport, params, HotRodConstants.VERSION_14);
+   }
+
+   @Override
+   public boolean isBulkOperationSupported() {
+      return true;
+   }
+
+   @Override
+   public Log getLog() {
+      return log;
+   }
+
+}
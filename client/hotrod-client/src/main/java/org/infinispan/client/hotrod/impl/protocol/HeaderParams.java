@@ -57,6 +57,10 @@ public HeaderParams messageId(long messageId) {
       return this;
    }
 
+   public long messageId() {
+      return messageId;
+   }
+
    private short toOpRespCode(short opCode) {
       switch (opCode) {
          case HotRodConstants.PUT_REQUEST:
@@ -89,6 +93,10 @@ private short toOpRespCode(short opCode) {
             return HotRodConstants.GET_WITH_METADATA_RESPONSE;
          case HotRodConstants.BULK_GET_KEYS_REQUEST:
         	 return HotRodConstants.BULK_GET_KEYS_RESPONSE;
+         case HotRodConstants.GET_ALL_REQUEST:
+            return HotRodConstants.GET_ALL_RESPONSE;
+         case HotRodConstants.PUT_ALL_REQUEST:
+            return HotRodConstants.PUT_ALL_RESPONSE;
          default:
             throw new IllegalStateException("Unknown operation code: " + opCode);
       }
@@ -16,6 +16,7 @@ public interface HotRodConstants {
    static final byte VERSION_10 = 10;
    static final byte VERSION_11 = 11;
    static final byte VERSION_12 = 12;
+   static final byte VERSION_14 = 14;
 
    //requests
    static final byte PUT_REQUEST = 0x01;
@@ -33,6 +34,8 @@ public interface HotRodConstants {
    static final byte BULK_GET_REQUEST = 0x19;
    static final byte GET_WITH_METADATA = 0x1B;
    static final byte BULK_GET_KEYS_REQUEST = 0x1D;
+   static final byte GET_ALL_REQUEST = 0x21;
+   static final byte PUT_ALL_REQUEST = 0x23;
 
 
    //responses
@@ -51,6 +54,8 @@ public interface HotRodConstants {
    static final byte BULK_GET_RESPONSE = 0x1A;
    static final byte GET_WITH_METADATA_RESPONSE = 0x1C;
    static final byte BULK_GET_KEYS_RESPONSE = 0x1E;
+   static final byte GET_ALL_RESPONSE = 0x22;
+   static final byte PUT_ALL_RESPONSE = 0x24;
    static final byte ERROR_RESPONSE = 0x50;
 
    //response status
@@ -0,0 +1,38 @@
+package org.infinispan.client.hotrod.impl.transport;
+
+import org.infinispan.client.hotrod.impl.async.ResponseFuture;
+
+/**
+ * A {@link TransportFactory} whose connections are shared by all the requests in flight instead of being lent to one
+ * request at a time: responses are matched to their requests by message id, so a request does not hold a connection,
+ * nor a thread, while it waits for its response.
+ * <p/>
+ * The transports returned by this factory are only used to write a request, which is then handed over to
+ * {@link #send(Transport, long, ResponseReader, ResponseFuture)}.
+ *
+ * @since 6.0
+ */
+public interface MultiplexedTransportFactory extends TransportFactory {
+
+   /**
+    * Sends the request written to the given transport and returns without waiting for the response. Once the response
+    * arrives, it is read with the given reader, and the future is completed with the result, or with the exception
+    * thrown by the reader. If the connection fails before then, the future is completed with a
+    * {@link org.infinispan.client.hotrod.exceptions.TransportException}.
+    *
+    * @param transport the transport returned by this factory the request was written to
+    * @param messageId the message id of the request, which the server echoes in the response
+    */
+   <T> void send(Transport transport, long messageId, ResponseReader<T> reader, ResponseFuture<T> future);
+
+   /**
+    * Reads a response, header included. Readers run on the threads performing the network I/O, so they must not block.
+    */
+   interface ResponseReader<T> {
+      /**
+       * Reads the response from the given transport. If the response has not been received entirely yet, the reader is
+       * interrupted and invoked again from the start once more data is available.
+       */
+      T readResponse(Transport transport);
+   }
+}
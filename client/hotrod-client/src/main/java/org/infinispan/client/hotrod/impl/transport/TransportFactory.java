@@ -9,6 +9,7 @@
 import javax.net.ssl.SSLContext;
 
 import org.infinispan.client.hotrod.configuration.Configuration;
+import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHash;
 import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHashFactory;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
 
@@ -34,6 +35,11 @@ public interface TransportFactory {
 
    ConsistentHashFactory getConsistentHashFactory();
 
+   /**
+    * @return the consistent hash last received from the servers, or {@code null} if the client has not received one
+    */
+   ConsistentHash getConsistentHash();
+
    Transport getTransport(byte[] key);
 
    boolean isTcpNoDelay();
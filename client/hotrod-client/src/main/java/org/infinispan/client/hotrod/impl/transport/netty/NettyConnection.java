@@ -0,0 +1,143 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import java.net.SocketAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import net.jcip.annotations.ThreadSafe;
+
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.async.ResponseFuture;
+import org.infinispan.client.hotrod.impl.transport.MultiplexedTransportFactory.ResponseReader;
+import org.infinispan.commons.util.concurrent.FutureListener;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
+import org.jboss.netty.util.Timeout;
+import org.jboss.netty.util.Timer;
+import org.jboss.netty.util.TimerTask;
+
+/**
+ * A connection to a server shared by all the requests sent to it, keeping track of the requests waiting for a
+ * response by message id.
+ * <p/>
+ * A request fails with a {@link TransportException} if no response arrives within the socket timeout. When a request
+ * is abandoned this way, or because its future was cancelled, it is replaced by a tombstone keeping its reader: since
+ * a response can't be skipped without being read, the late response is then read and discarded, and the other
+ * requests in flight on the connection are not affected.
+ *
+ * @since 6.0
+ */
+@ThreadSafe
+class NettyConnection {
+
+   private final Channel channel;
+   private final SocketAddress serverAddress;
+   private final Timer timer;
+   private final long timeoutMillis;
+   private final ConcurrentMap<Long, PendingResponse<?>> pending = new ConcurrentHashMap<Long, PendingResponse<?>>();
+
+   /**
+    * @param timeoutMillis how long to wait for the response to a request, or 0 to wait forever
+    */
+   NettyConnection(Channel channel, SocketAddress serverAddress, Timer timer, long timeoutMillis) {
+      this.channel = channel;
+      this.serverAddress = serverAddress;
+      this.timer = timer;
+      this.timeoutMillis = timeoutMillis;
+   }
+
+   SocketAddress getServerAddress() {
+      return serverAddress;
+   }
+
+   boolean isOpen() {
+      return channel.isOpen();
+   }
+
+   <T> void send(ChannelBuffer request, final long messageId, ResponseReader<T> reader, final ResponseFuture<T> future) {
+      final PendingResponse<T> response = new PendingResponse<T>(reader, future);
+      pending.put(messageId, response);
+      final Timeout timeout = timeoutMillis > 0 ? timer.newTimeout(new TimerTask() {
+         @Override
+         public void run(Timeout timeout) {
+            if (pending.replace(messageId, response, response.abandon())) {
+               future.completeExceptionally(new TransportException("Timed out waiting for the response to request "
+                     + messageId, serverAddress));
+            }
+         }
+      }, timeoutMillis, TimeUnit.MILLISECONDS) : null;
+      future.attachListener(new FutureListener<T>() {
+         @Override
+         public void futureDone(Future<T> f) {
+            // only still pending if the future was cancelled, the response will be discarded when it arrives
+            pending.replace(messageId, response, response.abandon());
+            if (timeout != null) {
+               timeout.cancel();
+            }
+         }
+      });
+      channel.write(request).addListener(new ChannelFutureListener() {
+         @Override
+         public void operationComplete(ChannelFuture writeFuture) {
+            if (!writeFuture.isSuccess() && pending.remove(messageId) != null) {
+               future.completeExceptionally(new TransportException(writeFuture.getCause(), serverAddress));
+            }
+         }
+      });
+   }
+
+   PendingResponse<?> getPending(long messageId) {
+      return pending.get(messageId);
+   }
+
+   void removePending(long messageId) {
+      pending.remove(messageId);
+   }
+
+   /**
+    * Fails all the requests waiting for a response.
+    */
+   void failPending(Throwable cause) {
+      for (Long messageId : pending.keySet()) {
+         PendingResponse<?> response = pending.remove(messageId);
+         if (response != null && !response.isAbandoned()) {
+            response.future.completeExceptionally(cause);
+         }
+      }
+   }
+
+   void close() {
+      channel.close();
+   }
+
+   @Override
+   public String toString() {
+      return "NettyConnection{serverAddress=" + serverAddress + ", channel=" + channel.getId()
+            + ", pending=" + pending.size() + "}";
+   }
+
+   static class PendingResponse<T> {
+      final ResponseReader<T> reader;
+      /**
+       * The future of the request, or {@code null} if the request was abandoned and its response must be discarded.
+       */
+      final ResponseFuture<T> future;
+
+      PendingResponse(ResponseReader<T> reader, ResponseFuture<T> future) {
+         this.reader = reader;
+         this.future = future;
+      }
+
+      PendingResponse<T> abandon() {
+         return new PendingResponse<T>(reader, null);
+      }
+
+      boolean isAbandoned() {
+         return future == null;
+      }
+   }
+}
@@ -0,0 +1,179 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import java.net.SocketAddress;
+
+import net.jcip.annotations.NotThreadSafe;
+
+import org.infinispan.client.hotrod.impl.transport.AbstractTransport;
+import org.jboss.netty.buffer.ChannelBuffer;
+
+/**
+ * Transport over a {@link ChannelBuffer}, used both to write a request before it is sent on a shared
+ * {@link NettyConnection}, and to read a response out of the bytes received on that connection. Unlike the
+ * {@link org.infinispan.client.hotrod.impl.transport.tcp.TcpTransport}, an instance is used for a single request or
+ * response, and never blocks: reading past the bytes received so far throws an {@link IncompleteResponse} recording
+ * how many bytes the response needs at least.
+ *
+ * @since 6.0
+ */
+@NotThreadSafe
+public class NettyTransport extends AbstractTransport {
+
+   private final NettyConnection connection;
+   private final ChannelBuffer buffer;
+   private final int startIndex;
+   private int requiredBytes;
+   private boolean invalid;
+
+   NettyTransport(NettyTransportFactory transportFactory, NettyConnection connection, ChannelBuffer buffer) {
+      super(transportFactory);
+      this.connection = connection;
+      this.buffer = buffer;
+      this.startIndex = buffer.readerIndex();
+   }
+
+   NettyConnection getConnection() {
+      return connection;
+   }
+
+   ChannelBuffer getBuffer() {
+      return buffer;
+   }
+
+   @Override
+   public void writeByte(short toWrite) {
+      buffer.writeByte(toWrite);
+   }
+
+   @Override
+   public void writeVInt(int vInt) {
+      while ((vInt & ~0x7F) != 0) {
+         buffer.writeByte((vInt & 0x7F) | 0x80);
+         vInt >>>= 7;
+      }
+      buffer.writeByte(vInt);
+   }
+
+   @Override
+   public void writeVLong(long vLong) {
+      while ((vLong & ~0x7F) != 0) {
+         buffer.writeByte((int) ((vLong & 0x7F) | 0x80));
+         vLong >>>= 7;
+      }
+      buffer.writeByte((int) vLong);
+   }
+
+   @Override
+   protected void writeBytes(byte[] toAppend) {
+      buffer.writeBytes(toAppend);
+   }
+
+   @Override
+   public void flush() {
+      // requests are sent by NettyTransportFactory.send()
+   }
+
+   @Override
+   public short readByte() {
+      require(1);
+      return buffer.readUnsignedByte();
+   }
+
+   @Override
+   public int readVInt() {
+      require(1);
+      byte b = buffer.readByte();
+      int i = b & 0x7F;
+      for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+         require(1);
+         b = buffer.readByte();
+         i |= (b & 0x7F) << shift;
+      }
+      return i;
+   }
+
+   @Override
+   public long readVLong() {
+      require(1);
+      byte b = buffer.readByte();
+      long l = b & 0x7F;
+      for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+         require(1);
+         b = buffer.readByte();
+         l |= (b & 0x7FL) << shift;
+      }
+      return l;
+   }
+
+   @Override
+   public byte[] readByteArray(int size) {
+      // checked before allocating, so that a big value is only copied once it has been received entirely
+      require(size);
+      byte[] bytes = new byte[size];
+      buffer.readBytes(bytes);
+      return bytes;
+   }
+
+   @Override
+   public void release() {
+      // the connection is shared, nothing to give back
+   }
+
+   @Override
+   public byte[] dumpStream() {
+      // Read 32kb at most
+      byte[] bytes = new byte[Math.min(buffer.readableBytes(), 32768)];
+      buffer.getBytes(buffer.readerIndex(), bytes);
+      return bytes;
+   }
+
+   @Override
+   public SocketAddress getRemoteSocketAddress() {
+      return connection.getServerAddress();
+   }
+
+   @Override
+   public void invalidate() {
+      invalid = true;
+   }
+
+   boolean isValid() {
+      return !invalid;
+   }
+
+   /**
+    * Returns the minimum number of bytes of the response being read, counted from its start, needed to read it further,
+    * as recorded by the last {@link IncompleteResponse} thrown.
+    */
+   int getRequiredBytes() {
+      return requiredBytes;
+   }
+
+   private void require(int bytes) {
+      if (buffer.readableBytes() < bytes) {
+         requiredBytes = buffer.readerIndex() - startIndex + bytes;
+         throw IncompleteResponse.INSTANCE;
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "NettyTransport{connection=" + connection + "}";
+   }
+
+   /**
+    * Thrown when reading past the bytes received so far. It is an error, so that it is not caught by the readers
+    * handling the exceptions of the client, and it has no stack trace since it is thrown for every partial response.
+    */
+   static final class IncompleteResponse extends Error {
+      static final IncompleteResponse INSTANCE = new IncompleteResponse();
+
+      private IncompleteResponse() {
+      }
+
+      @Override
+      public Throwable fillInStackTrace() {
+         return this;
+      }
+   }
+}
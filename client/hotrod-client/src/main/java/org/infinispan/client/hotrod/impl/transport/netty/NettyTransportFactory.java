@@ -0,0 +1,413 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+
+import net.jcip.annotations.ThreadSafe;
+
+import org.infinispan.client.hotrod.configuration.Configuration;
+import org.infinispan.client.hotrod.configuration.ServerConfiguration;
+import org.infinispan.client.hotrod.configuration.SslConfiguration;
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.async.ResponseFuture;
+import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHash;
+import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHashFactory;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.transport.MultiplexedTransportFactory;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.client.hotrod.impl.transport.tcp.RequestBalancingStrategy;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.util.SslContextFactory;
+import org.infinispan.commons.util.Util;
+import org.jboss.netty.bootstrap.ClientBootstrap;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.ChannelPipelineFactory;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
+import org.jboss.netty.handler.ssl.SslHandler;
+import org.jboss.netty.util.HashedWheelTimer;
+import org.jboss.netty.util.Timer;
+
+/**
+ * Transport factory keeping a few Netty connections to each server, shared by all the requests in flight. Requests are
+ * written without waiting for the responses to the previous ones, and each response is matched to its request by
+ * message id, so asynchronous operations don't hold a thread of their own while they wait for their response.
+ * Responses are read on the I/O threads, and the requests which receive no response within the socket timeout are
+ * failed by a timer.
+ * <p/>
+ * The number of connections to each server is the maximum number of active connections of the connection pool
+ * configuration, or one if it is unbounded. Connections are opened when first needed.
+ *
+ * @since 6.0
+ */
+@ThreadSafe
+public class NettyTransportFactory implements MultiplexedTransportFactory {
+
+   private static final Log log = LogFactory.getLog(NettyTransportFactory.class, Log.class);
+
+   private final Object lock = new Object();
+   private final ConcurrentMap<SocketAddress, AtomicReferenceArray<NettyConnection>> connections =
+         new ConcurrentHashMap<SocketAddress, AtomicReferenceArray<NettyConnection>>();
+   private final AtomicInteger nextConnection = new AtomicInteger();
+   private RequestBalancingStrategy balancer;
+   private Collection<SocketAddress> servers;
+   private ConsistentHash consistentHash;
+   private final ConsistentHashFactory hashFactory = new ConsistentHashFactory();
+   private ClientBootstrap bootstrap;
+   private Timer timer;
+
+   private volatile boolean tcpNoDelay;
+   private volatile int soTimeout;
+   private volatile int connectTimeout;
+   private volatile int maxActive;
+   private volatile int connectionsPerServer;
+   private volatile int transportCount;
+   private volatile SSLContext sslContext;
+
+   @Override
+   public void start(Codec codec, Configuration configuration, AtomicInteger topologyId) {
+      synchronized (lock) {
+         hashFactory.init(configuration);
+         servers = new ArrayList<SocketAddress>();
+         for (ServerConfiguration server : configuration.servers()) {
+            servers.add(new InetSocketAddress(server.host(), server.port()));
+         }
+         servers = Collections.unmodifiableCollection(servers);
+         balancer = Util.getInstance(configuration.balancingStrategy());
+         tcpNoDelay = configuration.tcpNoDelay();
+         soTimeout = configuration.socketTimeout();
+         connectTimeout = configuration.connectionTimeout();
+         maxActive = configuration.connectionPool().maxActive();
+         connectionsPerServer = maxActive > 0 ? maxActive : 1;
+
+         if (configuration.ssl().enabled()) {
+            SslConfiguration ssl = configuration.ssl();
+            if (ssl.sslContext() != null) {
+               sslContext = ssl.sslContext();
+            } else {
+               sslContext = SslContextFactory.getContext(ssl.keyStoreFileName(), ssl.keyStorePassword(), ssl.trustStoreFileName(), ssl.trustStorePassword());
+            }
+         }
+
+         if (log.isDebugEnabled()) {
+            log.debugf("Statically configured servers: %s", servers);
+            log.debugf("Load balancer class: %s", balancer.getClass().getName());
+            log.debugf("Tcp no delay = %b; client socket timeout = %d ms; connect timeout = %d ms; connections per server = %d",
+                       tcpNoDelay, soTimeout, connectTimeout, connectionsPerServer);
+         }
+
+         timer = new HashedWheelTimer(new DaemonThreadFactory("HotRodClient-Timer"));
+         bootstrap = new ClientBootstrap(new NioClientSocketChannelFactory(
+               Executors.newCachedThreadPool(new DaemonThreadFactory("HotRodClient-Boss")),
+               Executors.newCachedThreadPool(new DaemonThreadFactory("HotRodClient-Worker"))));
+         bootstrap.setOption("tcpNoDelay", tcpNoDelay);
+         bootstrap.setOption("connectTimeoutMillis", connectTimeout);
+         bootstrap.setPipelineFactory(new ChannelPipelineFactory() {
+            @Override
+            public ChannelPipeline getPipeline() {
+               ChannelPipeline pipeline = Channels.pipeline();
+               if (sslContext != null) {
+                  SSLEngine engine = sslContext.createSSLEngine();
+                  engine.setUseClientMode(true);
+                  pipeline.addLast("ssl", new SslHandler(engine));
+               }
+               pipeline.addLast("decoder", new ResponseDecoder(NettyTransportFactory.this));
+               return pipeline;
+            }
+         });
+         balancer.setServers(servers);
+         updateTransportCount();
+      }
+   }
+
+   @Override
+   public void destroy() {
+      ClientBootstrap toRelease;
+      Timer timerToStop;
+      synchronized (lock) {
+         for (SocketAddress server : connections.keySet()) {
+            closeConnections(server);
+         }
+         toRelease = bootstrap;
+         timerToStop = timer;
+      }
+      if (toRelease != null) {
+         toRelease.releaseExternalResources();
+      }
+      if (timerToStop != null) {
+         timerToStop.stop();
+      }
+   }
+
+   @Override
+   public void updateHashFunction(Map<SocketAddress, Set<Integer>> servers2Hash, int numKeyOwners, short hashFunctionVersion, int hashSpace) {
+      synchronized (lock) {
+         ConsistentHash hash = hashFactory.newConsistentHash(hashFunctionVersion);
+         if (hash == null) {
+            log.noHasHFunctionConfigured(hashFunctionVersion);
+         } else {
+            hash.init(servers2Hash, numKeyOwners, hashSpace);
+         }
+         consistentHash = hash;
+      }
+   }
+
+   @Override
+   public Transport getTransport() {
+      SocketAddress server;
+      synchronized (lock) {
+         server = balancer.nextServer();
+      }
+      return newTransport(server);
+   }
+
+   @Override
+   public Transport getTransport(byte[] key) {
+      SocketAddress server;
+      synchronized (lock) {
+         if (consistentHash != null) {
+            server = consistentHash.getServer(key);
+            if (log.isTraceEnabled()) {
+               log.tracef("Using consistent hash for determining the server: %s", server);
+            }
+         } else {
+            server = balancer.nextServer();
+            if (log.isTraceEnabled()) {
+               log.tracef("Using the balancer for determining the server: %s", server);
+            }
+         }
+      }
+      return newTransport(server);
+   }
+
+   @Override
+   public <T> void send(Transport transport, long messageId, ResponseReader<T> reader, ResponseFuture<T> future) {
+      NettyTransport nettyTransport = (NettyTransport) transport;
+      nettyTransport.getConnection().send(nettyTransport.getBuffer(), messageId, reader, future);
+   }
+
+   @Override
+   public void releaseTransport(Transport transport) {
+      // the transport only wraps a buffer, the connection stays open for the other requests
+   }
+
+   @Override
+   public void invalidateTransport(SocketAddress serverAddress, Transport transport) {
+      NettyTransport nettyTransport = (NettyTransport) transport;
+      if (nettyTransport != null && !nettyTransport.isValid()) {
+         if (log.isTraceEnabled()) {
+            log.tracef("Closing connection as it is no longer valid: %s", nettyTransport.getConnection());
+         }
+         nettyTransport.getConnection().close();
+      }
+   }
+
+   @Override
+   public void updateServers(Collection<SocketAddress> newServers) {
+      synchronized (lock) {
+         Set<SocketAddress> addedServers = new HashSet<SocketAddress>(newServers);
+         addedServers.removeAll(servers);
+         Set<SocketAddress> failedServers = new HashSet<SocketAddress>(servers);
+         failedServers.removeAll(newServers);
+         if (log.isTraceEnabled()) {
+            log.tracef("Current list: %s", servers);
+            log.tracef("New list: %s", newServers);
+            log.tracef("Added servers: %s", addedServers);
+            log.tracef("Removed servers: %s", failedServers);
+         }
+         if (addedServers.isEmpty() && failedServers.isEmpty()) {
+            log.debug("Same list of servers, not changing the connections");
+            return;
+         }
+
+         // Connections to the new servers are opened when first needed: this method is usually invoked by the
+         // I/O threads, which must not wait for a connection to be established
+         for (SocketAddress server : addedServers) {
+            log.newServerAdded(server);
+         }
+
+         balancer.setServers(newServers);
+
+         for (SocketAddress server : failedServers) {
+            log.removingServer(server);
+            closeConnections(server);
+         }
+
+         servers = Collections.unmodifiableList(new ArrayList<SocketAddress>(newServers));
+         updateTransportCount();
+      }
+   }
+
+   public Collection<SocketAddress> getServers() {
+      synchronized (lock) {
+         return servers;
+      }
+   }
+
+   private Transport newTransport(SocketAddress server) {
+      return new NettyTransport(this, getConnection(server), ChannelBuffers.dynamicBuffer(128));
+   }
+
+   private NettyConnection getConnection(SocketAddress server) {
+      AtomicReferenceArray<NettyConnection> serverConnections = connections.get(server);
+      if (serverConnections == null) {
+         AtomicReferenceArray<NettyConnection> newConnections = new AtomicReferenceArray<NettyConnection>(connectionsPerServer);
+         serverConnections = connections.putIfAbsent(server, newConnections);
+         if (serverConnections == null) {
+            serverConnections = newConnections;
+         }
+      }
+      int index = (nextConnection.getAndIncrement() & Integer.MAX_VALUE) % serverConnections.length();
+      NettyConnection connection = serverConnections.get(index);
+      if (connection == null || !connection.isOpen()) {
+         synchronized (serverConnections) {
+            connection = serverConnections.get(index);
+            if (connection == null || !connection.isOpen()) {
+               connection = connect(server);
+               serverConnections.set(index, connection);
+            }
+         }
+      }
+      return connection;
+   }
+
+   private NettyConnection connect(SocketAddress server) {
+      ClientBootstrap bootstrap;
+      Timer timer;
+      synchronized (lock) {
+         bootstrap = this.bootstrap;
+         timer = this.timer;
+      }
+      ChannelFuture connectFuture = bootstrap.connect(server);
+      if (!connectFuture.awaitUninterruptibly(connectTimeout) || !connectFuture.isSuccess()) {
+         connectFuture.cancel();
+         Throwable cause = connectFuture.getCause();
+         throw new TransportException("Could not connect to server: " + server, cause, server);
+      }
+      Channel channel = connectFuture.getChannel();
+      NettyConnection connection = new NettyConnection(channel, server, timer, soTimeout);
+      channel.setAttachment(connection);
+      SslHandler sslHandler = channel.getPipeline().get(SslHandler.class);
+      if (sslHandler != null) {
+         ChannelFuture handshakeFuture = sslHandler.handshake();
+         if (!handshakeFuture.awaitUninterruptibly(connectTimeout) || !handshakeFuture.isSuccess()) {
+            channel.close();
+            throw new TransportException("SSL handshake with server " + server + " failed", handshakeFuture.getCause(), server);
+         }
+      }
+      if (log.isTraceEnabled()) {
+         log.tracef("Created connection %s", connection);
+      }
+      return connection;
+   }
+
+   private void closeConnections(SocketAddress server) {
+      AtomicReferenceArray<NettyConnection> serverConnections = connections.remove(server);
+      if (serverConnections != null) {
+         for (int i = 0; i < serverConnections.length(); i++) {
+            NettyConnection connection = serverConnections.get(i);
+            if (connection != null) {
+               connection.close();
+            }
+         }
+      }
+   }
+
+   /**
+    * Note that the returned <code>ConsistentHash</code> may not be thread-safe.
+    */
+   @Override
+   public ConsistentHash getConsistentHash() {
+      synchronized (lock) {
+         return consistentHash;
+      }
+   }
+
+   @Override
+   public ConsistentHashFactory getConsistentHashFactory() {
+      return hashFactory;
+   }
+
+   @Override
+   public boolean isTcpNoDelay() {
+      return tcpNoDelay;
+   }
+
+   @Override
+   public int getTransportCount() {
+      if (Thread.currentThread().isInterrupted()) {
+         return -1;
+      }
+      return transportCount;
+   }
+
+   @Override
+   public int getSoTimeout() {
+      return soTimeout;
+   }
+
+   @Override
+   public int getConnectTimeout() {
+      return connectTimeout;
+   }
+
+   @Override
+   public SSLContext getSSLContext() {
+      return sslContext;
+   }
+
+   /**
+    * Note that the returned <code>RequestBalancingStrategy</code> may not be thread-safe.
+    */
+   public RequestBalancingStrategy getBalancer() {
+      synchronized (lock) {
+         return balancer;
+      }
+   }
+
+   private void updateTransportCount() {
+      synchronized (lock) {
+         // bounds the number of retries, as for the TcpTransportFactory
+         if (maxActive > 0) {
+            transportCount = Math.max(maxActive * servers.size(), maxActive);
+         } else {
+            transportCount = 10 * servers.size();
+         }
+      }
+   }
+
+   private static class DaemonThreadFactory implements ThreadFactory {
+      private final String prefix;
+      private final AtomicInteger counter = new AtomicInteger();
+
+      DaemonThreadFactory(String prefix) {
+         this.prefix = prefix;
+      }
+
+      @Override
+      public Thread newThread(Runnable r) {
+         Thread thread = new Thread(r, prefix + "-" + counter.incrementAndGet());
+         thread.setDaemon(true);
+         return thread;
+      }
+   }
+}
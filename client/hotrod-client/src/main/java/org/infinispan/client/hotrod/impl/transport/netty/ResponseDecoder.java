@@ -0,0 +1,134 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import org.infinispan.client.hotrod.exceptions.HotRodClientException;
+import org.infinispan.client.hotrod.exceptions.InvalidResponseException;
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.transport.netty.NettyConnection.PendingResponse;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.ExceptionEvent;
+import org.jboss.netty.handler.codec.frame.FrameDecoder;
+
+/**
+ * Decodes the responses received on a {@link NettyConnection}: the message id in the header of a response identifies
+ * the request it belongs to, whose reader then reads the whole response and completes the request's future.
+ * <p/>
+ * Readers are replayed from the start of the response until all its bytes have been received, so they run on the
+ * I/O thread without ever blocking. A replay stops at the first field which has not been received entirely, such as
+ * the value of a big entry, and the response is not parsed again until at least that field has been received.
+ *
+ * @since 6.0
+ */
+class ResponseDecoder extends FrameDecoder {
+
+   private static final Log log = LogFactory.getLog(ResponseDecoder.class, Log.class);
+
+   private final NettyTransportFactory transportFactory;
+   // bytes of the next response needed before it is worth parsing it again
+   private int requiredBytes;
+
+   ResponseDecoder(NettyTransportFactory transportFactory) {
+      this.transportFactory = transportFactory;
+   }
+
+   @Override
+   protected Object decode(ChannelHandlerContext ctx, Channel channel, ChannelBuffer buffer) {
+      NettyConnection connection = (NettyConnection) channel.getAttachment();
+      while (buffer.readable() && buffer.readableBytes() >= requiredBytes) {
+         int start = buffer.readerIndex();
+         NettyTransport transport = new NettyTransport(transportFactory, connection, buffer);
+         try {
+            transport.readByte(); // magic, validated by the reader
+            long messageId = transport.readVLong();
+            buffer.readerIndex(start);
+
+            PendingResponse<?> response = connection.getPending(messageId);
+            if (response == null) {
+               // without framing, there is no way to skip the response and read the next one
+               throw new InvalidResponseException("Received a response with unexpected message id " + messageId);
+            }
+            if (response.isAbandoned()) {
+               discard(response, transport, messageId);
+            } else {
+               complete(response, transport, messageId);
+            }
+            requiredBytes = 0;
+         } catch (NettyTransport.IncompleteResponse e) {
+            requiredBytes = transport.getRequiredBytes();
+            buffer.readerIndex(start);
+         }
+      }
+      // the responses are handed over to their futures, nothing is passed upstream
+      return null;
+   }
+
+   private <T> void complete(PendingResponse<T> response, NettyTransport transport, long messageId) {
+      NettyConnection connection = transport.getConnection();
+      T result;
+      try {
+         result = response.reader.readResponse(transport);
+      } catch (InvalidResponseException e) {
+         connection.removePending(messageId);
+         response.future.completeExceptionally(e);
+         throw e;
+      } catch (HotRodClientException e) {
+         // an error response, read entirely
+         connection.removePending(messageId);
+         response.future.completeExceptionally(e);
+         if (!transport.isValid()) {
+            connection.close();
+         }
+         return;
+      } catch (RuntimeException e) {
+         connection.removePending(messageId);
+         response.future.completeExceptionally(e);
+         throw e;
+      }
+      // Errors are not caught: incomplete responses are signalled with one
+      connection.removePending(messageId);
+      response.future.complete(result);
+   }
+
+   /**
+    * Reads the response to a request which timed out or was cancelled, so that the responses after it can be read.
+    */
+   private void discard(PendingResponse<?> response, NettyTransport transport, long messageId) {
+      NettyConnection connection = transport.getConnection();
+      try {
+         response.reader.readResponse(transport);
+      } catch (InvalidResponseException e) {
+         connection.removePending(messageId);
+         throw e;
+      } catch (HotRodClientException e) {
+         // an error response, read entirely
+         if (!transport.isValid()) {
+            connection.close();
+         }
+      }
+      // Errors are not caught: incomplete responses are signalled with one
+      connection.removePending(messageId);
+      if (log.isTraceEnabled()) {
+         log.tracef("Discarded the response to abandoned request %d", messageId);
+      }
+   }
+
+   @Override
+   public void exceptionCaught(ChannelHandlerContext ctx, ExceptionEvent e) {
+      NettyConnection connection = (NettyConnection) e.getChannel().getAttachment();
+      log.closingConnectionAfterError(connection != null ? connection.getServerAddress() : e.getChannel().getRemoteAddress(), e.getCause());
+      e.getChannel().close();
+   }
+
+   @Override
+   public void channelClosed(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
+      super.channelClosed(ctx, e);
+      NettyConnection connection = (NettyConnection) e.getChannel().getAttachment();
+      if (connection != null) {
+         connection.failPending(new TransportException("Connection closed", connection.getServerAddress()));
+      }
+   }
+}
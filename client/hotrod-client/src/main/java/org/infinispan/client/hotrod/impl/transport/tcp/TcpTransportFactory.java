@@ -297,6 +297,7 @@ private Transport borrowTransportFromPool(SocketAddress server) {
    /**
     * Note that the returned <code>ConsistentHash</code> may not be thread-safe.
     */
+   @Override
    public ConsistentHash getConsistentHash() {
       synchronized (lock) {
          return consistentHash;
@@ -125,4 +125,14 @@ public interface Log extends BasicLogger {
 
    @Message(value = "Cannot configure custom KeyStore and/or TrustStore when specifying a SSLContext", id = 4027)
    CacheConfigurationException xorSSLContext();
+
+   @LogMessage(level = WARN)
+   @Message(value = "Closing connection to %s after an error processing a response", id = 4028)
+   void closingConnectionAfterError(SocketAddress server, @Cause Throwable t);
+
+   @Message(value = "The near cache max entries must be greater than 0, was %d", id = 4029)
+   CacheConfigurationException invalidNearCacheMaxEntries(int maxEntries);
+
+   @Message(value = "The near cache lifespan must be greater than 0, was %d", id = 4030)
+   CacheConfigurationException invalidNearCacheLifespan(long lifespan);
 }
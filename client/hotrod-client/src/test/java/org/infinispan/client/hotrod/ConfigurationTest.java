@@ -44,6 +44,10 @@ public void testConfiguration() {
          .pingOnStartup(false)
          .keySizeEstimate(128)
          .valueSizeEstimate(1024)
+         .nearCache()
+            .enable()
+            .maxEntries(500)
+            .lifespan(2000)
          .transportFactory(SomeTransportfactory.class);
 
       Configuration configuration = builder.build();
@@ -79,5 +83,8 @@ private void validateConfiguration(Configuration configuration) {
       assertFalse(configuration.pingOnStartup());
       assertEquals(128, configuration.keySizeEstimate());
       assertEquals(1024, configuration.valueSizeEstimate());
+      assertTrue(configuration.nearCache().enabled());
+      assertEquals(500, configuration.nearCache().maxEntries());
+      assertEquals(2000, configuration.nearCache().lifespan());
    }
 }
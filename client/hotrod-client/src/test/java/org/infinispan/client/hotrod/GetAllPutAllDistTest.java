@@ -0,0 +1,117 @@
+package org.infinispan.client.hotrod;
+
+import static org.infinispan.client.hotrod.test.HotRodClientTestingUtil.killRemoteCacheManager;
+import static org.infinispan.client.hotrod.test.HotRodClientTestingUtil.killServers;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.impl.ConfigurationProperties;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.server.hotrod.HotRodServer;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the bulk get and put operations, which send one request per server owning some of the keys.
+ *
+ * @since 6.0
+ */
+@Test(testName = "client.hotrod.GetAllPutAllDistTest", groups = "functional")
+public class GetAllPutAllDistTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_SERVERS = 3;
+
+   private HotRodServer[] hotrodServers;
+   private RemoteCacheManager remoteCacheManager;
+   private RemoteCache<Object, Object> remoteCache;
+   private RemoteCacheManager remoteCacheManager12;
+   private RemoteCache<Object, Object> remoteCache12;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      createCluster(hotRodCacheConfiguration(getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false)), NUM_SERVERS);
+      hotrodServers = new HotRodServer[NUM_SERVERS];
+      for (int i = 0; i < NUM_SERVERS; i++) {
+         hotrodServers[i] = TestHelper.startHotRodServer(manager(i));
+      }
+      String servers = TestHelper.getServersString(hotrodServers);
+      remoteCacheManager = new RemoteCacheManager(new ConfigurationBuilder().addServers(servers)
+            .protocolVersion(ConfigurationProperties.PROTOCOL_VERSION_14).build());
+      remoteCache = remoteCacheManager.getCache();
+      remoteCacheManager12 = new RemoteCacheManager(new ConfigurationBuilder().addServers(servers)
+            .protocolVersion(ConfigurationProperties.PROTOCOL_VERSION_12).build());
+      remoteCache12 = remoteCacheManager12.getCache();
+   }
+
+   @AfterClass
+   public void release() {
+      killRemoteCacheManager(remoteCacheManager);
+      killRemoteCacheManager(remoteCacheManager12);
+      killServers(hotrodServers);
+   }
+
+   public void testPutAllGetAll() {
+      Map<Object, Object> entries = new HashMap<Object, Object>();
+      for (int i = 0; i < 100; i++) {
+         entries.put("k" + i, "v" + i);
+      }
+      remoteCache.putAll(entries);
+
+      for (int i = 0; i < NUM_SERVERS; i++) {
+         assertTrue(cache(i).size() < entries.size());
+      }
+      for (int i = 0; i < 100; i++) {
+         assertEquals("v" + i, remoteCache.get("k" + i));
+      }
+
+      Set<Object> keys = new HashSet<Object>(entries.keySet());
+      keys.add("missing");
+      Map<Object, Object> result = remoteCache.getAll(keys);
+      assertEquals(entries, result);
+   }
+
+   public void testPutAllStoresVersions() {
+      Map<Object, Object> entries = new HashMap<Object, Object>();
+      entries.put("versioned1", "v1");
+      entries.put("versioned2", "v2");
+      remoteCache.putAll(entries);
+
+      VersionedValue<Object> versioned = remoteCache.getVersioned("versioned1");
+      assertNotNull(versioned);
+      assertTrue(remoteCache.replaceWithVersion("versioned1", "v1-new", versioned.getVersion()));
+      assertEquals("v1-new", remoteCache.get("versioned1"));
+      assertNotNull(remoteCache.getWithMetadata("versioned2"));
+   }
+
+   public void testPutAllGetAllWithProtocol12() {
+      // Servers only accept the bulk operations from 1.4 clients, older ones use one request per key
+      Map<Object, Object> entries = new HashMap<Object, Object>();
+      for (int i = 0; i < 10; i++) {
+         entries.put("old" + i, "v" + i);
+      }
+      remoteCache12.putAll(entries);
+      for (int i = 0; i < 10; i++) {
+         assertEquals("v" + i, remoteCache.get("old" + i));
+      }
+
+      Set<Object> keys = new HashSet<Object>(entries.keySet());
+      keys.add("missing");
+      assertEquals(entries, remoteCache12.getAll(keys));
+   }
+
+   public void testGetAllNoKeyFound() {
+      Set<Object> keys = new HashSet<Object>();
+      keys.add("none1");
+      keys.add("none2");
+      assertTrue(remoteCache.getAll(keys).isEmpty());
+   }
+}
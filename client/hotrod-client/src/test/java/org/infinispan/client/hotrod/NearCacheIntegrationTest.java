@@ -0,0 +1,108 @@
+package org.infinispan.client.hotrod;
+
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.server.hotrod.HotRodServer;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import static org.infinispan.client.hotrod.test.HotRodClientTestingUtil.killRemoteCacheManager;
+import static org.infinispan.client.hotrod.test.HotRodClientTestingUtil.killServers;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+
+/**
+ * Tests the client's near cache against a Hot Rod server.
+ *
+ * @since 6.0
+ */
+@Test(groups = "functional", testName = "client.hotrod.NearCacheIntegrationTest")
+public class NearCacheIntegrationTest extends SingleCacheManagerTest {
+   private HotRodServer hotrodServer;
+   private RemoteCacheManager rcm;
+   private RemoteCacheManager otherRcm;
+   private RemoteCache<String, String> remoteCache;
+   private RemoteCache<String, String> otherRemoteCache;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      return TestCacheManagerFactory.createCacheManager(hotRodCacheConfiguration());
+   }
+
+   @Override
+   protected void setup() throws Exception {
+      super.setup();
+      hotrodServer = TestHelper.startHotRodServer(cacheManager);
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.addServer().host("127.0.0.1").port(hotrodServer.getPort())
+            .nearCache().enable().maxEntries(100).lifespan(60000);
+      rcm = new RemoteCacheManager(builder.build());
+      remoteCache = rcm.getCache();
+      otherRcm = new RemoteCacheManager("127.0.0.1", hotrodServer.getPort());
+      otherRemoteCache = otherRcm.getCache();
+   }
+
+   @AfterClass
+   @Override
+   protected void destroyAfterClass() {
+      super.destroyAfterClass();
+      killRemoteCacheManager(rcm);
+      killRemoteCacheManager(otherRcm);
+      killServers(hotrodServer);
+   }
+
+   public void testReadsServedLocally() {
+      remoteCache.put("k1", "v1");
+      long hits = nearCacheStat(ServerStatistics.NEAR_CACHE_HITS);
+      long misses = nearCacheStat(ServerStatistics.NEAR_CACHE_MISSES);
+      assertEquals("v1", remoteCache.get("k1"));
+      assertEquals("v1", remoteCache.get("k1"));
+      assertEquals("v1", remoteCache.get("k1"));
+      assertEquals(hits + 2, nearCacheStat(ServerStatistics.NEAR_CACHE_HITS));
+      assertEquals(misses + 1, nearCacheStat(ServerStatistics.NEAR_CACHE_MISSES));
+   }
+
+   public void testMetadataReadsPopulateButBypassNearCache() {
+      remoteCache.put("k4", "v1");
+      long hits = nearCacheStat(ServerStatistics.NEAR_CACHE_HITS);
+      long misses = nearCacheStat(ServerStatistics.NEAR_CACHE_MISSES);
+      assertEquals("v1", remoteCache.getWithMetadata("k4").getValue());
+      assertEquals("v1", remoteCache.getVersioned("k4").getValue());
+      assertEquals(hits, nearCacheStat(ServerStatistics.NEAR_CACHE_HITS));
+      assertEquals(misses, nearCacheStat(ServerStatistics.NEAR_CACHE_MISSES));
+      // the value read with its metadata is cached
+      assertEquals("v1", remoteCache.get("k4"));
+      assertEquals(hits + 1, nearCacheStat(ServerStatistics.NEAR_CACHE_HITS));
+   }
+
+   public void testWritesInvalidate() {
+      remoteCache.put("k2", "v1");
+      assertEquals("v1", remoteCache.get("k2"));
+      remoteCache.put("k2", "v2");
+      assertEquals("v2", remoteCache.get("k2"));
+      remoteCache.replaceWithVersion("k2", "v3", remoteCache.getVersioned("k2").getVersion());
+      assertEquals("v3", remoteCache.get("k2"));
+      remoteCache.remove("k2");
+      assertNull(remoteCache.get("k2"));
+   }
+
+   public void testVersionedReadsSeeServerVersion() {
+      remoteCache.put("k3", "v1");
+      assertEquals("v1", remoteCache.get("k3"));
+      long version = remoteCache.getVersioned("k3").getVersion();
+      // the key is modified by another client: the cached value is stale until it expires, but not the version
+      otherRemoteCache.put("k3", "v2");
+      assertEquals("v1", remoteCache.get("k3"));
+      long newVersion = remoteCache.getVersioned("k3").getVersion();
+      assert newVersion != version;
+      assert remoteCache.replaceWithVersion("k3", "v3", newVersion);
+      assertEquals("v3", remoteCache.get("k3"));
+   }
+
+   private long nearCacheStat(String name) {
+      return Long.parseLong(remoteCache.stats().getStatistic(name));
+   }
+}
@@ -0,0 +1,20 @@
+package org.infinispan.client.hotrod;
+
+import org.infinispan.client.hotrod.impl.transport.netty.NettyTransportFactory;
+import org.testng.annotations.Test;
+
+import java.util.Properties;
+
+/**
+ * Runs the asynchronous API tests over the multiplexing {@link NettyTransportFactory}.
+ *
+ * @since 6.0
+ */
+@Test(groups = "functional", testName = "client.hotrod.NettyRemoteAsyncAPITest")
+public class NettyRemoteAsyncAPITest extends RemoteAsyncAPITest {
+
+   @Override
+   protected void configureClient(Properties props) {
+      props.put("infinispan.client.hotrod.transport_factory", NettyTransportFactory.class.getName());
+   }
+}
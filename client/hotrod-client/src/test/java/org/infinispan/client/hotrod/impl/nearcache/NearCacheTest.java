@@ -0,0 +1,75 @@
+package org.infinispan.client.hotrod.impl.nearcache;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+
+import org.infinispan.client.hotrod.MetadataValue;
+import org.infinispan.client.hotrod.impl.MetadataValueImpl;
+import org.testng.annotations.Test;
+
+/**
+ * @since 6.0
+ */
+@Test(testName = "client.hotrod.impl.nearcache.NearCacheTest", groups = "unit")
+public class NearCacheTest {
+
+   public void testHitAndMiss() {
+      NearCache nearCache = new NearCache(10, 60000);
+      assertNull(nearCache.get(key(1)));
+      nearCache.put(key(1), value(1, -1), nearCache.beginRead(key(1)));
+      byte[] cached = nearCache.get(key(1));
+      assertNotNull(cached);
+      assertEquals(1, cached[0]);
+      assertEquals(1, nearCache.getHits());
+      assertEquals(1, nearCache.getMisses());
+   }
+
+   public void testInvalidate() {
+      NearCache nearCache = new NearCache(10, 60000);
+      nearCache.put(key(1), value(1, -1), nearCache.beginRead(key(1)));
+      nearCache.invalidate(key(1));
+      assertNull(nearCache.get(key(1)));
+   }
+
+   public void testReadConcurrentWithInvalidationIsNotCached() {
+      NearCache nearCache = new NearCache(10, 60000);
+      long stamp = nearCache.beginRead(key(1));
+      nearCache.invalidate(key(1));
+      nearCache.put(key(1), value(1, -1), stamp);
+      assertNull(nearCache.get(key(1)));
+   }
+
+   public void testEviction() {
+      NearCache nearCache = new NearCache(10, 60000);
+      for (int i = 0; i < 20; i++) {
+         nearCache.put(key(i), value(i, -1), nearCache.beginRead(key(i)));
+      }
+      assertEquals(10, nearCache.size());
+      assertNull(nearCache.get(key(0)));
+      assertNotNull(nearCache.get(key(19)));
+   }
+
+   public void testExpiredOnServer() {
+      NearCache nearCache = new NearCache(10, 60000);
+      // created long enough ago for its 1 second lifespan to have elapsed
+      MetadataValue<byte[]> expired = new MetadataValueImpl<byte[]>(System.currentTimeMillis() - 5000, 1, -1, -1, 1, new byte[] {1});
+      nearCache.put(key(1), expired, nearCache.beginRead(key(1)));
+      assertNull(nearCache.get(key(1)));
+   }
+
+   public void testLifespan() throws InterruptedException {
+      NearCache nearCache = new NearCache(10, 10);
+      nearCache.put(key(1), value(1, -1), nearCache.beginRead(key(1)));
+      Thread.sleep(50);
+      assertNull(nearCache.get(key(1)));
+   }
+
+   private static byte[] key(int i) {
+      return new byte[] {(byte) (i >> 8), (byte) i};
+   }
+
+   private static MetadataValue<byte[]> value(long version, int lifespan) {
+      return new MetadataValueImpl<byte[]>(-1, lifespan, -1, -1, version, new byte[] {(byte) version});
+   }
+}
@@ -0,0 +1,179 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.async.ResponseFuture;
+import org.infinispan.client.hotrod.impl.transport.MultiplexedTransportFactory.ResponseReader;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.handler.codec.embedder.DecoderEmbedder;
+import org.jboss.netty.util.Timeout;
+import org.jboss.netty.util.Timer;
+import org.jboss.netty.util.TimerTask;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the requests sharing a connection are not affected by a request which times out or is cancelled.
+ *
+ * @since 6.0
+ */
+@Test(groups = "unit", testName = "client.hotrod.impl.transport.netty.NettyConnectionTest")
+public class NettyConnectionTest {
+
+   private static final ResponseReader<String> READER = new ResponseReader<String>() {
+      @Override
+      public String readResponse(Transport transport) {
+         transport.readByte(); // magic
+         transport.readVLong(); // message id
+         return new String(transport.readArray());
+      }
+   };
+
+   private ManualTimer timer;
+   private DecoderEmbedder<Object> embedder;
+   private NettyConnection connection;
+
+   @BeforeMethod
+   public void setUp() {
+      timer = new ManualTimer();
+      embedder = new DecoderEmbedder<Object>(new ResponseDecoder(new NettyTransportFactory()));
+      Channel channel = embedder.getPipeline().getChannel();
+      connection = new NettyConnection(channel, new InetSocketAddress(11222), timer, 1000);
+      channel.setAttachment(connection);
+   }
+
+   public void testTimeoutDoesNotAffectConcurrentRequests() throws Exception {
+      List<ResponseFuture<String>> futures = new ArrayList<ResponseFuture<String>>();
+      for (long messageId = 1; messageId <= 3; messageId++) {
+         ResponseFuture<String> future = new ResponseFuture<String>();
+         connection.send(ChannelBuffers.EMPTY_BUFFER, messageId, READER, future);
+         futures.add(future);
+      }
+
+      // the second request times out
+      timer.expire(1);
+      assertTimedOut(futures.get(1));
+
+      // its late response, received between the others, is discarded
+      embedder.offer(ChannelBuffers.wrappedBuffer(response(1, "v1"), response(2, "v2"), response(3, "v3")));
+      assertEquals("v1", futures.get(0).get(0, TimeUnit.SECONDS));
+      assertEquals("v3", futures.get(2).get(0, TimeUnit.SECONDS));
+      assertTrue(connection.isOpen());
+      for (long messageId = 1; messageId <= 3; messageId++)
+         assertNull(connection.getPending(messageId));
+   }
+
+   public void testResponseToCancelledRequestIsDiscarded() throws Exception {
+      ResponseFuture<String> cancelled = new ResponseFuture<String>();
+      ResponseFuture<String> other = new ResponseFuture<String>();
+      connection.send(ChannelBuffers.EMPTY_BUFFER, 1, READER, cancelled);
+      connection.send(ChannelBuffers.EMPTY_BUFFER, 2, READER, other);
+      cancelled.cancel(false);
+
+      // the late response is received in two parts
+      ChannelBuffer responses = ChannelBuffers.wrappedBuffer(response(1, "v1"), response(2, "v2"));
+      embedder.offer(responses.readBytes(3));
+      embedder.offer(responses);
+      assertEquals("v2", other.get(0, TimeUnit.SECONDS));
+      assertTrue(connection.isOpen());
+      assertNull(connection.getPending(1));
+      assertTrue(timer.timeouts.get(0).isCancelled());
+   }
+
+   private static void assertTimedOut(ResponseFuture<String> future) throws InterruptedException {
+      try {
+         future.get(0, TimeUnit.SECONDS);
+         fail("The request should have timed out");
+      } catch (ExecutionException e) {
+         assertTrue(e.getCause() instanceof TransportException);
+      } catch (java.util.concurrent.TimeoutException e) {
+         fail("The request should have timed out");
+      }
+   }
+
+   private static ChannelBuffer response(long messageId, String value) {
+      NettyTransport transport = new NettyTransport(null, null, ChannelBuffers.dynamicBuffer());
+      transport.writeByte((short) 0xA1);
+      transport.writeVLong(messageId);
+      transport.writeArray(value.getBytes());
+      return transport.getBuffer();
+   }
+
+   /**
+    * Runs the timeouts when told to.
+    */
+   private static class ManualTimer implements Timer {
+      final List<ManualTimeout> timeouts = new ArrayList<ManualTimeout>();
+
+      @Override
+      public Timeout newTimeout(TimerTask task, long delay, TimeUnit unit) {
+         ManualTimeout timeout = new ManualTimeout(this, task);
+         timeouts.add(timeout);
+         return timeout;
+      }
+
+      @Override
+      public Set<Timeout> stop() {
+         return null;
+      }
+
+      void expire(int index) throws Exception {
+         ManualTimeout timeout = timeouts.get(index);
+         if (!timeout.isCancelled()) {
+            timeout.expired = true;
+            timeout.task.run(timeout);
+         }
+      }
+   }
+
+   private static class ManualTimeout implements Timeout {
+      final Timer timer;
+      final TimerTask task;
+      boolean expired;
+      boolean cancelled;
+
+      ManualTimeout(Timer timer, TimerTask task) {
+         this.timer = timer;
+         this.task = task;
+      }
+
+      @Override
+      public Timer getTimer() {
+         return timer;
+      }
+
+      @Override
+      public TimerTask getTask() {
+         return task;
+      }
+
+      @Override
+      public boolean isExpired() {
+         return expired;
+      }
+
+      @Override
+      public boolean isCancelled() {
+         return cancelled;
+      }
+
+      @Override
+      public void cancel() {
+         cancelled = true;
+      }
+   }
+}
@@ -21,6 +21,8 @@
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Similar to {@link org.infinispan.AbstractDelegatingCache}, but for {@link AdvancedCache}.
@@ -181,6 +183,11 @@ public CacheEntry getCacheEntry(K key) {
       return cache.getCacheEntry(key);
    }
 
+   @Override
+   public Map<K, V> getAll(Set<?> keys) {
+      return cache.getAll(keys);
+   }
+
    @Override
    public V put(K key, V value, Metadata metadata) {
       return cache.put(key, value, metadata);
@@ -201,6 +208,11 @@ public V putIfAbsent(K key, V value, Metadata metadata) {
       return cache.putIfAbsent(key, value, metadata);
    }
 
+   @Override
+   public void putAll(Map<? extends K, ? extends V> map, Metadata metadata) {
+      cache.putAll(map, metadata);
+   }
+
    @Override
    public NotifyingFuture<V> putAsync(K key, V value, Metadata metadata) {
       return cache.putAsync(key, value, metadata);
@@ -21,6 +21,8 @@
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * An advanced interface that exposes additional methods not available on {@link Cache}.
@@ -363,6 +365,17 @@
     */
    NotifyingFuture<V> putAsync(K key, V value, Metadata metadata);
 
+   /**
+    * An overloaded form of {@link #putAll(java.util.Map)}, which stores the given metadata alongside each of the
+    * values.
+    *
+    * @param map the values to store
+    * @param metadata information to store alongside the new values
+    *
+    * @since 6.0
+    */
+   void putAll(Map<? extends K, ? extends V> map, Metadata metadata);
+
    // TODO: Even better: add replace/remove calls that apply the changes if a given function is successful
    // That way, you could do comparison not only on the cache value, but also based on version...etc
 
@@ -377,4 +390,17 @@
     */
    CacheEntry getCacheEntry(K key);
 
+   /**
+    * Retrieves the values of several keys at once. Unlike invoking {@link #get(Object)} for each key, this visits the
+    * interceptor chain only once, and in distributed mode it fetches the keys which are not stored locally with a
+    * single remote call per owner, sent to all the owners in parallel.
+    *
+    * @param keys the keys whose associated values are to be returned
+    * @return a map with the value of each key found in the cache, without any mapping for the keys that were not
+    *         found
+    *
+    * @since 6.0
+    */
+   Map<K, V> getAll(Set<?> keys);
+
 }
@@ -6,6 +6,7 @@
 import org.infinispan.commands.VisitableCommand;
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
 import org.infinispan.commands.read.SizeCommand;
@@ -33,6 +34,7 @@
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.SurvivesRestarts;
+import org.infinispan.interceptors.CacheMgmtInterceptor;
 import org.infinispan.interceptors.InterceptorChain;
 import org.infinispan.interceptors.base.CommandInterceptor;
 import org.infinispan.jmx.annotations.DataType;
@@ -123,6 +125,8 @@
    private TransactionCoordinator txCoordinator;
    private GlobalConfiguration globalCfg;
    private boolean isClassLoaderInContext;
+   private boolean fastLocalReads;
+   private CacheMgmtInterceptor cacheMgmtInterceptor;
 
    public CacheImpl(String name) {
       this.name = name;
@@ -365,11 +369,35 @@ public final V get(Object key) {
    @SuppressWarnings("unchecked")
    final V get(Object key, EnumSet<Flag> explicitFlags, ClassLoader explicitClassLoader) {
       assertKeyNotNull(key);
+      if (fastLocalReads && explicitFlags == null && explicitClassLoader == null) {
+         Object value = fastLocalRead(key);
+         if (value != null) return (V) value;
+      }
       InvocationContext ctx = getInvocationContextForRead(null, explicitClassLoader, 1);
       GetKeyValueCommand command = commandsFactory.buildGetKeyValueCommand(key, explicitFlags, false);
       return (V) invoker.invoke(ctx, command);
    }
 
+   /**
+    * Reads the value of a key straight from the data container, if none of the interceptors has side effects on the
+    * read. See {@link org.infinispan.configuration.cache.UnsafeConfigurationBuilder#fastLocalReads(boolean)}.
+    *
+    * @return the value of the key, or null if it must be read through the interceptor chain
+    */
+   private Object fastLocalRead(Object key) {
+      if (!invoker.hasSideEffectFreeReads() || componentRegistry.getStatus() != ComponentStatus.RUNNING
+            || (cacheMgmtInterceptor != null && cacheMgmtInterceptor.getStatisticsEnabled()))
+         return null;
+      // expired entries are removed by the data container, and read through the chain
+      InternalCacheEntry entry = dataContainer.get(key);
+      Object value = entry == null ? null : entry.getValue();
+      if (value != null) {
+         notifier.notifyCacheEntryVisited(key, value, true, null, null);
+         notifier.notifyCacheEntryVisited(key, value, false, null, null);
+      }
+      return value;
+   }
+
    @Override
    public final CacheEntry getCacheEntry(Object key, EnumSet<Flag> explicitFlags, ClassLoader explicitClassLoader) {
       assertKeyNotNull(key);
@@ -384,6 +412,21 @@ public final CacheEntry getCacheEntry(K key) {
       return getCacheEntry(key, null, null);
    }
 
+   @Override
+   public final Map<K, V> getAll(Set<?> keys) {
+      return getAll(keys, null, null);
+   }
+
+   @SuppressWarnings("unchecked")
+   final Map<K, V> getAll(Set<?> keys, EnumSet<Flag> explicitFlags, ClassLoader explicitClassLoader) {
+      for (Object key : keys) {
+         assertKeyNotNull(key);
+      }
+      InvocationContext ctx = getInvocationContextForRead(null, explicitClassLoader, keys.size());
+      GetAllCommand command = commandsFactory.buildGetAllCommand(keys, explicitFlags, false);
+      return (Map<K, V>) invoker.invoke(ctx, command);
+   }
+
    @Override
    public final V remove(Object key) {
       return remove(key, null, null);
@@ -668,6 +711,11 @@ public void start() {
       isClassLoaderInContext = config.clustering().cacheMode().isClustered()
             || config.loaders().usingCacheLoaders()
             || config.storeAsBinary().enabled();
+      fastLocalReads = config.unsafe().fastLocalReads()
+            && !config.transaction().transactionMode().isTransactional()
+            && !config.clustering().cacheMode().isDistributed();
+      List<CommandInterceptor> mgmtInterceptors = invoker.getInterceptorsWithClass(CacheMgmtInterceptor.class);
+      cacheMgmtInterceptor = mgmtInterceptors.isEmpty() ? null : (CacheMgmtInterceptor) mgmtInterceptors.get(0);
 
       if (log.isDebugEnabled()) log.debugf("Started cache %s on %s", getName(), getCacheManager().getAddress());
    }
@@ -1379,6 +1427,11 @@ public NotifyingFuture<V> putAsync(K key, V value, Metadata metadata) {
       return putAsync(key, value, metadata, null, null);
    }
 
+   @Override
+   public void putAll(Map<? extends K, ? extends V> map, Metadata metadata) {
+      putAll(map, metadata, null, null);
+   }
+
    private void associateImplicitTransactionWithCurrentThread(InvocationContext ctx) throws InvalidTransactionException, SystemException {
       if (isTxInjected(ctx)) {
          Transaction transaction = ((TxInvocationContext) ctx).getTransaction();
@@ -155,6 +155,11 @@ public V putIfAbsent(K key, V value, long lifespan, TimeUnit unit) {
       return cacheImplementation.putIfAbsent(key, value, metadata, flags, classLoader.get());
    }
 
+   @Override
+   public void putAll(Map<? extends K, ? extends V> map, Metadata metadata) {
+      cacheImplementation.putAll(map, metadata, flags, classLoader.get());
+   }
+
    @Override
    public void putAll(Map<? extends K, ? extends V> map, long lifespan, TimeUnit unit) {
       Metadata metadata = new EmbeddedMetadata.Builder()
@@ -495,4 +500,9 @@ public CacheEntry getCacheEntry(K key) {
       return cacheImplementation.getCacheEntry(key, flags, classLoader.get());
    }
 
+   @Override
+   public Map<K, V> getAll(Set<?> keys) {
+      return cacheImplementation.getAll(keys, flags, classLoader.get());
+   }
+
 }
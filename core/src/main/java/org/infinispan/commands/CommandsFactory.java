@@ -1,5 +1,7 @@
 package org.infinispan.commands;
 
+import org.infinispan.commands.read.GetAllCommand;
+import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.atomic.Delta;
 import org.infinispan.commands.control.LockControlCommand;
@@ -124,6 +126,16 @@ public interface CommandsFactory {
     */
    GetKeyValueCommand buildGetKeyValueCommand(Object key, Set<Flag> flags, boolean returnEntry);
 
+   /**
+    * Builds a GetAllCommand
+    * @param keys keys to get
+    * @param flags Command flags provided by cache
+    * @param returnEntries boolean indicating whether entire cache entries are
+    *                      returned, otherwise return just the value parts
+    * @return a GetAllCommand
+    */
+   GetAllCommand buildGetAllCommand(Collection<?> keys, Set<Flag> flags, boolean returnEntries);
+
    /**
     * Builds a KeySetCommand
     * @param flags Command flags provided by cache
@@ -243,6 +255,13 @@ public interface CommandsFactory {
     */
    ClusteredGetCommand buildClusteredGetCommand(Object key, Set<Flag> flags, boolean acquireRemoteLock, GlobalTransaction gtx);
 
+   /**
+    * Builds a ClusteredGetAllCommand, which is a remote lookup command for several keys
+    * @param keys keys to look up
+    * @return a ClusteredGetAllCommand
+    */
+   ClusteredGetAllCommand buildClusteredGetAllCommand(List<Object> keys, Set<Flag> flags);
+
    /**
     * Builds a LockControlCommand to control explicit remote locking
     *
@@ -1,6 +1,8 @@
 package org.infinispan.commands;
 
 import org.infinispan.Cache;
+import org.infinispan.commands.read.GetAllCommand;
+import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.atomic.Delta;
 import org.infinispan.commands.control.LockControlCommand;
@@ -210,6 +212,11 @@ public GetKeyValueCommand buildGetKeyValueCommand(Object key, Set<Flag> flags, b
       return new GetKeyValueCommand(key, flags, returnEntry);
    }
 
+   @Override
+   public GetAllCommand buildGetAllCommand(Collection<?> keys, Set<Flag> flags, boolean returnEntries) {
+      return new GetAllCommand(keys, flags, returnEntries, configuration.dataContainer().keyEquivalence());
+   }
+
    @Override
    public PutMapCommand buildPutMapCommand(Map<?, ?> map, Metadata metadata, Set<Flag> flags) {
       return new PutMapCommand(map, notifier, metadata, flags);
@@ -270,6 +277,11 @@ public ClusteredGetCommand buildClusteredGetCommand(Object key, Set<Flag> flags,
             configuration.dataContainer().keyEquivalence());
    }
 
+   @Override
+   public ClusteredGetAllCommand buildClusteredGetAllCommand(List<Object> keys, Set<Flag> flags) {
+      return new ClusteredGetAllCommand(keys, cacheName, flags);
+   }
+
    /**
     * @param isRemote true if the command is deserialized and is executed remote.
     */
@@ -353,6 +365,10 @@ public void initializeReplicableCommand(ReplicableCommand c, boolean isRemote) {
                   interceptorChain, distributionManager, txTable,
                   configuration.dataContainer().keyEquivalence());
             break;
+         case ClusteredGetAllCommand.COMMAND_ID:
+            ClusteredGetAllCommand clusteredGetAllCommand = (ClusteredGetAllCommand) c;
+            clusteredGetAllCommand.initialize(icc, this, entryFactory, interceptorChain, distributionManager);
+            break;
          case LockControlCommand.COMMAND_ID:
             LockControlCommand lcc = (LockControlCommand) c;
             lcc.init(interceptorChain, icc, txTable);
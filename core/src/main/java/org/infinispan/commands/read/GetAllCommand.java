@@ -0,0 +1,157 @@
+package org.infinispan.commands.read;
+
+import org.infinispan.commands.AbstractFlagAffectedCommand;
+import org.infinispan.commands.LocalCommand;
+import org.infinispan.commands.Visitor;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.context.Flag;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.lifecycle.ComponentStatus;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implements functionality defined by {@link org.infinispan.AdvancedCache#getAll(java.util.Set)}: looks up several
+ * keys with a single invocation of the interceptor chain.
+ *
+ * @since 6.0
+ */
+public class GetAllCommand extends AbstractFlagAffectedCommand implements LocalCommand {
+   private static final Log log = LogFactory.getLog(GetAllCommand.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private Collection<Object> keys;
+   private final boolean returnEntries;
+   private final Equivalence keyEquivalence;
+   private Map<Object, InternalCacheEntry> remotelyFetched;
+
+   @SuppressWarnings("unchecked")
+   public GetAllCommand(Collection<?> keys, Set<Flag> flags, boolean returnEntries, Equivalence keyEquivalence) {
+      this.keys = (Collection<Object>) keys;
+      this.returnEntries = returnEntries;
+      this.keyEquivalence = keyEquivalence;
+      setFlags(flags);
+   }
+
+   @Override
+   public Object acceptVisitor(InvocationContext ctx, Visitor visitor) throws Throwable {
+      return visitor.visitGetAllCommand(ctx, this);
+   }
+
+   @Override
+   public boolean shouldInvoke(InvocationContext ctx) {
+      return true;
+   }
+
+   @Override
+   public boolean ignoreCommandOnStatus(ComponentStatus status) {
+      return false;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return 0;  // no-op
+   }
+
+   @Override
+   public Object[] getParameters() {
+      return null;  // no-op
+   }
+
+   @Override
+   public void setParameters(int commandId, Object[] parameters) {
+      // no-op
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return true;
+   }
+
+   @Override
+   public boolean canBlock() {
+      return false;
+   }
+
+   /**
+    * Returns the values, or the entries if {@link #isReturnEntries()}, of the keys found either in the invocation
+    * context or among the entries fetched from remote nodes. Keys that were not found are not in the map.
+    */
+   @Override
+   @SuppressWarnings("unchecked")
+   public Map<Object, Object> perform(InvocationContext ctx) throws Throwable {
+      Map<Object, Object> map = createMap(keys.size());
+      for (Object key : keys) {
+         CacheEntry entry = ctx.lookupEntry(key);
+         if (entry == null || entry.isNull()) {
+            entry = remotelyFetched == null ? null : remotelyFetched.get(key);
+            if (entry == null) {
+               if (trace) log.tracef("Entry for key %s not found", key);
+               continue;
+            }
+         }
+         if (entry.isRemoved()) {
+            if (trace) log.tracef("Entry for key %s has been deleted", key);
+            continue;
+         }
+         map.put(key, returnEntries ? entry : entry.getValue());
+      }
+      return map;
+   }
+
+   /**
+    * Creates an empty map that compares keys with the key equivalence of the cache, suitable for the results of this
+    * command.
+    */
+   @SuppressWarnings("unchecked")
+   public <V> Map<Object, V> createMap(int expectedSize) {
+      return CollectionFactory.makeMap(expectedSize, keyEquivalence, AnyEquivalence.getInstance());
+   }
+
+   public Collection<Object> getKeys() {
+      return keys;
+   }
+
+   @SuppressWarnings("unchecked")
+   public void setKeys(Collection<?> keys) {
+      this.keys = (Collection<Object>) keys;
+   }
+
+   public boolean isReturnEntries() {
+      return returnEntries;
+   }
+
+   /**
+    * Records an entry the cache had to fetch from another node because it is not stored locally.
+    */
+   public void addRemotelyFetchedValue(Object key, InternalCacheEntry entry) {
+      if (remotelyFetched == null) {
+         remotelyFetched = createMap(keys.size());
+      }
+      remotelyFetched.put(key, entry);
+   }
+
+   /**
+    * @return the entry fetched from a remote node for the given key, or {@code null} if it was not fetched remotely
+    */
+   public InternalCacheEntry getRemotelyFetchedValue(Object key) {
+      return remotelyFetched == null ? null : remotelyFetched.get(key);
+   }
+
+   @Override
+   public String toString() {
+      return "GetAllCommand{" +
+            "keys=" + keys +
+            ", returnEntries=" + returnEntries +
+            ", flags=" + flags +
+            '}';
+   }
+}
@@ -0,0 +1,202 @@
+package org.infinispan.commands.remote;
+
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.FlagAffectedCommand;
+import org.infinispan.commands.Visitor;
+import org.infinispan.commands.read.GetAllCommand;
+import org.infinispan.container.InternalEntryFactory;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.entries.InternalCacheValue;
+import org.infinispan.container.entries.MVCCEntry;
+import org.infinispan.context.Flag;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.context.InvocationContextContainer;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.lifecycle.ComponentStatus;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Issues a remote get call for several keys at once, the bulk counterpart of {@link ClusteredGetCommand}. This is not a
+ * {@link org.infinispan.commands.VisitableCommand} and hence not passed up the
+ * {@link org.infinispan.interceptors.base.CommandInterceptor} chain.
+ *
+ * @since 6.0
+ */
+public class ClusteredGetAllCommand extends BaseRpcCommand implements FlagAffectedCommand {
+
+   public static final byte COMMAND_ID = 40;
+   private static final Log log = LogFactory.getLog(ClusteredGetAllCommand.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private List<Object> keys;
+   private Set<Flag> flags;
+   private int topologyId;
+
+   private InvocationContextContainer icc;
+   private CommandsFactory commandsFactory;
+   private InterceptorChain invoker;
+   private DistributionManager distributionManager;
+   private InternalEntryFactory entryFactory;
+
+   private ClusteredGetAllCommand() {
+      super(null); // For command id uniqueness test
+   }
+
+   public ClusteredGetAllCommand(String cacheName) {
+      super(cacheName);
+   }
+
+   public ClusteredGetAllCommand(List<Object> keys, String cacheName, Set<Flag> flags) {
+      super(cacheName);
+      this.keys = keys;
+      this.flags = flags;
+   }
+
+   public void initialize(InvocationContextContainer icc, CommandsFactory commandsFactory, InternalEntryFactory entryFactory,
+                          InterceptorChain interceptorChain, DistributionManager distributionManager) {
+      this.icc = icc;
+      this.commandsFactory = commandsFactory;
+      this.entryFactory = entryFactory;
+      this.invoker = interceptorChain;
+      this.distributionManager = distributionManager;
+   }
+
+   /**
+    * Invokes a logical "getAll(keys)" on a remote cache.
+    *
+    * @param context invocation context, ignored.
+    * @return a list with the {@link InternalCacheValue} of each key, in the same order as the keys, with {@code null}
+    *         for the keys that were not found or that are being moved by state transfer
+    */
+   @Override
+   public List<InternalCacheValue> perform(InvocationContext context) throws Throwable {
+      // make sure the command doesn't perform remote calls,
+      // as our caller is already calling the ClusteredGetAllCommand on all the relevant nodes
+      Set<Flag> commandFlags = EnumSet.of(Flag.SKIP_REMOTE_LOOKUP, Flag.CACHE_MODE_LOCAL);
+      if (this.flags != null) commandFlags.addAll(this.flags);
+      GetAllCommand command = commandsFactory.buildGetAllCommand(keys, commandFlags, true);
+      InvocationContext invocationContext = icc.createRemoteInvocationContextForCommand(command, getOrigin());
+      Map<?, ?> entries = (Map<?, ?>) invoker.invoke(invocationContext, command);
+
+      List<InternalCacheValue> values = new ArrayList<InternalCacheValue>(keys.size());
+      for (Object key : keys) {
+         CacheEntry cacheEntry = (CacheEntry) entries.get(key);
+         if (cacheEntry == null || distributionManager != null && distributionManager.isAffectedByRehash(key)) {
+            values.add(null);
+         } else if (cacheEntry instanceof MVCCEntry) {
+            // this might happen if the value was fetched from a cache loader
+            values.add(entryFactory.createValue(cacheEntry));
+         } else {
+            values.add(((InternalCacheEntry) cacheEntry).toInternalCacheValue());
+         }
+      }
+      if (trace) log.tracef("Found %d of %d keys", entries.size(), keys.size());
+      return values;
+   }
+
+   public List<Object> getKeys() {
+      return keys;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public Object[] getParameters() {
+      return new Object[]{keys, Flag.copyWithoutRemotableFlags(flags)};
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public void setParameters(int commandId, Object[] args) {
+      keys = (List<Object>) args[0];
+      flags = (Set<Flag>) args[1];
+   }
+
+   @Override
+   public String toString() {
+      return new StringBuilder()
+         .append("ClusteredGetAllCommand{keys=")
+         .append(keys)
+         .append(", flags=").append(flags)
+         .append("}")
+         .toString();
+   }
+
+   @Override
+   public Set<Flag> getFlags() {
+      return flags;
+   }
+
+   @Override
+   public void setFlags(Set<Flag> flags) {
+      this.flags = flags;
+   }
+
+   @Override
+   public void setFlags(Flag... flags) {
+      if (flags == null || flags.length == 0) return;
+      if (this.flags == null)
+         this.flags = EnumSet.copyOf(Arrays.asList(flags));
+      else
+         this.flags.addAll(Arrays.asList(flags));
+   }
+
+   @Override
+   public boolean hasFlag(Flag flag) {
+      return flags != null && flags.contains(flag);
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return true;
+   }
+
+   @Override
+   public int getTopologyId() {
+      return topologyId;
+   }
+
+   @Override
+   public void setTopologyId(int topologyId) {
+      this.topologyId = topologyId;
+   }
+
+   @Override
+   public Object acceptVisitor(InvocationContext ctx, Visitor visitor) throws Throwable {
+      return visitor.visitUnknownCommand(ctx, this);
+   }
+
+   @Override
+   public boolean shouldInvoke(InvocationContext ctx) {
+      return true;
+   }
+
+   @Override
+   public boolean ignoreCommandOnStatus(ComponentStatus status) {
+      return false;
+   }
+
+   @Override
+   public Metadata getMetadata() {
+      return null;
+   }
+
+   @Override
+   public void setMetadata(Metadata metadata) {
+      // no-op
+   }
+}
@@ -9,18 +9,20 @@
 public class EvictionConfiguration {
    
    private final int maxEntries;
+   private final long maxMemory;
    private final EvictionStrategy strategy;
    private final EvictionThreadPolicy threadPolicy;
    
-   EvictionConfiguration(int maxEntries, EvictionStrategy strategy, EvictionThreadPolicy threadPolicy) {
+   EvictionConfiguration(int maxEntries, long maxMemory, EvictionStrategy strategy, EvictionThreadPolicy threadPolicy) {
       this.maxEntries = maxEntries;
+      this.maxMemory = maxMemory;
       this.strategy = strategy;
       this.threadPolicy = threadPolicy;
    }
    
    /**
-    * Eviction strategy. Available options are 'UNORDERED', 'LRU', 'LIRS' and 'NONE' (to disable
-    * eviction).
+    * Eviction strategy. Available options are 'UNORDERED', 'LRU', 'LIRS', 'TINY_LFU' and 'NONE' (to
+    * disable eviction).
     */
    public EvictionStrategy strategy() {
       return strategy;
@@ -42,10 +44,20 @@ public int maxEntries() {
       return maxEntries;
    }
 
+   /**
+    * Maximum estimated amount of memory, in bytes, taken by the entries of a cache instance. When
+    * positive, entries are evicted once their estimated size exceeds this limit, regardless of
+    * {@link #maxEntries()}. A value of -1 disables memory based eviction.
+    */
+   public long maxMemory() {
+      return maxMemory;
+   }
+
    @Override
    public String toString() {
       return "EvictionConfiguration{" +
             "maxEntries=" + maxEntries +
+            ", maxMemory=" + maxMemory +
             ", strategy=" + strategy +
             ", threadPolicy=" + threadPolicy +
             '}';
@@ -59,6 +71,7 @@ public boolean equals(Object o) {
       EvictionConfiguration that = (EvictionConfiguration) o;
 
       if (maxEntries != that.maxEntries) return false;
+      if (maxMemory != that.maxMemory) return false;
       if (strategy != that.strategy) return false;
       if (threadPolicy != that.threadPolicy) return false;
 
@@ -68,6 +81,7 @@ public boolean equals(Object o) {
    @Override
    public int hashCode() {
       int result = maxEntries;
+      result = 31 * result + (int) (maxMemory ^ (maxMemory >>> 32));
       result = 31 * result + (strategy != null ? strategy.hashCode() : 0);
       result = 31 * result + (threadPolicy != null ? threadPolicy.hashCode() : 0);
       return result;
@@ -15,6 +15,7 @@ public class EvictionConfigurationBuilder extends AbstractConfigurationChildBuil
    private static final Log log = LogFactory.getLog(EvictionConfigurationBuilder.class);
 
    private int maxEntries = -1;
+   private long maxMemory = -1;
    private EvictionStrategy strategy = EvictionStrategy.NONE;
    private EvictionThreadPolicy threadPolicy = EvictionThreadPolicy.DEFAULT;
 
@@ -24,8 +25,8 @@ public class EvictionConfigurationBuilder extends AbstractConfigurationChildBuil
 
 
    /**
-    * Eviction strategy. Available options are 'UNORDERED', 'LRU', 'LIRS' and 'NONE' (to disable
-    * eviction).
+    * Eviction strategy. Available options are 'UNORDERED', 'LRU', 'LIRS', 'TINY_LFU' and 'NONE' (to
+    * disable eviction).
     *
     * @param evictionStrategy
     */
@@ -60,14 +61,31 @@ public EvictionConfigurationBuilder maxEntries(int maxEntries) {
       return this;
    }
 
+   /**
+    * Maximum estimated amount of memory, in bytes, taken by the entries of a cache instance. When
+    * positive, entries are evicted once their estimated size exceeds this limit, regardless of
+    * max entries. Sizes are estimated by {@link org.infinispan.container.DefaultEntrySizeCalculator},
+    * which is most accurate when values are stored as binary.
+    *
+    * @param maxMemory
+    */
+   public EvictionConfigurationBuilder maxMemory(long maxMemory) {
+      this.maxMemory = maxMemory;
+      return this;
+   }
+
    @Override
    public void validate() {
       if (!strategy.isEnabled() && getBuilder().loaders().passivation())
          log.passivationWithoutEviction();
       if(strategy == EvictionStrategy.FIFO)
          log.warn("FIFO strategy is deprecated, LRU will be used instead");
-      if (strategy.isEnabled() && maxEntries <= 0)
+      if (strategy.isEnabled() && maxEntries <= 0 && maxMemory <= 0)
          throw new CacheConfigurationException("Eviction maxEntries value cannot be less than or equal to zero if eviction is enabled");
+      if (maxMemory > 0 && !strategy.isEnabled()) {
+         strategy = EvictionStrategy.LIRS;
+         log.debugf("Max memory configured (%d) without eviction strategy. Eviction strategy overriden to %s", maxMemory, strategy);
+      }
       if (maxEntries > 0 && !strategy.isEnabled()) {
          strategy = EvictionStrategy.LIRS;
          log.debugf("Max entries configured (%d) without eviction strategy. Eviction strategy overriden to %s", maxEntries, strategy);
@@ -76,12 +94,13 @@ public void validate() {
 
    @Override
    public EvictionConfiguration create() {
-      return new EvictionConfiguration(maxEntries, strategy, threadPolicy);
+      return new EvictionConfiguration(maxEntries, maxMemory, strategy, threadPolicy);
    }
 
    @Override
    public EvictionConfigurationBuilder read(EvictionConfiguration template) {
       this.maxEntries = template.maxEntries();
+      this.maxMemory = template.maxMemory();
       this.strategy = template.strategy();
       this.threadPolicy = template.threadPolicy();
 
@@ -92,6 +111,7 @@ public EvictionConfigurationBuilder read(EvictionConfiguration template) {
    public String toString() {
       return "EvictionConfigurationBuilder{" +
             "maxEntries=" + maxEntries +
+            ", maxMemory=" + maxMemory +
             ", strategy=" + strategy +
             ", threadPolicy=" + threadPolicy +
             '}';
@@ -193,6 +193,15 @@ public SingleFileCacheStoreConfigurationBuilder addSingleFileCacheStore() {
       return builder;
    }
 
+   /**
+    * Adds a log-structured file cache store
+    */
+   public LogFileCacheStoreConfigurationBuilder addLogFileCacheStore() {
+      LogFileCacheStoreConfigurationBuilder builder = new LogFileCacheStoreConfigurationBuilder(this);
+      this.cacheLoaders.add(builder);
+      return builder;
+   }
+
    /**
     * Removes any configured cache loaders and stores from this builder
     */
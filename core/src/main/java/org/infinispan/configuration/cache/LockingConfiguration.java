@@ -14,14 +14,16 @@ public class LockingConfiguration {
    private final IsolationLevel isolationLevel;
    private long lockAcquisitionTimeout;
    private final boolean useLockStriping;
+   private final boolean useLockWordStriping;
    private final boolean writeSkewCheck;
 
    LockingConfiguration(int concurrencyLevel, IsolationLevel isolationLevel, long lockAcquisitionTimeout,
-         boolean useLockStriping, boolean writeSkewCheck) {
+         boolean useLockStriping, boolean useLockWordStriping, boolean writeSkewCheck) {
       this.concurrencyLevel = concurrencyLevel;
       this.isolationLevel = isolationLevel;
       this.lockAcquisitionTimeout = lockAcquisitionTimeout;
       this.useLockStriping = useLockStriping;
+      this.useLockWordStriping = useLockWordStriping;
       this.writeSkewCheck = writeSkewCheck;
    }
 
@@ -76,6 +78,17 @@ public boolean useLockStriping() {
       return useLockStriping;
    }
 
+   /**
+    * If true, and lock striping is enabled, the shared locks are kept in a table of lock words instead of being one
+    * synchronizer each. Acquiring and releasing an uncontended lock word doesn't allocate.
+    *
+    * @see org.infinispan.util.concurrent.locks.containers.LockWordStripedLockContainer
+    * @since 6.0
+    */
+   public boolean useLockWordStriping() {
+      return useLockWordStriping;
+   }
+
    /**
     * This setting is only applicable in the case of REPEATABLE_READ. When write skew check is set
     * to false, if the writer at commit time discovers that the working entry and the underlying
@@ -93,6 +106,7 @@ public String toString() {
             ", isolationLevel=" + isolationLevel +
             ", lockAcquisitionTimeout=" + lockAcquisitionTimeout +
             ", useLockStriping=" + useLockStriping +
+            ", useLockWordStriping=" + useLockWordStriping +
             ", writeSkewCheck=" + writeSkewCheck +
             '}';
    }
@@ -107,6 +121,7 @@ public boolean equals(Object o) {
       if (concurrencyLevel != that.concurrencyLevel) return false;
       if (lockAcquisitionTimeout != that.lockAcquisitionTimeout) return false;
       if (useLockStriping != that.useLockStriping) return false;
+      if (useLockWordStriping != that.useLockWordStriping) return false;
       if (writeSkewCheck != that.writeSkewCheck) return false;
       if (isolationLevel != that.isolationLevel) return false;
 
@@ -119,6 +134,7 @@ public int hashCode() {
       result = 31 * result + (isolationLevel != null ? isolationLevel.hashCode() : 0);
       result = 31 * result + (int) (lockAcquisitionTimeout ^ (lockAcquisitionTimeout >>> 32));
       result = 31 * result + (useLockStriping ? 1 : 0);
+      result = 31 * result + (useLockWordStriping ? 1 : 0);
       result = 31 * result + (writeSkewCheck ? 1 : 0);
       return result;
    }
@@ -23,6 +23,7 @@ public class LockingConfigurationBuilder extends AbstractConfigurationChildBuild
    private IsolationLevel isolationLevel = IsolationLevel.READ_COMMITTED;
    private long lockAcquisitionTimeout = TimeUnit.SECONDS.toMillis(10);
    private boolean useLockStriping = false;
+   private boolean useLockWordStriping = false;
    private boolean writeSkewCheck = false;
 
    protected LockingConfigurationBuilder(ConfigurationBuilder builder) {
@@ -86,6 +87,18 @@ public LockingConfigurationBuilder useLockStriping(boolean b) {
       return this;
    }
 
+   /**
+    * If true, and lock striping is enabled, the shared locks are kept in a table of lock words instead of being one
+    * synchronizer each. Acquiring and releasing an uncontended lock word doesn't allocate. Defaults to false.
+    *
+    * @see org.infinispan.util.concurrent.locks.containers.LockWordStripedLockContainer
+    * @since 6.0
+    */
+   public LockingConfigurationBuilder useLockWordStriping(boolean b) {
+      this.useLockWordStriping = b;
+      return this;
+   }
+
    /**
     * This setting is only applicable in the case of REPEATABLE_READ. When write skew check is set
     * to false, if the writer at commit time discovers that the working entry and the underlying
@@ -125,7 +138,8 @@ && clustering().cacheMode() != CacheMode.LOCAL)
 
    @Override
    public LockingConfiguration create() {
-      return new LockingConfiguration(concurrencyLevel, isolationLevel, lockAcquisitionTimeout, useLockStriping, writeSkewCheck);
+      return new LockingConfiguration(concurrencyLevel, isolationLevel, lockAcquisitionTimeout, useLockStriping,
+            useLockWordStriping, writeSkewCheck);
    }
 
    @Override
@@ -134,6 +148,7 @@ public LockingConfigurationBuilder read(LockingConfiguration template) {
       isolationLevel = template.isolationLevel();
       lockAcquisitionTimeout = template.lockAcquisitionTimeout();
       useLockStriping = template.useLockStriping();
+      useLockWordStriping = template.useLockWordStriping();
       writeSkewCheck = template.writeSkewCheck();
 
       return this;
@@ -146,6 +161,7 @@ public String toString() {
             ", isolationLevel=" + isolationLevel +
             ", lockAcquisitionTimeout=" + lockAcquisitionTimeout +
             ", useLockStriping=" + useLockStriping +
+            ", useLockWordStriping=" + useLockWordStriping +
             ", writeSkewCheck=" + writeSkewCheck +
             '}';
    }
@@ -0,0 +1,106 @@
+package org.infinispan.configuration.cache;
+
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.commons.configuration.Builder;
+import org.infinispan.commons.util.TypedProperties;
+
+/**
+ * Log-structured file cache store configuration builder.
+ *
+ * @since 6.0
+ */
+public class LogFileCacheStoreConfigurationBuilder
+      extends AbstractStoreConfigurationBuilder<LogFileCacheStoreConfiguration, LogFileCacheStoreConfigurationBuilder> {
+
+   private String location = "Infinispan-LogFileCacheStore";
+
+   private long maxFileSize = 16 * 1024 * 1024;
+
+   private double compactionThreshold = 0.5;
+
+   private long compactionInterval = 60000;
+
+   public LogFileCacheStoreConfigurationBuilder(LoadersConfigurationBuilder builder) {
+      super(builder);
+   }
+
+   @Override
+   public LogFileCacheStoreConfigurationBuilder self() {
+      return this;
+   }
+
+   /**
+    * Sets a location on disk where the store can write. Each cache gets its own directory inside this location.
+    */
+   public LogFileCacheStoreConfigurationBuilder location(String location) {
+      this.location = location;
+      return this;
+   }
+
+   /**
+    * The store appends all its writes to a log file, and starts a new log file when the current one grows beyond
+    * this size in bytes. Only the log files that are no longer written to can be compacted, so smaller files make
+    * the space of overwritten and removed entries available sooner, at the cost of more files.
+    */
+   public LogFileCacheStoreConfigurationBuilder maxFileSize(long maxFileSize) {
+      this.maxFileSize = maxFileSize;
+      return this;
+   }
+
+   /**
+    * The ratio of obsolete data, i.e. overwritten, removed or expired entries, above which a log file is compacted:
+    * its live entries are copied to the current log file and the file is deleted. Must be between 0 (exclusive) and
+    * 1 (inclusive).
+    */
+   public LogFileCacheStoreConfigurationBuilder compactionThreshold(double compactionThreshold) {
+      this.compactionThreshold = compactionThreshold;
+      return this;
+   }
+
+   /**
+    * The interval in milliseconds between two runs of the background compactor. A value of 0 or less disables
+    * the background compaction.
+    */
+   public LogFileCacheStoreConfigurationBuilder compactionInterval(long compactionInterval) {
+      this.compactionInterval = compactionInterval;
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      super.validate();
+      if (maxFileSize <= 0)
+         throw new CacheConfigurationException("The maxFileSize of the log file cache store must be positive");
+      if (compactionThreshold <= 0 || compactionThreshold > 1)
+         throw new CacheConfigurationException("The compactionThreshold of the log file cache store must be greater than 0 and at most 1");
+   }
+
+   @Override
+   public LogFileCacheStoreConfiguration create() {
+      return new LogFileCacheStoreConfiguration(location, maxFileSize, compactionThreshold, compactionInterval,
+            purgeOnStartup, purgeSynchronously, purgerThreads, fetchPersistentState,
+            ignoreModifications, TypedProperties.toTypedProperties(properties),
+            async.create(), singletonStore.create());
+   }
+
+   @Override
+   public Builder<?> read(LogFileCacheStoreConfiguration template) {
+      // LogFileCacheStore-specific configuration
+      location = template.location();
+      maxFileSize = template.maxFileSize();
+      compactionThreshold = template.compactionThreshold();
+      compactionInterval = template.compactionInterval();
+
+      // AbstractStore-specific configuration
+      fetchPersistentState = template.fetchPersistentState();
+      ignoreModifications = template.ignoreModifications();
+      properties = template.properties();
+      purgeOnStartup = template.purgeOnStartup();
+      purgeSynchronously = template.purgeSynchronously();
+      async.read(template.async());
+      singletonStore.read(template.singletonStore());
+
+      return this;
+   }
+
+}
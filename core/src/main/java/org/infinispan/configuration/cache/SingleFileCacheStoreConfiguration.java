@@ -19,13 +19,19 @@ public class SingleFileCacheStoreConfiguration extends AbstractStoreConfiguratio
 
    private final int maxEntries;
 
+   private final boolean memoryMapped;
+
+   private final int mappedWindowSize;
+
    public SingleFileCacheStoreConfiguration(String location, int maxKeysInMemory,
-         boolean purgeOnStartup, boolean purgeSynchronously, int purgerThreads, boolean fetchPersistentState,
+         boolean memoryMapped, int mappedWindowSize, boolean purgeOnStartup, boolean purgeSynchronously, int purgerThreads, boolean fetchPersistentState,
          boolean ignoreModifications, TypedProperties properties, AsyncStoreConfiguration async, SingletonStoreConfiguration singletonStore) {
       super(purgeOnStartup, purgeSynchronously, purgerThreads, fetchPersistentState,
             ignoreModifications, properties, async, singletonStore);
       this.location = location;
       this.maxEntries = maxKeysInMemory;
+      this.memoryMapped = memoryMapped;
+      this.mappedWindowSize = mappedWindowSize;
    }
 
    public String location() {
@@ -36,6 +42,14 @@ public int maxEntries() {
       return maxEntries;
    }
 
+   public boolean memoryMapped() {
+      return memoryMapped;
+   }
+
+   public int mappedWindowSize() {
+      return mappedWindowSize;
+   }
+
    @Override
    public boolean equals(Object o) {
       if (this == o) return true;
@@ -45,6 +59,8 @@ public boolean equals(Object o) {
       SingleFileCacheStoreConfiguration that = (SingleFileCacheStoreConfiguration) o;
 
       if (maxEntries != that.maxEntries) return false;
+      if (memoryMapped != that.memoryMapped) return false;
+      if (mappedWindowSize != that.mappedWindowSize) return false;
       if (location != null ? !location.equals(that.location) : that.location != null)
          return false;
 
@@ -56,6 +72,8 @@ public int hashCode() {
       int result = super.hashCode();
       result = 31 * result + (location != null ? location.hashCode() : 0);
       result = 31 * result + maxEntries;
+      result = 31 * result + (memoryMapped ? 1 : 0);
+      result = 31 * result + mappedWindowSize;
       return result;
    }
 
@@ -64,6 +82,8 @@ public String toString() {
       return "SingleFileCacheStoreConfiguration{" +
             "location='" + location + '\'' +
             ", maxEntries=" + maxEntries +
+            ", memoryMapped=" + memoryMapped +
+            ", mappedWindowSize=" + mappedWindowSize +
             '}';
    }
 
@@ -1,5 +1,6 @@
 package org.infinispan.configuration.cache;
 
+import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.util.TypedProperties;
 import org.infinispan.util.logging.Log;
@@ -20,6 +21,10 @@
 
    private int maxEntries = -1;
 
+   private boolean memoryMapped = false;
+
+   private int mappedWindowSize = 64 * 1024 * 1024;
+
    public SingleFileCacheStoreConfigurationBuilder(LoadersConfigurationBuilder builder) {
       super(builder);
    }
@@ -58,9 +63,37 @@ public SingleFileCacheStoreConfigurationBuilder maxEntries(int maxEntries) {
       return this;
    }
 
+   /**
+    * If true, the data file is mapped into memory and values are read from
+    * the mapping, saving a read system call per load. This is worthwhile for
+    * read-mostly stores, as long as the file fits in the address space of the
+    * process.
+    */
+   public SingleFileCacheStoreConfigurationBuilder memoryMapped(boolean memoryMapped) {
+      this.memoryMapped = memoryMapped;
+      return this;
+   }
+
+   /**
+    * The size of the windows in which the data file is mapped when
+    * {@link #memoryMapped(boolean)} is enabled. Values crossing the boundary
+    * between two windows are read from the file instead.
+    */
+   public SingleFileCacheStoreConfigurationBuilder mappedWindowSize(int mappedWindowSize) {
+      this.mappedWindowSize = mappedWindowSize;
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      super.validate();
+      if (memoryMapped && mappedWindowSize <= 0)
+         throw new CacheConfigurationException("The mappedWindowSize of the single file cache store must be positive");
+   }
+
    @Override
    public SingleFileCacheStoreConfiguration create() {
-      return new SingleFileCacheStoreConfiguration(location, maxEntries,
+      return new SingleFileCacheStoreConfiguration(location, maxEntries, memoryMapped, mappedWindowSize,
             purgeOnStartup, purgeSynchronously, purgerThreads, fetchPersistentState,
             ignoreModifications, TypedProperties.toTypedProperties(properties),
             async.create(), singletonStore.create());
@@ -71,6 +104,8 @@ public Builder<?> read(SingleFileCacheStoreConfiguration template) {
       // SingleFileCacheStore-specific configuration
       location = template.location();
       maxEntries = template.maxEntries();
+      memoryMapped = template.memoryMapped();
+      mappedWindowSize = template.mappedWindowSize();
 
       // AbstractStore-specific configuration
       fetchPersistentState = template.fetchPersistentState();
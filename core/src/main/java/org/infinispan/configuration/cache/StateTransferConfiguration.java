@@ -12,15 +12,22 @@ public class StateTransferConfiguration {
    private Boolean originalFetchInMemoryState;
    private long timeout;
    private int chunkSize;
+   private long chunkSizeBytes;
+   private int maxOutboundChunks;
+   private int maxInboundChunks;
    private boolean awaitInitialTransfer;
    private Boolean originalAwaitInitialTransfer;
 
    StateTransferConfiguration(boolean fetchInMemoryState, Boolean originalFetchInMemoryState, long timeout, int chunkSize,
+                              long chunkSizeBytes, int maxOutboundChunks, int maxInboundChunks,
                               boolean awaitInitialTransfer, Boolean originalAwaitInitialTransfer) {
       this.fetchInMemoryState = fetchInMemoryState;
       this.originalFetchInMemoryState = originalFetchInMemoryState;
       this.timeout = timeout;
       this.chunkSize = chunkSize;
+      this.chunkSizeBytes = chunkSizeBytes;
+      this.maxOutboundChunks = maxOutboundChunks;
+      this.maxInboundChunks = maxInboundChunks;
       this.awaitInitialTransfer = awaitInitialTransfer;
       this.originalAwaitInitialTransfer = originalAwaitInitialTransfer;
    }
@@ -69,6 +76,30 @@ public int chunkSize() {
       return chunkSize;
    }
 
+   /**
+    * If &gt; 0, a batch of cache entries is also sent once their estimated size reaches {@code chunkSizeBytes} bytes,
+    * even if it holds less than {@code chunkSize} entries. If &lt;= 0, batches are bounded by the number of entries only.
+    */
+   public long chunkSizeBytes() {
+      return chunkSizeBytes;
+   }
+
+   /**
+    * The maximum number of batches of cache entries a node sends concurrently to another node. If 1, a batch is sent
+    * only once the previous one was applied by the receiver.
+    */
+   public int maxOutboundChunks() {
+      return maxOutboundChunks;
+   }
+
+   /**
+    * The maximum number of batches of cache entries a node applies concurrently while receiving state. Further batches
+    * are queued, without holding a thread, and their senders wait until they are applied. If &lt;= 0, there is no limit.
+    */
+   public int maxInboundChunks() {
+      return maxInboundChunks;
+   }
+
    /**
     * If {@code true}, this will cause the first call to method {@code CacheManager.getCache()} on the joiner node to
     * block and wait until the joining is complete and the cache has finished receiving state from neighboring caches
@@ -92,6 +123,9 @@ protected Boolean originalAwaitInitialTransfer() {
    public String toString() {
       return "StateTransferConfiguration{" +
             "chunkSize=" + chunkSize +
+            ", chunkSizeBytes=" + chunkSizeBytes +
+            ", maxOutboundChunks=" + maxOutboundChunks +
+            ", maxInboundChunks=" + maxInboundChunks +
             ", fetchInMemoryState=" + fetchInMemoryState +
             ", originalFetchInMemoryState=" + originalFetchInMemoryState +
             ", timeout=" + timeout +
@@ -108,6 +142,9 @@ public boolean equals(Object o) {
       StateTransferConfiguration that = (StateTransferConfiguration) o;
 
       if (chunkSize != that.chunkSize) return false;
+      if (chunkSizeBytes != that.chunkSizeBytes) return false;
+      if (maxOutboundChunks != that.maxOutboundChunks) return false;
+      if (maxInboundChunks != that.maxInboundChunks) return false;
       if (fetchInMemoryState != that.fetchInMemoryState) return false;
       if (timeout != that.timeout) return false;
       if (originalFetchInMemoryState != null ? !originalFetchInMemoryState.equals(that.originalFetchInMemoryState) : that.originalFetchInMemoryState != null)
@@ -125,6 +162,9 @@ public int hashCode() {
       result = 31 * result + (originalFetchInMemoryState != null ? originalFetchInMemoryState.hashCode() : 0);
       result = 31 * result + (int) (timeout ^ (timeout >>> 32));
       result = 31 * result + chunkSize;
+      result = 31 * result + (int) (chunkSizeBytes ^ (chunkSizeBytes >>> 32));
+      result = 31 * result + maxOutboundChunks;
+      result = 31 * result + maxInboundChunks;
       result = 31 * result + (awaitInitialTransfer ? 1 : 0);
       result = 31 * result + (originalAwaitInitialTransfer != null ? originalAwaitInitialTransfer.hashCode() : 0);
       return result;
@@ -21,6 +21,9 @@ public class StateTransferConfigurationBuilder extends
    private Boolean fetchInMemoryState = null;
    private Boolean awaitInitialTransfer = null;
    private int chunkSize = 10000;
+   private long chunkSizeBytes = 0;
+   private int maxOutboundChunks = 4;
+   private int maxInboundChunks = 8;
    private long timeout = TimeUnit.MINUTES.toMillis(4);
 
    StateTransferConfigurationBuilder(ClusteringConfigurationBuilder builder) {
@@ -62,6 +65,34 @@ public StateTransferConfigurationBuilder chunkSize(int i) {
       return this;
    }
 
+   /**
+    * If &gt; 0, a batch of cache entries is also sent once their estimated size reaches {@code chunkSizeBytes} bytes,
+    * even if it holds less than {@code chunkSize} entries. If &lt;= 0, batches are bounded by the number of entries only.
+    */
+   public StateTransferConfigurationBuilder chunkSizeBytes(long l) {
+      this.chunkSizeBytes = l;
+      return this;
+   }
+
+   /**
+    * The maximum number of batches of cache entries a node sends concurrently to another node. If 1, a batch is sent
+    * only once the previous one was applied by the receiver. Defaults to 4.
+    */
+   public StateTransferConfigurationBuilder maxOutboundChunks(int i) {
+      this.maxOutboundChunks = i;
+      return this;
+   }
+
+   /**
+    * The maximum number of batches of cache entries a node applies concurrently while receiving state. Further batches
+    * are queued, without holding a thread, and their senders wait until they are applied. If &lt;= 0, there is no limit.
+    * Defaults to 8.
+    */
+   public StateTransferConfigurationBuilder maxInboundChunks(int i) {
+      this.maxInboundChunks = i;
+      return this;
+   }
+
    /**
     * This is the maximum amount of time - in milliseconds - to wait for state from neighboring
     * caches, before throwing an exception and aborting startup.
@@ -89,6 +120,8 @@ public void validate() {
             && !getClusteringBuilder().cacheMode().isReplicated() && !getClusteringBuilder().cacheMode().isDistributed())
          throw new CacheConfigurationException(
                "awaitInitialTransfer can be enabled only if cache mode is distributed or replicated.");
+      if (maxOutboundChunks < 1)
+         throw new CacheConfigurationException("maxOutboundChunks must be at least 1, but was " + maxOutboundChunks);
    }
 
    @Override
@@ -118,7 +151,7 @@ public  StateTransferConfiguration create() {
          _awaitInitialTransfer = false;
       }
       return new StateTransferConfiguration(_fetchInMemoryState, fetchInMemoryState,
-            timeout, chunkSize, _awaitInitialTransfer, awaitInitialTransfer);
+            timeout, chunkSize, chunkSizeBytes, maxOutboundChunks, maxInboundChunks, _awaitInitialTransfer, awaitInitialTransfer);
    }
 
    @Override
@@ -127,6 +160,9 @@ public StateTransferConfigurationBuilder read(StateTransferConfiguration templat
       this.awaitInitialTransfer = template.originalAwaitInitialTransfer();
       this.timeout = template.timeout();
       this.chunkSize = template.chunkSize();
+      this.chunkSizeBytes = template.chunkSizeBytes();
+      this.maxOutboundChunks = template.maxOutboundChunks();
+      this.maxInboundChunks = template.maxInboundChunks();
       return this;
    }
 
@@ -134,6 +170,9 @@ public StateTransferConfigurationBuilder read(StateTransferConfiguration templat
    public String toString() {
       return "StateTransferConfigurationBuilder{" +
             "chunkSize=" + chunkSize +
+            ", chunkSizeBytes=" + chunkSizeBytes +
+            ", maxOutboundChunks=" + maxOutboundChunks +
+            ", maxInboundChunks=" + maxInboundChunks +
             ", fetchInMemoryState=" + fetchInMemoryState +
             ", awaitInitialTransfer=" + awaitInitialTransfer +
             ", timeout=" + timeout +
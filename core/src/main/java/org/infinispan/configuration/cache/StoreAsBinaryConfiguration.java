@@ -17,12 +17,15 @@ public class StoreAsBinaryConfiguration {
    private final boolean storeKeysAsBinary;
    private final boolean storeValuesAsBinary;
    private final boolean defensive;
+   private final int compressionThreshold;
    
-   StoreAsBinaryConfiguration(boolean enabled, boolean storeKeysAsBinary, boolean storeValuesAsBinary, boolean defensive) {
+   StoreAsBinaryConfiguration(boolean enabled, boolean storeKeysAsBinary, boolean storeValuesAsBinary, boolean defensive,
+                              int compressionThreshold) {
       this.enabled = enabled;
       this.storeKeysAsBinary = storeKeysAsBinary;
       this.storeValuesAsBinary = storeValuesAsBinary;
       this.defensive = defensive;
+      this.compressionThreshold = compressionThreshold;
    }
 
    /**
@@ -58,6 +61,14 @@ public boolean defensive() {
       return defensive;
    }
 
+   /**
+    * The size in bytes from which the binary form of values is compressed, or a negative value if values are never
+    * compressed.
+    */
+   public int compressionThreshold() {
+      return compressionThreshold;
+   }
+
    @Override
    public String toString() {
       return "StoreAsBinaryConfiguration{" +
@@ -65,6 +76,7 @@ public String toString() {
             ", storeKeysAsBinary=" + storeKeysAsBinary +
             ", storeValuesAsBinary=" + storeValuesAsBinary +
             ", defensive=" + defensive +
+            ", compressionThreshold=" + compressionThreshold +
             '}';
    }
 
@@ -79,6 +91,7 @@ public boolean equals(Object o) {
       if (storeKeysAsBinary != that.storeKeysAsBinary) return false;
       if (storeValuesAsBinary != that.storeValuesAsBinary) return false;
       if (defensive != that.defensive) return false;
+      if (compressionThreshold != that.compressionThreshold) return false;
 
       return true;
    }
@@ -89,6 +102,7 @@ public int hashCode() {
       result = 31 * result + (storeKeysAsBinary ? 1 : 0);
       result = 31 * result + (storeValuesAsBinary ? 1 : 0);
       result = 31 * result + (defensive ? 1 : 0);
+      result = 31 * result + compressionThreshold;
       return result;
    }
 
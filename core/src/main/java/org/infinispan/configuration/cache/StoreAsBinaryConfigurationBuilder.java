@@ -19,6 +19,7 @@ public class StoreAsBinaryConfigurationBuilder extends AbstractConfigurationChil
    private boolean storeKeysAsBinary = true;
    private boolean storeValuesAsBinary = true;
    private boolean defensive = false;
+   private int compressionThreshold = -1;
 
    StoreAsBinaryConfigurationBuilder(ConfigurationBuilder builder) {
       super(builder);
@@ -90,6 +91,21 @@ public StoreAsBinaryConfigurationBuilder defensive(boolean defensive) {
       return this;
    }
 
+   /**
+    * Compresses the binary form of the values which is at least {@code compressionThreshold} bytes long, so that they
+    * take less space in memory, when sent to other nodes and in the cache stores, at the cost of decompressing them on
+    * each read. When compression is enabled, Strings and byte arrays which are at least that long are stored as binary
+    * too. Only applies when values are stored as binary.
+    *
+    * @param compressionThreshold the size in bytes from which values are compressed, or a negative value to disable
+    *                             compression, which is the default
+    * @return a configuration builder for fluent programmatic configuration
+    */
+   public StoreAsBinaryConfigurationBuilder compressionThreshold(int compressionThreshold) {
+      this.compressionThreshold = compressionThreshold;
+      return this;
+   }
+
    @Override
    public void validate() {
       // Nothing to validate.
@@ -98,7 +114,7 @@ public void validate() {
    @Override
    public StoreAsBinaryConfiguration create() {
       return new StoreAsBinaryConfiguration(
-            enabled, storeKeysAsBinary, storeValuesAsBinary, defensive);
+            enabled, storeKeysAsBinary, storeValuesAsBinary, defensive, compressionThreshold);
    }
 
    @Override
@@ -107,6 +123,7 @@ public StoreAsBinaryConfigurationBuilder read(StoreAsBinaryConfiguration templat
       this.storeKeysAsBinary = template.storeKeysAsBinary();
       this.storeValuesAsBinary = template.storeValuesAsBinary();
       this.defensive = template.defensive();
+      this.compressionThreshold = template.compressionThreshold();
 
       return this;
    }
@@ -117,6 +134,7 @@ public String toString() {
             "enabled=" + enabled +
             ", storeKeysAsBinary=" + storeKeysAsBinary +
             ", storeValuesAsBinary=" + storeValuesAsBinary +
+            ", compressionThreshold=" + compressionThreshold +
             '}';
    }
 
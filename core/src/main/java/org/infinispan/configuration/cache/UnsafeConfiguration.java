@@ -12,9 +12,11 @@
 public class UnsafeConfiguration {
 
    private final boolean unreliableReturnValues;
+   private final boolean fastLocalReads;
 
-   UnsafeConfiguration(boolean unreliableReturnValues) {
+   UnsafeConfiguration(boolean unreliableReturnValues, boolean fastLocalReads) {
       this.unreliableReturnValues = unreliableReturnValues;
+      this.fastLocalReads = fastLocalReads;
    }
 
    /**
@@ -25,10 +27,19 @@ public boolean unreliableReturnValues() {
       return unreliableReturnValues;
    }
 
+   /**
+    * Specifies whether {@link org.infinispan.Cache#get(Object)} may read the entries present in the data container
+    * directly, without going through the interceptor chain, when the chain has no side effects on reads.
+    */
+   public boolean fastLocalReads() {
+      return fastLocalReads;
+   }
+
    @Override
    public String toString() {
       return "UnsafeConfiguration{" +
             "unreliableReturnValues=" + unreliableReturnValues +
+            ", fastLocalReads=" + fastLocalReads +
             '}';
    }
 
@@ -40,13 +51,16 @@ public boolean equals(Object o) {
       UnsafeConfiguration that = (UnsafeConfiguration) o;
 
       if (unreliableReturnValues != that.unreliableReturnValues) return false;
+      if (fastLocalReads != that.fastLocalReads) return false;
 
       return true;
    }
 
    @Override
    public int hashCode() {
-      return (unreliableReturnValues ? 1 : 0);
+      int result = (unreliableReturnValues ? 1 : 0);
+      result = 31 * result + (fastLocalReads ? 1 : 0);
+      return result;
    }
 
 }
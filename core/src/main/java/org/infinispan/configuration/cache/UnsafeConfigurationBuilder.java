@@ -12,6 +12,7 @@
 public class UnsafeConfigurationBuilder extends AbstractConfigurationChildBuilder implements Builder<UnsafeConfiguration> {
 
    private boolean unreliableReturnValues = false;
+   private boolean fastLocalReads = false;
 
    protected UnsafeConfigurationBuilder(ConfigurationBuilder builder) {
       super(builder);
@@ -32,6 +33,27 @@ public UnsafeConfigurationBuilder unreliableReturnValues(boolean allowUnreliable
       return this;
    }
 
+   /**
+    * Specify whether {@link org.infinispan.Cache#get(Object)} may read the entries present in the data container
+    * directly, without building a command and an invocation context and without going through the interceptor chain.
+    * <p />
+    * The fast path is only taken by non-transactional local, replicated and invalidation caches, for reads without
+    * flags, while all the interceptors in the chain are known to have no side effects on the read of an entry present
+    * in memory, i.e. without cache loaders, L1, storeAsBinary, compatibility mode or custom interceptors, and while
+    * statistics are disabled. Expiration is honoured and {@link
+    * org.infinispan.notifications.cachelistener.annotation.CacheEntryVisited} listeners are still notified. Reads of
+    * keys which are not in memory always go through the interceptor chain.
+    * <p />
+    * Since the interceptor chain is skipped, options such as {@link org.infinispan.context.Flag#FAIL_SILENTLY} do not
+    * apply to the reads served by the fast path.
+    * <p />
+    * @param fastLocalReads if true, reads may bypass the interceptor chain
+    */
+   public UnsafeConfigurationBuilder fastLocalReads(boolean fastLocalReads) {
+      this.fastLocalReads = fastLocalReads;
+      return this;
+   }
+
    @Override
    public void validate() {
       // Nothing to validate
@@ -39,12 +61,13 @@ public void validate() {
 
    @Override
    public UnsafeConfiguration create() {
-      return new UnsafeConfiguration(unreliableReturnValues);
+      return new UnsafeConfiguration(unreliableReturnValues, fastLocalReads);
    }
 
    @Override
    public UnsafeConfigurationBuilder read(UnsafeConfiguration template) {
       this.unreliableReturnValues = template.unreliableReturnValues();
+      this.fastLocalReads = template.fastLocalReads();
 
       return this;
    }
@@ -53,6 +76,7 @@ public UnsafeConfigurationBuilder read(UnsafeConfiguration template) {
    public String toString() {
       return "UnsafeConfigurationBuilder{" +
             "unreliableReturnValues=" + unreliableReturnValues +
+            ", fastLocalReads=" + fastLocalReads +
             '}';
    }
 
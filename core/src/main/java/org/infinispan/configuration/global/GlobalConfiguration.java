@@ -41,6 +41,8 @@ public class GlobalConfiguration {
    private final ExecutorFactoryConfiguration asyncTransportExecutor;
    private final ExecutorFactoryConfiguration remoteCommandsExecutor;
    private final ExecutorFactoryConfiguration totalOrderExecutor;
+   private final ExecutorFactoryConfiguration stateTransferExecutor;
+   private final ExecutorFactoryConfiguration asyncOperationsExecutor;
    private final ScheduledExecutorFactoryConfiguration evictionScheduledExecutor;
    private final ScheduledExecutorFactoryConfiguration replicationQueueScheduledExecutor;
    private final GlobalJmxStatisticsConfiguration globalJmxStatistics;
@@ -56,7 +58,8 @@ public class GlobalConfiguration {
          ScheduledExecutorFactoryConfiguration evictionScheduledExecutor,
          ScheduledExecutorFactoryConfiguration replicationQueueScheduledExecutor, GlobalJmxStatisticsConfiguration globalJmxStatistics,
          TransportConfiguration transport, SerializationConfiguration serialization, ShutdownConfiguration shutdown,
-         List<?> modules, SiteConfiguration site,ClassLoader cl, ExecutorFactoryConfiguration totalOrderExecutor) {
+         List<?> modules, SiteConfiguration site,ClassLoader cl, ExecutorFactoryConfiguration totalOrderExecutor,
+         ExecutorFactoryConfiguration stateTransferExecutor, ExecutorFactoryConfiguration asyncOperationsExecutor) {
       this.asyncListenerExecutor = asyncListenerExecutor;
       this.asyncTransportExecutor = asyncTransportExecutor;
       this.remoteCommandsExecutor = remoteCommandsExecutor;
@@ -74,6 +77,8 @@ public class GlobalConfiguration {
       this.site = site;
       this.cl = new WeakReference<ClassLoader>(cl);
       this.totalOrderExecutor = totalOrderExecutor;
+      this.stateTransferExecutor = stateTransferExecutor;
+      this.asyncOperationsExecutor = asyncOperationsExecutor;
    }
 
    public ExecutorFactoryConfiguration asyncListenerExecutor() {
@@ -148,6 +153,8 @@ public String toString() {
             ", site=" + site +
             ", cl=" + cl +
             ", totalOrderExecutor=" + totalOrderExecutor +
+            ", stateTransferExecutor=" + stateTransferExecutor +
+            ", asyncOperationsExecutor=" + asyncOperationsExecutor +
             '}';
    }
 
@@ -155,6 +162,14 @@ public ExecutorFactoryConfiguration totalOrderExecutor() {
       return totalOrderExecutor;
    }
 
+   public ExecutorFactoryConfiguration stateTransferExecutor() {
+      return stateTransferExecutor;
+   }
+
+   public ExecutorFactoryConfiguration asyncOperationsExecutor() {
+      return asyncOperationsExecutor;
+   }
+
    public boolean isClustered() {
       return transport().transport() != null;
    }
@@ -21,6 +21,8 @@ public class GlobalConfigurationBuilder implements GlobalConfigurationChildBuild
    private final ExecutorFactoryConfigurationBuilder asyncListenerExecutor;
    private final ExecutorFactoryConfigurationBuilder remoteCommandsExecutor;
    private final ExecutorFactoryConfigurationBuilder totalOrderExecutor;
+   private final ExecutorFactoryConfigurationBuilder stateTransferExecutor;
+   private final ExecutorFactoryConfigurationBuilder asyncOperationsExecutor;
    private final ScheduledExecutorFactoryConfigurationBuilder evictionScheduledExecutor;
    private final ScheduledExecutorFactoryConfigurationBuilder replicationQueueScheduledExecutor;
    private final ShutdownConfigurationBuilder shutdown;
@@ -41,6 +43,8 @@ public GlobalConfigurationBuilder() {
       this.site = new SiteConfigurationBuilder(this);
       //set a new executor by default, that allows to set the core number of threads and the keep alive time
       this.totalOrderExecutor = new ExecutorFactoryConfigurationBuilder(this);
+      this.stateTransferExecutor = new ExecutorFactoryConfigurationBuilder(this);
+      this.asyncOperationsExecutor = new ExecutorFactoryConfigurationBuilder(this);
    }
 
    /**
@@ -157,11 +161,28 @@ public ExecutorFactoryConfigurationBuilder totalOrderExecutor() {
       return totalOrderExecutor;
    }
 
+   /**
+    * Configures the executor sending the chunks of the outbound state transfers, when
+    * {@link org.infinispan.configuration.cache.StateTransferConfigurationBuilder#maxOutboundChunks(int)} is greater
+    * than 1.
+    */
+   public ExecutorFactoryConfigurationBuilder stateTransferExecutor() {
+      return stateTransferExecutor;
+   }
+
+   /**
+    * Configures the executor running the remote commands which waited for locks to be released. When its queue is
+    * full, a command runs in the thread releasing the locks.
+    */
+   public ExecutorFactoryConfigurationBuilder asyncOperationsExecutor() {
+      return asyncOperationsExecutor;
+   }
+
    @SuppressWarnings("unchecked")
    public void validate() {
       for (AbstractGlobalConfigurationBuilder<?> validatable : asList(asyncListenerExecutor, asyncTransportExecutor,
             remoteCommandsExecutor, evictionScheduledExecutor, replicationQueueScheduledExecutor, globalJmxStatistics, transport,
-            serialization, shutdown, site, totalOrderExecutor)) {
+            serialization, shutdown, site, totalOrderExecutor, stateTransferExecutor, asyncOperationsExecutor)) {
          validatable.validate();
       }
       for (Builder<?> m : modules) {
@@ -188,7 +209,9 @@ public GlobalConfiguration build() {
             modulesConfig,
             site.create(),
             cl.get(),
-            totalOrderExecutor.create()
+            totalOrderExecutor.create(),
+            stateTransferExecutor.create(),
+            asyncOperationsExecutor.create()
             );
    }
 
@@ -212,6 +235,8 @@ public GlobalConfigurationBuilder read(GlobalConfiguration template) {
       transport.read(template.transport());
       site.read(template.sites());
       totalOrderExecutor.read(template.totalOrderExecutor());
+      stateTransferExecutor.read(template.stateTransferExecutor());
+      asyncOperationsExecutor.read(template.asyncOperationsExecutor());
       return this;
    }
 
@@ -241,6 +266,8 @@ public String toString() {
             ", shutdown=" + shutdown +
             ", site=" + site +
             ", totalOrderExecutor=" + totalOrderExecutor +
+            ", stateTransferExecutor=" + stateTransferExecutor +
+            ", asyncOperationsExecutor=" + asyncOperationsExecutor +
             '}';
    }
 
@@ -272,6 +299,10 @@ public boolean equals(Object o) {
          return false;
       if (transport != null ? !transport.equals(that.transport) : that.transport != null)
          return false;
+      if (stateTransferExecutor != null ? !stateTransferExecutor.equals(that.stateTransferExecutor) : that.stateTransferExecutor != null)
+         return false;
+      if (asyncOperationsExecutor != null ? !asyncOperationsExecutor.equals(that.asyncOperationsExecutor) : that.asyncOperationsExecutor != null)
+         return false;
 
       return !(totalOrderExecutor != null ? !totalOrderExecutor.equals(that.totalOrderExecutor()) : that.totalOrderExecutor != null);
    }
@@ -290,6 +321,8 @@ public int hashCode() {
       result = 31 * result + (shutdown != null ? shutdown.hashCode() : 0);
       result = 31 * result + (site != null ? site.hashCode() : 0);
       result = 31 * result + (totalOrderExecutor != null ? totalOrderExecutor().hashCode() : 0);
+      result = 31 * result + (stateTransferExecutor != null ? stateTransferExecutor.hashCode() : 0);
+      result = 31 * result + (asyncOperationsExecutor != null ? asyncOperationsExecutor.hashCode() : 0);
       return result;
    }
 
@@ -21,14 +21,19 @@ public enum Attribute {
     CACHE_MANAGER_NAME("cacheManagerName"),
     CACHE_STOP_TIMEOUT("cacheStopTimeout"),
     CHUNK_SIZE("chunkSize"),
+    CHUNK_SIZE_BYTES("chunkSizeBytes"),
     CLASS("class"),
     CLUSTER_NAME("clusterName"),
+    COMPACTION_INTERVAL("compactionInterval"),
+    COMPACTION_THRESHOLD("compactionThreshold"),
+    COMPRESSION_THRESHOLD("compressionThreshold"),
     CONCURRENCY_LEVEL("concurrencyLevel"),
     DISTRIBUTED_SYNC_TIMEOUT("distributedSyncTimeout"),
     EAGER_LOCK_SINGLE_NODE("eagerLockSingleNode"),
     ENABLED("enabled"),
     EXTERNALIZER_CLASS("externalizerClass"),
     FACTORY("factory"),
+    FAST_LOCAL_READS("fastLocalReads"),
     FETCH_IN_MEMORY_STATE("fetchInMemoryState"),
     FETCH_PERSISTENT_STATE("fetchPersistentState"),
     AWAIT_INITIAL_TRANSFER("awaitInitialTransfer"),
@@ -53,11 +58,17 @@ public enum Attribute {
     LOCKING_MODE("lockingMode"),
     LOG_FLUSH_TIMEOUT("logFlushTimeout"),
     MACHINE_ID("machineId"),
+    MAPPED_WINDOW_SIZE("mappedWindowSize"),
     MARSHALLER_CLASS("marshallerClass"),
     MAX_ENTRIES("maxEntries"),
+    MAX_FILE_SIZE("maxFileSize"),
     MAX_IDLE("maxIdle"),
+    MAX_INBOUND_CHUNKS("maxInboundChunks"),
+    MAX_MEMORY("maxMemory"),
     MAX_NON_PROGRESSING_LOG_WRITES("maxProgressingLogWrites"),
+    MAX_OUTBOUND_CHUNKS("maxOutboundChunks"),
     MBEAN_SERVER_LOOKUP("mBeanServerLookup"),
+    MEMORY_MAPPED("memoryMapped"),
     MODE("mode"),
     NODE_NAME("nodeName"),
     MODIFICATION_QUEUE_SIZE("modificationQueueSize"),
@@ -108,6 +119,7 @@ public enum Attribute {
     UNRELIABLE_RETURN_VALUES("unreliableReturnValues"),
     USE_EAGER_LOCKING("useEagerLocking"),
     USE_LOCK_STRIPING("useLockStriping"),
+    USE_LOCK_WORD_STRIPING("useLockWordStriping"),
     SUPPORTS_CONCURRENT_UPDATES("supportsConcurrentUpdates"),
     USE_REPL_QUEUE("useReplQueue"),
     USE_SYNCHRONIZAION("useSynchronization"),
@@ -31,6 +31,7 @@ public enum Element {
     EXPIRATION("expiration"),
     FILE_STORE("fileStore"),
     SINGLE_FILE_STORE("singleFileStore"),
+    LOG_FILE_STORE("logFileStore"),
     GROUPS("groups"),
     GROUPER("grouper"),
     GLOBAL("global"),
@@ -71,6 +72,8 @@ public enum Element {
     BACKUP_FOR("backupFor"),
     TAKE_OFFLINE("takeOffline"),
     TOTAL_ORDER_EXECUTOR("totalOrderExecutor"),
+    STATE_TRANSFER_EXECUTOR("stateTransferExecutor"),
+    ASYNC_OPERATIONS_EXECUTOR("asyncOperationsExecutor"),
     ;
 
     private final String name;
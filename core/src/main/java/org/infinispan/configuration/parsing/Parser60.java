@@ -454,6 +454,9 @@ private void parseUnsafe(final XMLExtendedStreamReader reader, final Configurati
             case UNRELIABLE_RETURN_VALUES:
                builder.unsafe().unreliableReturnValues(Boolean.parseBoolean(value));
                break;
+            case FAST_LOCAL_READS:
+               builder.unsafe().fastLocalReads(Boolean.parseBoolean(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -486,6 +489,9 @@ private void parseStoreAsBinary(final XMLExtendedStreamReader reader, final Conf
             case DEFENSIVE:
                builder.storeAsBinary().defensive(Boolean.parseBoolean(value));
                break;
+            case COMPRESSION_THRESHOLD:
+               builder.storeAsBinary().compressionThreshold(Integer.parseInt(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -514,6 +520,9 @@ private void parseLocking(final XMLExtendedStreamReader reader, final Configurat
             case USE_LOCK_STRIPING:
                builder.locking().useLockStriping(Boolean.parseBoolean(value));
                break;
+            case USE_LOCK_WORD_STRIPING:
+               builder.locking().useLockWordStriping(Boolean.parseBoolean(value));
+               break;
             case WRITE_SKEW_CHECK:
                builder.locking().writeSkewCheck(Boolean.parseBoolean(value));
                break;
@@ -562,6 +571,9 @@ private void parseLoaders(final XMLExtendedStreamReader reader, final Configurat
             case SINGLE_FILE_STORE:
                parseSingleFileStore(reader, holder);
                break;
+            case LOG_FILE_STORE:
+               parseLogFileStore(reader, holder);
+               break;
             case LOADER:
                parseLoader(reader, holder);
                break;
@@ -588,6 +600,40 @@ private void parseSingleFileStore(XMLExtendedStreamReader reader, ConfigurationB
             case MAX_ENTRIES:
                storeBuilder.maxEntries(Integer.parseInt(value));
                break;
+            case MEMORY_MAPPED:
+               storeBuilder.memoryMapped(Boolean.parseBoolean(value));
+               break;
+            case MAPPED_WINDOW_SIZE:
+               storeBuilder.mappedWindowSize(Integer.parseInt(value));
+               break;
+            default:
+               parseCommonLoaderAttributes(reader, i, storeBuilder);
+               break;
+         }
+      }
+      parseStoreChildren(reader, storeBuilder);
+   }
+
+   private void parseLogFileStore(XMLExtendedStreamReader reader, ConfigurationBuilderHolder holder) throws XMLStreamException {
+      ConfigurationBuilder builder = holder.getCurrentConfigurationBuilder();
+      LogFileCacheStoreConfigurationBuilder storeBuilder = builder.loaders().addLogFileCacheStore();
+      for (int i = 0; i < reader.getAttributeCount(); i++) {
+         ParseUtils.requireNoNamespaceAttribute(reader, i);
+         String value = replaceProperties(reader.getAttributeValue(i));
+         Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+         switch (attribute) {
+            case LOCATION:
+               storeBuilder.location(value);
+               break;
+            case MAX_FILE_SIZE:
+               storeBuilder.maxFileSize(Long.parseLong(value));
+               break;
+            case COMPACTION_THRESHOLD:
+               storeBuilder.compactionThreshold(Double.parseDouble(value));
+               break;
+            case COMPACTION_INTERVAL:
+               storeBuilder.compactionInterval(Long.parseLong(value));
+               break;
             default:
                parseCommonLoaderAttributes(reader, i, storeBuilder);
                break;
@@ -1081,6 +1127,9 @@ private void parseEviction(final XMLExtendedStreamReader reader, final Configura
             case MAX_ENTRIES:
                builder.eviction().maxEntries(Integer.parseInt(value));
                break;
+            case MAX_MEMORY:
+               builder.eviction().maxMemory(Long.parseLong(value));
+               break;
             case STRATEGY:
                builder.eviction().strategy(EvictionStrategy.valueOf(value));
                break;
@@ -1346,6 +1395,15 @@ private void parseStateTransfer(final XMLExtendedStreamReader reader, final Conf
             case CHUNK_SIZE:
                builder.clustering().stateTransfer().chunkSize(Integer.parseInt(value));
                break;
+            case CHUNK_SIZE_BYTES:
+               builder.clustering().stateTransfer().chunkSizeBytes(Long.parseLong(value));
+               break;
+            case MAX_INBOUND_CHUNKS:
+               builder.clustering().stateTransfer().maxInboundChunks(Integer.parseInt(value));
+               break;
+            case MAX_OUTBOUND_CHUNKS:
+               builder.clustering().stateTransfer().maxOutboundChunks(Integer.parseInt(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -1563,6 +1621,14 @@ private void parseGlobal(final XMLExtendedStreamReader reader, final Configurati
                parseExecutor(reader, holder.getGlobalConfigurationBuilder().totalOrderExecutor(),
                              holder.getClassLoader());
                break;
+            case STATE_TRANSFER_EXECUTOR:
+               parseExecutor(reader, holder.getGlobalConfigurationBuilder().stateTransferExecutor(),
+                             holder.getClassLoader());
+               break;
+            case ASYNC_OPERATIONS_EXECUTOR:
+               parseExecutor(reader, holder.getGlobalConfigurationBuilder().asyncOperationsExecutor(),
+                             holder.getClassLoader());
+               break;
             default: {
                throw ParseUtils.unexpectedElement(reader);
             }
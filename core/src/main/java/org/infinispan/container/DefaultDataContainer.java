@@ -13,12 +13,17 @@
 import org.infinispan.eviction.EvictionThreadPolicy;
 import org.infinispan.eviction.PassivationManager;
 import org.infinispan.factories.annotations.Inject;
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.loaders.CacheLoaderException;
 import org.infinispan.loaders.manager.CacheLoaderManager;
 import org.infinispan.loaders.spi.CacheStore;
 import org.infinispan.util.CoreImmutables;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.BoundedConcurrentHashMap;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap.EntrySizeCalculator;
 import org.infinispan.util.concurrent.BoundedConcurrentHashMap.Eviction;
 import org.infinispan.util.concurrent.BoundedConcurrentHashMap.EvictionListener;
 
@@ -43,6 +48,7 @@
  * @since 4.0
  */
 @ThreadSafe
+@MBean(objectName = "DataContainer", description = "Statistics of the data container holding the cache entries")
 public class DefaultDataContainer implements DataContainer {
 
    final protected ConcurrentMap<Object, InternalCacheEntry> entries;
@@ -70,6 +76,13 @@ public DefaultDataContainer(int concurrencyLevel,
    protected DefaultDataContainer(int concurrencyLevel, int maxEntries,
          EvictionStrategy strategy, EvictionThreadPolicy policy,
          Equivalence keyEquivalence, Equivalence valueEquivalence) {
+      this(concurrencyLevel, maxEntries, -1, strategy, policy, null, keyEquivalence, valueEquivalence);
+   }
+
+   protected DefaultDataContainer(int concurrencyLevel, int maxEntries, long maxMemory,
+         EvictionStrategy strategy, EvictionThreadPolicy policy,
+         EntrySizeCalculator<Object, InternalCacheEntry> sizeCalculator,
+         Equivalence keyEquivalence, Equivalence valueEquivalence) {
       // translate eviction policy and strategy
       switch (policy) {
          case PIGGYBACK:
@@ -90,13 +103,16 @@ protected DefaultDataContainer(int concurrencyLevel, int maxEntries,
          case LIRS:
             eviction = Eviction.LIRS;
             break;
+         case TINY_LFU:
+            eviction = Eviction.TINY_LFU;
+            break;
          default:
             throw new IllegalArgumentException("No such eviction strategy " + strategy);
       }
 
       entries = new BoundedConcurrentHashMap<Object, InternalCacheEntry>(
-            maxEntries, concurrencyLevel, eviction, evictionListener,
-            keyEquivalence, valueEquivalence);
+            maxEntries, maxMemory, concurrencyLevel, eviction, evictionListener,
+            sizeCalculator, keyEquivalence, valueEquivalence);
    }
 
    @Inject
@@ -117,6 +133,20 @@ public static DataContainer boundedDataContainer(int concurrencyLevel, int maxEn
             policy, keyEquivalence, valueEquivalence);
    }
 
+   /**
+    * Creates a container bounded by the estimated memory footprint of its entries, as computed by
+    * {@link DefaultEntrySizeCalculator}, and optionally by number of entries too.
+    *
+    * @param maxEntries maximum number of entries, or a negative value to only bound by memory
+    * @param maxMemory maximum estimated memory, in bytes
+    */
+   public static DataContainer boundedDataContainer(int concurrencyLevel, int maxEntries, long maxMemory,
+            EvictionStrategy strategy, EvictionThreadPolicy policy,
+            Equivalence keyEquivalence, Equivalence valueEquivalence) {
+      return new DefaultDataContainer(concurrencyLevel, maxEntries, maxMemory, strategy,
+            policy, new DefaultEntrySizeCalculator(), keyEquivalence, valueEquivalence);
+   }
+
    public static DataContainer unBoundedDataContainer(int concurrencyLevel,
          Equivalence keyEquivalence, Equivalence valueEquivalence) {
       return new DefaultDataContainer(concurrencyLevel, keyEquivalence, valueEquivalence);
@@ -221,6 +251,25 @@ public Iterator<InternalCacheEntry> iterator() {
       return new EntryIterator(entries.values().iterator());
    }
 
+   @ManagedAttribute(
+         description = "Estimated memory retained by the entries in this container, or -1 if eviction is not bounded by memory",
+         displayName = "Estimated memory",
+         units = Units.BYTES
+   )
+   public long getEstimatedMemory() {
+      return entries instanceof BoundedConcurrentHashMap ? ((BoundedConcurrentHashMap) entries).memoryUsage() : -1;
+   }
+
+   @ManagedAttribute(
+         description = "Maximum estimated memory retained by the entries in this container before evicting, or -1 if eviction is not bounded by memory",
+         displayName = "Maximum estimated memory",
+         units = Units.BYTES,
+         dataType = DataType.TRAIT
+   )
+   public long getMaxMemory() {
+      return entries instanceof BoundedConcurrentHashMap ? ((BoundedConcurrentHashMap) entries).maxMemory() : -1;
+   }
+
    private final class DefaultEvictionListener implements EvictionListener<Object, InternalCacheEntry> {
 
       @Override
@@ -0,0 +1,90 @@
+package org.infinispan.container;
+
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.marshall.core.MarshalledValue;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap.EntrySizeCalculator;
+
+import java.lang.reflect.Array;
+
+/**
+ * Estimates the heap retained by a key and its {@link InternalCacheEntry}, for data containers bounded by memory.
+ * <p/>
+ * Sizes assume a 64-bit JVM with compressed references. Byte and char arrays, Strings, boxed primitives and
+ * {@link MarshalledValue}s (as used with <tt>storeAsBinary</tt>) are sized from their contents; any other object is
+ * counted as {@link #DEFAULT_OBJECT_SIZE} bytes, so caches holding large custom objects should store them as binary
+ * for accurate accounting.
+ *
+ * @since 6.0
+ */
+public class DefaultEntrySizeCalculator implements EntrySizeCalculator<Object, InternalCacheEntry> {
+
+   static final int OBJECT_HEADER = 12;
+   static final int ARRAY_HEADER = 16;
+   static final int REFERENCE = 4;
+   static final int DEFAULT_OBJECT_SIZE = 64;
+   /**
+    * Hash table node plus eviction algorithm bookkeeping kept by the container for every entry.
+    */
+   static final int CONTAINER_ENTRY_OVERHEAD = 64;
+
+   @Override
+   public long calculateSize(Object key, InternalCacheEntry entry) {
+      long size = CONTAINER_ENTRY_OVERHEAD + internalEntrySize(entry) + objectSize(key);
+      if (entry != null)
+         size += objectSize(entry.getValue());
+      return size;
+   }
+
+   /**
+    * Shallow size of the entry wrapper itself, which depends on whether it tracks lifespan, max idle and a version.
+    */
+   private static long internalEntrySize(InternalCacheEntry entry) {
+      if (entry == null)
+         return 0;
+      long size = OBJECT_HEADER + 2 * REFERENCE;
+      if (entry.getLifespan() > -1)
+         size += 16; // created + lifespan
+      if (entry.getMaxIdle() > -1)
+         size += 16; // lastUsed + maxIdle
+      Metadata metadata = entry.getMetadata();
+      if (metadata != null && metadata.version() != null)
+         size += REFERENCE + align(OBJECT_HEADER + 16 + REFERENCE) + DEFAULT_OBJECT_SIZE / 2;
+      return align(size);
+   }
+
+   static long objectSize(Object o) {
+      if (o == null)
+         return 0;
+      if (o instanceof byte[])
+         return align(ARRAY_HEADER + ((byte[]) o).length);
+      if (o instanceof String)
+         return align(OBJECT_HEADER + REFERENCE + 8) + align(ARRAY_HEADER + 2L * ((String) o).length());
+      if (o instanceof MarshalledValue)
+         return align(OBJECT_HEADER + 2 * REFERENCE + 8) + align(ARRAY_HEADER + ((MarshalledValue) o).getSerialisedSize());
+      if (o instanceof Long || o instanceof Double)
+         return align(OBJECT_HEADER + 8);
+      if (o instanceof Number || o instanceof Boolean || o instanceof Character)
+         return align(OBJECT_HEADER + 4);
+      Class<?> clazz = o.getClass();
+      if (clazz.isArray())
+         return align(ARRAY_HEADER + (long) Array.getLength(o) * componentSize(clazz.getComponentType()));
+      return DEFAULT_OBJECT_SIZE;
+   }
+
+   private static int componentSize(Class<?> type) {
+      if (type == long.class || type == double.class)
+         return 8;
+      if (type == int.class || type == float.class)
+         return 4;
+      if (type == char.class || type == short.class)
+         return 2;
+      if (type == byte.class || type == boolean.class)
+         return 1;
+      return REFERENCE;
+   }
+
+   private static long align(long size) {
+      return (size + 7) & ~7L;
+   }
+}
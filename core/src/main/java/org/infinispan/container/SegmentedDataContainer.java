@@ -0,0 +1,393 @@
+package org.infinispan.container;
+
+import net.jcip.annotations.ThreadSafe;
+
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.hash.Hash;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.group.GroupManager;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.util.CoreImmutables;
+import org.infinispan.util.TimeService;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An unbounded data container that keeps the entries of each segment in a separate map, so that the entries of a
+ * segment can be iterated, counted or dropped without going through the entries of the other segments.
+ * <p/>
+ * The segment of a key is computed the same way the consistent hash of the cache computes it: from the configured hash
+ * function, the number of segments and the group of the key, if any. Replicated caches map hashes to segments with a
+ * modulo, distributed caches with ranges of equal size (see {@link org.infinispan.distribution.ch.ReplicatedConsistentHash}
+ * and {@link org.infinispan.distribution.ch.DefaultConsistentHash}). The map of a segment is created when its first
+ * entry is stored.
+ *
+ * @since 6.0
+ */
+@ThreadSafe
+public class SegmentedDataContainer implements DataContainer {
+
+   private final AtomicReferenceArray<ConcurrentMap<Object, InternalCacheEntry>> segments;
+   private final int numSegments;
+   private final int segmentSize;
+   private final boolean moduloSegments;
+   private final Hash hashFunction;
+   private final int concurrencyLevel;
+   private final Equivalence keyEquivalence;
+   private final Equivalence valueEquivalence;
+   private InternalEntryFactory entryFactory;
+   private GroupManager groupManager;
+   private TimeService timeService;
+
+   /**
+    * @param moduloSegments {@code true} to map hashes to segments as replicated caches do, {@code false} as distributed
+    *                       caches do
+    */
+   public SegmentedDataContainer(int concurrencyLevel, int numSegments, Hash hashFunction, boolean moduloSegments,
+                                 Equivalence keyEquivalence, Equivalence valueEquivalence) {
+      if (numSegments <= 0)
+         throw new IllegalArgumentException("The number of segments must be strictly positive");
+      this.segments = new AtomicReferenceArray<ConcurrentMap<Object, InternalCacheEntry>>(numSegments);
+      this.numSegments = numSegments;
+      this.segmentSize = (int) Math.ceil((double) Integer.MAX_VALUE / numSegments);
+      this.moduloSegments = moduloSegments;
+      this.hashFunction = hashFunction;
+      this.concurrencyLevel = Math.max(1, concurrencyLevel / numSegments);
+      this.keyEquivalence = keyEquivalence;
+      this.valueEquivalence = valueEquivalence;
+   }
+
+   @Inject
+   public void initialize(InternalEntryFactory entryFactory, GroupManager groupManager, TimeService timeService) {
+      this.entryFactory = entryFactory;
+      this.groupManager = groupManager;
+      this.timeService = timeService;
+   }
+
+   public int getNumSegments() {
+      return numSegments;
+   }
+
+   /**
+    * @return the segment the key belongs to
+    */
+   public int getSegment(Object key) {
+      Object segmentKey = key;
+      if (groupManager != null) {
+         String group = groupManager.getGroup(key);
+         if (group != null)
+            segmentKey = group;
+      }
+      int normalizedHash = hashFunction.hash(segmentKey) & Integer.MAX_VALUE;
+      return moduloSegments ? normalizedHash % numSegments : normalizedHash / segmentSize;
+   }
+
+   private ConcurrentMap<Object, InternalCacheEntry> segmentFor(Object key) {
+      return segments.get(getSegment(key));
+   }
+
+   private ConcurrentMap<Object, InternalCacheEntry> getOrCreateSegment(int segment) {
+      ConcurrentMap<Object, InternalCacheEntry> map = segments.get(segment);
+      if (map == null) {
+         map = CollectionFactory.makeConcurrentMap(16, concurrencyLevel, keyEquivalence, valueEquivalence);
+         if (!segments.compareAndSet(segment, null, map))
+            map = segments.get(segment);
+      }
+      return map;
+   }
+
+   @Override
+   public InternalCacheEntry peek(Object key) {
+      ConcurrentMap<Object, InternalCacheEntry> map = segmentFor(key);
+      return map == null ? null : map.get(key);
+   }
+
+   @Override
+   public InternalCacheEntry get(Object k) {
+      ConcurrentMap<Object, InternalCacheEntry> map = segmentFor(k);
+      InternalCacheEntry e = map == null ? null : map.get(k);
+      if (e != null && e.canExpire()) {
+         long currentTimeMillis = timeService.wallClockTime();
+         if (e.isExpired(currentTimeMillis)) {
+            map.remove(k);
+            e = null;
+         } else {
+            e.touch(currentTimeMillis);
+         }
+      }
+      return e;
+   }
+
+   @Override
+   public void put(Object k, Object v, Metadata metadata) {
+      ConcurrentMap<Object, InternalCacheEntry> map = getOrCreateSegment(getSegment(k));
+      InternalCacheEntry e = map.get(k);
+      if (e != null) {
+         e.setValue(v);
+         InternalCacheEntry original = e;
+         e = entryFactory.update(e, metadata);
+         // we have the same instance. So we need to reincarnate.
+         if (original == e) {
+            e.reincarnate(timeService.wallClockTime());
+         }
+      } else {
+         // this is a brand-new entry
+         e = entryFactory.create(k, v, metadata);
+      }
+      map.put(k, e);
+   }
+
+   @Override
+   public boolean containsKey(Object k) {
+      ConcurrentMap<Object, InternalCacheEntry> map = segmentFor(k);
+      InternalCacheEntry ice = map == null ? null : map.get(k);
+      if (ice != null && ice.canExpire() && ice.isExpired(timeService.wallClockTime())) {
+         map.remove(k);
+         ice = null;
+      }
+      return ice != null;
+   }
+
+   @Override
+   public InternalCacheEntry remove(Object k) {
+      ConcurrentMap<Object, InternalCacheEntry> map = segmentFor(k);
+      InternalCacheEntry e = map == null ? null : map.remove(k);
+      return e == null || (e.canExpire() && e.isExpired(timeService.wallClockTime())) ? null : e;
+   }
+
+   @Override
+   public int size() {
+      int size = 0;
+      for (int i = 0; i < numSegments; i++) {
+         size += size(i);
+      }
+      return size;
+   }
+
+   /**
+    * @return the number of entries, including the expired ones, of the given segment
+    */
+   public int size(int segment) {
+      ConcurrentMap<Object, InternalCacheEntry> map = segments.get(segment);
+      return map == null ? 0 : map.size();
+   }
+
+   @Override
+   public void clear() {
+      for (int i = 0; i < numSegments; i++) {
+         clearSegment(i);
+      }
+   }
+
+   /**
+    * Removes all the entries of the given segments, without going through the entries of the other segments. The
+    * removed entries are not passed to the cache store or to the listeners.
+    */
+   public void removeSegments(Set<Integer> segmentsToRemove) {
+      for (int segment : segmentsToRemove) {
+         clearSegment(segment);
+      }
+   }
+
+   private void clearSegment(int segment) {
+      // Cleared in place: a concurrent put may already hold a reference to the map, replacing it would lose the write
+      ConcurrentMap<Object, InternalCacheEntry> map = segments.get(segment);
+      if (map != null)
+         map.clear();
+   }
+
+   @Override
+   public Set<Object> keySet() {
+      return new KeySet();
+   }
+
+   @Override
+   public Collection<Object> values() {
+      return new Values();
+   }
+
+   @Override
+   public Set<InternalCacheEntry> entrySet() {
+      return new EntrySet();
+   }
+
+   @Override
+   public void purgeExpired() {
+      long currentTimeMillis = timeService.wallClockTime();
+      for (int i = 0; i < numSegments; i++) {
+         ConcurrentMap<Object, InternalCacheEntry> map = segments.get(i);
+         if (map == null)
+            continue;
+         for (Iterator<InternalCacheEntry> purgeCandidates = map.values().iterator(); purgeCandidates.hasNext();) {
+            InternalCacheEntry e = purgeCandidates.next();
+            if (e.isExpired(currentTimeMillis)) {
+               purgeCandidates.remove();
+            }
+         }
+      }
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry> iterator() {
+      return new SegmentsIterator<InternalCacheEntry>() {
+         @Override
+         protected Iterator<InternalCacheEntry> segmentIterator(ConcurrentMap<Object, InternalCacheEntry> map) {
+            return map.values().iterator();
+         }
+      };
+   }
+
+   /**
+    * @return an iterator over the entries of the given segment only
+    */
+   public Iterator<InternalCacheEntry> iterator(int segment) {
+      ConcurrentMap<Object, InternalCacheEntry> map = segments.get(segment);
+      if (map == null)
+         return new DefaultDataContainer.EntryIterator(Collections.<InternalCacheEntry>emptyList().iterator());
+      return new DefaultDataContainer.EntryIterator(map.values().iterator());
+   }
+
+   /**
+    * Iterates through the segments one after the other. The iterators of the maps are weakly consistent, so is this
+    * one.
+    */
+   private abstract class SegmentsIterator<T> implements Iterator<T> {
+      private int nextSegment;
+      private Iterator<T> current;
+
+      protected abstract Iterator<T> segmentIterator(ConcurrentMap<Object, InternalCacheEntry> map);
+
+      @Override
+      public boolean hasNext() {
+         while (current == null || !current.hasNext()) {
+            if (nextSegment >= numSegments)
+               return false;
+            ConcurrentMap<Object, InternalCacheEntry> map = segments.get(nextSegment++);
+            current = map == null ? null : segmentIterator(map);
+         }
+         return true;
+      }
+
+      @Override
+      public T next() {
+         if (!hasNext())
+            throw new NoSuchElementException();
+         return current.next();
+      }
+
+      @Override
+      public void remove() {
+         throw new UnsupportedOperationException();
+      }
+   }
+
+   private class KeySet extends AbstractSet<Object> {
+      @Override
+      public Iterator<Object> iterator() {
+         return new SegmentsIterator<Object>() {
+            @Override
+            protected Iterator<Object> segmentIterator(ConcurrentMap<Object, InternalCacheEntry> map) {
+               return map.keySet().iterator();
+            }
+         };
+      }
+
+      @Override
+      public boolean contains(Object o) {
+         return peek(o) != null;
+      }
+
+      @Override
+      public int size() {
+         return SegmentedDataContainer.this.size();
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Set
+    */
+   private class EntrySet extends AbstractSet<InternalCacheEntry> {
+
+      @Override
+      public boolean contains(Object o) {
+         if (!(o instanceof Map.Entry)) {
+            return false;
+         }
+
+         @SuppressWarnings("rawtypes")
+         Map.Entry e = (Map.Entry) o;
+         InternalCacheEntry ice = peek(e.getKey());
+         if (ice == null) {
+            return false;
+         }
+         return ice.getValue().equals(e.getValue());
+      }
+
+      @Override
+      public Iterator<InternalCacheEntry> iterator() {
+         return new SegmentsIterator<InternalCacheEntry>() {
+            @Override
+            protected Iterator<InternalCacheEntry> segmentIterator(ConcurrentMap<Object, InternalCacheEntry> map) {
+               return map.values().iterator();
+            }
+
+            @Override
+            public InternalCacheEntry next() {
+               return CoreImmutables.immutableInternalCacheEntry(super.next());
+            }
+         };
+      }
+
+      @Override
+      public int size() {
+         return SegmentedDataContainer.this.size();
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Collection
+    */
+   private class Values extends AbstractCollection<Object> {
+      @Override
+      public Iterator<Object> iterator() {
+         return new SegmentsIterator<Object>() {
+            @Override
+            protected Iterator<Object> segmentIterator(final ConcurrentMap<Object, InternalCacheEntry> map) {
+               final Iterator<InternalCacheEntry> it = map.values().iterator();
+               return new Iterator<Object>() {
+                  @Override
+                  public boolean hasNext() {
+                     return it.hasNext();
+                  }
+
+                  @Override
+                  public Object next() {
+                     return it.next().getValue();
+                  }
+
+                  @Override
+                  public void remove() {
+                     throw new UnsupportedOperationException();
+                  }
+               };
+            }
+         };
+      }
+
+      @Override
+      public int size() {
+         return SegmentedDataContainer.this.size();
+      }
+   }
+}
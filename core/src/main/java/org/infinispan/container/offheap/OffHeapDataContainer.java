@@ -0,0 +1,763 @@
+package org.infinispan.container.offheap;
+
+import net.jcip.annotations.ThreadSafe;
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.InternalEntryFactory;
+import org.infinispan.container.entries.ExpiryHelper;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.entries.InternalCacheValue;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.EvictionManager;
+import org.infinispan.eviction.PassivationManager;
+import org.infinispan.factories.annotations.ComponentName;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.Units;
+import org.infinispan.loaders.CacheLoaderException;
+import org.infinispan.loaders.manager.CacheLoaderManager;
+import org.infinispan.loaders.spi.CacheStore;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.util.CoreImmutables;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.io.IOException;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
+
+/**
+ * A {@link DataContainer} which keeps its entries outside of the Java heap.
+ * <p/>
+ * Keys and {@link InternalCacheValue}s (value, metadata and timestamps) are marshalled with the cache marshaller and
+ * copied into blocks of native memory. Each block starts with a fixed header holding the bucket chain pointer, the
+ * LRU links, the key hash and the expiration timestamps, so that lookups, expiration checks and LRU bookkeeping never
+ * need to unmarshall anything. The hash index itself is a plain {@code long[]} of block addresses per segment, which
+ * the garbage collector never has to trace.
+ * <p/>
+ * Keys are matched by comparing their marshalled form, so key types must marshall deterministically (equal keys must
+ * produce equal bytes). Entries returned by this container are copies: changes made to them are not reflected in the
+ * container until they are {@link #put(Object, Object, Metadata)} back.
+ * <p/>
+ * When eviction is enabled, each segment evicts its least recently used entries once it holds more than its share of
+ * {@code maxEntries}. {@link org.infinispan.eviction.EvictionStrategy#LIRS} and
+ * {@link org.infinispan.eviction.EvictionStrategy#TINY_LFU} are approximated with LRU. Evicted entries
+ * are passivated and reported to the {@link EvictionManager} exactly like
+ * {@link org.infinispan.container.DefaultDataContainer} does.
+ * <p/>
+ * This container can be enabled declaratively with {@code <dataContainer class="org.infinispan.container.offheap.OffHeapDataContainer" />},
+ * in which case it sizes itself from the cache's locking and eviction configuration.
+ *
+ * @since 6.0
+ */
+@ThreadSafe
+@MBean(objectName = "OffHeapDataContainer", description = "Data container storing entries in native memory")
+public class OffHeapDataContainer implements DataContainer {
+
+   private static final Log log = LogFactory.getLog(OffHeapDataContainer.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   /*
+    * Native block layout. All offsets are in bytes from the start of the block.
+    */
+   private static final int NEXT_OFFSET = 0;
+   private static final int LRU_PREVIOUS_OFFSET = 8;
+   private static final int LRU_NEXT_OFFSET = 16;
+   private static final int HASH_OFFSET = 24;
+   private static final int KEY_LENGTH_OFFSET = 28;
+   private static final int VALUE_LENGTH_OFFSET = 32;
+   private static final int CREATED_OFFSET = 40;
+   private static final int LIFESPAN_OFFSET = 48;
+   private static final int LAST_USED_OFFSET = 56;
+   private static final int MAX_IDLE_OFFSET = 64;
+   private static final int HEADER_SIZE = 72;
+
+   private static final int INITIAL_SEGMENT_CAPACITY = 16;
+   private static final float LOAD_FACTOR = 0.75f;
+   private static final int MAX_SEGMENTS = 1 << 16;
+
+   private Segment[] segments;
+   private int segmentShift;
+   private int segmentMask;
+   private Equivalence<Object> keyEquivalence;
+   private boolean evictionEnabled;
+
+   private StreamingMarshaller marshaller;
+   private InternalEntryFactory entryFactory;
+   private EvictionManager evictionManager;
+   private PassivationManager passivator;
+   private ActivationManager activator;
+   private CacheLoaderManager clm;
+   private TimeService timeService;
+
+   /**
+    * Creates a container which sizes itself from the cache configuration it is injected with.
+    */
+   public OffHeapDataContainer() {
+   }
+
+   /**
+    * Creates a container with an explicit size.
+    *
+    * @param concurrencyLevel the estimated number of concurrently updating threads
+    * @param maxEntries       the maximum number of entries to keep before evicting, or a negative number for an
+    *                         unbounded container
+    * @param keyEquivalence   equivalence used to hash keys
+    */
+   public OffHeapDataContainer(int concurrencyLevel, int maxEntries, Equivalence<Object> keyEquivalence) {
+      createSegments(concurrencyLevel, maxEntries, keyEquivalence);
+   }
+
+   @Inject
+   public void initialize(@ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller, Configuration configuration,
+         EvictionManager evictionManager, PassivationManager passivator, InternalEntryFactory entryFactory,
+         ActivationManager activator, CacheLoaderManager clm, TimeService timeService) {
+      this.marshaller = marshaller;
+      this.evictionManager = evictionManager;
+      this.passivator = passivator;
+      this.entryFactory = entryFactory;
+      this.activator = activator;
+      this.clm = clm;
+      this.timeService = timeService;
+      if (segments == null) {
+         int maxEntries = configuration.eviction().strategy().isEnabled() ? configuration.eviction().maxEntries() : -1;
+         createSegments(configuration.locking().concurrencyLevel(), maxEntries,
+               configuration.dataContainer().<Object>keyEquivalence());
+      }
+   }
+
+   private void createSegments(int concurrencyLevel, int maxEntries, Equivalence<Object> keyEquivalence) {
+      if (concurrencyLevel <= 0)
+         throw new IllegalArgumentException("Concurrency level must be positive: " + concurrencyLevel);
+
+      int sshift = 0;
+      int ssize = 1;
+      int level = Math.min(concurrencyLevel, MAX_SEGMENTS);
+      if (maxEntries > 0)
+         level = Math.max(1, Math.min(level, maxEntries / 2)); // at least two entries per segment
+      while (ssize < level) {
+         ++sshift;
+         ssize <<= 1;
+      }
+      this.segmentShift = 32 - sshift;
+      this.segmentMask = ssize - 1;
+      this.evictionEnabled = maxEntries > 0;
+      this.keyEquivalence = keyEquivalence == null ? AnyEquivalence.getInstance() : keyEquivalence;
+
+      int segmentCapacity = evictionEnabled ? Math.max(1, maxEntries / ssize) : -1;
+      Segment[] s = new Segment[ssize];
+      for (int i = 0; i < ssize; i++)
+         s[i] = new Segment(segmentCapacity);
+      this.segments = s;
+   }
+
+   /**
+    * Same supplemental hash as {@link org.infinispan.util.concurrent.BoundedConcurrentHashMap}.
+    */
+   private static int spread(int h) {
+      h += h <<  15 ^ 0xffffcd7d;
+      h ^= h >>> 10;
+      h += h <<   3;
+      h ^= h >>>  6;
+      h += (h <<   2) + (h << 14);
+      return h ^ h >>> 16;
+   }
+
+   private int hash(Object key) {
+      return spread(keyEquivalence.hashCode(key));
+   }
+
+   private Segment segmentFor(int hash) {
+      return segments[hash >>> segmentShift & segmentMask];
+   }
+
+   @Override
+   public InternalCacheEntry peek(Object k) {
+      int hash = hash(k);
+      ByteBuffer key = marshall(k);
+      Segment s = segmentFor(hash);
+      s.lock();
+      try {
+         long address = s.find(hash, key);
+         return address == 0 ? null : readEntry(address, k);
+      } finally {
+         s.unlock();
+      }
+   }
+
+   @Override
+   public InternalCacheEntry get(Object k) {
+      int hash = hash(k);
+      ByteBuffer key = marshall(k);
+      Segment s = segmentFor(hash);
+      s.lock();
+      try {
+         long address = s.find(hash, key);
+         if (address == 0)
+            return null;
+
+         long now = timeService.wallClockTime();
+         if (isExpired(address, now)) {
+            s.unlinkAndFree(address);
+            return null;
+         }
+         if (UnsafeMemory.getLong(address + MAX_IDLE_OFFSET) > -1)
+            UnsafeMemory.putLong(address + LAST_USED_OFFSET, now);
+         s.moveToLruHead(address);
+         return readEntry(address, k);
+      } finally {
+         s.unlock();
+      }
+   }
+
+   @Override
+   public void put(Object k, Object v, Metadata metadata) {
+      InternalCacheEntry e = entryFactory.create(k, v, metadata);
+      int hash = hash(k);
+      ByteBuffer key = marshall(k);
+      ByteBuffer value = marshall(e.toInternalCacheValue());
+      long address = allocate(hash, key, value, e);
+
+      Map<Object, InternalCacheEntry> evicted = null;
+      boolean linked = false;
+      Segment s = segmentFor(hash);
+      s.lock();
+      try {
+         long existing = s.find(hash, key);
+         if (existing != 0) {
+            s.unlinkAndFree(existing);
+         } else if (evictionEnabled) {
+            // When entry not present, attempt to activate if necessary
+            activator.activate(k);
+         }
+         s.link(address);
+         linked = true;
+         if (evictionEnabled)
+            evicted = s.evictIfNeeded();
+      } finally {
+         s.unlock();
+         if (!linked)
+            UnsafeMemory.free(address);
+      }
+
+      if (evicted != null)
+         evictionManager.onEntryEviction(evicted);
+   }
+
+   @Override
+   public boolean containsKey(Object k) {
+      int hash = hash(k);
+      ByteBuffer key = marshall(k);
+      Segment s = segmentFor(hash);
+      s.lock();
+      try {
+         long address = s.find(hash, key);
+         if (address == 0)
+            return false;
+         if (isExpired(address, timeService.wallClockTime())) {
+            s.unlinkAndFree(address);
+            return false;
+         }
+         return true;
+      } finally {
+         s.unlock();
+      }
+   }
+
+   @Override
+   public InternalCacheEntry remove(Object k) {
+      int hash = hash(k);
+      ByteBuffer key = marshall(k);
+      Segment s = segmentFor(hash);
+      InternalCacheEntry removed = null;
+      s.lock();
+      try {
+         long address = s.find(hash, key);
+         if (address != 0) {
+            if (!isExpired(address, timeService.wallClockTime()))
+               removed = readEntry(address, k);
+            s.unlinkAndFree(address);
+         }
+      } finally {
+         s.unlock();
+      }
+
+      if (evictionEnabled) {
+         // Same contract as the bounded DefaultDataContainer: removing (not evicting) also removes from the store
+         removeFromStore(k);
+      }
+      return removed;
+   }
+
+   @Override
+   public int size() {
+      int size = 0;
+      for (Segment s : segments)
+         size += s.count;
+      return size;
+   }
+
+   @Override
+   public void clear() {
+      for (Segment s : segments) {
+         s.lock();
+         try {
+            s.clear();
+         } finally {
+            s.unlock();
+         }
+      }
+   }
+
+   @Override
+   public Set<Object> keySet() {
+      return new KeySet();
+   }
+
+   @Override
+   public Collection<Object> values() {
+      return new Values();
+   }
+
+   @Override
+   public Set<InternalCacheEntry> entrySet() {
+      return new EntrySet();
+   }
+
+   @Override
+   public void purgeExpired() {
+      long now = timeService.wallClockTime();
+      for (Segment s : segments) {
+         s.lock();
+         try {
+            long address = s.lruHead;
+            while (address != 0) {
+               long next = UnsafeMemory.getLong(address + LRU_NEXT_OFFSET);
+               if (isExpired(address, now))
+                  s.unlinkAndFree(address);
+               address = next;
+            }
+         } finally {
+            s.unlock();
+         }
+      }
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry> iterator() {
+      return new EntryIterator();
+   }
+
+   @ManagedAttribute(
+         description = "Amount of native memory allocated for entries",
+         displayName = "Allocated off-heap memory",
+         units = Units.BYTES,
+         dataType = DataType.TRAIT
+   )
+   public long getAllocatedMemory() {
+      long memory = 0;
+      for (Segment s : segments)
+         memory += s.allocatedMemory;
+      return memory;
+   }
+
+   @ManagedAttribute(
+         description = "Number of entries currently stored in native memory",
+         displayName = "Number of off-heap entries",
+         dataType = DataType.TRAIT
+   )
+   public int getNumberOfEntries() {
+      return size();
+   }
+
+   private boolean isExpired(long address, long now) {
+      return ExpiryHelper.isExpiredTransientMortal(
+            UnsafeMemory.getLong(address + MAX_IDLE_OFFSET), UnsafeMemory.getLong(address + LAST_USED_OFFSET),
+            UnsafeMemory.getLong(address + LIFESPAN_OFFSET), UnsafeMemory.getLong(address + CREATED_OFFSET), now);
+   }
+
+   private long allocate(int hash, ByteBuffer key, ByteBuffer value, InternalCacheEntry e) {
+      long address = UnsafeMemory.allocate(HEADER_SIZE + key.getLength() + value.getLength());
+      UnsafeMemory.putLong(address + NEXT_OFFSET, 0);
+      UnsafeMemory.putLong(address + LRU_PREVIOUS_OFFSET, 0);
+      UnsafeMemory.putLong(address + LRU_NEXT_OFFSET, 0);
+      UnsafeMemory.putInt(address + HASH_OFFSET, hash);
+      UnsafeMemory.putInt(address + KEY_LENGTH_OFFSET, key.getLength());
+      UnsafeMemory.putInt(address + VALUE_LENGTH_OFFSET, value.getLength());
+      UnsafeMemory.putLong(address + CREATED_OFFSET, e.getCreated());
+      UnsafeMemory.putLong(address + LIFESPAN_OFFSET, e.getLifespan());
+      UnsafeMemory.putLong(address + LAST_USED_OFFSET, e.getLastUsed());
+      UnsafeMemory.putLong(address + MAX_IDLE_OFFSET, e.getMaxIdle());
+      UnsafeMemory.putBytes(address + HEADER_SIZE, key.getBuf(), key.getOffset(), key.getLength());
+      UnsafeMemory.putBytes(address + HEADER_SIZE + key.getLength(), value.getBuf(), value.getOffset(), value.getLength());
+      return address;
+   }
+
+   private static long blockSize(long address) {
+      return HEADER_SIZE + UnsafeMemory.getInt(address + KEY_LENGTH_OFFSET) + UnsafeMemory.getInt(address + VALUE_LENGTH_OFFSET);
+   }
+
+   /**
+    * Rebuilds the entry stored at {@code address}. If the caller already holds the key, it is reused rather than
+    * unmarshalled again.
+    */
+   private InternalCacheEntry readEntry(long address, Object key) {
+      int keyLength = UnsafeMemory.getInt(address + KEY_LENGTH_OFFSET);
+      if (key == null)
+         key = unmarshall(UnsafeMemory.getBytes(address + HEADER_SIZE, keyLength));
+      byte[] value = UnsafeMemory.getBytes(address + HEADER_SIZE + keyLength,
+                                           UnsafeMemory.getInt(address + VALUE_LENGTH_OFFSET));
+      InternalCacheEntry e = ((InternalCacheValue) unmarshall(value)).toInternalCacheEntry(key);
+      long lastUsed = UnsafeMemory.getLong(address + LAST_USED_OFFSET);
+      if (lastUsed > -1)
+         e.touch(lastUsed);
+      return e;
+   }
+
+   private ByteBuffer marshall(Object o) {
+      try {
+         return marshaller.objectToBuffer(o);
+      } catch (IOException e) {
+         throw new CacheException("Unable to marshall " + o + " for off-heap storage", e);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new CacheException(e);
+      }
+   }
+
+   private Object unmarshall(byte[] bytes) {
+      try {
+         return marshaller.objectFromByteBuffer(bytes);
+      } catch (IOException e) {
+         throw new CacheException("Unable to unmarshall off-heap entry", e);
+      } catch (ClassNotFoundException e) {
+         throw new CacheException("Unable to unmarshall off-heap entry", e);
+      }
+   }
+
+   private void removeFromStore(Object key) {
+      try {
+         CacheStore cacheStore = clm.getCacheStore();
+         if (cacheStore != null)
+            cacheStore.remove(key);
+      } catch (CacheLoaderException e) {
+         throw new CacheException(e);
+      }
+   }
+
+   /**
+    * A segment owns a chained hash index of native blocks and the LRU list linking them. All access happens while
+    * holding the segment lock.
+    */
+   private final class Segment extends ReentrantLock {
+
+      private static final long serialVersionUID = -4151294578735489582L;
+
+      private final int capacity;
+      private long[] table = new long[INITIAL_SEGMENT_CAPACITY];
+      private long lruHead;
+      private long lruTail;
+      private long allocatedMemory;
+      volatile int count;
+
+      Segment(int capacity) {
+         this.capacity = capacity;
+      }
+
+      long find(int hash, ByteBuffer key) {
+         long address = table[hash & table.length - 1];
+         while (address != 0) {
+            if (UnsafeMemory.getInt(address + HASH_OFFSET) == hash
+                  && UnsafeMemory.getInt(address + KEY_LENGTH_OFFSET) == key.getLength()
+                  && UnsafeMemory.equalBytes(address + HEADER_SIZE, key.getBuf(), key.getOffset(), key.getLength()))
+               return address;
+            address = UnsafeMemory.getLong(address + NEXT_OFFSET);
+         }
+         return 0;
+      }
+
+      void link(long address) {
+         if (count + 1 > table.length * LOAD_FACTOR)
+            rehash();
+         int index = UnsafeMemory.getInt(address + HASH_OFFSET) & table.length - 1;
+         UnsafeMemory.putLong(address + NEXT_OFFSET, table[index]);
+         table[index] = address;
+         addToLruHead(address);
+         allocatedMemory += blockSize(address);
+         count++;
+      }
+
+      void unlinkAndFree(long address) {
+         int index = UnsafeMemory.getInt(address + HASH_OFFSET) & table.length - 1;
+         long next = UnsafeMemory.getLong(address + NEXT_OFFSET);
+         long current = table[index];
+         if (current == address) {
+            table[index] = next;
+         } else {
+            while (current != 0) {
+               long n = UnsafeMemory.getLong(current + NEXT_OFFSET);
+               if (n == address) {
+                  UnsafeMemory.putLong(current + NEXT_OFFSET, next);
+                  break;
+               }
+               current = n;
+            }
+         }
+         removeFromLru(address);
+         allocatedMemory -= blockSize(address);
+         count--;
+         UnsafeMemory.free(address);
+      }
+
+      void moveToLruHead(long address) {
+         if (lruHead != address) {
+            removeFromLru(address);
+            addToLruHead(address);
+         }
+      }
+
+      private void addToLruHead(long address) {
+         UnsafeMemory.putLong(address + LRU_PREVIOUS_OFFSET, 0);
+         UnsafeMemory.putLong(address + LRU_NEXT_OFFSET, lruHead);
+         if (lruHead != 0)
+            UnsafeMemory.putLong(lruHead + LRU_PREVIOUS_OFFSET, address);
+         else
+            lruTail = address;
+         lruHead = address;
+      }
+
+      private void removeFromLru(long address) {
+         long previous = UnsafeMemory.getLong(address + LRU_PREVIOUS_OFFSET);
+         long next = UnsafeMemory.getLong(address + LRU_NEXT_OFFSET);
+         if (previous != 0)
+            UnsafeMemory.putLong(previous + LRU_NEXT_OFFSET, next);
+         else
+            lruHead = next;
+         if (next != 0)
+            UnsafeMemory.putLong(next + LRU_PREVIOUS_OFFSET, previous);
+         else
+            lruTail = previous;
+      }
+
+      /**
+       * Evicts least recently used entries until the segment is back within its capacity, passivating each of them
+       * before its memory is released.
+       *
+       * @return evicted entries, or null if nothing was evicted
+       */
+      Map<Object, InternalCacheEntry> evictIfNeeded() {
+         Map<Object, InternalCacheEntry> evicted = null;
+         while (count > capacity && lruTail != 0) {
+            long victim = lruTail;
+            InternalCacheEntry entry = readEntry(victim, null);
+            if (trace)
+               log.tracef("Evicting off-heap entry %s", entry.getKey());
+            // Required to guarantee passivation/activation correctness.
+            passivator.passivate(entry);
+            unlinkAndFree(victim);
+            if (evicted == null)
+               evicted = new HashMap<Object, InternalCacheEntry>();
+            evicted.put(entry.getKey(), entry);
+         }
+         return evicted == null ? null : Collections.unmodifiableMap(evicted);
+      }
+
+      private void rehash() {
+         long[] oldTable = table;
+         long[] newTable = new long[oldTable.length << 1];
+         int mask = newTable.length - 1;
+         for (long head : oldTable) {
+            long address = head;
+            while (address != 0) {
+               long next = UnsafeMemory.getLong(address + NEXT_OFFSET);
+               int index = UnsafeMemory.getInt(address + HASH_OFFSET) & mask;
+               UnsafeMemory.putLong(address + NEXT_OFFSET, newTable[index]);
+               newTable[index] = address;
+               address = next;
+            }
+         }
+         table = newTable;
+      }
+
+      void clear() {
+         long address = lruHead;
+         while (address != 0) {
+            long next = UnsafeMemory.getLong(address + LRU_NEXT_OFFSET);
+            UnsafeMemory.free(address);
+            address = next;
+         }
+         Arrays.fill(table, 0);
+         lruHead = lruTail = 0;
+         allocatedMemory = 0;
+         count = 0;
+      }
+
+      /**
+       * Copies every live entry of this segment onto the heap.
+       */
+      List<InternalCacheEntry> snapshot(long now) {
+         lock();
+         try {
+            List<InternalCacheEntry> entries = new ArrayList<InternalCacheEntry>(count);
+            for (long address = lruHead; address != 0; address = UnsafeMemory.getLong(address + LRU_NEXT_OFFSET)) {
+               if (!isExpired(address, now))
+                  entries.add(readEntry(address, null));
+            }
+            return entries;
+         } finally {
+            unlock();
+         }
+      }
+   }
+
+   /**
+    * Iterates over the container one segment at a time, so only a single segment's worth of entries is ever copied
+    * onto the heap. {@link #remove()} removes the key of the last returned entry from the container.
+    */
+   private class EntryIterator implements Iterator<InternalCacheEntry> {
+      private final long now = timeService.wallClockTime();
+      private int nextSegment;
+      private Iterator<InternalCacheEntry> current = Collections.<InternalCacheEntry>emptyList().iterator();
+      private InternalCacheEntry lastReturned;
+
+      @Override
+      public boolean hasNext() {
+         while (!current.hasNext()) {
+            if (nextSegment >= segments.length)
+               return false;
+            current = segments[nextSegment++].snapshot(now).iterator();
+         }
+         return true;
+      }
+
+      @Override
+      public InternalCacheEntry next() {
+         if (!hasNext())
+            throw new NoSuchElementException();
+         return lastReturned = current.next();
+      }
+
+      @Override
+      public void remove() {
+         if (lastReturned == null)
+            throw new IllegalStateException();
+         OffHeapDataContainer.this.remove(lastReturned.getKey());
+         lastReturned = null;
+      }
+   }
+
+   private class KeySet extends AbstractSet<Object> {
+      @Override
+      public Iterator<Object> iterator() {
+         final Iterator<InternalCacheEntry> it = new EntryIterator();
+         return new Iterator<Object>() {
+            @Override
+            public boolean hasNext() {
+               return it.hasNext();
+            }
+
+            @Override
+            public Object next() {
+               return it.next().getKey();
+            }
+
+            @Override
+            public void remove() {
+               it.remove();
+            }
+         };
+      }
+
+      @Override
+      public boolean contains(Object o) {
+         return containsKey(o);
+      }
+
+      @Override
+      public boolean remove(Object o) {
+         return OffHeapDataContainer.this.remove(o) != null;
+      }
+
+      @Override
+      public int size() {
+         return OffHeapDataContainer.this.size();
+      }
+   }
+
+   private class Values extends AbstractCollection<Object> {
+      @Override
+      public Iterator<Object> iterator() {
+         final Iterator<InternalCacheEntry> it = new EntryIterator();
+         return new Iterator<Object>() {
+            @Override
+            public boolean hasNext() {
+               return it.hasNext();
+            }
+
+            @Override
+            public Object next() {
+               return it.next().getValue();
+            }
+
+            @Override
+            public void remove() {
+               it.remove();
+            }
+         };
+      }
+
+      @Override
+      public int size() {
+         return OffHeapDataContainer.this.size();
+      }
+   }
+
+   private class EntrySet extends AbstractSet<InternalCacheEntry> {
+      @Override
+      public Iterator<InternalCacheEntry> iterator() {
+         final Iterator<InternalCacheEntry> it = new EntryIterator();
+         return new Iterator<InternalCacheEntry>() {
+            @Override
+            public boolean hasNext() {
+               return it.hasNext();
+            }
+
+            @Override
+            public InternalCacheEntry next() {
+               return CoreImmutables.immutableInternalCacheEntry(it.next());
+            }
+
+            @Override
+            public void remove() {
+               it.remove();
+            }
+         };
+      }
+
+      @Override
+      public int size() {
+         return OffHeapDataContainer.this.size();
+      }
+   }
+}
@@ -0,0 +1,130 @@
+package org.infinispan.container.offheap;
+
+import java.lang.reflect.Field;
+import java.security.AccessController;
+import java.security.PrivilegedExceptionAction;
+
+/**
+ * Thin wrapper around {@code sun.misc.Unsafe} providing the native memory primitives needed by the off-heap data
+ * container: allocation, release and copying of byte arrays to and from native addresses.
+ * <p/>
+ * The field below is the only reference to the proprietary type, so that javac only warns about it once. The
+ * instance itself is looked up reflectively.
+ *
+ * @since 6.0
+ */
+final class UnsafeMemory {
+
+   private static final sun.misc.Unsafe UNSAFE = findUnsafe();
+   private static final long BYTE_ARRAY_OFFSET = UNSAFE.arrayBaseOffset(byte[].class);
+
+   /**
+    * {@code Unsafe.copyMemory(Object, long, Object, long, long)} only appeared in JDK 7, so fall back to a byte by
+    * byte copy when running on older virtual machines.
+    */
+   private static final boolean BULK_COPY = hasBulkCopy();
+
+   private UnsafeMemory() {
+   }
+
+   static long allocate(long size) {
+      return UNSAFE.allocateMemory(size);
+   }
+
+   static void free(long address) {
+      UNSAFE.freeMemory(address);
+   }
+
+   static long getLong(long address) {
+      return UNSAFE.getLong(address);
+   }
+
+   static void putLong(long address, long value) {
+      UNSAFE.putLong(address, value);
+   }
+
+   static int getInt(long address) {
+      return UNSAFE.getInt(address);
+   }
+
+   static void putInt(long address, int value) {
+      UNSAFE.putInt(address, value);
+   }
+
+   /**
+    * Copies {@code length} bytes of {@code src}, starting at {@code offset}, into native memory at {@code address}.
+    */
+   static void putBytes(long address, byte[] src, int offset, int length) {
+      if (BULK_COPY) {
+         UNSAFE.copyMemory(src, BYTE_ARRAY_OFFSET + offset, null, address, length);
+      } else {
+         for (int i = 0; i < length; i++)
+            UNSAFE.putByte(address + i, src[offset + i]);
+      }
+   }
+
+   /**
+    * Reads {@code length} bytes of native memory starting at {@code address} into a new byte array.
+    */
+   static byte[] getBytes(long address, int length) {
+      byte[] dst = new byte[length];
+      if (BULK_COPY) {
+         UNSAFE.copyMemory(null, address, dst, BYTE_ARRAY_OFFSET, length);
+      } else {
+         for (int i = 0; i < length; i++)
+            dst[i] = UNSAFE.getByte(address + i);
+      }
+      return dst;
+   }
+
+   /**
+    * Compares {@code length} bytes of native memory at {@code address} with {@code other}, without copying.
+    */
+   static boolean equalBytes(long address, byte[] other, int offset, int length) {
+      int i = 0;
+      // compare a word at a time, then whatever is left over
+      for (; i + 8 <= length; i += 8) {
+         if (UNSAFE.getLong(address + i) != UNSAFE.getLong(other, BYTE_ARRAY_OFFSET + offset + i))
+            return false;
+      }
+      for (; i < length; i++) {
+         if (UNSAFE.getByte(address + i) != other[offset + i])
+            return false;
+      }
+      return true;
+   }
+
+   private static boolean hasBulkCopy() {
+      try {
+         UNSAFE.getClass().getMethod("copyMemory", Object.class, long.class, Object.class, long.class, long.class);
+         return true;
+      } catch (NoSuchMethodException e) {
+         return false;
+      }
+   }
+
+   /**
+    * Returns the {@code sun.misc.Unsafe} singleton. The type is inferred from the field it is assigned to, so that it
+    * doesn't need to be named here.
+    */
+   @SuppressWarnings("unchecked")
+   private static <T> T findUnsafe() {
+      try {
+         return AccessController.doPrivileged(new PrivilegedExceptionAction<T>() {
+            @Override
+            public T run() throws Exception {
+               Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+               for (Field f : unsafeClass.getDeclaredFields()) {
+                  f.setAccessible(true);
+                  Object x = f.get(null);
+                  if (unsafeClass.isInstance(x))
+                     return (T) x;
+               }
+               throw new NoSuchFieldError("the Unsafe");
+            }
+         });
+      } catch (Exception e) {
+         throw new IllegalStateException("Could not initialize sun.misc.Unsafe, required by the off-heap data container", e);
+      }
+   }
+}
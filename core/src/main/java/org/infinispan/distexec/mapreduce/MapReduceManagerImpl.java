@@ -8,6 +8,7 @@
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -24,10 +25,12 @@
 import org.infinispan.commands.read.ReduceCommand;
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.util.CollectionFactory;
-import org.infinispan.commons.util.InfinispanCollections;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.distexec.mapreduce.spi.MapReduceTaskLifecycleService;
 import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.interceptors.locking.ClusteringDependentLogic;
@@ -157,7 +160,7 @@ protected <KIn, VIn, KOut, VOut> CollectableCollector<KOut, VOut> map(
       boolean inputKeysSpecified = keys != null && !keys.isEmpty();
       Set <KIn> inputKeys = keys;
       if (!inputKeysSpecified) {
-         inputKeys = filterLocalPrimaryOwner(cache.keySet(), dm);
+         inputKeys = localPrimaryOwnedKeys(cache, dm);
       } else {
          inputKeysCopy = new HashSet<KIn>(keys);
       }
@@ -179,24 +182,23 @@ protected <KIn, VIn, KOut, VOut> CollectableCollector<KOut, VOut> map(
                inputKeysCopy.remove(key);
             }
          }
-         Set<KIn> keysFromCacheLoader = null;
          if (inputKeysSpecified) {
             // load only specified remaining input keys - iff in CL and pinned to this primary owner
-            keysFromCacheLoader = filterLocalPrimaryOwner(inputKeysCopy, dm);
-         } else {
-            // load everything from CL pinned to this primary owner
-            keysFromCacheLoader = filterLocalPrimaryOwner(loadAllKeysFromCacheLoaderUsingFilter(inputKeys), dm);
-         }
-         log.tracef("For m/r task %s cache loader input keys %s", mcc.getTaskId(), keysFromCacheLoader);
-         interruptCount = 0;
-         for (KIn key : keysFromCacheLoader) {
-            if (checkInterrupt(interruptCount++) && Thread.currentThread().isInterrupted())
-               throw new InterruptedException();
+            Set<KIn> keysFromCacheLoader = filterLocalPrimaryOwner(inputKeysCopy, dm);
+            log.tracef("For m/r task %s cache loader input keys %s", mcc.getTaskId(), keysFromCacheLoader);
+            interruptCount = 0;
+            for (KIn key : keysFromCacheLoader) {
+               if (checkInterrupt(interruptCount++) && Thread.currentThread().isInterrupted())
+                  throw new InterruptedException();
 
-            VIn value = loadValueFromCacheLoader(key);
-            if(value != null){
-               mapper.map(key, value, collector);
+               VIn value = loadValueFromCacheLoader(key);
+               if(value != null){
+                  mapper.map(key, value, collector);
+               }
             }
+         } else {
+            // map everything from CL pinned to this primary owner
+            mapCacheLoaderEntries(mapper, collector, inputKeys, dm);
          }
       } finally {
          if (log.isTraceEnabled()) {
@@ -372,18 +374,45 @@ private boolean checkInterrupt(int counter) {
       return counter % CANCELLATION_CHECK_FREQUENCY == 0;
    }
 
-   @SuppressWarnings("unchecked")
-   protected <KIn> Set<KIn> loadAllKeysFromCacheLoaderUsingFilter(Set<KIn> filterOutSet) {
-      Set<KIn> keysInCL = InfinispanCollections.<KIn>emptySet();
+   /**
+    * Maps the entries of the cache loader whose primary owner is this node, except the keys mapped already. The
+    * entries are read in parallel on the executor of this manager, and passed to the mapper one at a time.
+    */
+   protected <KIn, VIn, KOut, VOut> void mapCacheLoaderEntries(final Mapper<KIn, VIn, KOut, VOut> mapper,
+            final Collector<KOut, VOut> collector, final Set<KIn> mappedKeys, final DistributionManager dm)
+            throws InterruptedException {
       CacheLoader cl = resolveCacheLoader();
-      if (cl != null) {
-         try {
-            keysInCL = (Set<KIn>) cl.loadAllKeys((Set<Object>) filterOutSet);
-         } catch (CacheLoaderException e) {
-            throw new CacheException("Could not load key/value entries from cacheloader", e);
-         }
+      if (cl == null) {
+         return;
       }
-      return keysInCL;
+      final Thread mapThread = Thread.currentThread();
+      try {
+         cl.process(new CacheLoader.KeyFilter() {
+            @Override
+            public boolean shouldLoadKey(Object key) {
+               return !mappedKeys.contains(key) && isLocalPrimaryOwner(key, dm);
+            }
+         }, new CacheLoader.CacheLoaderTask() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void processEntry(InternalCacheEntry entry, CacheLoader.TaskContext taskContext) {
+               if (mapThread.isInterrupted()) {
+                  taskContext.stop();
+                  return;
+               }
+               VIn value = (VIn) unwrapMarshalledValue(entry.getValue());
+               synchronized (mapper) {
+                  mapper.map((KIn) entry.getKey(), value, collector);
+               }
+            }
+         }, executorService);
+      } catch (CacheLoaderException e) {
+         if (mapThread.isInterrupted())
+            throw new InterruptedException();
+         throw new CacheException("Could not load key/value entries from cacheloader", e);
+      }
+      if (mapThread.isInterrupted())
+         throw new InterruptedException();
    }
 
    @SuppressWarnings("unchecked")
@@ -394,12 +423,7 @@ protected <KIn, KOut> KOut loadValueFromCacheLoader(KIn key) {
          try {
             InternalCacheEntry entry = cl.load(key);
             if (entry != null) {
-               Object loadedValue = entry.getValue();
-               if (loadedValue instanceof MarshalledValue) {
-                  value = (KOut) ((MarshalledValue) loadedValue).get();
-               } else {
-                  value = (KOut) loadedValue;
-               }
+               value = (KOut) unwrapMarshalledValue(entry.getValue());
             }
          } catch (CacheLoaderException e) {
             throw new CacheException("Could not load key/value entries from cacheloader", e);
@@ -408,6 +432,10 @@ protected <KIn, KOut> KOut loadValueFromCacheLoader(KIn key) {
       return value;
    }
 
+   private static Object unwrapMarshalledValue(Object value) {
+      return value instanceof MarshalledValue ? ((MarshalledValue) value).get() : value;
+   }
+
    protected CacheLoader resolveCacheLoader(){
       CacheLoader cl = null;
       if (cacheLoaderManager != null && cacheLoaderManager.isEnabled()){
@@ -437,17 +465,50 @@ public <T> Map<Address, List<T>> mapKeysToNodes(DistributionManager dm, String t
       return addressToKey;
    }
 
+   /**
+    * Collects the keys of the cache this node is the primary owner of. If the data container is partitioned by segment,
+    * only the segments this node is the primary owner of are read.
+    */
+   @SuppressWarnings("unchecked")
+   private <KIn> Set<KIn> localPrimaryOwnedKeys(Cache<KIn, ?> cache, DistributionManager dm) {
+      DataContainer dataContainer = cache.getAdvancedCache().getDataContainer();
+      if (dm != null && dataContainer instanceof SegmentedDataContainer) {
+         SegmentedDataContainer segmentedDataContainer = (SegmentedDataContainer) dataContainer;
+         ConsistentHash ch = dm.getReadConsistentHash();
+         if (segmentedDataContainer.getNumSegments() == ch.getNumSegments()) {
+            Set<KIn> selectedKeys = new HashSet<KIn>();
+            long now = timeService.wallClockTime();
+            for (int segment = 0; segment < ch.getNumSegments(); segment++) {
+               if (!cdl.getAddress().equals(ch.locatePrimaryOwnerForSegment(segment)))
+                  continue;
+               for (Iterator<InternalCacheEntry> it = segmentedDataContainer.iterator(segment); it.hasNext(); ) {
+                  InternalCacheEntry entry = it.next();
+                  if (!entry.isExpired(now)) {
+                     selectedKeys.add((KIn) unwrapMarshalledValue(entry.getKey()));
+                  }
+               }
+            }
+            return selectedKeys;
+         }
+      }
+      return filterLocalPrimaryOwner(cache.keySet(), dm);
+   }
+
    protected <KIn> Set<KIn> filterLocalPrimaryOwner(Set<KIn> nodeLocalKeys, DistributionManager dm) {
       Set<KIn> selectedKeys = new HashSet<KIn>();
       for (KIn key : nodeLocalKeys) {
-         Address primaryLocation = dm != null ? dm.getPrimaryLocation(key) : cdl.getAddress();
-         if (primaryLocation != null && primaryLocation.equals(cdl.getAddress())) {
+         if (isLocalPrimaryOwner(key, dm)) {
             selectedKeys.add(key);
          }
       }
       return selectedKeys;
    }
 
+   private boolean isLocalPrimaryOwner(Object key, DistributionManager dm) {
+      Address primaryLocation = dm != null ? dm.getPrimaryLocation(key) : cdl.getAddress();
+      return primaryLocation != null && primaryLocation.equals(cdl.getAddress());
+   }
+
    /**
     * @author Sanne Grinovero <sanne@hibernate.org> (C) 2011 Red Hat Inc.
     */
@@ -16,7 +16,12 @@ public enum EvictionStrategy {
    @Deprecated
    FIFO, 
    LRU, 
-   LIRS;
+   LIRS,
+   /**
+    * Window TinyLFU: admits entries into the main space based on how often they were accessed recently,
+    * so that scans do not flush frequently accessed entries.
+    */
+   TINY_LFU;
 
    public boolean isEnabled() {
       return this != NONE;
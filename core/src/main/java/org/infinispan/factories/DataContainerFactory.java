@@ -3,8 +3,10 @@
 import org.infinispan.commons.equivalence.AnyEquivalence;
 import org.infinispan.commons.equivalence.Equivalence;
 import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.DefaultDataContainer;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
 import org.infinispan.factories.annotations.DefaultFactoryFor;
@@ -33,21 +35,25 @@ public <T> T construct(Class<T> componentType) {
 
          switch (st) {
             case NONE:
-               return (T) DefaultDataContainer.unBoundedDataContainer(
-                     level, keyEquivalence, valueEquivalence);
+               return (T) unBoundedDataContainer(level, keyEquivalence, valueEquivalence);
             case UNORDERED:
             case LRU:
             case FIFO:
             case LIRS:
+            case TINY_LFU:
                int maxEntries = configuration.eviction().maxEntries();
+               long maxMemory = configuration.eviction().maxMemory();
                //handle case when < 0 value signifies unbounded container 
-               if(maxEntries < 0) {
-                   return (T) DefaultDataContainer.unBoundedDataContainer(
-                         level, keyEquivalence, valueEquivalence);
+               if(maxEntries < 0 && maxMemory <= 0) {
+                   return (T) unBoundedDataContainer(level, keyEquivalence, valueEquivalence);
                }
 
                EvictionThreadPolicy policy = configuration.eviction().threadPolicy();
 
+               if (maxMemory > 0) {
+                  return (T) DefaultDataContainer.boundedDataContainer(
+                     level, maxEntries, maxMemory, st, policy, keyEquivalence, valueEquivalence);
+               }
                return (T) DefaultDataContainer.boundedDataContainer(
                   level, maxEntries, st, policy, keyEquivalence, valueEquivalence);
             default:
@@ -56,4 +62,19 @@ public <T> T construct(Class<T> componentType) {
          }
       }
    }
+
+   /**
+    * Distributed and replicated caches get a container partitioned by segment, unless they use a custom consistent
+    * hash, whose mapping of keys to segments is unknown.
+    */
+   private DataContainer unBoundedDataContainer(int level, Equivalence keyEquivalence, Equivalence valueEquivalence) {
+      CacheMode cacheMode = configuration.clustering().cacheMode();
+      if ((cacheMode.isDistributed() || cacheMode.isReplicated())
+            && configuration.clustering().hash().consistentHashFactory() == null
+            && configuration.clustering().hash().consistentHash() == null) {
+         return new SegmentedDataContainer(level, configuration.clustering().hash().numSegments(),
+               configuration.clustering().hash().hash(), cacheMode.isReplicated(), keyEquivalence, valueEquivalence);
+      }
+      return DefaultDataContainer.unBoundedDataContainer(level, keyEquivalence, valueEquivalence);
+   }
 }
@@ -8,6 +8,8 @@
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
 import org.infinispan.marshall.core.ExternalizerTable;
+import org.infinispan.marshall.core.MarshalledValueCompressor;
+import org.infinispan.marshall.core.MarshallingBufferPool;
 import org.infinispan.remoting.InboundInvocationHandler;
 import org.infinispan.remoting.InboundInvocationHandlerImpl;
 import org.infinispan.topology.ClusterTopologyManager;
@@ -31,7 +33,7 @@
 
 @DefaultFactoryFor(classes = {InboundInvocationHandler.class, RemoteCommandsFactory.class, ExternalizerTable.class,
                               RebalancePolicy.class, BackupReceiverRepository.class, CancellationService.class,
-                              TimeService.class})
+                              TimeService.class, MarshallingBufferPool.class, MarshalledValueCompressor.class})
 @Scope(Scopes.GLOBAL)
 public class EmptyConstructorFactory extends AbstractComponentFactory implements AutoInstantiableFactory {
 
@@ -56,7 +58,10 @@ else if (componentType.equals(CancellationService.class))
          return (T) new CancellationServiceImpl();
       else if (componentType.equals(TimeService.class)) {
          return (T) new DefaultTimeService();
-      }
+      } else if (componentType.equals(MarshallingBufferPool.class))
+         return (T) new MarshallingBufferPool();
+      else if (componentType.equals(MarshalledValueCompressor.class))
+         return (T) new MarshalledValueCompressor();
 
       throw new CacheConfigurationException("Don't know how to create a " + componentType.getName());
    }
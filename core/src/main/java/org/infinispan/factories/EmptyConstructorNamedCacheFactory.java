@@ -30,6 +30,7 @@
 import org.infinispan.transaction.xa.TransactionFactory;
 import org.infinispan.transaction.xa.recovery.RecoveryAdminOperations;
 import org.infinispan.util.concurrent.locks.containers.LockContainer;
+import org.infinispan.util.concurrent.locks.containers.LockWordStripedLockContainer;
 import org.infinispan.util.concurrent.locks.containers.OwnableReentrantPerEntryLockContainer;
 import org.infinispan.util.concurrent.locks.containers.OwnableReentrantStripedLockContainer;
 import org.infinispan.util.concurrent.locks.containers.ReentrantPerEntryLockContainer;
@@ -100,6 +101,7 @@ public <T> T construct(Class<T> componentType) {
          } else if (componentType.equals(LockContainer.class)) {
             boolean  notTransactional = !isTransactional;
             LockContainer<?> lockContainer = configuration.locking().useLockStriping() ?
+                  configuration.locking().useLockWordStriping() ? new LockWordStripedLockContainer(configuration.locking().concurrencyLevel()) :
                   notTransactional ? new ReentrantStripedLockContainer(configuration.locking().concurrencyLevel())
                         : new OwnableReentrantStripedLockContainer(configuration.locking().concurrencyLevel()) :
                   notTransactional ? new ReentrantPerEntryLockContainer(configuration.locking().concurrencyLevel())
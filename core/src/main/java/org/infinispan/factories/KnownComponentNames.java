@@ -24,12 +24,22 @@ public class KnownComponentNames {
    public static final String CACHE_MARSHALLER = "org.infinispan.marshaller.cache";
    public static final String CLASS_LOADER = "java.lang.ClassLoader";
    public static final String TOTAL_ORDER_EXECUTOR = "org.infinispan.executors.totalOrderExecutor";
+   /**
+    * Runs internal tasks which should not run in the submitting thread, e.g. the commands waiting for locks to be
+    * released. Only when its queue is full does it run a task in the submitting thread.
+    */
+   public static final String ASYNC_OPERATIONS_EXECUTOR = "org.infinispan.executors.asyncOperations";
+   /**
+    * Sends the chunks of the outbound state transfers, when more than one chunk may be sent at a time. It has no queue,
+    * so a chunk is sent by the outbound transfer itself when all the threads are busy.
+    */
+   public static final String STATE_TRANSFER_EXECUTOR = "org.infinispan.executors.stateTransferExecutor";
 
    // Please make sure this is kept up to date
    public static final Collection<String> ALL_KNOWN_COMPONENT_NAMES = Arrays.asList(
       ASYNC_TRANSPORT_EXECUTOR, ASYNC_NOTIFICATION_EXECUTOR, EVICTION_SCHEDULED_EXECUTOR, ASYNC_REPLICATION_QUEUE_EXECUTOR,
       MODULE_COMMAND_INITIALIZERS, MODULE_COMMAND_FACTORIES, GLOBAL_MARSHALLER, CACHE_MARSHALLER, CLASS_LOADER,
-      REMOTE_COMMAND_EXECUTOR, TOTAL_ORDER_EXECUTOR
+      REMOTE_COMMAND_EXECUTOR, TOTAL_ORDER_EXECUTOR, ASYNC_OPERATIONS_EXECUTOR, STATE_TRANSFER_EXECUTOR
    );
 
    private static final Map<String, Integer> DEFAULT_THREADCOUNTS = new HashMap<String, Integer>(4);
@@ -41,16 +51,22 @@ public class KnownComponentNames {
       DEFAULT_THREADCOUNTS.put(ASYNC_TRANSPORT_EXECUTOR, 25);
       DEFAULT_THREADCOUNTS.put(REMOTE_COMMAND_EXECUTOR, 32);
       DEFAULT_THREADCOUNTS.put(TOTAL_ORDER_EXECUTOR, 32);
+      DEFAULT_THREADCOUNTS.put(ASYNC_OPERATIONS_EXECUTOR, 32);
+      DEFAULT_THREADCOUNTS.put(STATE_TRANSFER_EXECUTOR, 8);
 
       DEFAULT_QUEUE_SIZE.put(ASYNC_NOTIFICATION_EXECUTOR, 100000);
       DEFAULT_QUEUE_SIZE.put(ASYNC_TRANSPORT_EXECUTOR, 100000);
       DEFAULT_QUEUE_SIZE.put(REMOTE_COMMAND_EXECUTOR, 0);
       DEFAULT_QUEUE_SIZE.put(TOTAL_ORDER_EXECUTOR, 0);
+      DEFAULT_QUEUE_SIZE.put(ASYNC_OPERATIONS_EXECUTOR, 100000);
+      DEFAULT_QUEUE_SIZE.put(STATE_TRANSFER_EXECUTOR, 0);
 
       DEFAULT_THREADPRIO.put(ASYNC_NOTIFICATION_EXECUTOR, Thread.MIN_PRIORITY);
       DEFAULT_THREADPRIO.put(ASYNC_TRANSPORT_EXECUTOR, Thread.NORM_PRIORITY);
       DEFAULT_THREADPRIO.put(REMOTE_COMMAND_EXECUTOR, Thread.NORM_PRIORITY);
       DEFAULT_THREADPRIO.put(TOTAL_ORDER_EXECUTOR, Thread.NORM_PRIORITY);
+      DEFAULT_THREADPRIO.put(ASYNC_OPERATIONS_EXECUTOR, Thread.NORM_PRIORITY);
+      DEFAULT_THREADPRIO.put(STATE_TRANSFER_EXECUTOR, Thread.NORM_PRIORITY);
       DEFAULT_THREADPRIO.put(EVICTION_SCHEDULED_EXECUTOR, Thread.MIN_PRIORITY);
       DEFAULT_THREADPRIO.put(ASYNC_REPLICATION_QUEUE_EXECUTOR, Thread.NORM_PRIORITY);
    }
@@ -5,6 +5,7 @@
 import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.marshall.core.CacheMarshaller;
+import org.infinispan.marshall.core.CompactMarshaller;
 import org.infinispan.marshall.core.GlobalMarshaller;
 import org.infinispan.marshall.core.VersionAwareMarshaller;
 
@@ -31,7 +32,8 @@ public <T> T construct(Class<T> componentType, String componentName) {
          if (componentName.equals(GLOBAL_MARSHALLER))
             comp = new GlobalMarshaller((VersionAwareMarshaller) configMarshaller);
          else if (componentName.equals(CACHE_MARSHALLER))
-            comp = new CacheMarshaller(new VersionAwareMarshaller());
+            comp = new CacheMarshaller(configMarshaller instanceof CompactMarshaller
+                  ? new CompactMarshaller() : new VersionAwareMarshaller());
          else
             throw new CacheException("Don't know how to handle type " + componentType);
       } else {
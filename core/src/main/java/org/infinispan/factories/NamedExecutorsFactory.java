@@ -34,6 +34,8 @@ public class NamedExecutorsFactory extends NamedComponentFactory implements Auto
    private ScheduledExecutorService evictionExecutor;
    private ScheduledExecutorService asyncReplicationExecutor;
    private BlockingTaskAwareExecutorService totalOrderExecutor;
+   private ExecutorService asyncOperationsExecutor;
+   private ExecutorService stateTransferExecutor;
 
    @Override
    @SuppressWarnings("unchecked")
@@ -98,6 +100,24 @@ public <T> T construct(Class<T> componentType, String componentName) {
                }
             }
             return (T) totalOrderExecutor;
+         } else if (componentName.equals(ASYNC_OPERATIONS_EXECUTOR)) {
+            synchronized (this) {
+               if (asyncOperationsExecutor == null) {
+                  asyncOperationsExecutor = buildAndConfigureExecutorService(
+                        globalConfiguration.asyncOperationsExecutor().factory(),
+                        globalConfiguration.asyncOperationsExecutor().properties(), componentName, nodeName);
+               }
+            }
+            return (T) asyncOperationsExecutor;
+         } else if (componentName.equals(STATE_TRANSFER_EXECUTOR)) {
+            synchronized (this) {
+               if (stateTransferExecutor == null) {
+                  stateTransferExecutor = buildAndConfigureExecutorService(
+                        globalConfiguration.stateTransferExecutor().factory(),
+                        globalConfiguration.stateTransferExecutor().properties(), componentName, nodeName);
+               }
+            }
+            return (T) stateTransferExecutor;
          } else {
             throw new CacheConfigurationException("Unknown named executor " + componentName);
          }
@@ -116,6 +136,8 @@ public void stop() {
       if (asyncReplicationExecutor != null) asyncReplicationExecutor.shutdownNow();
       if (evictionExecutor != null) evictionExecutor.shutdownNow();
       if (totalOrderExecutor != null) totalOrderExecutor.shutdownNow();
+      if (asyncOperationsExecutor != null) asyncOperationsExecutor.shutdownNow();
+      if (stateTransferExecutor != null) stateTransferExecutor.shutdownNow();
    }
 
    private ExecutorService buildAndConfigureExecutorService(ExecutorFactory f, Properties p,
@@ -1,6 +1,7 @@
 package org.infinispan.interceptors;
 
 import org.infinispan.commands.FlagAffectedCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.write.EvictCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
@@ -107,6 +108,32 @@ public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand
       return retval;
    }
 
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      long start = 0;
+      boolean statisticsEnabled = getStatisticsEnabled(command);
+      if (statisticsEnabled)
+         start = timeService.time();
+
+      Map<?, ?> retval = (Map<?, ?>) invokeNextInterceptor(ctx, command);
+
+      if (statisticsEnabled && ctx.isOriginLocal()) {
+         long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
+         int requests = command.getKeys().size();
+         int found = retval.size();
+         if (requests > 0) {
+            // split the time of the whole invocation between the keys
+            long hitMilliseconds = intervalMilliseconds * found / requests;
+            hitTimes.getAndAdd(hitMilliseconds);
+            missTimes.getAndAdd(intervalMilliseconds - hitMilliseconds);
+            hits.getAndAdd(found);
+            misses.getAndAdd(requests - found);
+         }
+      }
+
+      return retval;
+   }
+
    @Override
    public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) throws Throwable {
       long start = 0;
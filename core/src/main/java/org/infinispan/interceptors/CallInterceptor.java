@@ -3,6 +3,7 @@
 
 import org.infinispan.commands.VisitableCommand;
 import org.infinispan.commands.control.LockControlCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.tx.CommitCommand;
 import org.infinispan.commands.tx.PrepareCommand;
@@ -16,6 +17,8 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.Map;
+
 /**
  * Always at the end of the chain, directly in front of the cache. Simply calls into the cache using reflection. If the
  * call resulted in a modification, add the Modification to the end of the modification list keyed by the current
@@ -79,6 +82,18 @@ public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand
       return ret;
    }
 
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      if (trace) log.trace("Executing command: " + command + ".");
+      Map<Object, Object> ret = command.perform(ctx);
+      for (Map.Entry<Object, Object> entry : ret.entrySet()) {
+         Object value = command.isReturnEntries() ? ((CacheEntry) entry.getValue()).getValue() : entry.getValue();
+         notifier.notifyCacheEntryVisited(entry.getKey(), value, true, ctx, command);
+         notifier.notifyCacheEntryVisited(entry.getKey(), value, false, ctx, command);
+      }
+      return ret;
+   }
+
    private void notifyCacheEntryVisit(InvocationContext ctx, GetKeyValueCommand command, Object value) {
       Object key = command.getKey();
       notifier.notifyCacheEntryVisited(key, value, true, ctx, command);
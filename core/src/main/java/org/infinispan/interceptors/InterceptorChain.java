@@ -13,13 +13,20 @@
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
 import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.interceptors.distribution.NonTxDistributionInterceptor;
+import org.infinispan.interceptors.locking.NonTransactionalLockingInterceptor;
+import org.infinispan.statetransfer.StateTransferInterceptor;
+import org.infinispan.statetransfer.TransactionSynchronizerInterceptor;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -34,11 +41,24 @@ public class InterceptorChain {
 
    private static final Log log = LogFactory.getLog(InterceptorChain.class);
 
+   /**
+    * The interceptors which have no side effects on the read of a key present in the data container, other than
+    * updating the statistics and notifying the listeners of the visited entries.
+    */
+   private static final Set<Class<? extends CommandInterceptor>> SIDE_EFFECT_FREE_READ_INTERCEPTORS =
+         new HashSet<Class<? extends CommandInterceptor>>(Arrays.<Class<? extends CommandInterceptor>>asList(
+               InvocationContextInterceptor.class, CacheMgmtInterceptor.class, StateTransferInterceptor.class,
+               TransactionSynchronizerInterceptor.class, NotificationInterceptor.class,
+               NonTransactionalLockingInterceptor.class, EntryWrappingInterceptor.class,
+               NonTxDistributionInterceptor.class, InvalidationInterceptor.class, CallInterceptor.class));
+
    /**
     * reference to the first interceptor in the chain
     */
    private volatile CommandInterceptor firstInChain;
 
+   private volatile boolean sideEffectFreeReads;
+
    final ReentrantLock lock = new ReentrantLock();
    final ComponentMetadataRepo componentMetadataRepo;
 
@@ -50,6 +70,17 @@ public InterceptorChain(ComponentMetadataRepo componentMetadataRepo) {
    }
 
    @Start
+   private void start() {
+      final ReentrantLock lock = this.lock;
+      lock.lock();
+      try {
+         compileDispatch();
+      } finally {
+         lock.unlock();
+      }
+      printChainInfo();
+   }
+
    private void printChainInfo() {
       if (log.isDebugEnabled()) {
          log.debugf("Interceptor chain size: %d", size());
@@ -57,6 +88,31 @@ private void printChainInfo() {
       }
    }
 
+   /**
+    * Works out, for every interceptor and every kind of command, the next interceptor which handles the command, so
+    * that the interceptors which would only pass the command on are skipped. See {@link
+    * CommandInterceptor#compileDispatch()}.
+    */
+   private void compileDispatch() {
+      List<CommandInterceptor> interceptors = new ArrayList<CommandInterceptor>(asList());
+      boolean sideEffectFree = !interceptors.isEmpty();
+      for (int i = interceptors.size() - 1; i >= 0; i--) {
+         CommandInterceptor interceptor = interceptors.get(i);
+         interceptor.compileDispatch();
+         sideEffectFree &= SIDE_EFFECT_FREE_READ_INTERCEPTORS.contains(interceptor.getClass());
+      }
+      sideEffectFreeReads = sideEffectFree;
+   }
+
+   /**
+    * @return true if reading a key present in the data container has no side effects in any of the interceptors of
+    *         the chain, other than updating the statistics and notifying the listeners of the visited entries, i.e. if
+    *         such a read can be served without going through the chain.
+    */
+   public boolean hasSideEffectFreeReads() {
+      return sideEffectFreeReads;
+   }
+
    private void validateCustomInterceptor(Class<? extends CommandInterceptor> i) {
       if ((!ReflectionUtil.getAllMethodsShallow(i, Inject.class).isEmpty() ||
             !ReflectionUtil.getAllMethodsShallow(i, Start.class).isEmpty() ||
@@ -107,6 +163,7 @@ public void addInterceptor(CommandInterceptor interceptor, int position) {
          }
          throw new IllegalArgumentException("Invalid index: " + index + " !");
       } finally {
+         compileDispatch();
          lock.unlock();
       }
    }
@@ -138,6 +195,7 @@ public void removeInterceptor(int position) {
          }
          throw new IllegalArgumentException("Invalid position: " + position + " !");
       } finally {
+         compileDispatch();
          lock.unlock();
       }
    }
@@ -194,6 +252,7 @@ public void removeInterceptor(Class<? extends CommandInterceptor> clazz) {
             it = it.getNext();
          }
       } finally {
+         compileDispatch();
          lock.unlock();
       }
    }
@@ -225,6 +284,7 @@ public boolean addInterceptorAfter(CommandInterceptor toAdd, Class<? extends Com
          }
          return false;
       } finally {
+         compileDispatch();
          lock.unlock();
       }
    }
@@ -258,6 +318,7 @@ public boolean addInterceptorBefore(CommandInterceptor toAdd, Class<? extends Co
          }
          return false;
       } finally {
+         compileDispatch();
          lock.unlock();
       }
    }
@@ -296,6 +357,7 @@ public boolean replaceInterceptor(CommandInterceptor replacingInterceptor, Class
          }
          return false;
       } finally {
+         compileDispatch();
          lock.unlock();
       }
    }
@@ -311,6 +373,7 @@ public void appendInterceptor(CommandInterceptor ci, boolean isCustom) {
       it.setNext(ci);
       // make sure we nullify the "next" pointer in the last interceptors.
       ci.setNext(null);
+      compileDispatch();
    }
 
    /**
@@ -345,6 +408,7 @@ public CommandInterceptor getFirstInChain() {
     */
    public void setFirstInChain(CommandInterceptor interceptor) {
       this.firstInChain = interceptor;
+      compileDispatch();
    }
 
    /**
@@ -2,6 +2,7 @@
 
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
 import org.infinispan.commands.read.ValuesCommand;
@@ -19,6 +20,8 @@
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.interceptors.base.CommandInterceptor;
 import org.infinispan.marshall.core.MarshalledValue;
+import org.infinispan.marshall.core.MarshalledValueCompressor;
+import org.infinispan.marshall.core.MarshallingBufferPool;
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.Immutables;
 import org.infinispan.commons.util.InfinispanCollections;
@@ -52,8 +55,11 @@
  */
 public class MarshalledValueInterceptor extends CommandInterceptor {
    private StreamingMarshaller marshaller;
+   private MarshallingBufferPool bufferPool;
+   private MarshalledValueCompressor compressor;
    private boolean wrapKeys = true;
    private boolean wrapValues = true;
+   private int compressionThreshold = -1;
    private InternalEntryFactory entryFactory;
 
    private static final Log log = LogFactory.getLog(MarshalledValueInterceptor.class);
@@ -65,15 +71,19 @@ protected Log getLog() {
    }
 
    @Inject
-   protected void injectMarshaller(@ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller, InternalEntryFactory entryFactory) {
+   protected void injectMarshaller(@ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller, InternalEntryFactory entryFactory,
+                                   MarshallingBufferPool bufferPool, MarshalledValueCompressor compressor) {
       this.marshaller = marshaller;
       this.entryFactory = entryFactory;
+      this.bufferPool = bufferPool;
+      this.compressor = compressor;
    }
 
    @Start
    protected void start() {
       wrapKeys = cacheConfiguration.storeAsBinary().storeKeysAsBinary();
       wrapValues = cacheConfiguration.storeAsBinary().storeValuesAsBinary();
+      compressionThreshold = cacheConfiguration.storeAsBinary().compressionThreshold();
    }
 
    @Override
@@ -117,8 +127,8 @@ public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand
       }
 
       if (wrapValues) {
-         if (!isTypeExcluded(command.getValue().getClass())) {
-            value = createMarshalledValue(command.getValue(), ctx);
+         if (!isValueExcluded(command.getValue())) {
+            value = createValueMarshalledValue(command.getValue(), ctx);
             command.setValue(value);
          }
       }
@@ -184,6 +194,30 @@ public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand
       return processRetVal(retVal, ctx);
    }
 
+   @Override
+   @SuppressWarnings("unchecked")
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      if (wrapKeys) {
+         Collection<Object> keys = new ArrayList<Object>(command.getKeys().size());
+         for (Object key : command.getKeys()) {
+            keys.add(isTypeExcluded(key.getClass()) ? key : createMarshalledValue(key, ctx));
+         }
+         command.setKeys(keys);
+      }
+      Map<Object, Object> map = (Map<Object, Object>) invokeNextInterceptor(ctx, command);
+      if (!ctx.isOriginLocal() || command.isReturnEntries()) return map;
+
+      Map<Object, Object> copy = command.createMap(map.size());
+      for (Map.Entry<Object, Object> entry : map.entrySet()) {
+         Object key = entry.getKey();
+         if (key instanceof MarshalledValue) {
+            key = ((MarshalledValue) key).get();
+         }
+         copy.put(key, processRetVal(entry.getValue(), ctx));
+      }
+      return copy;
+   }
+
    @Override
    @SuppressWarnings("unchecked")
    public Object visitKeySetCommand(InvocationContext ctx, KeySetCommand command) throws Throwable {
@@ -247,12 +281,12 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
          key = createMarshalledValue(command.getKey(), ctx);
          command.setKey(key);
       }
-      if (wrapValues && !isTypeExcluded(command.getNewValue().getClass())) {
-         newValue = createMarshalledValue(command.getNewValue(), ctx);
+      if (wrapValues && !isValueExcluded(command.getNewValue())) {
+         newValue = createValueMarshalledValue(command.getNewValue(), ctx);
          command.setNewValue(newValue);
       }
-      if (wrapValues && command.getOldValue() != null && !isTypeExcluded(command.getOldValue().getClass())) {
-         oldValue = createMarshalledValue(command.getOldValue(), ctx);
+      if (wrapValues && command.getOldValue() != null && !isValueExcluded(command.getOldValue())) {
+         oldValue = createValueMarshalledValue(command.getOldValue(), ctx);
          command.setOldValue(oldValue);
       }
       Object retVal = invokeNextInterceptor(ctx, command);
@@ -320,7 +354,7 @@ protected Map<Object, Object> wrapMap(Map<Object, Object> m, Set<MarshalledValue
          Object key = me.getKey();
          Object value = me.getValue();
          Object newKey = (key == null || isTypeExcluded(key.getClass())) || !wrapKeys ? key : createMarshalledValue(key, ctx);
-         Object newValue = (value == null || isTypeExcluded(value.getClass()) || !wrapValues) ? value : createMarshalledValue(value, ctx);
+         Object newValue = (value == null || isValueExcluded(value) || !wrapValues) ? value : createValueMarshalledValue(value, ctx);
          if (newKey instanceof MarshalledValue) marshalledValues.add((MarshalledValue) newKey);
          if (newValue instanceof MarshalledValue) marshalledValues.add((MarshalledValue) newValue);
          copy.put(newKey, newValue);
@@ -329,6 +363,33 @@ protected Map<Object, Object> wrapMap(Map<Object, Object> m, Set<MarshalledValue
    }
 
    protected MarshalledValue createMarshalledValue(Object toWrap, InvocationContext ctx) {
-      return new MarshalledValue(toWrap, ctx.isOriginLocal(), marshaller);
+      return new MarshalledValue(toWrap, ctx.isOriginLocal(), marshaller, bufferPool);
+   }
+
+   /**
+    * Wraps a value, which is marshalled and compressed right away if compression is enabled, so that marshalling
+    * errors are reported before the value is stored.
+    */
+   protected MarshalledValue createValueMarshalledValue(Object toWrap, InvocationContext ctx) {
+      if (compressionThreshold < 0)
+         return createMarshalledValue(toWrap, ctx);
+
+      MarshalledValue mv = new MarshalledValue(toWrap, ctx.isOriginLocal(), marshaller, bufferPool, compressor,
+                                               compressionThreshold);
+      mv.serialize();
+      return mv;
+   }
+
+   /**
+    * Values of excluded types are not wrapped, unless they are Strings or byte arrays big enough to be compressed.
+    */
+   protected boolean isValueExcluded(Object value) {
+      if (compressionThreshold >= 0) {
+         if (value instanceof String)
+            return ((String) value).length() < compressionThreshold;
+         if (value instanceof byte[])
+            return ((byte[]) value).length < compressionThreshold;
+      }
+      return isTypeExcluded(value.getClass());
    }
 }
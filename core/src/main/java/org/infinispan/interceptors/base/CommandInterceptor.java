@@ -6,10 +6,30 @@
 import org.infinispan.commands.FlagAffectedCommand;
 import org.infinispan.commands.VisitableCommand;
 import org.infinispan.commands.Visitor;
+import org.infinispan.commands.control.LockControlCommand;
+import org.infinispan.commands.read.DistributedExecuteCommand;
+import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
+import org.infinispan.commands.read.KeySetCommand;
+import org.infinispan.commands.read.SizeCommand;
+import org.infinispan.commands.read.ValuesCommand;
+import org.infinispan.commands.tx.CommitCommand;
+import org.infinispan.commands.tx.PrepareCommand;
+import org.infinispan.commands.tx.RollbackCommand;
+import org.infinispan.commands.write.ApplyDeltaCommand;
+import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.EvictCommand;
+import org.infinispan.commands.write.InvalidateCommand;
+import org.infinispan.commands.write.InvalidateL1Command;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commands.write.PutMapCommand;
+import org.infinispan.commands.write.RemoveCommand;
+import org.infinispan.commands.write.ReplaceCommand;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.context.impl.TxInvocationContext;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
@@ -18,6 +38,8 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.lang.reflect.Method;
+
 /**
  * This is the base class for all interceptors to extend, and implements the {@link Visitor} interface allowing it to
  * intercept invocations on {@link VisitableCommand}s.
@@ -35,6 +57,12 @@
  * {@link #handleDefault(InvocationContext, VisitableCommand)} and then write a series of if statements or a switch
  * block, if command-specific behaviour is needed.
  * <p/>
+ * The visitXXX() methods which are not overridden pass the command straight to the next interceptor in the chain which
+ * handles it, i.e. which overrides the visitXXX() method of the command or {@link #handleDefault(InvocationContext,
+ * VisitableCommand)}, skipping the interceptors which would only pass it on. The {@link InterceptorChain} works out
+ * these interceptors for each kind of command every time the chain changes, so the chain should only be modified
+ * through it.
+ * <p/>
  *
  * @author Mircea.Markus@jboss.com
  * @see VisitableCommand
@@ -45,8 +73,53 @@
 @Scope(Scopes.NAMED_CACHE)
 public abstract class CommandInterceptor extends AbstractVisitor {
 
+   private static final int PUT_KEY_VALUE = 0;
+   private static final int REMOVE = 1;
+   private static final int REPLACE = 2;
+   private static final int CLEAR = 3;
+   private static final int PUT_MAP = 4;
+   private static final int EVICT = 5;
+   private static final int APPLY_DELTA = 6;
+   private static final int SIZE = 7;
+   private static final int GET_KEY_VALUE = 8;
+   private static final int GET_ALL = 9;
+   private static final int KEY_SET = 10;
+   private static final int VALUES = 11;
+   private static final int ENTRY_SET = 12;
+   private static final int PREPARE = 13;
+   private static final int ROLLBACK = 14;
+   private static final int COMMIT = 15;
+   private static final int INVALIDATE = 16;
+   private static final int INVALIDATE_L1 = 17;
+   private static final int LOCK_CONTROL = 18;
+   private static final int UNKNOWN = 19;
+   private static final int DISTRIBUTED_EXECUTE = 20;
+
+   /**
+    * The visit methods of the kinds of commands, indexed by kind.
+    */
+   private static final String[] VISIT_METHODS = {
+         "visitPutKeyValueCommand", "visitRemoveCommand", "visitReplaceCommand", "visitClearCommand",
+         "visitPutMapCommand", "visitEvictCommand", "visitApplyDeltaCommand", "visitSizeCommand",
+         "visitGetKeyValueCommand", "visitGetAllCommand", "visitKeySetCommand", "visitValuesCommand",
+         "visitEntrySetCommand", "visitPrepareCommand", "visitRollbackCommand", "visitCommitCommand",
+         "visitInvalidateCommand", "visitInvalidateL1Command", "visitLockControlCommand", "visitUnknownCommand",
+         "visitDistributedExecuteCommand"
+   };
+
    private CommandInterceptor next;
 
+   /**
+    * Whether this interceptor handles each kind of command, indexed by kind.
+    */
+   private boolean[] handledCommands;
+
+   /**
+    * The first interceptor after this one which handles each kind of command, indexed by kind, or null if the visit
+    * methods must fall back to {@link #handleDefault(InvocationContext, VisitableCommand)}.
+    */
+   private volatile CommandInterceptor[] nextHandlers;
+
    protected Configuration cacheConfiguration;
 
    private static final Log log = LogFactory.getLog(CommandInterceptor.class);
@@ -83,6 +156,63 @@ public final boolean hasNext() {
     */
    public final void setNext(CommandInterceptor next) {
       this.next = next;
+      this.nextHandlers = null;
+   }
+
+   /**
+    * Works out the first interceptor after this one which handles each kind of command, so that the visitXXX() methods
+    * which are not overridden can pass the commands straight to it. The interceptors which follow this one must have
+    * been compiled first.
+    * <p/>
+    * Invoked by the {@link InterceptorChain} every time it changes.
+    */
+   public final void compileDispatch() {
+      if (next == null || handlesAllCommands(getClass())) {
+         nextHandlers = null;
+         return;
+      }
+      CommandInterceptor[] handlers = new CommandInterceptor[VISIT_METHODS.length];
+      for (int kind = 0; kind < handlers.length; kind++) {
+         handlers[kind] = next.handles(kind) ? next : next.nextHandler(kind);
+      }
+      nextHandlers = handlers;
+   }
+
+   private boolean handles(int kind) {
+      boolean[] handled = handledCommands;
+      if (handled == null) {
+         Class<?> clazz = getClass();
+         handled = new boolean[VISIT_METHODS.length];
+         boolean all = handlesAllCommands(clazz);
+         for (int i = 0; i < handled.length; i++) {
+            // the default visitInvalidateL1Command() passes the command to visitInvalidateCommand()
+            handled[i] = all || overrides(clazz, VISIT_METHODS[i]) ||
+                  (i == INVALIDATE_L1 && overrides(clazz, VISIT_METHODS[INVALIDATE]));
+         }
+         handledCommands = handled;
+      }
+      return handled[kind];
+   }
+
+   private CommandInterceptor nextHandler(int kind) {
+      CommandInterceptor[] handlers = nextHandlers;
+      return handlers == null ? null : handlers[kind];
+   }
+
+   private static boolean handlesAllCommands(Class<?> clazz) {
+      return overrides(clazz, "handleDefault");
+   }
+
+   /**
+    * @return true if the given method is declared by the class or by one of its super classes below CommandInterceptor
+    */
+   private static boolean overrides(Class<?> clazz, String methodName) {
+      for (Class<?> c = clazz; c != CommandInterceptor.class && c != null; c = c.getSuperclass()) {
+         for (Method m : c.getDeclaredMethods()) {
+            if (m.getName().equals(methodName) && !m.isBridge()) return true;
+         }
+      }
+      return false;
    }
 
    /**
@@ -112,6 +242,132 @@ protected Object handleDefault(InvocationContext ctx, VisitableCommand command)
       return invokeNextInterceptor(ctx, command);
    }
 
+   @Override
+   public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
+      CommandInterceptor handler = nextHandler(PUT_KEY_VALUE);
+      return handler == null ? handleDefault(ctx, command) : handler.visitPutKeyValueCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) throws Throwable {
+      CommandInterceptor handler = nextHandler(REMOVE);
+      return handler == null ? handleDefault(ctx, command) : handler.visitRemoveCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command) throws Throwable {
+      CommandInterceptor handler = nextHandler(REPLACE);
+      return handler == null ? handleDefault(ctx, command) : handler.visitReplaceCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitClearCommand(InvocationContext ctx, ClearCommand command) throws Throwable {
+      CommandInterceptor handler = nextHandler(CLEAR);
+      return handler == null ? handleDefault(ctx, command) : handler.visitClearCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) throws Throwable {
+      CommandInterceptor handler = nextHandler(PUT_MAP);
+      return handler == null ? handleDefault(ctx, command) : handler.visitPutMapCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitEvictCommand(InvocationContext ctx, EvictCommand command) throws Throwable {
+      CommandInterceptor handler = nextHandler(EVICT);
+      return handler == null ? handleDefault(ctx, command) : handler.visitEvictCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitApplyDeltaCommand(InvocationContext ctx, ApplyDeltaCommand command) throws Throwable {
+      CommandInterceptor handler = nextHandler(APPLY_DELTA);
+      return handler == null ? handleDefault(ctx, command) : handler.visitApplyDeltaCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitSizeCommand(InvocationContext ctx, SizeCommand command) throws Throwable {
+      CommandInterceptor handler = nextHandler(SIZE);
+      return handler == null ? handleDefault(ctx, command) : handler.visitSizeCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand command) throws Throwable {
+      CommandInterceptor handler = nextHandler(GET_KEY_VALUE);
+      return handler == null ? handleDefault(ctx, command) : handler.visitGetKeyValueCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      CommandInterceptor handler = nextHandler(GET_ALL);
+      return handler == null ? handleDefault(ctx, command) : handler.visitGetAllCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitKeySetCommand(InvocationContext ctx, KeySetCommand command) throws Throwable {
+      CommandInterceptor handler = nextHandler(KEY_SET);
+      return handler == null ? handleDefault(ctx, command) : handler.visitKeySetCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitValuesCommand(InvocationContext ctx, ValuesCommand command) throws Throwable {
+      CommandInterceptor handler = nextHandler(VALUES);
+      return handler == null ? handleDefault(ctx, command) : handler.visitValuesCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitEntrySetCommand(InvocationContext ctx, EntrySetCommand command) throws Throwable {
+      CommandInterceptor handler = nextHandler(ENTRY_SET);
+      return handler == null ? handleDefault(ctx, command) : handler.visitEntrySetCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitPrepareCommand(TxInvocationContext ctx, PrepareCommand command) throws Throwable {
+      CommandInterceptor handler = nextHandler(PREPARE);
+      return handler == null ? handleDefault(ctx, command) : handler.visitPrepareCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitRollbackCommand(TxInvocationContext ctx, RollbackCommand command) throws Throwable {
+      CommandInterceptor handler = nextHandler(ROLLBACK);
+      return handler == null ? handleDefault(ctx, command) : handler.visitRollbackCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitCommitCommand(TxInvocationContext ctx, CommitCommand command) throws Throwable {
+      CommandInterceptor handler = nextHandler(COMMIT);
+      return handler == null ? handleDefault(ctx, command) : handler.visitCommitCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitInvalidateCommand(InvocationContext ctx, InvalidateCommand invalidateCommand) throws Throwable {
+      CommandInterceptor handler = nextHandler(INVALIDATE);
+      return handler == null ? handleDefault(ctx, invalidateCommand) : handler.visitInvalidateCommand(ctx, invalidateCommand);
+   }
+
+   @Override
+   public Object visitInvalidateL1Command(InvocationContext ctx, InvalidateL1Command invalidateL1Command) throws Throwable {
+      CommandInterceptor handler = nextHandler(INVALIDATE_L1);
+      return handler == null ? super.visitInvalidateL1Command(ctx, invalidateL1Command) : handler.visitInvalidateL1Command(ctx, invalidateL1Command);
+   }
+
+   @Override
+   public Object visitLockControlCommand(TxInvocationContext ctx, LockControlCommand command) throws Throwable {
+      CommandInterceptor handler = nextHandler(LOCK_CONTROL);
+      return handler == null ? handleDefault(ctx, command) : handler.visitLockControlCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitUnknownCommand(InvocationContext ctx, VisitableCommand command) throws Throwable {
+      CommandInterceptor handler = nextHandler(UNKNOWN);
+      return handler == null ? handleDefault(ctx, command) : handler.visitUnknownCommand(ctx, command);
+   }
+
+   @Override
+   public <V> Object visitDistributedExecuteCommand(InvocationContext ctx, DistributedExecuteCommand<V> command) throws Throwable {
+      CommandInterceptor handler = nextHandler(DISTRIBUTED_EXECUTE);
+      return handler == null ? handleDefault(ctx, command) : handler.visitDistributedExecuteCommand(ctx, command);
+   }
+
    protected final long getLockAcquisitionTimeout(FlagAffectedCommand command, boolean skipLocking) {
       if (!skipLocking)
          return command.hasFlag(Flag.ZERO_LOCK_ACQUISITION_TIMEOUT) ?
@@ -1,6 +1,7 @@
 package org.infinispan.interceptors.compat;
 
 import org.infinispan.commands.MetadataAwareCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.RemoveCommand;
@@ -17,6 +18,8 @@
 import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.metadata.Metadata;
 
+import java.util.ArrayList;
+import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.Set;
 
@@ -108,6 +111,32 @@ public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand
       return null;
    }
 
+   @Override
+   @SuppressWarnings("unchecked")
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      TypeConverter<Object, Object, Object, Object> converter =
+            determineTypeConverter(command.getFlags());
+      Map<Object, Object> boxedToKey = command.createMap(command.getKeys().size());
+      for (Object key : command.getKeys()) {
+         boxedToKey.put(converter.boxKey(key), key);
+      }
+      command.setKeys(new ArrayList<Object>(boxedToKey.keySet()));
+      Map<Object, Object> ret = (Map<Object, Object>) invokeNextInterceptor(ctx, command);
+      Map<Object, Object> unboxed = command.createMap(ret.size());
+      for (Map.Entry<Object, Object> entry : ret.entrySet()) {
+         Object key = boxedToKey.get(entry.getKey());
+         if (command.isReturnEntries()) {
+            InternalCacheEntry ice = (InternalCacheEntry) entry.getValue();
+            // Create a copy of the entry to avoid modifying the internal entry
+            unboxed.put(key, entryFactory.create(key, converter.unboxValue(ice.getValue()), ice.getMetadata(),
+                  ice.getLifespan(), ice.getMaxIdle()));
+         } else {
+            unboxed.put(key, converter.unboxValue(entry.getValue()));
+         }
+      }
+      return unboxed;
+   }
+
    @Override
    public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command) throws Throwable {
       Object key = command.getKey();
@@ -1,6 +1,8 @@
 package org.infinispan.interceptors.distribution;
 
 import org.infinispan.commands.FlagAffectedCommand;
+import org.infinispan.commands.read.GetAllCommand;
+import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.write.DataWriteCommand;
 import org.infinispan.commands.write.WriteCommand;
@@ -10,6 +12,8 @@
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.impl.TxInvocationContext;
 import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.interceptors.ClusteringInterceptor;
 import org.infinispan.interceptors.locking.ClusteringDependentLogic;
@@ -31,9 +35,16 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static org.infinispan.factories.KnownComponentNames.ASYNC_TRANSPORT_EXECUTOR;
 
 /**
  * Base class for distribution of entries across a cluster.
@@ -50,6 +61,8 @@ public abstract class BaseDistributionInterceptor extends ClusteringInterceptor
 
    protected ClusteringDependentLogic cdl;
 
+   private ExecutorService remoteGetExecutor;
+
    private static final Log log = LogFactory.getLog(BaseDistributionInterceptor.class);
 
    @Override
@@ -63,6 +76,11 @@ public void injectDependencies(DistributionManager distributionManager, Clusteri
       this.cdl = cdl;
    }
 
+   @Inject
+   public void injectRemoteGetExecutor(@ComponentName(ASYNC_TRANSPORT_EXECUTOR) ExecutorService remoteGetExecutor) {
+      this.remoteGetExecutor = remoteGetExecutor;
+   }
+
    @Override
    protected final InternalCacheEntry retrieveFromRemoteSource(Object key, InvocationContext ctx, boolean acquireRemoteLock, FlagAffectedCommand command, boolean isWrite) throws Exception {
       GlobalTransaction gtx = ctx.isInTxScope() ? ((TxInvocationContext)ctx).getGlobalTransaction() : null;
@@ -98,6 +116,116 @@ protected final InternalCacheEntry retrieveFromRemoteSource(Object key, Invocati
       return null;
    }
 
+   /**
+    * Retrieves several entries from remote sources at once. The keys are grouped by the first of their read owners
+    * that is still a member of the cluster, and each group is requested with a single {@link ClusteredGetAllCommand}.
+    * The groups are requested in parallel, the last one from the calling thread.
+    * <p/>
+    * A key is retried with {@link #retrieveFromRemoteSource(Object, InvocationContext, boolean, FlagAffectedCommand, boolean)},
+    * which asks all its owners, if its owner didn't reply or if it didn't find the key while state transfer is in
+    * progress.
+    *
+    * @return the entries that were found, keys that cannot be located are not in the map
+    */
+   protected final Map<Object, InternalCacheEntry> retrieveAllFromRemoteSources(Collection<Object> keys, InvocationContext ctx, GetAllCommand command) throws Throwable {
+      Map<Object, InternalCacheEntry> entries = command.createMap(keys.size());
+      int topologyId = stateTransferManager.getCacheTopology().getTopologyId();
+      ConsistentHash ch = stateTransferManager.getCacheTopology().getReadConsistentHash();
+      List<Address> members = rpcManager.getTransport().getMembers();
+      Map<Address, List<Object>> keysByOwner = new HashMap<Address, List<Object>>();
+      List<Object> retries = new ArrayList<Object>();
+      for (Object key : keys) {
+         Address target = null;
+         for (Address owner : ch.locateOwners(key)) {
+            if (members.contains(owner)) {
+               target = owner;
+               break;
+            }
+         }
+         if (target == null) {
+            retries.add(key);
+            continue;
+         }
+         List<Object> ownerKeys = keysByOwner.get(target);
+         if (ownerKeys == null) {
+            ownerKeys = new ArrayList<Object>();
+            keysByOwner.put(target, ownerKeys);
+         }
+         ownerKeys.add(key);
+      }
+
+      // the owner might have left in the meantime, in which case its keys are retried
+      final RpcOptions options = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS, false).build();
+      List<Address> targets = new ArrayList<Address>(keysByOwner.keySet());
+      List<Future<Map<Address, Response>>> futures = new ArrayList<Future<Map<Address, Response>>>(targets.size());
+      Map<Address, Response> lastResponses = null;
+      List<Object> notFound = new ArrayList<Object>();
+      try {
+         for (int i = 0; i < targets.size(); i++) {
+            final List<Address> recipient = Collections.singletonList(targets.get(i));
+            final ClusteredGetAllCommand get = cf.buildClusteredGetAllCommand(keysByOwner.get(targets.get(i)), command.getFlags());
+            if (i < targets.size() - 1) {
+               futures.add(remoteGetExecutor.submit(new Callable<Map<Address, Response>>() {
+                  @Override
+                  public Map<Address, Response> call() throws Exception {
+                     return rpcManager.invokeRemotely(recipient, get, options);
+                  }
+               }));
+            } else {
+               lastResponses = rpcManager.invokeRemotely(recipient, get, options);
+            }
+         }
+
+         for (int i = 0; i < targets.size(); i++) {
+            Map<Address, Response> responses;
+            if (i < futures.size()) {
+               try {
+                  responses = futures.get(i).get();
+               } catch (ExecutionException e) {
+                  throw e.getCause();
+               }
+            } else {
+               responses = lastResponses;
+            }
+            Address target = targets.get(i);
+            List<Object> ownerKeys = keysByOwner.get(target);
+            Response response = responses == null ? null : responses.get(target);
+            if (!(response instanceof SuccessfulResponse)) {
+               log.tracef("No valid response from %s for keys %s, retrying them one by one", target, ownerKeys);
+               retries.addAll(ownerKeys);
+               continue;
+            }
+            @SuppressWarnings("unchecked")
+            List<InternalCacheValue> values = (List<InternalCacheValue>) ((SuccessfulResponse) response).getResponseValue();
+            for (int j = 0; j < ownerKeys.size(); j++) {
+               Object key = ownerKeys.get(j);
+               InternalCacheValue value = values.get(j);
+               if (value != null) {
+                  entries.put(key, value.toInternalCacheEntry(key));
+               } else {
+                  notFound.add(key);
+               }
+            }
+         }
+      } finally {
+         // stop waiting for the other owners if one of them failed
+         for (Future<Map<Address, Response>> future : futures)
+            future.cancel(true);
+      }
+
+      // an owner returns null for the keys it is receiving or sending by state transfer
+      if (dm.isRehashInProgress() || stateTransferManager.getCacheTopology().getTopologyId() != topologyId) {
+         retries.addAll(notFound);
+      }
+      for (Object key : retries) {
+         InternalCacheEntry ice = retrieveFromRemoteSource(key, ctx, false, command, false);
+         if (ice != null) {
+            entries.put(key, ice);
+         }
+      }
+      return entries;
+   }
+
    protected final Object handleNonTxWriteCommand(InvocationContext ctx, DataWriteCommand command) throws Throwable {
       if (ctx.isInTxScope()) {
          throw new CacheException("Attempted execution of non-transactional write command in a transactional invocation context");
@@ -1,6 +1,7 @@
 package org.infinispan.interceptors.distribution;
 
 import org.infinispan.commands.FlagAffectedCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.write.DataWriteCommand;
 import org.infinispan.commands.write.InvalidateL1Command;
@@ -24,7 +25,9 @@
 import org.infinispan.util.logging.LogFactory;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
@@ -118,6 +121,56 @@ public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand
       return returnValue;
    }
 
+   @Override
+   @SuppressWarnings("unchecked")
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      Map<Object, Object> map;
+      if (ctx.isOriginLocal()) {
+         // If the command isn't going to return remote values - just pass it down the interceptor chain
+         if (command.hasFlag(Flag.CACHE_MODE_LOCAL) || command.hasFlag(Flag.SKIP_REMOTE_LOOKUP)
+               || command.hasFlag(Flag.IGNORE_RETURN_VALUES)) {
+            return invokeNextInterceptor(ctx, command);
+         }
+         // Keys with a request already in progress are fetched again rather than waited for, only the first
+         // request updates L1
+         Map<Object, L1WriteSynchronizer> l1WriteSyncs = new HashMap<Object, L1WriteSynchronizer>();
+         for (Object key : command.getKeys()) {
+            if (!cdl.localNodeIsOwner(key) && !dataContainer.containsKey(key)) {
+               L1WriteSynchronizer l1WriteSync = new L1WriteSynchronizer(dataContainer, l1Lifespan, stateTransferLock,
+                                                                         cdl);
+               if (concurrentWrites.putIfAbsent(key, l1WriteSync) == null) {
+                  l1WriteSyncs.put(key, l1WriteSync);
+               }
+            }
+         }
+         try {
+            map = (Map<Object, Object>) invokeNextInterceptor(ctx, command);
+            for (Map.Entry<Object, L1WriteSynchronizer> e : l1WriteSyncs.entrySet()) {
+               Object key = e.getKey();
+               e.getValue().runL1UpdateIfPossible(key, command.getRemotelyFetchedValue(key), map.get(key));
+            }
+         }
+         catch (Throwable t) {
+            for (L1WriteSynchronizer l1WriteSync : l1WriteSyncs.values()) {
+               l1WriteSync.retrievalEncounteredException(t);
+            }
+            throw t;
+         }
+         finally {
+            for (Object key : l1WriteSyncs.keySet()) {
+               concurrentWrites.remove(key);
+            }
+         }
+      }
+      else {
+         map = (Map<Object, Object>) invokeNextInterceptor(ctx, command);
+         for (Object key : map.keySet()) {
+            l1Manager.addRequestor(key, ctx.getOrigin());
+         }
+      }
+      return map;
+   }
+
    @Override
    public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
       return handleDataWriteCommand(ctx, command, true);
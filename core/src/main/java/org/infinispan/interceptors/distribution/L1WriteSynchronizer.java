@@ -164,11 +164,20 @@ public void retrievalEncounteredException(Throwable t) {
     * just set the value to release blockers
     */
    public void runL1UpdateIfPossible(Object value, GetKeyValueCommand command) {
+      runL1UpdateIfPossible(command.getKey(), command.getRemotelyFetchedValue(), value);
+   }
+
+   /**
+    * Same as {@link #runL1UpdateIfPossible(Object, GetKeyValueCommand)}, for a key whose entry was fetched by another
+    * command, e.g. a {@link org.infinispan.commands.read.GetAllCommand}
+    * @param key the key the L1 update is for
+    * @param ice the entry fetched from a remote node, or {@code null} if it wasn't fetched remotely
+    * @param value the value to release the blockers with
+    */
+   public void runL1UpdateIfPossible(Object key, InternalCacheEntry ice, Object value) {
       try {
-         InternalCacheEntry ice;
-         if ((ice = command.getRemotelyFetchedValue()) != null) {
-            Object key;
-            if (sync.attemptUpdateToRunning() && !dc.containsKey((key = command.getKey()))) {
+         if (ice != null) {
+            if (sync.attemptUpdateToRunning() && !dc.containsKey(key)) {
                // Acquire the transfer lock to ensure that we don't have a rehash and change to become an owner,
                // note we check the ownership in following if
                stateTransferLock.acquireSharedTopologyLock();
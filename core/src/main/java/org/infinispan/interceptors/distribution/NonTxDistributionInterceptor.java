@@ -1,6 +1,7 @@
 package org.infinispan.interceptors.distribution;
 
 import org.infinispan.commands.FlagAffectedCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.write.ClearCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
@@ -8,6 +9,7 @@
 import org.infinispan.commands.write.RemoveCommand;
 import org.infinispan.commands.write.ReplaceCommand;
 import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.util.InfinispanCollections;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
@@ -60,6 +62,42 @@ public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand
       }
    }
 
+   @Override
+   @SuppressWarnings("unchecked")
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      try {
+         Map<Object, Object> map = (Map<Object, Object>) invokeNextInterceptor(ctx, command);
+         List<Object> missingKeys = new ArrayList<Object>(command.getKeys().size() - map.size());
+         List<Object> remoteKeys = new ArrayList<Object>(missingKeys.size());
+         for (Object key : command.getKeys()) {
+            if (!map.containsKey(key)) {
+               missingKeys.add(key);
+               if (needsRemoteGet(ctx, key, command)) {
+                  remoteKeys.add(key);
+               }
+            }
+         }
+         if (missingKeys.isEmpty()) {
+            return map;
+         }
+         Map<Object, InternalCacheEntry> remoteEntries = remoteKeys.isEmpty() ?
+               InfinispanCollections.<Object, InternalCacheEntry>emptyMap() : remoteGetAllCacheEntries(ctx, remoteKeys, command);
+         for (Object key : missingKeys) {
+            InternalCacheEntry entry = remoteEntries.get(key);
+            if (entry == null) {
+               entry = localGetCacheEntry(ctx, key, false, command);
+            }
+            if (entry != null) {
+               map.put(key, command.isReturnEntries() ? entry : entry.getValue());
+            }
+         }
+         return map;
+      } catch (SuspectException e) {
+         // retry
+         return visitGetAllCommand(ctx, command);
+      }
+   }
+
    private Object computeGetReturn(InternalCacheEntry entry, GetKeyValueCommand command) {
       if (!command.isReturnEntry() && entry != null)
          return entry.getValue();
@@ -189,4 +227,13 @@ private InternalCacheEntry remoteGetCacheEntry(InvocationContext ctx, Object key
 
       return null;
    }
+
+   private Map<Object, InternalCacheEntry> remoteGetAllCacheEntries(InvocationContext ctx, List<Object> keys, GetAllCommand command) throws Throwable {
+      if (trace) log.tracef("Doing a remote get for keys %s", keys);
+      Map<Object, InternalCacheEntry> entries = retrieveAllFromRemoteSources(keys, ctx, command);
+      for (Map.Entry<Object, InternalCacheEntry> entry : entries.entrySet()) {
+         command.addRemotelyFetchedValue(entry.getKey(), entry.getValue());
+      }
+      return entries;
+   }
 }
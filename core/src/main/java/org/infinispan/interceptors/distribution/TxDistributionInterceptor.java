@@ -3,6 +3,7 @@
 import org.infinispan.atomic.DeltaCompositeKey;
 import org.infinispan.commands.FlagAffectedCommand;
 import org.infinispan.commands.control.LockControlCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.tx.CommitCommand;
 import org.infinispan.commands.tx.PrepareCommand;
@@ -36,6 +37,7 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeoutException;
 
@@ -168,6 +170,59 @@ private Object visitGetCommand(InvocationContext ctx, GetKeyValueCommand command
       }
    }
 
+   @Override
+   @SuppressWarnings("unchecked")
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      try {
+         Map<Object, Object> map = (Map<Object, Object>) invokeNextInterceptor(ctx, command);
+         // If L1 caching is enabled, this is a remote command, and we found values in our cache
+         // we store them so that we can later invalidate them
+         if (isL1CacheEnabled && !ctx.isOriginLocal()) {
+            for (Object key : map.keySet()) {
+               l1Manager.addRequestor(key, ctx.getOrigin());
+            }
+         }
+         if (!ctx.isOriginLocal()) {
+            return map;
+         }
+
+         List<Object> missingKeys = new ArrayList<Object>(command.getKeys().size() - map.size());
+         List<Object> remoteKeys = new ArrayList<Object>(missingKeys.size());
+         for (Object key : command.getKeys()) {
+            //if the cache entry has the value lock flag set, skip the remote get.
+            CacheEntry entry = ctx.lookupEntry(key);
+            if (map.containsKey(key) || entry != null && entry.skipRemoteGet()) {
+               continue;
+            }
+            missingKeys.add(key);
+            if (needsRemoteGet(ctx, key, command)) {
+               remoteKeys.add(key);
+            }
+         }
+         if (!remoteKeys.isEmpty()) {
+            if (trace) log.tracef("Doing a remote get for keys %s", remoteKeys);
+            Map<Object, InternalCacheEntry> remoteEntries = retrieveAllFromRemoteSources(remoteKeys, ctx, command);
+            for (Map.Entry<Object, InternalCacheEntry> e : remoteEntries.entrySet()) {
+               storeRemoteEntry(ctx, e.getKey(), e.getValue(), false, command);
+               command.addRemotelyFetchedValue(e.getKey(), e.getValue());
+               map.put(e.getKey(), command.isReturnEntries() ? e.getValue() : e.getValue().getValue());
+            }
+         }
+         for (Object key : missingKeys) {
+            if (!map.containsKey(key) && !ctx.isEntryRemovedInContext(key)) {
+               Object returnValue = localGet(ctx, key, false, command, command.isReturnEntries());
+               if (returnValue != null) {
+                  map.put(key, returnValue);
+               }
+            }
+         }
+         return map;
+      } catch (SuspectException e) {
+         // retry
+         return visitGetAllCommand(ctx, command);
+      }
+   }
+
    protected void lockAndWrap(InvocationContext ctx, Object key, InternalCacheEntry ice, FlagAffectedCommand command) throws InterruptedException {
       boolean skipLocking = hasSkipLocking(command);
       long lockTimeout = getLockAcquisitionTimeout(command, skipLocking);
@@ -373,50 +428,7 @@ private Object remoteGetAndStoreInL1(InvocationContext ctx, Object key, boolean
          }
 
          if (ice != null) {
-            if (useClusteredWriteSkewCheck && ctx.isInTxScope()) {
-               ((TxInvocationContext)ctx).getCacheTransaction().putLookedUpRemoteVersion(key, ice.getMetadata().version());
-            }
-
-            if (isL1CacheEnabled) {
-               // We've requested the key only from the owners current (read) CH.
-               // If the intersection of owners in the current and pending CHs is empty,
-               // the requestor information might be lost, so we shouldn't store the entry in L1.
-               if (dm.isAffectedByRehash(key)) {
-                  if (trace) log.tracef("State transfer in progress for key %s, not storing to L1");
-                  return ice.getValue();
-               }
-
-               if (trace) log.tracef("Caching remotely retrieved entry for key %s in L1", key);
-               // This should be fail-safe
-               try {
-                  long l1Lifespan = cacheConfiguration.clustering().l1().lifespan();
-                  long lifespan = ice.getLifespan() < 0 ? l1Lifespan : Math.min(ice.getLifespan(), l1Lifespan);
-                  // Make a copy of the metadata stored internally, adjust
-                  // lifespan/maxIdle settings and send them a modification
-                  Metadata newMetadata = ice.getMetadata().builder()
-                        .lifespan(lifespan).maxIdle(-1).build();
-                  PutKeyValueCommand put = cf.buildPutKeyValueCommand(
-                        ice.getKey(), ice.getValue(), newMetadata, command.getFlags());
-                  ctx.replaceValue(key, ice);
-                  lockAndWrap(ctx, key, ice, command);
-                  invokeNextInterceptor(ctx, put);
-               } catch (Exception e) {
-                  // Couldn't store in L1 for some reason.  But don't fail the transaction!
-                  log.infof("Unable to store entry %s in L1 cache", key);
-                  log.debug("Inability to store in L1 caused by", e);
-               }
-            } else {
-               if (!ctx.replaceValue(key, ice)) {
-                  if (isWrite)
-                     lockAndWrap(ctx, key, ice, command);
-                  else {
-                     ctx.putLookedUpEntry(key, ice);
-                     if (ctx.isInTxScope()) {
-                        ((TxInvocationContext) ctx).getCacheTransaction().replaceVersionRead(key, ice.getMetadata().version());
-                     }
-                  }
-               }
-            }
+            storeRemoteEntry(ctx, key, ice, isWrite, command);
             return ice.getValue();
          }
       } else {
@@ -425,6 +437,56 @@ private Object remoteGetAndStoreInL1(InvocationContext ctx, Object key, boolean
       return null;
    }
 
+   /**
+    * Stores an entry retrieved from a remote node in the context and, if enabled, in L1.
+    */
+   private void storeRemoteEntry(InvocationContext ctx, Object key, InternalCacheEntry ice, boolean isWrite, FlagAffectedCommand command) throws Throwable {
+      if (useClusteredWriteSkewCheck && ctx.isInTxScope()) {
+         ((TxInvocationContext)ctx).getCacheTransaction().putLookedUpRemoteVersion(key, ice.getMetadata().version());
+      }
+
+      if (isL1CacheEnabled) {
+         // We've requested the key only from the owners current (read) CH.
+         // If the intersection of owners in the current and pending CHs is empty,
+         // the requestor information might be lost, so we shouldn't store the entry in L1.
+         if (dm.isAffectedByRehash(key)) {
+            if (trace) log.tracef("State transfer in progress for key %s, not storing to L1");
+            return;
+         }
+
+         if (trace) log.tracef("Caching remotely retrieved entry for key %s in L1", key);
+         // This should be fail-safe
+         try {
+            long l1Lifespan = cacheConfiguration.clustering().l1().lifespan();
+            long lifespan = ice.getLifespan() < 0 ? l1Lifespan : Math.min(ice.getLifespan(), l1Lifespan);
+            // Make a copy of the metadata stored internally, adjust
+            // lifespan/maxIdle settings and send them a modification
+            Metadata newMetadata = ice.getMetadata().builder()
+                  .lifespan(lifespan).maxIdle(-1).build();
+            PutKeyValueCommand put = cf.buildPutKeyValueCommand(
+                  ice.getKey(), ice.getValue(), newMetadata, command.getFlags());
+            ctx.replaceValue(key, ice);
+            lockAndWrap(ctx, key, ice, command);
+            invokeNextInterceptor(ctx, put);
+         } catch (Exception e) {
+            // Couldn't store in L1 for some reason.  But don't fail the transaction!
+            log.infof("Unable to store entry %s in L1 cache", key);
+            log.debug("Inability to store in L1 caused by", e);
+         }
+      } else {
+         if (!ctx.replaceValue(key, ice)) {
+            if (isWrite)
+               lockAndWrap(ctx, key, ice, command);
+            else {
+               ctx.putLookedUpEntry(key, ice);
+               if (ctx.isInTxScope()) {
+                  ((TxInvocationContext) ctx).getCacheTransaction().replaceVersionRead(key, ice.getMetadata().version());
+               }
+            }
+         }
+      }
+   }
+
    private Future<?> flushL1Caches(InvocationContext ctx) {
       // TODO how do we tell the L1 manager which keys are removed and which keys may still exist in remote L1?
       return isL1CacheEnabled ? l1Manager.flushCacheWithSimpleFuture(ctx.getLockedKeys(), null, ctx.getOrigin(), true) : null;
@@ -0,0 +1,58 @@
+package org.infinispan.io;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * An immutable byte stream holding a compressed representation of a marshalled value, i.e. the length of the
+ * marshalled value as an unsigned variable length integer followed by its compressed bytes.
+ * <p />
+ * It is only equal to another compressed stream holding the same bytes, comparing it with an uncompressed stream
+ * requires decompressing it first.
+ *
+ * @see org.infinispan.marshall.core.MarshalledValueCompressor
+ * @since 6.0
+ */
+@ThreadSafe
+public final class CompressedMarshalledValueByteStream extends MarshalledValueByteStream {
+   private final byte[] bytes;
+
+   public CompressedMarshalledValueByteStream(byte[] bytes) {
+      this.bytes = bytes;
+   }
+
+   @Override
+   public int size() {
+      return bytes.length;
+   }
+
+   @Override
+   public byte[] getRaw() {
+      return bytes;
+   }
+
+   @Override
+   public void write(int b) throws IOException {
+      throw new UnsupportedOperationException("Immutable");
+   }
+
+   @Override
+   public boolean equals(Object thatObject) {
+      if (this == thatObject) return true;
+      if (thatObject instanceof CompressedMarshalledValueByteStream) {
+         return Arrays.equals(bytes, ((CompressedMarshalledValueByteStream) thatObject).bytes);
+      } else {
+         return false;
+      }
+   }
+
+   @Override
+   public int hashCode() {
+      //Implementation would either be slow or not consistent with the equals definition
+      //just avoid needing the hashCode:
+      throw new UnsupportedOperationException();
+   }
+
+}
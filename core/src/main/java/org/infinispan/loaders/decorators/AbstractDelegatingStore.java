@@ -12,8 +12,10 @@
 
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * Simple delegate that delegates all calls.  This is intended as a building block for other decorators who wish to add
@@ -48,6 +50,11 @@ public void store(InternalCacheEntry ed) throws CacheLoaderException {
       delegate.store(ed);
    }
 
+   @Override
+   public void storeBatch(Collection<InternalCacheEntry> entries) throws CacheLoaderException {
+      delegate.storeBatch(entries);
+   }
+
    @Override
    public void fromStream(ObjectInput inputStream) throws CacheLoaderException {
       delegate.fromStream(inputStream);
@@ -114,6 +121,11 @@ public Set<Object> loadAllKeys(Set<Object> keysToExclude) throws CacheLoaderExce
       return delegate.loadAllKeys(keysToExclude);
    }
 
+   @Override
+   public void process(KeyFilter filter, CacheLoaderTask task, Executor executor) throws CacheLoaderException {
+      delegate.process(filter, task, executor);
+   }
+
    @Override
    public boolean containsKey(Object key) throws CacheLoaderException {
       return delegate.containsKey(key);
@@ -18,19 +18,21 @@
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.loaders.spi.ParallelProcessor;
 import org.infinispan.transaction.xa.GlobalTransaction;
-import org.infinispan.transaction.xa.TransactionFactory;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
@@ -57,6 +59,10 @@
  * <p/>
  * Write operations affecting same key are now coalesced so that only the final state is actually stored.
  * <p/>
+ * The coalesced changes are written to the underlying CacheStore in batches, with
+ * {@link CacheStore#storeBatch(java.util.Collection)} and {@link CacheStore#removeAll(java.util.Set)}, so that stores
+ * supporting it can group commit them.
+ * <p/>
  *
  * @author Manik Surtani
  * @author Galder Zamarreño
@@ -69,7 +75,6 @@ public class AsyncStore extends AbstractDelegatingStore {
    private static final boolean trace = log.isTraceEnabled();
    private static final AtomicInteger threadId = new AtomicInteger(0);
 
-   private final TransactionFactory txFactory;
    private Map<GlobalTransaction, List<? extends Modification>> transactions;
 
    private ExecutorService executor;
@@ -87,8 +92,6 @@ public class AsyncStore extends AbstractDelegatingStore {
 
    public AsyncStore(CacheStore delegate) {
       super(delegate);
-      txFactory = new TransactionFactory();
-      txFactory.init(false, false, false, false);
    }
 
    @Override
@@ -194,6 +197,17 @@ public Set<Object> loadAllKeys(Set<Object> keysToExclude) throws CacheLoaderExce
       return result;
    }
 
+   /**
+    * Iterates over the keys of {@link #loadAllKeys(Set)}, so that the modifications not applied to the underlying
+    * store yet are taken into account.
+    */
+   @Override
+   public void process(KeyFilter filter, CacheLoaderTask task, Executor executor) throws CacheLoaderException {
+      ParallelProcessor processor = new ParallelProcessor(task, executor);
+      processor.submitKeys(this, loadAllKeys(null), filter);
+      processor.awaitCompletion();
+   }
+
    @Override
    public Set<InternalCacheEntry> loadAll() throws CacheLoaderException {
       return load(Integer.MAX_VALUE);
@@ -218,6 +232,16 @@ public void store(InternalCacheEntry entry) {
       put(new Store(entry), 1);
    }
 
+   @Override
+   public void storeBatch(Collection<InternalCacheEntry> entries) {
+      if (!entries.isEmpty()) {
+         List<Modification> mods = new ArrayList<Modification>(entries.size());
+         for (InternalCacheEntry entry : entries)
+            mods.add(new Store(entry));
+         put(new ModificationsList(mods), mods.size());
+      }
+   }
+
    @Override
    public void clear() {
       stateLock.writeLock(1);
@@ -324,8 +348,29 @@ public void stop() throws CacheLoaderException {
       super.stop();
    }
 
+   /**
+    * Writes the modifications of distinct keys to the underlying store, as one batch of stores and one batch of
+    * removals.
+    */
    protected void applyModificationsSync(List<Modification> mods) throws CacheLoaderException {
-      getDelegate().prepare(mods, txFactory.newGlobalTransaction(null, false), true);
+      List<InternalCacheEntry> stores = new ArrayList<InternalCacheEntry>(mods.size());
+      Set<Object> removes = new HashSet<Object>();
+      for (Modification mod : mods) {
+         switch (mod.getType()) {
+            case STORE:
+               stores.add(((Store) mod).getStoredEntry());
+               break;
+            case REMOVE:
+               removes.add(((Remove) mod).getKey());
+               break;
+            default:
+               throw new IllegalArgumentException("Unexpected modification type " + mod.getType());
+         }
+      }
+      if (!stores.isEmpty())
+         getDelegate().storeBatch(stores);
+      if (!removes.isEmpty())
+         getDelegate().removeAll(removes);
    }
 
    private static class State {
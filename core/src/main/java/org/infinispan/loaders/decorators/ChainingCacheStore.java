@@ -12,12 +12,14 @@
 import org.infinispan.loaders.spi.CacheStore;
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.transaction.xa.GlobalTransaction;
+import org.infinispan.util.concurrent.ConcurrentHashSet;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -25,6 +27,8 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -60,6 +64,16 @@ public void store(InternalCacheEntry ed) throws CacheLoaderException {
       }
    }
 
+   @Override
+   public void storeBatch(Collection<InternalCacheEntry> entries) throws CacheLoaderException {
+      loadersAndStoresMutex.readLock().lock();
+      try {
+         for (CacheStore s : stores.keySet()) s.storeBatch(entries);
+      } finally {
+         loadersAndStoresMutex.readLock().unlock();
+      }
+   }
+
    @Override
    public void fromStream(ObjectInput inputStream) throws CacheLoaderException {
       loadersAndStoresMutex.readLock().lock();
@@ -207,6 +221,40 @@ public Set<InternalCacheEntry> loadAll() throws CacheLoaderException {
       return set;
    }
 
+   /**
+    * Processes the entries of each store in turn. An entry present in several stores is passed to the task once, with
+    * the value of the first store holding it, so the keys processed are kept in memory for the duration of the iteration.
+    */
+   @Override
+   public void process(final KeyFilter filter, final CacheLoaderTask task, Executor executor) throws CacheLoaderException {
+      final Set<Object> processed = new ConcurrentHashSet<Object>();
+      final AtomicBoolean stopped = new AtomicBoolean();
+      KeyFilter notProcessed = new KeyFilter() {
+         @Override
+         public boolean shouldLoadKey(Object key) {
+            return !processed.contains(key) && (filter == null || filter.shouldLoadKey(key));
+         }
+      };
+      CacheLoaderTask processOnce = new CacheLoaderTask() {
+         @Override
+         public void processEntry(InternalCacheEntry entry, TaskContext taskContext) throws InterruptedException {
+            if (processed.add(entry.getKey())) {
+               task.processEntry(entry, taskContext);
+               if (taskContext.isStopped()) stopped.set(true);
+            }
+         }
+      };
+      loadersAndStoresMutex.readLock().lock();
+      try {
+         for (CacheStore s : stores.keySet()) {
+            if (stopped.get()) break;
+            s.process(notProcessed, processOnce, executor);
+         }
+      } finally {
+         loadersAndStoresMutex.readLock().unlock();
+      }
+   }
+
    @Override
    public Set<InternalCacheEntry> load(int numEntries) throws CacheLoaderException {
       if (numEntries < 0) return loadAll();
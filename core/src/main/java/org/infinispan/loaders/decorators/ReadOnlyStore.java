@@ -8,6 +8,7 @@
 import org.infinispan.util.logging.LogFactory;
 
 import java.io.ObjectInput;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -29,6 +30,11 @@ public void store(InternalCacheEntry ed) {
       log.trace("Ignoring store invocation"); 
    }
 
+   @Override
+   public void storeBatch(Collection<InternalCacheEntry> entries) {
+      log.trace("Ignoring store batch invocation");
+   }
+
    @Override
    public void fromStream(ObjectInput inputStream) {
       log.trace("Ignoring writing contents of stream to store");
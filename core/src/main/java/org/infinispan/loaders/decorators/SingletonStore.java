@@ -22,6 +22,7 @@
 import org.infinispan.util.logging.LogFactory;
 
 import java.io.ObjectInput;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -124,6 +125,14 @@ public void store(InternalCacheEntry ed) throws CacheLoaderException {
       } else if (trace) log.tracef("Not storing key %s.  Instance: %s", ed.getKey(), this);
    }
 
+   @Override
+   public void storeBatch(Collection<InternalCacheEntry> entries) throws CacheLoaderException {
+      if (active) {
+         if (trace) log.tracef("Storing %d entries.  Instance: %s", entries.size(), this);
+         super.storeBatch(entries);
+      } else if (trace) log.tracef("Not storing %d entries.  Instance: %s", entries.size(), this);
+   }
+
    @Override
    public void fromStream(ObjectInput inputStream) throws CacheLoaderException {
       if (active) super.fromStream(inputStream);
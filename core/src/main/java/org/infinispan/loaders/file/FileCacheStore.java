@@ -10,6 +10,7 @@
 import org.infinispan.loaders.CacheLoaderException;
 import org.infinispan.loaders.bucket.Bucket;
 import org.infinispan.loaders.bucket.BucketBasedCacheStore;
+import org.infinispan.loaders.spi.ParallelProcessor;
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.commons.util.Util;
@@ -33,7 +34,9 @@
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -95,6 +98,44 @@ protected void loopOverBuckets(BucketHandler handler) throws CacheLoaderExceptio
       }
    }
 
+   /**
+    * {@inheritDoc} Each bucket file is read and deserialized by a batch of its own, which holds the read lock of the
+    * bucket while reading it.
+    */
+   @Override
+   public void process(final KeyFilter filter, CacheLoaderTask task, Executor executor) throws CacheLoaderException {
+      final ParallelProcessor processor = new ParallelProcessor(task, executor);
+      File[] listFiles;
+      if (root != null && (listFiles = root.listFiles(NUMERIC_NAMED_FILES_FILTER)) != null) {
+         for (final File bucketFile : listFiles) {
+            if (processor.isStopped())
+               break;
+            processor.submit(new Callable<Void>() {
+               @Override
+               public Void call() throws Exception {
+                  Integer bucketId = Integer.valueOf(bucketFile.getName());
+                  Bucket bucket;
+                  lockForReading(bucketId);
+                  try {
+                     bucket = loadBucket(bucketFile);
+                  } finally {
+                     unlock(bucketId);
+                  }
+                  if (bucket != null) {
+                     long currentTimeMillis = timerService.wallClockTime();
+                     for (InternalCacheEntry ice : bucket.getStoredEntries()) {
+                        if (!ice.isExpired(currentTimeMillis) && (filter == null || filter.shouldLoadKey(ice.getKey())))
+                           processor.processEntry(ice);
+                     }
+                  }
+                  return null;
+               }
+            });
+         }
+      }
+      processor.awaitCompletion();
+   }
+
    @Override
    protected void fromStreamLockSafe(ObjectInput objectInput) throws CacheLoaderException {
       try {
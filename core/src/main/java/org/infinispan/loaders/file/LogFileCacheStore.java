@@ -0,0 +1,855 @@
+package org.infinispan.loaders.file;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.configuration.cache.CacheLoaderConfiguration;
+import org.infinispan.configuration.cache.LogFileCacheStoreConfiguration;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.entries.InternalCacheValue;
+import org.infinispan.loaders.CacheLoaderException;
+import org.infinispan.loaders.spi.AbstractCacheStore;
+import org.infinispan.loaders.spi.CacheStore;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.marshall.core.MarshallingBufferPool;
+import org.infinispan.marshall.core.MarshallingBufferPool.PooledBuffer;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * A log-structured, filesystem-based implementation of a {@link CacheStore}. Every store and remove is appended as
+ * a record to the current log file in <tt>&lt;location&gt;/&lt;cache name&gt;/</tt>, so all the writes are
+ * sequential. Keys and the position of their latest record are kept in memory, so a load needs a single read.
+ * <p/>
+ * When the current log file grows beyond {@link LogFileCacheStoreConfiguration#maxFileSize()}, it is sealed and
+ * the store starts appending to a new file. Overwritten, removed and expired records stay in their log file until
+ * a background compactor finds that the ratio of such obsolete data in a sealed file has reached
+ * {@link LogFileCacheStoreConfiguration#compactionThreshold()}: it then copies the live records of the file to the
+ * current log file and, once the copies are on disk, deletes the file.
+ * <p/>
+ * A removal record (tombstone) is appended whenever a key is removed, including when it expires, and tombstones are
+ * kept by the compactor for as long as an older log file may still hold a record of their key, so that no removed
+ * key comes back when the index is rebuilt.
+ * <p/>
+ * Every sealed log file has a hint file, listing the keys and the positions of its records without their values.
+ * The current log file also gets one, covering the records written so far, when a compaction copies records to it.
+ * On startup the in-memory index is rebuilt from the hint files, and only the records not listed in a hint file
+ * (e.g. because the store was not stopped cleanly) are read from the log files. Records are checksummed, so a record that was not
+ * completely written before a crash is detected, and the log file is truncated before it.
+ * <p/>
+ * Note: like {@link SingleFileCacheStore}, this cache store keeps all the keys in memory.
+ * <p/>
+ * This class is fully thread safe: loads only block to record the expiration of the entry they found, and stores
+ * and removes only hold a lock while appending their record.
+ *
+ * @since 6.0
+ */
+public class LogFileCacheStore extends AbstractCacheStore {
+
+   private static final Log log = LogFactory.getLog(LogFileCacheStore.class);
+
+   private static final String LOG_EXTENSION = ".log";
+   private static final String HINT_EXTENSION = ".hint";
+   private static final String TMP_EXTENSION = ".tmp";
+   /**
+    * The data length of the records of removed keys.
+    */
+   private static final int TOMBSTONE = -1;
+   /**
+    * Checksum, key length, data length and expiry time.
+    */
+   private static final int RECORD_HEADER = 4 + 4 + 4 + 8;
+   /**
+    * Written by {@link #toStream(ObjectOutput)} after the last entry.
+    */
+   private static final byte STREAM_DELIMITER = 100;
+
+   private LogFileCacheStoreConfiguration configuration;
+
+   private File directory;
+   private Map<Object, LogEntry> entries;
+   private final ConcurrentNavigableMap<Integer, LogFile> files = new ConcurrentSkipListMap<Integer, LogFile>();
+   private volatile LogFile activeFile;
+   private int nextFileId;
+
+   /**
+    * Guards the appends to the active log file and the index updates that go with them, so that the order of the
+    * records in the log is the order of the updates of the index.
+    */
+   private final Object appendLock = new Object();
+   /**
+    * Prevents {@link #clear()} from running during the compaction of a file.
+    */
+   private final Lock compactionLock = new ReentrantLock();
+   private ScheduledExecutorService compactor;
+   private MarshallingBufferPool bufferPool;
+
+   /** {@inheritDoc} */
+   @Override
+   public void init(CacheLoaderConfiguration configuration, Cache<?, ?> cache, StreamingMarshaller m) throws
+         CacheLoaderException {
+      this.configuration = validateConfigurationClass(configuration, LogFileCacheStoreConfiguration.class);
+      super.init(configuration, cache, m);
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public void start() throws CacheLoaderException {
+      super.start();
+      bufferPool = cache.getAdvancedCache().getComponentRegistry().getComponent(MarshallingBufferPool.class);
+      if (bufferPool == null)
+         bufferPool = new MarshallingBufferPool();
+      try {
+         String location = configuration.location();
+         if (location == null || location.trim().length() == 0)
+            location = "Infinispan-LogFileCacheStore";
+
+         directory = new File(location, cache.getName());
+         if (!directory.exists() && !directory.mkdirs())
+            throw log.directoryCannotBeCreated(directory.getAbsolutePath());
+
+         Equivalence<Object> keyEq = cache.getCacheConfiguration().dataContainer().keyEquivalence();
+         entries = Collections.synchronizedMap(
+               CollectionFactory.makeMap(keyEq, AnyEquivalence.<LogEntry>getInstance()));
+         rebuildIndex();
+         synchronized (appendLock) {
+            activeFile = openLogFile(nextFileId++);
+         }
+      } catch (CacheLoaderException e) {
+         throw e;
+      } catch (Exception e) {
+         throw new CacheLoaderException(e);
+      }
+
+      final String threadName = cache.getName() + '-' + getClass().getSimpleName() + "-Compactor";
+      compactor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+         @Override
+         public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+         }
+      });
+      long interval = configuration.compactionInterval();
+      if (interval > 0) {
+         compactor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+               compact();
+            }
+         }, interval, interval, TimeUnit.MILLISECONDS);
+      }
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public void stop() throws CacheLoaderException {
+      try {
+         if (compactor != null) {
+            // let a running compaction finish, interrupting it would close the channel it is writing to
+            compactor.shutdown();
+            compactor.awaitTermination(60, TimeUnit.SECONDS);
+            compactor = null;
+         }
+         synchronized (appendLock) {
+            if (activeFile != null) {
+               // seal the active file, so that it has a hint file on the next start
+               if (activeFile.size == 0)
+                  deleteLogFile(activeFile);
+               else
+                  seal(activeFile);
+               activeFile = null;
+            }
+            for (LogFile logFile : files.values())
+               logFile.channel.close();
+            files.clear();
+            entries = null;
+            nextFileId = 0;
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      } catch (Exception e) {
+         throw new CacheLoaderException(e);
+      }
+      super.stop();
+   }
+
+   /**
+    * Rebuilds the in-memory index from the hint files, or from the log files that do not have one.
+    */
+   private void rebuildIndex() throws Exception {
+      List<Integer> ids = new ArrayList<Integer>();
+      File[] logFiles = directory.listFiles(new FilenameFilter() {
+         @Override
+         public boolean accept(File dir, String name) {
+            return name.endsWith(LOG_EXTENSION);
+         }
+      });
+      if (logFiles != null) {
+         for (File f : logFiles) {
+            String name = f.getName();
+            try {
+               ids.add(Integer.valueOf(name.substring(0, name.length() - LOG_EXTENSION.length())));
+            } catch (NumberFormatException e) {
+               log.debugf("Ignoring file %s, it is not a log file", f);
+            }
+         }
+      }
+      Collections.sort(ids);
+
+      for (int id : ids) {
+         LogFile logFile = openLogFile(id);
+         logFile.sealed = true;
+         boolean hinted = logFile.hintFile.exists();
+         if (hinted)
+            readHints(logFile);
+         // the hint file of the log file that was current only lists the records written before its last compaction
+         if (!hinted || logFile.size < logFile.channel.size()) {
+            scanRecords(logFile, logFile.size);
+            writeHintFile(logFile);
+         }
+         logFile.hints = null;
+         nextFileId = id + 1;
+      }
+   }
+
+   private void readHints(LogFile logFile) throws Exception {
+      DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(logFile.hintFile)));
+      try {
+         for (;;) {
+            int keyLen;
+            try {
+               keyLen = in.readInt();
+            } catch (EOFException e) {
+               return;
+            }
+            int dataLen = in.readInt();
+            long expiryTime = in.readLong();
+            long offset = in.readLong();
+            byte[] key = new byte[keyLen];
+            in.readFully(key);
+            LogEntry logEntry = new LogEntry(logFile.id, offset, keyLen, dataLen, expiryTime);
+            index(logFile, logEntry, key);
+            logFile.addHint(logEntry, key);
+         }
+      } finally {
+         in.close();
+      }
+   }
+
+   /**
+    * Reads the records of a log file from the given offset, and truncates the file before the first invalid record.
+    */
+   private void scanRecords(LogFile logFile, long offset) throws Exception {
+      ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+      long fileSize = logFile.channel.size();
+      while (offset < fileSize) {
+         if (offset + RECORD_HEADER > fileSize) {
+            truncate(logFile, offset);
+            break;
+         }
+         header.clear();
+         readFully(logFile.channel, header, offset);
+         header.flip();
+         int checksum = header.getInt();
+         int keyLen = header.getInt();
+         int dataLen = header.getInt();
+         long expiryTime = header.getLong();
+         long size = (long) RECORD_HEADER + keyLen + Math.max(dataLen, 0);
+         if (keyLen <= 0 || dataLen < TOMBSTONE || offset + size > fileSize) {
+            truncate(logFile, offset);
+            break;
+         }
+         ByteBuffer body = ByteBuffer.allocate(keyLen + Math.max(dataLen, 0));
+         readFully(logFile.channel, body, offset + RECORD_HEADER);
+         if (checksum != checksum(header, body.array())) {
+            truncate(logFile, offset);
+            break;
+         }
+         LogEntry logEntry = new LogEntry(logFile.id, offset, keyLen, dataLen, expiryTime);
+         byte[] key = new byte[keyLen];
+         System.arraycopy(body.array(), 0, key, 0, keyLen);
+         index(logFile, logEntry, key);
+         logFile.addHint(logEntry, key);
+         offset += size;
+      }
+      logFile.size = offset;
+   }
+
+   private void truncate(LogFile logFile, long offset) throws IOException {
+      log.truncatingLogFile(logFile.file.getAbsolutePath(), offset);
+      logFile.channel.truncate(offset);
+   }
+
+   private void index(LogFile logFile, LogEntry logEntry, byte[] key) throws Exception {
+      Object k = getMarshaller().objectFromByteBuffer(key);
+      LogEntry previous;
+      if (logEntry.isTombstone()) {
+         previous = entries.remove(k);
+         logFile.deadBytes.addAndGet(logEntry.size());
+      } else {
+         previous = entries.put(k, logEntry);
+      }
+      if (previous != null)
+         markDead(previous);
+      logFile.size = Math.max(logFile.size, logEntry.offset + logEntry.size());
+   }
+
+   private LogFile openLogFile(int id) throws IOException {
+      File file = new File(directory, id + LOG_EXTENSION);
+      File hintFile = new File(directory, id + HINT_EXTENSION);
+      LogFile logFile = new LogFile(id, file, hintFile, new RandomAccessFile(file, "rw").getChannel());
+      files.put(id, logFile);
+      return logFile;
+   }
+
+   private void deleteLogFile(LogFile logFile) throws IOException {
+      files.remove(logFile.id, logFile);
+      logFile.channel.close();
+      if (!logFile.file.delete() && logFile.file.exists())
+         log.debugf("Unable to delete log file %s", logFile.file);
+      if (!logFile.hintFile.delete() && logFile.hintFile.exists())
+         log.debugf("Unable to delete hint file %s", logFile.hintFile);
+   }
+
+   /**
+    * Makes a log file immutable: forces its contents to disk and writes its hint file.
+    */
+   private void seal(LogFile logFile) throws IOException {
+      logFile.channel.force(false);
+      writeHintFile(logFile);
+      logFile.hints = null;
+      logFile.sealed = true;
+   }
+
+   private void writeHintFile(LogFile logFile) throws IOException {
+      // write to a temporary file first, so that a hint file is always complete
+      File tmp = new File(directory, logFile.hintFile.getName() + TMP_EXTENSION);
+      FileOutputStream out = new FileOutputStream(tmp);
+      try {
+         logFile.hints.writeTo(out);
+         out.getFD().sync();
+      } finally {
+         out.close();
+      }
+      if (!tmp.renameTo(logFile.hintFile))
+         throw new IOException("Unable to rename " + tmp + " to " + logFile.hintFile);
+   }
+
+   /**
+    * {@inheritDoc}
+    * <p/>
+    * The base class implementation calls {@link #load(Object)} for this, we can do better because
+    * we keep all keys in memory.
+    */
+   @Override
+   public boolean containsKey(Object key) throws CacheLoaderException {
+      return entries.containsKey(key);
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public void store(InternalCacheEntry entry) throws CacheLoaderException {
+      PooledBuffer record = bufferPool.acquire();
+      try {
+         record.setSize(RECORD_HEADER);
+         MarshallingBufferPool.marshall(getMarshaller(), entry.getKey(), record);
+         int keyLen = record.size() - RECORD_HEADER;
+         MarshallingBufferPool.marshall(getMarshaller(), entry.toInternalCacheValue(), record);
+         append(entry.getKey(), record, keyLen, record.size() - RECORD_HEADER - keyLen, entry.getExpiryTime(),
+               false, null);
+      } catch (Exception e) {
+         throw new CacheLoaderException(e);
+      } finally {
+         bufferPool.release(record);
+      }
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public boolean remove(Object key) throws CacheLoaderException {
+      if (!entries.containsKey(key))
+         return false;
+      PooledBuffer record = bufferPool.acquire();
+      try {
+         record.setSize(RECORD_HEADER);
+         MarshallingBufferPool.marshall(getMarshaller(), key, record);
+         return append(key, record, record.size() - RECORD_HEADER, TOMBSTONE, -1, false, null) != null;
+      } catch (Exception e) {
+         throw new CacheLoaderException(e);
+      } finally {
+         bufferPool.release(record);
+      }
+   }
+
+   /**
+    * Records the removal of a key, if it still maps to {@code expected}.
+    */
+   private void appendTombstone(Object key, LogEntry expected) throws Exception {
+      PooledBuffer record = bufferPool.acquire();
+      try {
+         record.setSize(RECORD_HEADER);
+         MarshallingBufferPool.marshall(getMarshaller(), key, record);
+         append(key, record, record.size() - RECORD_HEADER, TOMBSTONE, -1, true, expected);
+      } finally {
+         bufferPool.release(record);
+      }
+   }
+
+   /**
+    * Appends a record to the active log file and updates the index.
+    *
+    * @param data the serialized value, or {@code null} to record the removal of the key
+    * @param copy whether the record is only appended if the key still maps to {@code expected}, e.g. because it is
+    *             copied from a log file being compacted
+    * @return the entry the key mapped to before
+    */
+   private LogEntry append(Object key, byte[] keyBytes, byte[] data, long expiryTime, boolean copy, LogEntry expected)
+         throws IOException {
+      PooledBuffer record = bufferPool.acquire();
+      try {
+         record.setSize(RECORD_HEADER);
+         record.write(keyBytes);
+         if (data != null)
+            record.write(data);
+         return append(key, record, keyBytes.length, data == null ? TOMBSTONE : data.length, expiryTime, copy,
+               expected);
+      } finally {
+         bufferPool.release(record);
+      }
+   }
+
+   /**
+    * Like {@link #append(Object, byte[], byte[], long, boolean, LogEntry)}, for a record whose key and value have
+    * been serialized after {@link #RECORD_HEADER} bytes left for its header.
+    */
+   private LogEntry append(Object key, PooledBuffer record, int keyLen, int dataLen, long expiryTime, boolean copy,
+                           LogEntry expected) throws IOException {
+      ByteBuffer buf = ByteBuffer.wrap(record.getBuf(), 0, record.size());
+      buf.putInt(0);
+      buf.putInt(keyLen);
+      buf.putInt(dataLen);
+      buf.putLong(expiryTime);
+      CRC32 crc = new CRC32();
+      crc.update(record.getBuf(), 4, record.size() - 4);
+      buf.putInt(0, (int) crc.getValue());
+      buf.rewind();
+
+      synchronized (appendLock) {
+         if (copy && entries.get(key) != expected)
+            return null;
+
+         LogFile logFile = activeFile;
+         if (logFile.size > 0 && logFile.size + buf.remaining() > configuration.maxFileSize()) {
+            seal(logFile);
+            logFile = activeFile = openLogFile(nextFileId++);
+         }
+         long offset = logFile.size;
+         while (buf.hasRemaining())
+            logFile.channel.write(buf, offset + buf.position());
+
+         LogEntry logEntry = new LogEntry(logFile.id, offset, keyLen, dataLen, expiryTime);
+         logFile.size = offset + logEntry.size();
+         logFile.addHint(logEntry, record.getBuf(), RECORD_HEADER);
+
+         LogEntry previous;
+         if (logEntry.isTombstone()) {
+            previous = entries.remove(key);
+            logFile.deadBytes.addAndGet(logEntry.size());
+         } else {
+            previous = entries.put(key, logEntry);
+         }
+         if (previous != null)
+            markDead(previous);
+         return previous;
+      }
+   }
+
+   private void markDead(LogEntry logEntry) {
+      LogFile logFile = files.get(logEntry.fileId);
+      if (logFile != null)
+         logFile.deadBytes.addAndGet(logEntry.size());
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public void clear() throws CacheLoaderException {
+      compactionLock.lock();
+      try {
+         synchronized (appendLock) {
+            entries.clear();
+            for (LogFile logFile : files.values())
+               deleteLogFile(logFile);
+            activeFile = openLogFile(nextFileId++);
+         }
+      } catch (Exception e) {
+         throw new CacheLoaderException(e);
+      } finally {
+         compactionLock.unlock();
+      }
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public InternalCacheEntry load(Object key) throws CacheLoaderException {
+      try {
+         for (;;) {
+            LogEntry logEntry = entries.get(key);
+            if (logEntry == null)
+               return null;
+
+            if (logEntry.isExpired(timeService.wallClockTime())) {
+               appendTombstone(key, logEntry);
+               return null;
+            }
+
+            LogFile logFile = files.get(logEntry.fileId);
+            if (logFile != null) {
+               ByteBuffer data = ByteBuffer.allocate(logEntry.dataLen);
+               try {
+                  readFully(logFile.channel, data, logEntry.offset + RECORD_HEADER + logEntry.keyLen);
+                  return ((InternalCacheValue) getMarshaller().objectFromByteBuffer(data.array()))
+                        .toInternalCacheEntry(key);
+               } catch (ClosedChannelException e) {
+                  // the file was compacted or cleared, unless the key still maps to it
+                  if (files.get(logEntry.fileId) == logFile && entries.get(key) == logEntry)
+                     throw e;
+               }
+            }
+            // the file was compacted or cleared concurrently, look up the key again
+         }
+      } catch (Exception e) {
+         throw new CacheLoaderException(e);
+      }
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public Set<InternalCacheEntry> loadAll() throws CacheLoaderException {
+      return load(Integer.MAX_VALUE);
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public Set<InternalCacheEntry> load(int numEntries) throws CacheLoaderException {
+      Set<Object> keys = loadAllKeys(null);
+      Set<InternalCacheEntry> result = new HashSet<InternalCacheEntry>();
+      for (Object key : keys) {
+         InternalCacheEntry ice = load(key);
+         if (ice != null) {
+            result.add(ice);
+            if (result.size() >= numEntries)
+               return result;
+         }
+      }
+      return result;
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public Set<Object> loadAllKeys(Set<Object> keysToExclude) throws CacheLoaderException {
+      Set<Object> result;
+      synchronized (entries) {
+         result = new HashSet<Object>(entries.keySet());
+      }
+      if (keysToExclude != null)
+         result.removeAll(keysToExclude);
+      return result;
+   }
+
+   /**
+    * {@inheritDoc}
+    * <p/>
+    * Only appends a tombstone for each expired entry, the space of their records is reclaimed by the compactor.
+    */
+   @Override
+   protected void purgeInternal() throws CacheLoaderException {
+      long now = timeService.wallClockTime();
+      List<Map.Entry<Object, LogEntry>> expired = new ArrayList<Map.Entry<Object, LogEntry>>();
+      synchronized (entries) {
+         for (Map.Entry<Object, LogEntry> entry : entries.entrySet()) {
+            if (entry.getValue().isExpired(now))
+               expired.add(new AbstractMap.SimpleImmutableEntry<Object, LogEntry>(entry));
+         }
+      }
+      try {
+         for (Map.Entry<Object, LogEntry> entry : expired)
+            appendTombstone(entry.getKey(), entry.getValue());
+      } catch (Exception e) {
+         throw new CacheLoaderException(e);
+      }
+   }
+
+   /**
+    * Compacts the sealed log files in which the ratio of obsolete data has reached the compaction threshold.
+    * This runs periodically in the background, but may also be invoked directly.
+    */
+   void compact() {
+      for (LogFile logFile : files.values()) {
+         if (!logFile.sealed || logFile == activeFile
+               || logFile.deadBytes.get() < logFile.size * configuration.compactionThreshold())
+            continue;
+         compactionLock.lock();
+         try {
+            if (files.get(logFile.id) == logFile)
+               compact(logFile);
+         } catch (Exception e) {
+            log.problemCompactingLogFile(logFile.file.getAbsolutePath(), e);
+         } finally {
+            compactionLock.unlock();
+         }
+      }
+   }
+
+   /**
+    * Copies the live records of a sealed log file to the active log file, and deletes the file once the copies are
+    * durable.
+    */
+   private void compact(LogFile logFile) throws Exception {
+      if (log.isTraceEnabled())
+         log.tracef("Compacting log file %s, %d of %d bytes are obsolete", logFile.file,
+               logFile.deadBytes.get(), logFile.size);
+      // the removals recorded in the oldest file cannot hide any older record
+      boolean oldest = files.firstKey() == logFile.id;
+      Set<Object> tombstones = new HashSet<Object>();
+      boolean copied = false;
+      DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(logFile.file)));
+      try {
+         long offset = 0;
+         while (offset < logFile.size) {
+            in.readInt(); // checksum, verified on startup
+            int keyLen = in.readInt();
+            int dataLen = in.readInt();
+            long expiryTime = in.readLong();
+            byte[] keyBytes = new byte[keyLen];
+            in.readFully(keyBytes);
+            byte[] data = null;
+            if (dataLen != TOMBSTONE) {
+               data = new byte[dataLen];
+               in.readFully(data);
+            }
+
+            Object key = getMarshaller().objectFromByteBuffer(keyBytes);
+            LogEntry current = entries.get(key);
+            if (current != null && current.fileId == logFile.id && current.offset == offset) {
+               copied |= append(key, keyBytes, data, expiryTime, true, current) != null;
+            } else if (!oldest && current == null && tombstones.add(key)) {
+               // a removal must survive as long as an older file may hold a record of the key, so a tombstone is kept
+               // both for the removals and for the values of the keys that were removed since
+               append(key, keyBytes, null, -1, true, null);
+               copied = true;
+            }
+            offset += RECORD_HEADER + keyLen + (data == null ? 0 : dataLen);
+         }
+      } finally {
+         in.close();
+      }
+      if (copied) {
+         // the records were durable in the compacted file, so they must be durable in the active file, and listed in
+         // its hint file, before the compacted file is deleted
+         synchronized (appendLock) {
+            activeFile.channel.force(false);
+            writeHintFile(activeFile);
+         }
+      }
+      deleteLogFile(logFile);
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public void fromStream(ObjectInput inputStream) throws CacheLoaderException {
+      try {
+         for (;;) {
+            Object o = getMarshaller().objectFromObjectStream(inputStream);
+            if (!(o instanceof InternalCacheEntry))
+               break;
+            store((InternalCacheEntry) o);
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      } catch (CacheLoaderException e) {
+         throw e;
+      } catch (Exception e) {
+         throw new CacheLoaderException("Unable to read the entries from the stream", e);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    * <p/>
+    * Writes the live entries, read through the index, followed by a delimiter.
+    */
+   @Override
+   public void toStream(ObjectOutput outputStream) throws CacheLoaderException {
+      try {
+         for (Object key : loadAllKeys(null)) {
+            InternalCacheEntry ice = load(key);
+            if (ice != null)
+               getMarshaller().objectToObjectStream(ice, outputStream);
+         }
+         getMarshaller().objectToObjectStream(STREAM_DELIMITER, outputStream);
+      } catch (IOException e) {
+         throw new CacheLoaderException("Unable to write the entries to the stream", e);
+      }
+   }
+
+   Map<Object, LogEntry> getEntries() {
+      return entries;
+   }
+
+   int getLogFileCount() {
+      return files.size();
+   }
+
+   private static void readFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+      while (buf.hasRemaining()) {
+         if (channel.read(buf, position + buf.position()) < 0)
+            throw new EOFException();
+      }
+   }
+
+   private static int checksum(ByteBuffer header, byte[] body) {
+      CRC32 crc = new CRC32();
+      crc.update(header.array(), 4, RECORD_HEADER - 4);
+      crc.update(body);
+      return (int) crc.getValue();
+   }
+
+   /**
+    * A log file, and the size of its obsolete records.
+    */
+   private static class LogFile {
+      private final int id;
+      private final File file;
+      private final File hintFile;
+      private final FileChannel channel;
+      /**
+       * Bytes written to the file, only modified under the append lock.
+       */
+      private volatile long size;
+      /**
+       * Bytes of the records that were overwritten, removed or expired, or that record a removal.
+       */
+      private final AtomicLong deadBytes = new AtomicLong();
+      /**
+       * Whether the file is no longer appended to.
+       */
+      private volatile boolean sealed;
+      /**
+       * The contents of the hint file, until the file is sealed.
+       */
+      private ByteArrayOutputStream hints = new ByteArrayOutputStream();
+      private DataOutputStream hintsOut = new DataOutputStream(new BufferedOutputStream(hints));
+
+      private LogFile(int id, File file, File hintFile, FileChannel channel) {
+         this.id = id;
+         this.file = file;
+         this.hintFile = hintFile;
+         this.channel = channel;
+      }
+
+      /**
+       * Records the key and position of a record for the hint file. The format of a hint is as follows:
+       * <ul>
+       * <li>4 bytes: key length</li>
+       * <li>4 bytes: data length, -1 for a removal</li>
+       * <li>8 bytes: expiry time</li>
+       * <li>8 bytes: offset of the record in the log file</li>
+       * <li>key length bytes: serialized key</li>
+       * </ul>
+       */
+      private void addHint(LogEntry logEntry, byte[] key) throws IOException {
+         addHint(logEntry, key, 0);
+      }
+
+      private void addHint(LogEntry logEntry, byte[] buf, int keyOffset) throws IOException {
+         hintsOut.writeInt(logEntry.keyLen);
+         hintsOut.writeInt(logEntry.dataLen);
+         hintsOut.writeLong(logEntry.expiryTime);
+         hintsOut.writeLong(logEntry.offset);
+         hintsOut.write(buf, keyOffset, logEntry.keyLen);
+         hintsOut.flush();
+      }
+   }
+
+   /**
+    * The position of the latest record of a key.
+    * <p/>
+    * The format of a record in a log file is as follows:
+    * <ul>
+    * <li>4 bytes: CRC32 checksum of the rest of the record</li>
+    * <li>4 bytes: {@link #keyLen}</li>
+    * <li>4 bytes: {@link #dataLen}, -1 for a removal</li>
+    * <li>8 bytes: {@link #expiryTime}</li>
+    * <li>{@link #keyLen} bytes: serialized key</li>
+    * <li>{@link #dataLen} bytes: serialized data</li>
+    * </ul>
+    */
+   static class LogEntry {
+      private final int fileId;
+      private final long offset;
+      private final int keyLen;
+      private final int dataLen;
+      private final long expiryTime;
+
+      private LogEntry(int fileId, long offset, int keyLen, int dataLen, long expiryTime) {
+         this.fileId = fileId;
+         this.offset = offset;
+         this.keyLen = keyLen;
+         this.dataLen = dataLen;
+         this.expiryTime = expiryTime;
+      }
+
+      private boolean isTombstone() {
+         return dataLen == TOMBSTONE;
+      }
+
+      private int size() {
+         return RECORD_HEADER + keyLen + Math.max(dataLen, 0);
+      }
+
+      private boolean isExpired(long now) {
+         return expiryTime > 0 && expiryTime < now;
+      }
+
+      int getFileId() {
+         return fileId;
+      }
+   }
+}
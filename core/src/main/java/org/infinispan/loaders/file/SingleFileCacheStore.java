@@ -5,16 +5,27 @@
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.infinispan.Cache;
 import org.infinispan.commons.equivalence.AnyEquivalence;
@@ -29,6 +40,9 @@
 import org.infinispan.loaders.spi.AbstractCacheStore;
 import org.infinispan.loaders.spi.CacheStore;
 import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.loaders.spi.ParallelProcessor;
+import org.infinispan.marshall.core.MarshallingBufferPool;
+import org.infinispan.marshall.core.MarshallingBufferPool.PooledBuffer;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -53,6 +67,11 @@
  * data loss, and data can be recomputed or re-queried from the original data
  * source.
  * <p/>
+ * For read-mostly stores, the data file can optionally be mapped into
+ * memory (see {@link SingleFileCacheStoreConfiguration#memoryMapped()}), so
+ * that loads copy the values out of the mapping instead of issuing a read
+ * system call each.
+ * <p/>
  * This class is fully thread safe, yet allows for concurrent load / store
  * of individual cache entries.
  *
@@ -75,6 +94,20 @@ public class SingleFileCacheStore extends AbstractCacheStore {
    private SortedSet<FileEntry> freeList;
    private long filePos = MAGIC.length;
 
+   /**
+    * Read-only mappings of the data file, one per window of
+    * {@link SingleFileCacheStoreConfiguration#mappedWindowSize()} bytes, or
+    * null if memory mapped reads are disabled. The array is replaced rather
+    * than modified. When the file grows beyond the mapped part of a window,
+    * the window is mapped again and the previous mapping is released, which
+    * is why readers copy from the mappings while holding the read lock of
+    * {@link #mappingLock}, and the mappings are only replaced or released
+    * while holding its write lock.
+    */
+   private volatile MappedByteBuffer[] windows;
+   private final ReadWriteLock mappingLock = new ReentrantReadWriteLock();
+
+   private MarshallingBufferPool bufferPool;
 
    /** {@inheritDoc} */
    @Override
@@ -88,6 +121,9 @@ public void init(CacheLoaderConfiguration configuration, Cache<?, ?> cache, Stre
    @Override
    public void start() throws CacheLoaderException {
       super.start();
+      bufferPool = cache.getAdvancedCache().getComponentRegistry().getComponent(MarshallingBufferPool.class);
+      if (bufferPool == null)
+         bufferPool = new MarshallingBufferPool();
       try {
          // open the data file
          String location = configuration.location();
@@ -106,6 +142,8 @@ public void start() throws CacheLoaderException {
          // initialize data structures
          entries = newEntryMap();
          freeList = Collections.synchronizedSortedSet(new TreeSet<FileEntry>());
+         if (configuration.memoryMapped())
+            windows = new MappedByteBuffer[0];
 
          // check file format and read persistent state if enabled for the cache
          byte[] header = new byte[MAGIC.length];
@@ -138,6 +176,7 @@ public void stop() throws CacheLoaderException {
       try {
          if (file != null) {
             // reset state
+            releaseMappings(null);
             file.close();
             file = null;
             entries = null;
@@ -256,28 +295,26 @@ private void free(FileEntry fe) throws IOException {
    /** {@inheritDoc} */
    @Override
    public void store(InternalCacheEntry entry) throws CacheLoaderException {
+      PooledBuffer buf = bufferPool.acquire();
       try {
-         // serialize cache value
-         byte[] key = getMarshaller().objectToByteBuffer(entry.getKey());
-         byte[] data = getMarshaller().objectToByteBuffer(entry.toInternalCacheValue());
+         // serialize key and cache value after the space for the header
+         buf.setSize(KEY_POS);
+         MarshallingBufferPool.marshall(getMarshaller(), entry.getKey(), buf);
+         int keyLen = buf.size() - KEY_POS;
+         MarshallingBufferPool.marshall(getMarshaller(), entry.toInternalCacheValue(), buf);
 
          // allocate file entry and store in cache file
-         int len = KEY_POS + key.length + data.length;
+         int len = buf.size();
          FileEntry fe = allocate(len);
          try {
             fe.expiryTime = entry.getExpiryTime();
-            fe.keyLen = key.length;
-            fe.dataLen = data.length;
-
-            ByteBuffer buf = ByteBuffer.allocate(len);
-            buf.putInt(fe.size);
-            buf.putInt(fe.keyLen);
-            buf.putInt(fe.dataLen);
-            buf.putLong(fe.expiryTime);
-            buf.put(key);
-            buf.put(data);
-            buf.flip();
-            file.write(buf, fe.offset);
+            fe.keyLen = keyLen;
+            fe.dataLen = len - KEY_POS - keyLen;
+
+            ByteBuffer bb = ByteBuffer.wrap(buf.getBuf(), 0, len);
+            putHeader(bb, fe);
+            bb.rewind();
+            file.write(bb, fe.offset);
 
             // add the new entry to in-memory index
             fe = entries.put(entry.getKey(), fe);
@@ -291,6 +328,123 @@ public void store(InternalCacheEntry entry) throws CacheLoaderException {
          }
       } catch (Exception e) {
          throw new CacheLoaderException(e);
+      } finally {
+         bufferPool.release(buf);
+      }
+   }
+
+   private static void putHeader(ByteBuffer buf, FileEntry fe) {
+      buf.putInt(fe.size);
+      buf.putInt(fe.keyLen);
+      buf.putInt(fe.dataLen);
+      buf.putLong(fe.expiryTime);
+   }
+
+   /**
+    * {@inheritDoc}
+    * <p/>
+    * Space for all the entries is allocated at once, so that the entries that
+    * do not fit in free space are appended to the file as one block, with a
+    * single write.
+    */
+   @Override
+   public void storeBatch(Collection<InternalCacheEntry> batch) throws CacheLoaderException {
+      InternalCacheEntry[] batchEntries = batch.toArray(new InternalCacheEntry[batch.size()]);
+      FileEntry[] fes = new FileEntry[batchEntries.length];
+      PooledBuffer buf = bufferPool.acquire();
+      try {
+         // serialize keys and cache values one after the other, each after the space for its header
+         int[] bufOffsets = new int[batchEntries.length];
+         int[] keyLens = new int[batchEntries.length];
+         int[] lens = new int[batchEntries.length];
+         for (int i = 0; i < batchEntries.length; i++) {
+            bufOffsets[i] = buf.size();
+            buf.setSize(bufOffsets[i] + KEY_POS);
+            MarshallingBufferPool.marshall(getMarshaller(), batchEntries[i].getKey(), buf);
+            keyLens[i] = buf.size() - bufOffsets[i] - KEY_POS;
+            MarshallingBufferPool.marshall(getMarshaller(), batchEntries[i].toInternalCacheValue(), buf);
+            lens[i] = buf.size() - bufOffsets[i];
+         }
+
+         // allocate file entries
+         synchronized (freeList) {
+            for (int i = 0; i < batchEntries.length; i++)
+               fes[i] = allocate(lens[i]);
+         }
+
+         // fill in the headers
+         ByteBuffer bb = ByteBuffer.wrap(buf.getBuf(), 0, buf.size());
+         for (int i = 0; i < batchEntries.length; i++) {
+            FileEntry fe = fes[i];
+            fe.expiryTime = batchEntries[i].getExpiryTime();
+            fe.keyLen = keyLens[i];
+            fe.dataLen = lens[i] - KEY_POS - keyLens[i];
+            bb.position(bufOffsets[i]);
+            putHeader(bb, fe);
+         }
+
+         // write contiguous file entries with a single write
+         Integer[] order = new Integer[batchEntries.length];
+         for (int i = 0; i < order.length; i++)
+            order[i] = i;
+         final FileEntry[] allocated = fes;
+         Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer i1, Integer i2) {
+               long diff = allocated[i1].offset - allocated[i2].offset;
+               return diff < 0 ? -1 : (diff == 0 ? 0 : 1);
+            }
+         });
+         int start = 0;
+         while (start < order.length) {
+            int end = start + 1;
+            long runEnd = fes[order[start]].offset + lens[order[start]];
+            // the run can be written straight from the buffer if its entries were serialized in file order
+            boolean inBufferOrder = true;
+            while (end < order.length && fes[order[end]].offset == runEnd) {
+               runEnd += lens[order[end]];
+               inBufferOrder &= bufOffsets[order[end]] == bufOffsets[order[end - 1]] + lens[order[end - 1]];
+               end++;
+            }
+            int runLen = (int) (runEnd - fes[order[start]].offset);
+
+            if (inBufferOrder) {
+               file.write(ByteBuffer.wrap(buf.getBuf(), bufOffsets[order[start]], runLen), fes[order[start]].offset);
+            } else {
+               PooledBuffer runBuf = bufferPool.acquire();
+               try {
+                  for (int k = start; k < end; k++)
+                     runBuf.write(buf.getBuf(), bufOffsets[order[k]], lens[order[k]]);
+                  file.write(ByteBuffer.wrap(runBuf.getBuf(), 0, runLen), fes[order[start]].offset);
+               } finally {
+                  bufferPool.release(runBuf);
+               }
+            }
+            start = end;
+         }
+
+         // add the new entries to in-memory index
+         for (int i = 0; i < batchEntries.length; i++) {
+            FileEntry fe = entries.put(batchEntries[i].getKey(), fes[i]);
+            fes[i] = null;
+            // if we added an entry, check if we need to evict something
+            if (fe == null)
+               fe = evict();
+            // in case we replaced or evicted an entry, add to freeList
+            free(fe);
+         }
+      } catch (Exception e) {
+         // release the space of the entries that were not indexed
+         for (FileEntry fe : fes) {
+            try {
+               free(fe);
+            } catch (Exception ignored) {
+               // report the original failure
+            }
+         }
+         throw new CacheLoaderException(e);
+      } finally {
+         bufferPool.release(buf);
       }
    }
 
@@ -329,7 +483,9 @@ public void clear() throws CacheLoaderException {
                entries.clear();
                freeList.clear();
 
-               // reset file
+               // reset file, releasing the mappings of the truncated part
+               if (windows != null)
+                  releaseMappings(new MappedByteBuffer[0]);
                file.truncate(0);
                file.write(ByteBuffer.wrap(MAGIC), 0);
                filePos = MAGIC.length;
@@ -365,7 +521,7 @@ public InternalCacheEntry load(Object key) throws CacheLoaderException {
                return null;
 
             // if expired, remove the entry (within entries monitor)
-            expired = fe.isExpired(System.currentTimeMillis());
+            expired = fe.isExpired(timeService.wallClockTime());
             if (expired)
                entries.remove(key);
 
@@ -382,8 +538,7 @@ public InternalCacheEntry load(Object key) throws CacheLoaderException {
             }
 
             // load serialized data from disk
-            data = new byte[fe.dataLen];
-            file.read(ByteBuffer.wrap(data), fe.offset + KEY_POS + fe.keyLen);
+            data = readData(fe);
          } finally {
             // no need to keep the lock for deserialization
             fe.unlock();
@@ -396,6 +551,138 @@ public InternalCacheEntry load(Object key) throws CacheLoaderException {
       }
    }
 
+   /**
+    * Reads the serialized data of a file entry, which must be locked for reading.
+    */
+   private byte[] readData(FileEntry fe) throws IOException {
+      byte[] data = new byte[fe.dataLen];
+      long pos = fe.offset + KEY_POS + fe.keyLen;
+      if (windows == null || !readMapped(pos, data))
+         file.read(ByteBuffer.wrap(data), pos);
+      return data;
+   }
+
+   /**
+    * Copies the bytes at the specified file position out of the mapped data
+    * file.
+    *
+    * @return false if the bytes cross the boundary between two windows, or
+    *         the store was stopped, so they must be read from the file
+    */
+   private boolean readMapped(long pos, byte[] data) throws IOException {
+      int windowSize = configuration.mappedWindowSize();
+      int index = (int) (pos / windowSize);
+      int start = (int) (pos % windowSize);
+      if (start + data.length > windowSize)
+         return false;
+
+      Lock readLock = mappingLock.readLock();
+      readLock.lock();
+      try {
+         MappedByteBuffer window = window(index, start + data.length);
+         if (window == null) {
+            // the lock can't be upgraded, map the window while not holding it
+            readLock.unlock();
+            try {
+               map(index, start + data.length);
+            } finally {
+               readLock.lock();
+            }
+            window = window(index, start + data.length);
+            if (window == null)
+               return false;
+         }
+
+         ByteBuffer view = window.duplicate();
+         view.position(start);
+         view.get(data);
+         return true;
+      } finally {
+         readLock.unlock();
+      }
+   }
+
+   /**
+    * Returns the current mapping of a window, or null if the window isn't
+    * mapped up to minSize bytes.
+    */
+   private MappedByteBuffer window(int index, int minSize) {
+      MappedByteBuffer[] current = windows;
+      MappedByteBuffer window = current != null && index < current.length ? current[index] : null;
+      return window != null && window.capacity() >= minSize ? window : null;
+   }
+
+   /**
+    * Maps (again) a window of the data file, up to the current end of file,
+    * and releases its previous mapping.
+    *
+    * @param minSize the number of bytes of the window the mapping must cover
+    */
+   private void map(int index, int minSize) throws IOException {
+      Lock writeLock = mappingLock.writeLock();
+      writeLock.lock();
+      try {
+         MappedByteBuffer[] current = windows;
+         if (current == null || window(index, minSize) != null)
+            return;
+
+         // the data being read was written before its entry was indexed, so the file covers it
+         long windowPos = (long) index * configuration.mappedWindowSize();
+         long size = Math.min(configuration.mappedWindowSize(), file.size() - windowPos);
+         MappedByteBuffer window = file.map(FileChannel.MapMode.READ_ONLY, windowPos, size);
+
+         MappedByteBuffer[] updated = Arrays.copyOf(current, Math.max(current.length, index + 1));
+         MappedByteBuffer previous = updated[index];
+         updated[index] = window;
+         windows = updated;
+         if (previous != null)
+            unmap(previous);
+      } finally {
+         writeLock.unlock();
+      }
+   }
+
+   /**
+    * Releases all the mappings of the data file, once no reader uses them.
+    *
+    * @param replacement the mappings to use from now on, or null to stop
+    *                    reading from mappings
+    */
+   private void releaseMappings(MappedByteBuffer[] replacement) {
+      Lock writeLock = mappingLock.writeLock();
+      writeLock.lock();
+      try {
+         MappedByteBuffer[] current = windows;
+         windows = replacement;
+         if (current != null) {
+            for (MappedByteBuffer window : current) {
+               if (window != null)
+                  unmap(window);
+            }
+         }
+      } finally {
+         writeLock.unlock();
+      }
+   }
+
+   /**
+    * Releases a mapping right away rather than when the buffer is garbage
+    * collected. The buffer must not be used afterwards. The cleaner of the
+    * buffer is looked up reflectively, since it isn't part of the public API.
+    */
+   private static void unmap(MappedByteBuffer buffer) {
+      try {
+         Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+         cleanerMethod.setAccessible(true);
+         Object cleaner = cleanerMethod.invoke(buffer);
+         if (cleaner != null)
+            cleaner.getClass().getMethod("clean").invoke(cleaner);
+      } catch (Exception e) {
+         // the mapping is released when the buffer is garbage collected
+         log.tracef(e, "Unable to release mapping %s", buffer);
+      }
+   }
+
    /** {@inheritDoc} */
    @Override
    public Set<InternalCacheEntry> loadAll() throws CacheLoaderException {
@@ -430,10 +717,37 @@ public Set<Object> loadAllKeys(Set<Object> keysToExclude) throws CacheLoaderExce
       return result;
    }
 
+   /**
+    * {@inheritDoc} The keys are in memory already: this implementation loads the entries in the order of their
+    * position in the file, so that each batch reads a region of the file sequentially.
+    */
+   @Override
+   public void process(KeyFilter filter, CacheLoaderTask task, Executor executor) throws CacheLoaderException {
+      final Map<Object, FileEntry> snapshot = new IdentityHashMap<Object, FileEntry>();
+      long now = timeService.wallClockTime();
+      synchronized (entries) {
+         for (Map.Entry<Object, FileEntry> e : entries.entrySet()) {
+            if (!e.getValue().isExpired(now))
+               snapshot.put(e.getKey(), e.getValue());
+         }
+      }
+      List<Object> keys = new ArrayList<Object>(snapshot.keySet());
+      Collections.sort(keys, new Comparator<Object>() {
+         @Override
+         public int compare(Object k1, Object k2) {
+            long diff = snapshot.get(k1).offset - snapshot.get(k2).offset;
+            return diff < 0 ? -1 : (diff == 0 ? 0 : 1);
+         }
+      });
+      ParallelProcessor processor = new ParallelProcessor(task, executor);
+      processor.submitKeys(this, keys, filter);
+      processor.awaitCompletion();
+   }
+
    /** {@inheritDoc} */
    @Override
    protected void purgeInternal() throws CacheLoaderException {
-      long now = System.currentTimeMillis();
+      long now = timeService.wallClockTime();
       synchronized (entries) {
          for (Iterator<FileEntry> it = entries.values().iterator(); it.hasNext();) {
             FileEntry fe = it.next();
@@ -2,6 +2,7 @@
 
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -66,6 +67,11 @@ public void store(InternalCacheEntry entry) throws CacheLoaderException {
       delegate.store(entry);
    }
 
+   @Override
+   public void storeBatch(Collection<InternalCacheEntry> entries) throws CacheLoaderException {
+      for (InternalCacheEntry entry : entries) delegate.store(entry);
+   }
+
    @Override
    public void fromStream(ObjectInput inputStream) throws CacheLoaderException {
       delegate.fromStream(inputStream);
@@ -6,6 +6,10 @@
 import static org.infinispan.loaders.decorators.AbstractDelegatingStore.undelegateCacheLoader;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.transaction.Transaction;
 import javax.transaction.TransactionManager;
@@ -36,7 +40,6 @@
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.configuration.ConfigurationFor;
 import org.infinispan.commons.marshall.StreamingMarshaller;
-import org.infinispan.commons.util.InfinispanCollections;
 import org.infinispan.commons.util.Util;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
@@ -216,13 +219,6 @@ public void preload() {
                start = timeService.time();
                log.debugf("Preloading transient state from cache loader %s", loader);
             }
-            Set<InternalCacheEntry> state;
-            try {
-               state = loadState();
-            } catch (CacheLoaderException e) {
-               throw new CacheException("Unable to preload!", e);
-            }
-
             List<Flag> flags = new ArrayList<Flag>(Arrays.asList(
                   CACHE_MODE_LOCAL, SKIP_OWNERSHIP_CHECK, IGNORE_RETURN_VALUES, SKIP_CACHE_STORE, SKIP_LOCKING));
 
@@ -234,14 +230,35 @@ public void preload() {
                flags.add(SKIP_INDEXING);
             }
 
-            AdvancedCache<Object, Object> flaggedCache = cache.getAdvancedCache()
+            final AdvancedCache<Object, Object> flaggedCache = cache.getAdvancedCache()
                   .withFlags(flags.toArray(new Flag[flags.size()]));
 
-            for (InternalCacheEntry e : state)
-               flaggedCache.put(e.getKey(), e.getValue(), e.getMetadata());
+            final int maxEntries = configuration.eviction().strategy().isEnabled() ? configuration.eviction().maxEntries() : -1;
+            final AtomicInteger loaded = new AtomicInteger();
+            if (maxEntries != 0) {
+               ExecutorService executor = createPreloadExecutor();
+               try {
+                  loader.process(null, new CacheLoader.CacheLoaderTask() {
+                     @Override
+                     public void processEntry(InternalCacheEntry e, CacheLoader.TaskContext taskContext) {
+                        int count = loaded.incrementAndGet();
+                        if (maxEntries > 0 && count > maxEntries) {
+                           taskContext.stop();
+                           return;
+                        }
+                        flaggedCache.put(e.getKey(), e.getValue(), e.getMetadata());
+                        if (count == maxEntries) taskContext.stop();
+                     }
+                  }, executor);
+               } catch (CacheLoaderException e) {
+                  throw new CacheException("Unable to preload!", e);
+               } finally {
+                  executor.shutdownNow();
+               }
+            }
 
             if (debugTiming) {
-               log.debugf("Preloaded %s keys in %s", state.size(),
+               log.debugf("Preloaded %s keys in %s", maxEntries > 0 ? Math.min(loaded.get(), maxEntries) : loaded.get(),
                           Util.prettyPrintTime(timeService.timeDuration(start, MILLISECONDS)));
             }
          }
@@ -252,22 +269,21 @@ private boolean localIndexingEnabled() {
       return configuration.indexing().enabled() && configuration.indexing().indexLocalOnly();
    }
 
-   private Set<InternalCacheEntry> loadState() throws CacheLoaderException {
-      int ne = -1;
-      if (configuration.eviction().strategy().isEnabled()) ne = configuration.eviction().maxEntries();
-      Set<InternalCacheEntry> state;
-      switch (ne) {
-         case -1:
-            state = loader.loadAll();
-            break;
-         case 0:
-            state = InfinispanCollections.emptySet();
-            break;
-         default:
-            state = loader.load(ne);
-            break;
-      }
-      return state;
+   /**
+    * The entries are read from the store and written to the cache by a pool of threads that only lives for the
+    * duration of the preload.
+    */
+   private ExecutorService createPreloadExecutor() {
+      final String cacheName = cache.getName();
+      final AtomicInteger threadId = new AtomicInteger();
+      return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+         @Override
+         public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "Preload-" + cacheName + "-" + threadId.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+         }
+      });
    }
 
    @Override
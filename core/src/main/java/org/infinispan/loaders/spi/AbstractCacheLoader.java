@@ -8,6 +8,8 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.concurrent.Executor;
+
 /**
  * An abstract {@link org.infinispan.loaders.spi.CacheLoader} that holds common implementations for some methods
  *
@@ -34,6 +36,17 @@ public boolean containsKey(Object key) throws CacheLoaderException {
       return load(key) != null;
    }
 
+   /**
+    * {@inheritDoc} This implementation loads the keys with {@link #loadAllKeys(java.util.Set)}, then loads the entries
+    * with {@link #load(Object)} in parallel batches. Loaders able to read their entries directly should override it.
+    */
+   @Override
+   public void process(KeyFilter filter, CacheLoaderTask task, Executor executor) throws CacheLoaderException {
+      ParallelProcessor processor = new ParallelProcessor(task, executor);
+      processor.submitKeys(this, loadAllKeys(null), filter);
+      processor.awaitCompletion();
+   }
+
    @Override
    public void init(CacheLoaderConfiguration config, Cache<?, ?> cache, StreamingMarshaller m) throws
          CacheLoaderException {
@@ -3,6 +3,7 @@
 import org.infinispan.Cache;
 import org.infinispan.configuration.cache.CacheLoaderConfiguration;
 import org.infinispan.configuration.cache.CacheStoreConfiguration;
+import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.loaders.CacheLoaderException;
 import org.infinispan.loaders.modifications.Modification;
 import org.infinispan.loaders.modifications.Remove;
@@ -16,6 +17,7 @@
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -174,6 +176,11 @@ public void commit(GlobalTransaction tx) throws CacheLoaderException {
       if (list != null && !list.isEmpty()) applyModifications(list);
    }
 
+   @Override
+   public void storeBatch(Collection<InternalCacheEntry> entries) throws CacheLoaderException {
+      for (InternalCacheEntry entry : entries) store(entry);
+   }
+
    @Override
    public void removeAll(Set<Object> keys) throws CacheLoaderException {
       if (keys != null && !keys.isEmpty()) {
@@ -7,6 +7,7 @@
 import org.infinispan.loaders.CacheLoaderException;
 
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * Responsible for loading cache data from an external source
@@ -66,6 +67,23 @@ void init(CacheLoaderConfiguration configuration, Cache<?, ?> cache, StreamingMa
     */
    Set<Object> loadAllKeys(Set<Object> keysToExclude) throws CacheLoaderException;
 
+   /**
+    * Iterates over the entries of the loader, passing each entry whose key is accepted by the filter to the task.
+    * Unlike {@link #loadAll()}, the entries are not collected in memory: they are read in batches that run in
+    * parallel on the given executor, so the task may be invoked concurrently from several threads. Expired entries
+    * are not passed to the task.
+    * <p/>
+    * The method returns once all the entries have been processed, or once the task has stopped the iteration through
+    * {@link TaskContext#stop()}.
+    *
+    * @param filter   selects the keys to process, or {@code null} to process all the entries
+    * @param task     invoked for each entry
+    * @param executor runs the batches of entries. The calling thread also runs the batches the executor has not
+    *                 started yet, so an executor with a single thread, or one running the caller itself, is fine.
+    * @throws CacheLoaderException in the event of problems reading from source, or if the task failed
+    */
+   void process(KeyFilter filter, CacheLoaderTask task, Executor executor) throws CacheLoaderException;
+
    /**
     * @param key key to test
     * @return true if the key exists, false otherwise
@@ -83,4 +101,39 @@ void init(CacheLoaderConfiguration configuration, Cache<?, ?> cache, StreamingMa
     * @return the {@link org.infinispan.configuration.cache.CacheStoreConfiguration} used.
     */
    CacheLoaderConfiguration getConfiguration();
+
+   /**
+    * Selects the keys of the entries passed to a {@link CacheLoaderTask}.
+    */
+   interface KeyFilter {
+      /**
+       * @return {@code true} if the entry mapped to the key should be loaded and passed to the task
+       */
+      boolean shouldLoadKey(Object key);
+   }
+
+   /**
+    * Receives the entries read by {@link CacheLoader#process(KeyFilter, CacheLoaderTask, Executor)}. Implementations
+    * must be thread safe.
+    */
+   interface CacheLoaderTask {
+      /**
+       * @param entry       a non expired entry of the loader
+       * @param taskContext allows the task to stop the iteration
+       */
+      void processEntry(InternalCacheEntry entry, TaskContext taskContext) throws InterruptedException;
+   }
+
+   /**
+    * Allows a {@link CacheLoaderTask} to stop the iteration it takes part in.
+    */
+   interface TaskContext {
+      /**
+       * Stops the iteration: no more entries are read, although the entries already read by other threads may still
+       * be passed to the task.
+       */
+      void stop();
+
+      boolean isStopped();
+   }
 }
@@ -7,6 +7,7 @@
 
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -28,6 +29,16 @@ public interface CacheStore extends CacheLoader{
     */
    void store(InternalCacheEntry entry) throws CacheLoaderException;
 
+   /**
+    * Bulk store operation. Implementations should write the entries with as few interactions with the underlying
+    * storage as possible, e.g. a single JDBC batch. This is used by the {@link
+    * org.infinispan.loaders.decorators.AsyncStore} to write the modifications it has buffered.
+    *
+    * @param entries entries to store, with distinct keys
+    * @throws CacheLoaderException in the event of problems writing to the store
+    */
+   void storeBatch(Collection<InternalCacheEntry> entries) throws CacheLoaderException;
+
    /**
     * Writes contents of the stream to the store.  Implementations should expect that the stream contains data in an
     * implementation-specific format, typically generated using {@link #toStream(java.io.ObjectOutput)}.  While not a
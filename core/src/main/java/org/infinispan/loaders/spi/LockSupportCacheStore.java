@@ -2,6 +2,10 @@
 
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.infinispan.Cache;
@@ -208,6 +212,75 @@ public final void store(InternalCacheEntry ed) throws CacheLoaderException {
       }
    }
 
+   /**
+    * {@inheritDoc}
+    * <p/>
+    * Write-locks all the keys of the batch, then hands it over to {@link #storeBatchLockSafe(java.util.List,
+    * java.util.List)}.
+    */
+   @Override
+   public final void storeBatch(Collection<InternalCacheEntry> entries) throws CacheLoaderException {
+      if (trace) {
+         log.tracef("storeBatch(%d entries)", entries.size());
+      }
+      List<InternalCacheEntry> toStore = new ArrayList<InternalCacheEntry>(entries.size());
+      List<L> lockingKeys = new ArrayList<L>(entries.size());
+      Set<Object> expired = null;
+      long now = timeService.wallClockTime();
+      for (InternalCacheEntry ed : entries) {
+         if (ed.canExpire() && ed.isExpired(now)) {
+            if (expired == null) expired = new HashSet<Object>();
+            expired.add(ed.getKey());
+         } else {
+            toStore.add(ed);
+            lockingKeys.add(getLockFromKey(ed.getKey()));
+         }
+      }
+      if (expired != null) {
+         if (trace) {
+            log.tracef("Removing %d expired entries", expired.size());
+         }
+         removeAll(expired);
+      }
+      if (toStore.isEmpty()) {
+         return;
+      }
+
+      locks.acquireAllLocks(lockingKeys, true);
+      try {
+         storeBatchLockSafe(toStore, lockingKeys);
+      } finally {
+         locks.releaseAllLocks(lockingKeys);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    * <p/>
+    * Write-locks all the keys, then hands them over to {@link #removeAllLockSafe(java.util.List, java.util.List)}.
+    */
+   @Override
+   public final void removeAll(Set<Object> keys) throws CacheLoaderException {
+      if (keys == null || keys.isEmpty()) {
+         return;
+      }
+      if (trace) {
+         log.tracef("removeAll(%d keys)", keys.size());
+      }
+      List<Object> toRemove = new ArrayList<Object>(keys);
+      List<L> lockingKeys = new ArrayList<L>(toRemove.size());
+      for (Object key : toRemove) {
+         lockingKeys.add(getLockFromKey(key));
+      }
+
+      locks.acquireAllLocks(lockingKeys, true);
+      try {
+         removeAllLockSafe(toRemove, lockingKeys);
+      } finally {
+         locks.releaseAllLocks(lockingKeys);
+      }
+   }
+
    @Override
    public final boolean remove(Object key) throws CacheLoaderException {
       if (trace) {
@@ -284,6 +357,32 @@ public int getTotalLockCount() {
 
    protected abstract void storeLockSafe(InternalCacheEntry ed, L lockingKey) throws CacheLoaderException;
 
+   /**
+    * Stores a batch of entries, whose keys are all write-locked. The default implementation stores them one by one,
+    * implementations should override it when they can write several entries at once.
+    *
+    * @param entries the entries to store, none of them expired
+    * @param lockingKeys the locking keys of the entries, in the same order
+    */
+   protected void storeBatchLockSafe(List<InternalCacheEntry> entries, List<L> lockingKeys) throws CacheLoaderException {
+      for (int i = 0; i < entries.size(); i++) {
+         storeLockSafe(entries.get(i), lockingKeys.get(i));
+      }
+   }
+
+   /**
+    * Removes several keys, which are all write-locked. The default implementation removes them one by one,
+    * implementations should override it when they can remove several keys at once.
+    *
+    * @param keys the keys to remove
+    * @param lockingKeys the locking keys of the keys, in the same order
+    */
+   protected void removeAllLockSafe(List<Object> keys, List<L> lockingKeys) throws CacheLoaderException {
+      for (int i = 0; i < keys.size(); i++) {
+         removeLockSafe(keys.get(i), lockingKeys.get(i));
+      }
+   }
+
    protected abstract InternalCacheEntry loadLockSafe(Object key, L lockingKey) throws CacheLoaderException;
 
    protected abstract L getLockFromKey(Object key) throws CacheLoaderException;
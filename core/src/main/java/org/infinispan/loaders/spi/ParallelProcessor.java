@@ -0,0 +1,189 @@
+package org.infinispan.loaders.spi;
+
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.loaders.CacheLoaderException;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs the batches of entries of a {@link CacheLoader#process(CacheLoader.KeyFilter, CacheLoader.CacheLoaderTask,
+ * Executor)} invocation on the given executor.
+ * <p/>
+ * The thread reading the store submits the batches and, when too many batches are pending or once it has submitted all
+ * of them, runs the batches that the executor has not started yet itself. Only a bounded number of batches is held in
+ * memory at any time, and the iteration makes progress even if the executor has no spare thread.
+ * <p/>
+ * Instances are not thread safe: they are meant to be used by the thread reading the store, the batches running on the
+ * executor only use {@link #processEntry(InternalCacheEntry)}.
+ *
+ * @since 6.0
+ */
+public class ParallelProcessor {
+   private static final Log log = LogFactory.getLog(ParallelProcessor.class);
+
+   /**
+    * The suggested number of entries, or keys, in a batch.
+    */
+   public static final int BATCH_SIZE = 128;
+
+   private static final int MAX_PENDING_BATCHES = 4 * Runtime.getRuntime().availableProcessors();
+
+   private final CacheLoader.CacheLoaderTask task;
+   private final Executor executor;
+   private final TaskContextImpl taskContext = new TaskContextImpl();
+   private final Queue<FutureTask<Void>> pending = new ArrayDeque<FutureTask<Void>>();
+
+   public ParallelProcessor(CacheLoader.CacheLoaderTask task, Executor executor) {
+      this.task = task;
+      this.executor = executor;
+   }
+
+   /**
+    * @return {@code true} if the task stopped the iteration, or a batch failed
+    */
+   public boolean isStopped() {
+      return taskContext.isStopped();
+   }
+
+   /**
+    * Passes an entry to the task, in the current thread, unless the iteration was stopped.
+    */
+   public void processEntry(InternalCacheEntry entry) throws InterruptedException {
+      if (!taskContext.isStopped()) {
+         task.processEntry(entry, taskContext);
+      }
+   }
+
+   /**
+    * Submits a batch to the executor.
+    */
+   public void submit(Callable<Void> batch) throws CacheLoaderException {
+      FutureTask<Void> future = new FutureTask<Void>(batch);
+      pending.add(future);
+      try {
+         executor.execute(future);
+      } catch (RejectedExecutionException e) {
+         log.tracef("Batch rejected by %s, running it in the current thread", executor);
+      }
+      while (pending.size() > MAX_PENDING_BATCHES) {
+         complete(pending.poll());
+      }
+   }
+
+   /**
+    * Submits a batch that passes the given entries to the task.
+    */
+   public void submitEntries(final Collection<InternalCacheEntry> entries) throws CacheLoaderException {
+      submit(new Callable<Void>() {
+         @Override
+         public Void call() throws Exception {
+            for (InternalCacheEntry entry : entries) {
+               if (taskContext.isStopped()) break;
+               task.processEntry(entry, taskContext);
+            }
+            return null;
+         }
+      });
+   }
+
+   /**
+    * Loads the keys accepted by the filter with {@link CacheLoader#load(Object)}, in batches of {@link #BATCH_SIZE}
+    * keys, and passes the entries found to the task. Only the keys are iterated in the current thread.
+    */
+   public void submitKeys(final CacheLoader loader, Iterable<?> keys, CacheLoader.KeyFilter filter) throws CacheLoaderException {
+      List<Object> batch = new ArrayList<Object>(BATCH_SIZE);
+      for (Object key : keys) {
+         if (taskContext.isStopped()) break;
+         if (filter == null || filter.shouldLoadKey(key)) {
+            batch.add(key);
+            if (batch.size() == BATCH_SIZE) {
+               submitLoad(loader, batch);
+               batch = new ArrayList<Object>(BATCH_SIZE);
+            }
+         }
+      }
+      if (!batch.isEmpty()) {
+         submitLoad(loader, batch);
+      }
+   }
+
+   private void submitLoad(final CacheLoader loader, final List<Object> keys) throws CacheLoaderException {
+      submit(new Callable<Void>() {
+         @Override
+         public Void call() throws Exception {
+            for (Object key : keys) {
+               if (taskContext.isStopped()) break;
+               InternalCacheEntry entry = loader.load(key);
+               if (entry != null) {
+                  task.processEntry(entry, taskContext);
+               }
+            }
+            return null;
+         }
+      });
+   }
+
+   /**
+    * Waits for all the submitted batches to complete, running the ones that have not started yet in the current
+    * thread.
+    *
+    * @throws CacheLoaderException if a batch failed
+    */
+   public void awaitCompletion() throws CacheLoaderException {
+      while (!pending.isEmpty()) {
+         complete(pending.poll());
+      }
+   }
+
+   private void complete(FutureTask<Void> future) throws CacheLoaderException {
+      // no-op if the executor started the batch already
+      future.run();
+      try {
+         future.get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         cancelPending();
+         throw new CacheLoaderException("Interrupted while processing the entries of the store", e);
+      } catch (ExecutionException e) {
+         cancelPending();
+         Throwable cause = e.getCause();
+         if (cause instanceof CacheLoaderException) {
+            throw (CacheLoaderException) cause;
+         }
+         throw new CacheLoaderException("Failed processing the entries of the store", cause);
+      }
+   }
+
+   private void cancelPending() {
+      taskContext.stop();
+      for (FutureTask<Void> future : pending) {
+         future.cancel(false);
+      }
+      pending.clear();
+   }
+
+   private static class TaskContextImpl implements CacheLoader.TaskContext {
+      private volatile boolean stopped;
+
+      @Override
+      public void stop() {
+         stopped = true;
+      }
+
+      @Override
+      public boolean isStopped() {
+         return stopped;
+      }
+   }
+}
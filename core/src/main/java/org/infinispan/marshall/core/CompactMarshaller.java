@@ -0,0 +1,251 @@
+package org.infinispan.marshall.core;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.marshall.NotSerializableException;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.context.InvocationContextContainer;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.OutputStream;
+
+/**
+ * A marshaller that writes the types known to the {@link ExternalizerTable}, i.e. {@link
+ * org.infinispan.commands.ReplicableCommand}s, {@link org.infinispan.container.entries.InternalCacheEntry} and {@link
+ * org.infinispan.container.entries.InternalCacheValue} implementations, {@link org.infinispan.metadata.Metadata} and
+ * user types with a registered {@link org.infinispan.commons.marshall.AdvancedExternalizer}, with their externalizer
+ * id and the fields their externalizer writes, and Strings, primitive wrappers, byte arrays and object arrays with a
+ * one byte type tag. Unlike the {@link JBossMarshaller} used by the {@link VersionAwareMarshaller}, it writes no stream
+ * headers, class descriptors nor back references, and it writes into buffers that are reused by each thread.
+ * <p />
+ * Any other type is marshalled with the {@link JBossMarshaller} and embedded in the stream as a byte array, so unknown
+ * types are still supported, just not any faster. Object graphs are not preserved for the types marshalled by this
+ * marshaller: an object written twice is read back as two different instances.
+ * <p />
+ * This marshaller is enabled by setting it as the marshaller of the global serialization configuration. All the nodes
+ * of a cluster must use the same marshaller.
+ *
+ * @see org.infinispan.configuration.global.SerializationConfigurationBuilder#marshaller(org.infinispan.commons.marshall.Marshaller)
+ * @since 6.0
+ */
+public class CompactMarshaller extends VersionAwareMarshaller {
+   private static final Log log = LogFactory.getLog(CompactMarshaller.class);
+
+   private static final int VERSION_600 = 600;
+   private static final int PER_THREAD_REUSABLE_INSTANCES = 4;
+
+   static final int DEFAULT_BUFFER_SIZE = 512;
+   /**
+    * Buffers which grew beyond this size are not kept by the threads once the object has been written or read.
+    */
+   static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+   // Type tags
+   static final int NULL = 0;
+   static final int EXTERNALIZED = 1;
+   static final int FALLBACK = 2;
+   static final int STRING = 3;
+   static final int BYTE_ARRAY = 4;
+   static final int OBJECT_ARRAY = 5;
+   static final int BOOLEAN_TRUE = 6;
+   static final int BOOLEAN_FALSE = 7;
+   static final int BYTE = 8;
+   static final int SHORT = 9;
+   static final int CHAR = 10;
+   static final int INTEGER = 11;
+   static final int LONG = 12;
+   static final int FLOAT = 13;
+   static final int DOUBLE = 14;
+
+   ExternalizerTable externalizerTable;
+
+   private final ThreadLocal<PerThreadInstanceHolder> instancesTL = new ThreadLocal<PerThreadInstanceHolder>() {
+      @Override
+      protected PerThreadInstanceHolder initialValue() {
+         return new PerThreadInstanceHolder();
+      }
+   };
+
+   @Override
+   public void inject(Cache cache, Configuration cfg, InvocationContextContainer icc,
+         ExternalizerTable extTable, GlobalConfiguration globalCfg) {
+      super.inject(cache, cfg, icc, extTable, globalCfg);
+      this.externalizerTable = extTable;
+   }
+
+   @Override
+   protected ByteBuffer objectToBuffer(Object obj, int estimatedSize) throws IOException, InterruptedException {
+      CompactObjectOutput out = startObjectOutput(null, estimatedSize);
+      try {
+         out.writeObject(obj);
+         return out.toByteBuffer();
+      } catch (java.io.NotSerializableException nse) {
+         if (log.isDebugEnabled()) log.debug("Object is not serializable", nse);
+         throw new NotSerializableException(nse.getMessage(), nse.getCause());
+      } catch (IOException ioe) {
+         if (ioe.getCause() instanceof InterruptedException) {
+            if (log.isTraceEnabled()) log.trace("Interrupted exception while marshalling", ioe.getCause());
+            throw (InterruptedException) ioe.getCause();
+         } else {
+            log.errorMarshallingObject(ioe, obj);
+            throw ioe;
+         }
+      } finally {
+         finishObjectOutput(out);
+      }
+   }
+
+   @Override
+   public byte[] objectToByteBuffer(Object obj, int estimatedSize) throws IOException, InterruptedException {
+      // The buffer has already been trimmed to the length of the marshalled object
+      return objectToBuffer(obj, estimatedSize).getBuf();
+   }
+
+   @Override
+   public Object objectFromByteBuffer(byte[] bytes, int offset, int len) throws IOException, ClassNotFoundException {
+      CompactObjectInput in = acquireObjectInput();
+      in.start(this, bytes, offset, len);
+      try {
+         readVersion(in);
+         return in.readObject();
+      } finally {
+         finishObjectInput(in);
+      }
+   }
+
+   @Override
+   public ObjectOutput startObjectOutput(OutputStream os, boolean isReentrant, int estimatedSize) throws IOException {
+      return startObjectOutput(os, estimatedSize);
+   }
+
+   private CompactObjectOutput startObjectOutput(OutputStream os, int estimatedSize) throws IOException {
+      CompactObjectOutput out = acquireObjectOutput();
+      out.start(this, os, estimatedSize);
+      out.writeShort(VERSION_600);
+      return out;
+   }
+
+   @Override
+   public void finishObjectOutput(ObjectOutput oo) {
+      CompactObjectOutput out = (CompactObjectOutput) oo;
+      try {
+         out.finish();
+      } catch (IOException e) {
+         if (log.isTraceEnabled()) log.trace("Unable to flush the output", e);
+      } finally {
+         out.inUse = false;
+      }
+   }
+
+   @Override
+   public void objectToObjectStream(Object obj, ObjectOutput out) throws IOException {
+      out.writeObject(obj);
+   }
+
+   @Override
+   public ObjectInput startObjectInput(InputStream is, boolean isReentrant) throws IOException {
+      CompactObjectInput in = acquireObjectInput();
+      in.start(this, is);
+      try {
+         readVersion(in);
+      } catch (IOException e) {
+         finishObjectInput(in);
+         throw e;
+      }
+      return in;
+   }
+
+   @Override
+   public void finishObjectInput(ObjectInput oi) {
+      CompactObjectInput in = (CompactObjectInput) oi;
+      in.finish();
+      in.inUse = false;
+   }
+
+   @Override
+   public Object objectFromObjectStream(ObjectInput in) throws IOException, ClassNotFoundException, InterruptedException {
+      try {
+         return in.readObject();
+      } catch (EOFException e) {
+         IOException ee = new EOFException(
+            "The stream ended unexpectedly.  Please check whether the source of " +
+               "the stream encountered any issues generating the stream.");
+         ee.initCause(e);
+         throw ee;
+      } catch (IOException ioe) {
+         if (log.isTraceEnabled()) log.trace("Log exception reported", ioe);
+         if (ioe.getCause() instanceof InterruptedException)
+            throw (InterruptedException) ioe.getCause();
+         else
+            throw ioe;
+      }
+   }
+
+   private void readVersion(ObjectInput in) throws IOException {
+      int versionId;
+      try {
+         versionId = in.readShort();
+      } catch (Exception e) {
+         log.unableToReadVersionId();
+         throw new IOException("Unable to read version id from first two bytes of stream: " + e.getMessage());
+      }
+      if (versionId != VERSION_600)
+         throw new IOException("Unexpected version id " + versionId + ", the stream was not written by " +
+               getClass().getSimpleName());
+   }
+
+   ByteBuffer fallbackToBuffer(Object obj) throws IOException {
+      try {
+         return defaultMarshaller.objectToBuffer(obj);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new IOException(e);
+      }
+   }
+
+   Object fallbackFromByteBuffer(byte[] bytes, int offset, int len) throws IOException, ClassNotFoundException {
+      return defaultMarshaller.objectFromByteBuffer(bytes, offset, len);
+   }
+
+   private CompactObjectOutput acquireObjectOutput() {
+      CompactObjectOutput[] outputs = instancesTL.get().outputs;
+      for (int i = 0; i < outputs.length; i++) {
+         CompactObjectOutput out = outputs[i];
+         if (out == null)
+            out = outputs[i] = new CompactObjectOutput();
+         if (!out.inUse) {
+            out.inUse = true;
+            return out;
+         }
+      }
+      // Too many nested outputs, use a throw-away one
+      return new CompactObjectOutput();
+   }
+
+   private CompactObjectInput acquireObjectInput() {
+      CompactObjectInput[] inputs = instancesTL.get().inputs;
+      for (int i = 0; i < inputs.length; i++) {
+         CompactObjectInput in = inputs[i];
+         if (in == null)
+            in = inputs[i] = new CompactObjectInput();
+         if (!in.inUse) {
+            in.inUse = true;
+            return in;
+         }
+      }
+      // Too many nested inputs, use a throw-away one
+      return new CompactObjectInput();
+   }
+
+   private static final class PerThreadInstanceHolder {
+      final CompactObjectOutput[] outputs = new CompactObjectOutput[PER_THREAD_REUSABLE_INSTANCES];
+      final CompactObjectInput[] inputs = new CompactObjectInput[PER_THREAD_REUSABLE_INSTANCES];
+   }
+}
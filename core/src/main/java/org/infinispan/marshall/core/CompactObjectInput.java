@@ -0,0 +1,302 @@
+package org.infinispan.marshall.core;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInput;
+import java.io.StreamCorruptedException;
+
+import static org.infinispan.marshall.core.CompactMarshaller.*;
+
+/**
+ * The {@link ObjectInput} of the {@link CompactMarshaller}. It reads straight from the byte array being unmarshalled
+ * or, when reading from an input stream, from a buffer that is refilled from the stream as needed. Instances are
+ * reused by the thread that created them.
+ *
+ * @since 6.0
+ */
+final class CompactObjectInput implements ObjectInput {
+
+   private CompactMarshaller marshaller;
+   private byte[] streamBuf = new byte[DEFAULT_BUFFER_SIZE];
+   private byte[] buf;
+   private int pos;
+   private int limit;
+   private InputStream in;
+   boolean inUse;
+
+   void start(CompactMarshaller marshaller, byte[] bytes, int offset, int length) {
+      this.marshaller = marshaller;
+      this.buf = bytes;
+      this.pos = offset;
+      this.limit = offset + length;
+      this.in = null;
+   }
+
+   void start(CompactMarshaller marshaller, InputStream in) {
+      this.marshaller = marshaller;
+      this.buf = streamBuf;
+      this.pos = 0;
+      this.limit = 0;
+      this.in = in;
+   }
+
+   void finish() {
+      marshaller = null;
+      buf = null;
+      in = null;
+      if (streamBuf.length > MAX_RETAINED_BUFFER_SIZE)
+         streamBuf = new byte[DEFAULT_BUFFER_SIZE];
+   }
+
+   /**
+    * Makes sure the next n bytes are in the buffer, reading them from the input stream if needed.
+    */
+   private void require(int n) throws IOException {
+      int remaining = limit - pos;
+      if (remaining >= n)
+         return;
+
+      if (in == null)
+         throw new EOFException();
+
+      if (n > streamBuf.length) {
+         byte[] newBuf = new byte[Math.max(n, streamBuf.length << 1)];
+         System.arraycopy(buf, pos, newBuf, 0, remaining);
+         streamBuf = newBuf;
+      } else {
+         System.arraycopy(buf, pos, streamBuf, 0, remaining);
+      }
+      buf = streamBuf;
+      pos = 0;
+      limit = remaining;
+      while (limit < n) {
+         int read = in.read(buf, limit, buf.length - limit);
+         if (read < 0)
+            throw new EOFException();
+         limit += read;
+      }
+   }
+
+   @Override
+   public Object readObject() throws ClassNotFoundException, IOException {
+      int tag = readUnsignedByte();
+      switch (tag) {
+         case NULL:
+            return null;
+         case STRING:
+            return readString();
+         case BYTE_ARRAY:
+            byte[] bytes = new byte[readUnsignedInt()];
+            readFully(bytes);
+            return bytes;
+         case INTEGER:
+            return readInt();
+         case LONG:
+            return readLong();
+         case BOOLEAN_TRUE:
+            return Boolean.TRUE;
+         case BOOLEAN_FALSE:
+            return Boolean.FALSE;
+         case BYTE:
+            return readByte();
+         case SHORT:
+            return readShort();
+         case CHAR:
+            return readChar();
+         case FLOAT:
+            return readFloat();
+         case DOUBLE:
+            return readDouble();
+         case OBJECT_ARRAY:
+            Object[] array = new Object[readUnsignedInt()];
+            for (int i = 0; i < array.length; i++)
+               array[i] = readObject();
+            return array;
+         case EXTERNALIZED:
+            return marshaller.externalizerTable.readObject(this);
+         case FALLBACK:
+            int length = readUnsignedInt();
+            require(length);
+            Object o = marshaller.fallbackFromByteBuffer(buf, pos, length);
+            pos += length;
+            return o;
+         default:
+            throw new StreamCorruptedException("Unknown type tag " + tag);
+      }
+   }
+
+   int readUnsignedInt() throws IOException {
+      byte b = readByte();
+      int i = b & 0x7F;
+      for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+         b = readByte();
+         i |= (b & 0x7F) << shift;
+      }
+      return i;
+   }
+
+   private String readString() throws IOException {
+      int encodedLength = readUnsignedInt();
+      require(encodedLength);
+      char[] chars = new char[encodedLength];
+      int end = pos + encodedLength;
+      int length = 0;
+      while (pos < end) {
+         byte b = buf[pos++];
+         int c = b & 0x7F;
+         for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+            b = buf[pos++];
+            c |= (b & 0x7F) << shift;
+         }
+         chars[length++] = (char) c;
+      }
+      return new String(chars, 0, length);
+   }
+
+   @Override
+   public int read() throws IOException {
+      if (pos == limit) {
+         if (in == null)
+            return -1;
+         int b = in.read();
+         if (b < 0)
+            return -1;
+         return b;
+      }
+      return buf[pos++] & 0xFF;
+   }
+
+   @Override
+   public int read(byte[] b) throws IOException {
+      return read(b, 0, b.length);
+   }
+
+   @Override
+   public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0)
+         return 0;
+
+      int remaining = limit - pos;
+      if (remaining == 0)
+         return in == null ? -1 : in.read(b, off, len);
+
+      int read = Math.min(remaining, len);
+      System.arraycopy(buf, pos, b, off, read);
+      pos += read;
+      return read;
+   }
+
+   @Override
+   public void readFully(byte[] b) throws IOException {
+      readFully(b, 0, b.length);
+   }
+
+   @Override
+   public void readFully(byte[] b, int off, int len) throws IOException {
+      while (len > 0) {
+         int read = read(b, off, len);
+         if (read < 0)
+            throw new EOFException();
+         off += read;
+         len -= read;
+      }
+   }
+
+   @Override
+   public long skip(long n) throws IOException {
+      int remaining = limit - pos;
+      if (n <= remaining) {
+         pos += (int) n;
+         return n;
+      }
+      pos = limit;
+      return in == null ? remaining : remaining + in.skip(n - remaining);
+   }
+
+   @Override
+   public int skipBytes(int n) throws IOException {
+      return (int) skip(n);
+   }
+
+   @Override
+   public int available() throws IOException {
+      int remaining = limit - pos;
+      return in == null ? remaining : remaining + in.available();
+   }
+
+   @Override
+   public boolean readBoolean() throws IOException {
+      return readByte() != 0;
+   }
+
+   @Override
+   public byte readByte() throws IOException {
+      require(1);
+      return buf[pos++];
+   }
+
+   @Override
+   public int readUnsignedByte() throws IOException {
+      return readByte() & 0xFF;
+   }
+
+   @Override
+   public short readShort() throws IOException {
+      require(2);
+      return (short) (((buf[pos++] & 0xFF) << 8) | (buf[pos++] & 0xFF));
+   }
+
+   @Override
+   public int readUnsignedShort() throws IOException {
+      return readShort() & 0xFFFF;
+   }
+
+   @Override
+   public char readChar() throws IOException {
+      return (char) readShort();
+   }
+
+   @Override
+   public int readInt() throws IOException {
+      require(4);
+      return ((buf[pos++] & 0xFF) << 24) | ((buf[pos++] & 0xFF) << 16)
+            | ((buf[pos++] & 0xFF) << 8) | (buf[pos++] & 0xFF);
+   }
+
+   @Override
+   public long readLong() throws IOException {
+      return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+   }
+
+   @Override
+   public float readFloat() throws IOException {
+      return Float.intBitsToFloat(readInt());
+   }
+
+   @Override
+   public double readDouble() throws IOException {
+      return Double.longBitsToDouble(readLong());
+   }
+
+   @Override
+   public String readLine() throws IOException {
+      StringBuilder sb = new StringBuilder();
+      int b;
+      while ((b = read()) >= 0 && b != '\n') {
+         if (b != '\r')
+            sb.append((char) b);
+      }
+      return b < 0 && sb.length() == 0 ? null : sb.toString();
+   }
+
+   @Override
+   public String readUTF() throws IOException {
+      return readString();
+   }
+
+   @Override
+   public void close() {
+      // The input is released by CompactMarshaller.finishObjectInput()
+   }
+}
@@ -0,0 +1,267 @@
+package org.infinispan.marshall.core;
+
+import org.infinispan.commons.io.ByteBuffer;
+
+import java.io.IOException;
+import java.io.ObjectOutput;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import static org.infinispan.marshall.core.CompactMarshaller.*;
+
+/**
+ * The {@link ObjectOutput} of the {@link CompactMarshaller}. It writes into a buffer which is either copied out once
+ * the object has been written, or flushed to an output stream whenever it fills up. Instances are reused by the
+ * thread that created them, so the buffer is only allocated once per thread, but they only reference the marshaller
+ * while in use.
+ *
+ * @since 6.0
+ */
+final class CompactObjectOutput implements ObjectOutput {
+
+   private CompactMarshaller marshaller;
+   private byte[] buf = new byte[DEFAULT_BUFFER_SIZE];
+   private int pos;
+   private OutputStream out;
+   boolean inUse;
+
+   void start(CompactMarshaller marshaller, OutputStream out, int estimatedSize) {
+      this.marshaller = marshaller;
+      this.out = out;
+      this.pos = 0;
+      if (out == null && estimatedSize > buf.length)
+         buf = new byte[Math.min(estimatedSize, MAX_RETAINED_BUFFER_SIZE)];
+   }
+
+   void finish() throws IOException {
+      try {
+         if (out != null)
+            flush();
+      } finally {
+         // Don't keep the marshaller reachable from the thread once it's done
+         marshaller = null;
+         out = null;
+         pos = 0;
+         if (buf.length > MAX_RETAINED_BUFFER_SIZE)
+            buf = new byte[DEFAULT_BUFFER_SIZE];
+      }
+   }
+
+   /**
+    * Returns a copy of the bytes written so far, trimmed to their exact length.
+    */
+   ByteBuffer toByteBuffer() {
+      return new ByteBuffer(Arrays.copyOf(buf, pos), 0, pos);
+   }
+
+   private void ensureCapacity(int n) throws IOException {
+      if (pos + n <= buf.length)
+         return;
+
+      if (out != null) {
+         out.write(buf, 0, pos);
+         pos = 0;
+         if (n <= buf.length)
+            return;
+      }
+      buf = Arrays.copyOf(buf, Math.max(buf.length << 1, pos + n));
+   }
+
+   @Override
+   public void writeObject(Object obj) throws IOException {
+      if (obj == null) {
+         write(NULL);
+         return;
+      }
+
+      Class<?> clazz = obj.getClass();
+      if (clazz == String.class) {
+         write(STRING);
+         writeString((String) obj);
+      } else if (clazz == byte[].class) {
+         byte[] bytes = (byte[]) obj;
+         write(BYTE_ARRAY);
+         writeUnsignedInt(bytes.length);
+         write(bytes, 0, bytes.length);
+      } else if (clazz == Integer.class) {
+         write(INTEGER);
+         writeInt((Integer) obj);
+      } else if (clazz == Long.class) {
+         write(LONG);
+         writeLong((Long) obj);
+      } else if (clazz == Boolean.class) {
+         write((Boolean) obj ? BOOLEAN_TRUE : BOOLEAN_FALSE);
+      } else if (clazz == Byte.class) {
+         write(BYTE);
+         writeByte((Byte) obj);
+      } else if (clazz == Short.class) {
+         write(SHORT);
+         writeShort((Short) obj);
+      } else if (clazz == Character.class) {
+         write(CHAR);
+         writeChar((Character) obj);
+      } else if (clazz == Float.class) {
+         write(FLOAT);
+         writeFloat((Float) obj);
+      } else if (clazz == Double.class) {
+         write(DOUBLE);
+         writeDouble((Double) obj);
+      } else if (clazz == Object[].class) {
+         Object[] array = (Object[]) obj;
+         write(OBJECT_ARRAY);
+         writeUnsignedInt(array.length);
+         for (Object o : array)
+            writeObject(o);
+      } else {
+         ensureCapacity(1);
+         int tagPos = pos;
+         buf[pos++] = EXTERNALIZED;
+         if (!marshaller.externalizerTable.writeObject(this, obj)) {
+            // Nothing has been written after the tag, so just drop it
+            pos = tagPos;
+            write(FALLBACK);
+            ByteBuffer bytes = marshaller.fallbackToBuffer(obj);
+            writeUnsignedInt(bytes.getLength());
+            write(bytes.getBuf(), bytes.getOffset(), bytes.getLength());
+         }
+      }
+   }
+
+   void writeUnsignedInt(int i) throws IOException {
+      ensureCapacity(5);
+      while ((i & ~0x7F) != 0) {
+         buf[pos++] = (byte) ((i & 0x7f) | 0x80);
+         i >>>= 7;
+      }
+      buf[pos++] = (byte) i;
+   }
+
+   /**
+    * Writes the length of the encoded string, followed by each character as an unsigned variable length integer,
+    * so that ASCII characters take a single byte.
+    */
+   private void writeString(String s) throws IOException {
+      int length = s.length();
+      int encodedLength = length;
+      for (int i = 0; i < length; i++) {
+         char c = s.charAt(i);
+         if (c >= 0x80)
+            encodedLength += c < 0x4000 ? 1 : 2;
+      }
+      writeUnsignedInt(encodedLength);
+      ensureCapacity(encodedLength);
+      for (int i = 0; i < length; i++) {
+         int c = s.charAt(i);
+         while ((c & ~0x7F) != 0) {
+            buf[pos++] = (byte) ((c & 0x7f) | 0x80);
+            c >>>= 7;
+         }
+         buf[pos++] = (byte) c;
+      }
+   }
+
+   @Override
+   public void write(int b) throws IOException {
+      ensureCapacity(1);
+      buf[pos++] = (byte) b;
+   }
+
+   @Override
+   public void write(byte[] b) throws IOException {
+      write(b, 0, b.length);
+   }
+
+   @Override
+   public void write(byte[] b, int off, int len) throws IOException {
+      if (out != null && len > buf.length) {
+         // Too big to be worth buffering
+         flush();
+         out.write(b, off, len);
+         return;
+      }
+      ensureCapacity(len);
+      System.arraycopy(b, off, buf, pos, len);
+      pos += len;
+   }
+
+   @Override
+   public void writeBoolean(boolean v) throws IOException {
+      write(v ? 1 : 0);
+   }
+
+   @Override
+   public void writeByte(int v) throws IOException {
+      write(v);
+   }
+
+   @Override
+   public void writeShort(int v) throws IOException {
+      ensureCapacity(2);
+      buf[pos++] = (byte) (v >> 8);
+      buf[pos++] = (byte) v;
+   }
+
+   @Override
+   public void writeChar(int v) throws IOException {
+      writeShort(v);
+   }
+
+   @Override
+   public void writeInt(int v) throws IOException {
+      ensureCapacity(4);
+      buf[pos++] = (byte) (v >> 24);
+      buf[pos++] = (byte) (v >> 16);
+      buf[pos++] = (byte) (v >> 8);
+      buf[pos++] = (byte) v;
+   }
+
+   @Override
+   public void writeLong(long v) throws IOException {
+      writeInt((int) (v >> 32));
+      writeInt((int) v);
+   }
+
+   @Override
+   public void writeFloat(float v) throws IOException {
+      writeInt(Float.floatToIntBits(v));
+   }
+
+   @Override
+   public void writeDouble(double v) throws IOException {
+      writeLong(Double.doubleToLongBits(v));
+   }
+
+   @Override
+   public void writeBytes(String s) throws IOException {
+      int length = s.length();
+      ensureCapacity(length);
+      for (int i = 0; i < length; i++)
+         buf[pos++] = (byte) s.charAt(i);
+   }
+
+   @Override
+   public void writeChars(String s) throws IOException {
+      int length = s.length();
+      for (int i = 0; i < length; i++)
+         writeChar(s.charAt(i));
+   }
+
+   @Override
+   public void writeUTF(String s) throws IOException {
+      writeString(s);
+   }
+
+   @Override
+   public void flush() throws IOException {
+      if (out != null) {
+         out.write(buf, 0, pos);
+         pos = 0;
+         out.flush();
+      }
+   }
+
+   @Override
+   public void close() throws IOException {
+      flush();
+   }
+}
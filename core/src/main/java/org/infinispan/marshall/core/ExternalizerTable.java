@@ -83,6 +83,8 @@
 import org.jboss.marshalling.Unmarshaller;
 
 import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -126,13 +128,18 @@ public class ExternalizerTable implements ObjectTable {
    private RemoteCommandsFactory cmdFactory;
    private GlobalComponentRegistry gcr;
    private StreamingMarshaller globalMarshaller;
+   private MarshallingBufferPool bufferPool;
+   private MarshalledValueCompressor compressor;
 
    @Inject
    public void inject(RemoteCommandsFactory cmdFactory, GlobalComponentRegistry gcr,
-         @ComponentName(GLOBAL_MARSHALLER) StreamingMarshaller globalMarshaller) {
+         @ComponentName(GLOBAL_MARSHALLER) StreamingMarshaller globalMarshaller, MarshallingBufferPool bufferPool,
+         MarshalledValueCompressor compressor) {
       this.cmdFactory = cmdFactory;
       this.gcr = gcr;
       this.globalMarshaller = globalMarshaller;
+      this.bufferPool = bufferPool;
+      this.compressor = compressor;
    }
 
    @Start(priority = 7) // Should start before global marshaller
@@ -165,8 +172,30 @@ public Writer getObjectWriter(Object o) throws IOException {
       return writer;
    }
 
+   /**
+    * Writes the id of the externalizer of the given object followed by the object itself, the same way the object
+    * writers returned by {@link #getObjectWriter(Object)} do, or returns false if there is no externalizer for the
+    * type of the object.
+    */
+   boolean writeObject(ObjectOutput output, Object o) throws IOException {
+      ExternalizerAdapter adapter = (ExternalizerAdapter) getObjectWriter(o);
+      if (adapter == null)
+         return false;
+
+      adapter.writeObject(output, o);
+      return true;
+   }
+
    @Override
    public Object readObject(Unmarshaller input) throws IOException, ClassNotFoundException {
+      return readObject((ObjectInput) input);
+   }
+
+   /**
+    * Reads an object written by {@link #writeObject(ObjectOutput, Object)} or by an object writer returned by
+    * {@link #getObjectWriter(Object)}.
+    */
+   Object readObject(ObjectInput input) throws IOException, ClassNotFoundException {
       int readerIndex = input.readUnsignedByte();
       int foreignId = -1;
       if (readerIndex == Ids.MAX_ID) {
@@ -222,7 +251,7 @@ private void loadInternalMarshallables() {
       addInternalExternalizer(new RecoveryAwareDldGlobalTransaction.Externalizer());
       addInternalExternalizer(new JGroupsAddress.Externalizer());
       addInternalExternalizer(new Immutables.ImmutableMapWrapperExternalizer());
-      addInternalExternalizer(new MarshalledValue.Externalizer(globalMarshaller));
+      addInternalExternalizer(new MarshalledValue.Externalizer(globalMarshaller, bufferPool, compressor));
 
       addInternalExternalizer(new SuccessfulResponse.Externalizer());
       addInternalExternalizer(new ExceptionResponse.Externalizer());
@@ -376,12 +405,16 @@ static class ExternalizerAdapter implements Writer {
          this.externalizer = (AdvancedExternalizer<Object>) externalizer;
       }
 
-      public Object readObject(Unmarshaller input) throws IOException, ClassNotFoundException {
+      public Object readObject(ObjectInput input) throws IOException, ClassNotFoundException {
          return externalizer.readObject(input);
       }
 
       @Override
       public void writeObject(Marshaller output, Object object) throws IOException {
+         writeObject((ObjectOutput) output, object);
+      }
+
+      void writeObject(ObjectOutput output, Object object) throws IOException {
          output.write(id);
          externalizer.writeObject(output, object);
       }
@@ -428,7 +461,7 @@ int getExternalizerId() {
       }
 
       @Override
-      public void writeObject(Marshaller output, Object object) throws IOException {
+      void writeObject(ObjectOutput output, Object object) throws IOException {
          output.write(id);
          // Write as an unsigned, variable length, integer to safe space
          UnsignedNumeric.writeUnsignedInt(output, foreignId);
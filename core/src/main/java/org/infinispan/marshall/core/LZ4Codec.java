@@ -0,0 +1,211 @@
+package org.infinispan.marshall.core;
+
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
+
+/**
+ * A compressor and decompressor for the LZ4 block format. It trades compression ratio for speed: the compressor only
+ * looks for matches through a single hash table of the last position of each 4 byte sequence, and the decompressor
+ * only copies literals and back references.
+ * <p />
+ * A block is a sequence of tokens, each made of a run of literals followed by a match. The high 4 bits of the token
+ * byte hold the number of literals and the low 4 bits the length of the match minus 4, either of which continues in
+ * the following bytes when it's 15. The literals follow, then the offset of the match as a 2 bytes little endian
+ * integer. The block ends with a run of at least 5 literals and no match.
+ *
+ * @since 6.0
+ */
+final class LZ4Codec {
+
+   private static final int MIN_MATCH = 4;
+   private static final int LAST_LITERALS = 5;
+   // A match can't start in the last 12 bytes of the input
+   private static final int MF_LIMIT = 12;
+   private static final int MAX_OFFSET = 65535;
+   private static final int HASH_LOG = 12;
+   private static final int SKIP_STRENGTH = 6;
+   private static final int RUN_MASK = 0x0F;
+
+   private static final ThreadLocal<int[]> hashTables = new ThreadLocal<int[]>() {
+      @Override
+      protected int[] initialValue() {
+         return new int[1 << HASH_LOG];
+      }
+   };
+
+   private LZ4Codec() {
+   }
+
+   /**
+    * Returns the size of the biggest block the compression of {@code length} bytes can produce.
+    */
+   static int maxCompressedLength(int length) {
+      return length + length / 255 + 16;
+   }
+
+   /**
+    * Compresses {@code src[srcOff, srcOff + srcLen)} into {@code dest} starting at {@code destOff}, which must have
+    * room for {@link #maxCompressedLength(int)} bytes.
+    *
+    * @return the length of the compressed block
+    */
+   static int compress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff) {
+      int srcEnd = srcOff + srcLen;
+      int dOff = destOff;
+      int anchor = srcOff;
+
+      if (srcLen >= MF_LIMIT + 1) {
+         int mfLimit = srcEnd - MF_LIMIT;
+         int matchLimit = srcEnd - LAST_LITERALS;
+         // Positions are stored relative to srcOff + 1, so that 0 means no position
+         int[] table = hashTables.get();
+         Arrays.fill(table, 0);
+         int sOff = srcOff;
+         int searchCount = 1 << SKIP_STRENGTH;
+
+         while (sOff < mfLimit) {
+            int h = hash(readInt(src, sOff));
+            int ref = table[h] + srcOff - 1;
+            table[h] = sOff - srcOff + 1;
+            if (ref < srcOff || sOff - ref > MAX_OFFSET || readInt(src, ref) != readInt(src, sOff)) {
+               // Skip faster through data that doesn't compress
+               sOff += searchCount++ >>> SKIP_STRENGTH;
+               continue;
+            }
+            searchCount = 1 << SKIP_STRENGTH;
+
+            // Extend the match backwards
+            while (sOff > anchor && ref > srcOff && src[sOff - 1] == src[ref - 1]) {
+               sOff--;
+               ref--;
+            }
+
+            int matchLen = MIN_MATCH;
+            while (sOff + matchLen < matchLimit && src[sOff + matchLen] == src[ref + matchLen])
+               matchLen++;
+
+            int literals = sOff - anchor;
+            int tokenOff = dOff++;
+            int token;
+            if (literals >= RUN_MASK) {
+               token = RUN_MASK << 4;
+               dOff = writeLength(dest, dOff, literals - RUN_MASK);
+            } else {
+               token = literals << 4;
+            }
+            System.arraycopy(src, anchor, dest, dOff, literals);
+            dOff += literals;
+
+            int offset = sOff - ref;
+            dest[dOff++] = (byte) offset;
+            dest[dOff++] = (byte) (offset >>> 8);
+
+            int extraMatchLen = matchLen - MIN_MATCH;
+            if (extraMatchLen >= RUN_MASK) {
+               token |= RUN_MASK;
+               dOff = writeLength(dest, dOff, extraMatchLen - RUN_MASK);
+            } else {
+               token |= extraMatchLen;
+            }
+            dest[tokenOff] = (byte) token;
+
+            sOff += matchLen;
+            anchor = sOff;
+            if (sOff < mfLimit)
+               table[hash(readInt(src, sOff - 2))] = sOff - 2 - srcOff + 1;
+         }
+      }
+
+      // The last literals
+      int literals = srcEnd - anchor;
+      if (literals >= RUN_MASK) {
+         dest[dOff++] = (byte) (RUN_MASK << 4);
+         dOff = writeLength(dest, dOff, literals - RUN_MASK);
+      } else {
+         dest[dOff++] = (byte) (literals << 4);
+      }
+      System.arraycopy(src, anchor, dest, dOff, literals);
+      dOff += literals;
+      return dOff - destOff;
+   }
+
+   /**
+    * Decompresses the block in {@code src[srcOff, srcOff + srcLen)} into {@code dest[destOff, destOff + destLen)},
+    * where {@code destLen} is the exact length of the decompressed data.
+    */
+   static void decompress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff, int destLen)
+         throws StreamCorruptedException {
+      int srcEnd = srcOff + srcLen;
+      int destEnd = destOff + destLen;
+      int sOff = srcOff;
+      int dOff = destOff;
+      try {
+         while (true) {
+            if (sOff >= srcEnd)
+               throw new StreamCorruptedException("Block doesn't end with literals");
+            int token = src[sOff++] & 0xFF;
+
+            int literals = token >>> 4;
+            if (literals == RUN_MASK) {
+               int b;
+               do {
+                  b = src[sOff++] & 0xFF;
+                  literals += b;
+               } while (b == 255);
+            }
+            if (literals > srcEnd - sOff || literals > destEnd - dOff)
+               throw new StreamCorruptedException("Literals overflow the block");
+            System.arraycopy(src, sOff, dest, dOff, literals);
+            sOff += literals;
+            dOff += literals;
+
+            if (sOff == srcEnd)
+               break;
+
+            int offset = (src[sOff++] & 0xFF) | ((src[sOff++] & 0xFF) << 8);
+            int matchLen = token & RUN_MASK;
+            if (matchLen == RUN_MASK) {
+               int b;
+               do {
+                  b = src[sOff++] & 0xFF;
+                  matchLen += b;
+               } while (b == 255);
+            }
+            matchLen += MIN_MATCH;
+
+            int ref = dOff - offset;
+            if (offset == 0 || ref < destOff || matchLen > destEnd - dOff)
+               throw new StreamCorruptedException("Invalid match in the block");
+            if (offset >= matchLen) {
+               System.arraycopy(dest, ref, dest, dOff, matchLen);
+               dOff += matchLen;
+            } else {
+               // Overlapping match, the copied bytes repeat
+               for (int end = dOff + matchLen; dOff < end; )
+                  dest[dOff++] = dest[ref++];
+            }
+         }
+      } catch (ArrayIndexOutOfBoundsException e) {
+         throw new StreamCorruptedException("Truncated block");
+      }
+      if (dOff != destEnd)
+         throw new StreamCorruptedException("Block decompressed to " + (dOff - destOff) + " bytes instead of " + destLen);
+   }
+
+   private static int writeLength(byte[] dest, int dOff, int length) {
+      while (length >= 255) {
+         dest[dOff++] = (byte) 255;
+         length -= 255;
+      }
+      dest[dOff++] = (byte) length;
+      return dOff;
+   }
+
+   private static int readInt(byte[] buf, int off) {
+      return (buf[off] & 0xFF) | ((buf[off + 1] & 0xFF) << 8) | ((buf[off + 2] & 0xFF) << 16) | (buf[off + 3] << 24);
+   }
+
+   private static int hash(int i) {
+      return (i * -1640531535) >>> (32 - HASH_LOG);
+   }
+}
@@ -1,6 +1,7 @@
 package org.infinispan.marshall.core;
 
 import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.io.CompressedMarshalledValueByteStream;
 import org.infinispan.io.ExpandableMarshalledValueByteStream;
 import org.infinispan.io.ImmutableMarshalledValueByteStream;
 import org.infinispan.io.MarshalledValueByteStream;
@@ -17,6 +18,7 @@
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Set;
 
 /**
@@ -58,24 +60,48 @@ public final class MarshalledValue implements Serializable {
    private transient volatile boolean equalityPreferenceForInstance = true;
    // A marshaller is needed at construction time to handle equals/hashCode impls
    private transient final StreamingMarshaller marshaller;
+   // Optional, the instance is marshalled into a pooled buffer and copied out at its exact size
+   private transient final MarshallingBufferPool bufferPool;
+   // Optional, serialized representations at least this big are compressed, unless it is negative
+   private transient final MarshalledValueCompressor compressor;
+   private transient final int compressionThreshold;
 
    public MarshalledValue(Object instance, boolean equalityPreferenceForInstance, StreamingMarshaller marshaller) {
+      this(instance, equalityPreferenceForInstance, marshaller, null);
+   }
+
+   public MarshalledValue(Object instance, boolean equalityPreferenceForInstance, StreamingMarshaller marshaller,
+                          MarshallingBufferPool bufferPool) {
+      this(instance, equalityPreferenceForInstance, marshaller, bufferPool, null, -1);
+   }
+
+   public MarshalledValue(Object instance, boolean equalityPreferenceForInstance, StreamingMarshaller marshaller,
+                          MarshallingBufferPool bufferPool, MarshalledValueCompressor compressor,
+                          int compressionThreshold) {
       if (instance == null) throw new NullPointerException("Null values cannot be wrapped as MarshalledValues!");
 
       this.instance = instance;
       this.equalityPreferenceForInstance = equalityPreferenceForInstance;
       this.marshaller = marshaller;
+      this.bufferPool = bufferPool;
+      this.compressor = compressor;
+      this.compressionThreshold = compressor == null ? -1 : compressionThreshold;
    }
 
-   private MarshalledValue(byte[] raw, int cachedHashCode, StreamingMarshaller marshaller) {
+   private MarshalledValue(MarshalledValueByteStream raw, int cachedHashCode, StreamingMarshaller marshaller,
+                           MarshallingBufferPool bufferPool, MarshalledValueCompressor compressor) {
       init(raw, cachedHashCode);
       this.marshaller = marshaller;
+      this.bufferPool = bufferPool;
+      this.compressor = compressor;
+      // Never compressed again, since it is never serialized again
+      this.compressionThreshold = -1;
    }
 
-   private void init(byte[] raw, int cachedHashCode) {
+   private void init(MarshalledValueByteStream raw, int cachedHashCode) {
       // for unmarshalling
-      this.raw = new ImmutableMarshalledValueByteStream(raw);
-      this.serialisedSize = raw.length;
+      this.raw = raw;
+      this.serialisedSize = raw.size();
       this.cachedHashCode = cachedHashCode;
    }
 
@@ -92,16 +118,29 @@ private MarshalledValueByteStream serialize0() {
          try {
             // Do NOT set instance to null over here, since it may be used elsewhere (e.g., in a cache listener).
             // this will be compacted by the MarshalledValueInterceptor when the call returns.
-            MarshalledValueByteStream baos = new ExpandableMarshalledValueByteStream(this.serialisedSize);
-            ObjectOutput out = marshaller.startObjectOutput(baos, true, this.serialisedSize);
-            try {
-               marshaller.objectToObjectStream(instance, out);
-            } finally {
-               marshaller.finishObjectOutput(out);
+            if (bufferPool != null) {
+               MarshallingBufferPool.PooledBuffer buffer = bufferPool.marshall(marshaller, instance);
+               try {
+                  localRaw = compress(buffer.getBuf(), buffer.size());
+                  if (localRaw == null)
+                     localRaw = new ImmutableMarshalledValueByteStream(Arrays.copyOf(buffer.getBuf(), buffer.size()));
+               } finally {
+                  bufferPool.release(buffer);
+               }
+            } else {
+               MarshalledValueByteStream baos = new ExpandableMarshalledValueByteStream(this.serialisedSize);
+               ObjectOutput out = marshaller.startObjectOutput(baos, true, this.serialisedSize);
+               try {
+                  marshaller.objectToObjectStream(instance, out);
+               } finally {
+                  marshaller.finishObjectOutput(out);
+               }
+               localRaw = compress(baos.getRaw(), baos.size());
+               if (localRaw == null)
+                  localRaw = baos;
             }
-            serialisedSize = baos.size();
-            localRaw = baos;
-            raw = baos;
+            serialisedSize = localRaw.size();
+            raw = localRaw;
          } catch (Exception e) {
             throw new CacheException("Unable to marshall value " + instance, e);
          }
@@ -109,6 +148,12 @@ private MarshalledValueByteStream serialize0() {
       return localRaw;
    }
 
+   private MarshalledValueByteStream compress(byte[] buf, int length) {
+      if (compressionThreshold < 0 || length < compressionThreshold)
+         return null;
+      return compressor.compress(buf, 0, length);
+   }
+
    public synchronized Object deserialize() {
       return deserialize0();
    }
@@ -120,8 +165,14 @@ private Object deserialize0() {
       Object instanceValue = instance;
       if (instanceValue == null) {
          try {
+            MarshalledValueByteStream localRaw = raw;
+            if (localRaw instanceof CompressedMarshalledValueByteStream) {
+               // Keep only the compressed representation, so every read decompresses it again
+               byte[] bytes = compressor.decompress((CompressedMarshalledValueByteStream) localRaw);
+               return marshaller.objectFromByteBuffer(bytes, 0, bytes.length);
+            }
             // StreamingMarshaller underneath deals with making sure the right classloader is set.
-            instanceValue = marshaller.objectFromByteBuffer(raw.getRaw(), 0, raw.size());
+            instanceValue = marshaller.objectFromByteBuffer(localRaw.getRaw(), 0, localRaw.size());
             instance = instanceValue;
             return instanceValue;
          }
@@ -137,7 +188,8 @@ private Object deserialize0() {
     * is a no-op unless the 'force' parameter is used, in which case the reference held is forcefully switched to the
     * 'preferred representation'.
     * <p/>
-    * Either way, a call to compact() will ensure that only one representation is held.
+    * Either way, a call to compact() will ensure that only one representation is held. A compressed serialized
+    * representation is always favoured unless the 'force' parameter is used.
     * <p/>
     *
     * @param preferSerializedRepresentation if true and both representations exist, the serialized representation is
@@ -150,6 +202,9 @@ public synchronized void compact(boolean preferSerializedRepresentation, boolean
       equalityPreferenceForInstance = true;
       Object thisInstance = this.instance;
       MarshalledValueByteStream thisRaw = this.raw;
+      if (!force && thisRaw instanceof CompressedMarshalledValueByteStream) {
+         preferSerializedRepresentation = true;
+      }
       if (force) {
          if (preferSerializedRepresentation && thisRaw == null) {
             // Accessing a synchronized method from an already synchronized
@@ -177,6 +232,21 @@ else if (!preferSerializedRepresentation && thisInstance == null){
       }
    }
 
+   /**
+    * Returns true if the serialized representation is compressed. The deserialized representation of a compressed
+    * value is not kept after a read, unless it is forced by {@link #compact(boolean, boolean)}.
+    */
+   public boolean isCompressed() {
+      return raw instanceof CompressedMarshalledValueByteStream;
+   }
+
+   /**
+    * Returns the size of the serialized representation, or an estimate of it if this value has never been serialized.
+    */
+   public int getSerialisedSize() {
+      return serialisedSize;
+   }
+
    public MarshalledValueByteStream getRaw() {
       MarshalledValueByteStream rawValue = raw;
       if (rawValue == null){
@@ -217,7 +287,7 @@ public boolean equals(Object o) {
 
       MarshalledValueByteStream thisRaw = this.raw;
       MarshalledValueByteStream thatRaw = that.raw;
-      if (thisRaw != null && thatRaw != null) return thisRaw.equals(thatRaw);
+      if (thisRaw != null && thatRaw != null) return rawEquals(thisRaw, that, thatRaw);
       if (thisInstance != null && thatInstance != null) {
          return thisInstance.equals(thatInstance);
       }
@@ -238,7 +308,26 @@ public boolean equals(Object o) {
          if (thatRaw == null) {
             thatRaw = that.serialize();
          }
+         return rawEquals(thisRaw, that, thatRaw);
+      }
+   }
+
+   private boolean rawEquals(MarshalledValueByteStream thisRaw, MarshalledValue that, MarshalledValueByteStream thatRaw) {
+      boolean thisCompressed = thisRaw instanceof CompressedMarshalledValueByteStream;
+      if (thisCompressed == thatRaw instanceof CompressedMarshalledValueByteStream)
          return thisRaw.equals(thatRaw);
+
+      // Only one of them is compressed, compare the uncompressed representations
+      try {
+         if (thisCompressed) {
+            return new ImmutableMarshalledValueByteStream(
+                  compressor.decompress((CompressedMarshalledValueByteStream) thisRaw)).equals(thatRaw);
+         } else {
+            return new ImmutableMarshalledValueByteStream(
+                  that.compressor.decompress((CompressedMarshalledValueByteStream) thatRaw)).equals(thisRaw);
+         }
+      } catch (IOException e) {
+         throw new CacheException("Unable to decompress value", e);
       }
    }
 
@@ -291,16 +380,28 @@ public static boolean isTypeExcluded(Class<?> type) {
 
    public static class Externalizer extends AbstractExternalizer<MarshalledValue> {
       private final StreamingMarshaller globalMarshaller;
+      private final MarshallingBufferPool bufferPool;
+      private final MarshalledValueCompressor compressor;
 
       public Externalizer(StreamingMarshaller globalMarshaller) {
+         this(globalMarshaller, null, new MarshalledValueCompressor());
+      }
+
+      public Externalizer(StreamingMarshaller globalMarshaller, MarshallingBufferPool bufferPool,
+                          MarshalledValueCompressor compressor) {
          this.globalMarshaller = globalMarshaller;
+         this.bufferPool = bufferPool;
+         this.compressor = compressor;
       }
 
       @Override
       public void writeObject(ObjectOutput output, MarshalledValue mv) throws IOException {
          MarshalledValueByteStream raw = mv.getRaw();
          int rawLength = raw.size();
-         UnsignedNumeric.writeUnsignedInt(output, rawLength);
+         // Compressed values are flagged with the complement of their length, which is always negative, so that
+         // uncompressed values keep the format written by the previous versions
+         boolean compressed = raw instanceof CompressedMarshalledValueByteStream;
+         UnsignedNumeric.writeUnsignedInt(output, compressed ? ~rawLength : rawLength);
          output.write(raw.getRaw(), 0, rawLength);
          output.writeInt(mv.hashCode());
       }
@@ -308,9 +409,14 @@ public void writeObject(ObjectOutput output, MarshalledValue mv) throws IOExcept
       @Override
       public MarshalledValue readObject(ObjectInput input) throws IOException {
          int length = UnsignedNumeric.readUnsignedInt(input);
-         byte[] raw = new byte[length];
-         input.readFully(raw);
+         boolean compressed = length < 0;
+         if (compressed)
+            length = ~length;
+         byte[] bytes = new byte[length];
+         input.readFully(bytes);
          int hc = input.readInt();
+         MarshalledValueByteStream raw = compressed ? new CompressedMarshalledValueByteStream(bytes)
+               : new ImmutableMarshalledValueByteStream(bytes);
 
          // A better way of sending down context information is needed in the future
          StreamingMarshaller marshaller;
@@ -325,7 +431,7 @@ public MarshalledValue readObject(ObjectInput input) throws IOException {
             marshaller = globalMarshaller;
          }
 
-         return new MarshalledValue(raw, hc, marshaller);
+         return new MarshalledValue(raw, hc, marshaller, bufferPool, compressor);
       }
 
       @Override
@@ -0,0 +1,157 @@
+package org.infinispan.marshall.core;
+
+import net.jcip.annotations.ThreadSafe;
+import org.infinispan.commons.io.UnsignedNumeric;
+import org.infinispan.commons.util.concurrent.jdk8backported.LongAdder;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.io.CompressedMarshalledValueByteStream;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
+import org.infinispan.util.DefaultTimeService;
+import org.infinispan.util.TimeService;
+
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compresses the serialized representation of the {@link MarshalledValue}s which are at least as big as the
+ * compression threshold of the <tt>storeAsBinary</tt> configuration, with the LZ4 block format. The compressed
+ * representation is kept in the data container, sent to other nodes and written to the cache stores as is, and it is
+ * only decompressed when the value is deserialized.
+ * <p />
+ * A value is only kept compressed when compressing it saves at least one eighth of its size, since otherwise the
+ * decompression on each read would cost more than the memory it saves.
+ *
+ * @see org.infinispan.configuration.cache.StoreAsBinaryConfigurationBuilder#compressionThreshold(int)
+ * @since 6.0
+ */
+@ThreadSafe
+@Scope(Scopes.GLOBAL)
+@MBean(objectName = "MarshalledValueCompressor", description = "Compression of the values stored as binary.")
+public class MarshalledValueCompressor {
+
+   private TimeService timeService = new DefaultTimeService();
+
+   private final LongAdder compressedValues = new LongAdder();
+   private final LongAdder incompressibleValues = new LongAdder();
+   private final LongAdder uncompressedBytes = new LongAdder();
+   private final LongAdder compressedBytes = new LongAdder();
+   private final LongAdder compressionNanos = new LongAdder();
+   private final LongAdder decompressions = new LongAdder();
+   private final LongAdder decompressionNanos = new LongAdder();
+
+   @Inject
+   public void injectDependencies(TimeService timeService) {
+      this.timeService = timeService;
+   }
+
+   /**
+    * Compresses {@code buf[offset, offset + length)}.
+    *
+    * @return the compressed representation, or null if compressing doesn't save enough space
+    */
+   public CompressedMarshalledValueByteStream compress(byte[] buf, int offset, int length) {
+      long start = timeService.time();
+      int headerLength = unsignedIntLength(length);
+      byte[] compressed = new byte[headerLength + LZ4Codec.maxCompressedLength(length)];
+      UnsignedNumeric.writeUnsignedInt(compressed, 0, length);
+      int compressedLength = headerLength + LZ4Codec.compress(buf, offset, length, compressed, headerLength);
+      compressionNanos.add(timeService.timeDuration(start, TimeUnit.NANOSECONDS));
+
+      if (compressedLength > length - (length >>> 3)) {
+         incompressibleValues.increment();
+         return null;
+      }
+      compressedValues.increment();
+      uncompressedBytes.add(length);
+      compressedBytes.add(compressedLength);
+      return new CompressedMarshalledValueByteStream(Arrays.copyOf(compressed, compressedLength));
+   }
+
+   /**
+    * Returns the serialized representation compressed in the given stream.
+    */
+   public byte[] decompress(CompressedMarshalledValueByteStream stream) throws StreamCorruptedException {
+      long start = timeService.time();
+      byte[] compressed = stream.getRaw();
+      int length = UnsignedNumeric.readUnsignedInt(compressed, 0);
+      if (length < 0)
+         throw new StreamCorruptedException("Invalid length " + length);
+      int headerLength = unsignedIntLength(length);
+      byte[] buf = new byte[length];
+      LZ4Codec.decompress(compressed, headerLength, compressed.length - headerLength, buf, 0, length);
+      decompressionNanos.add(timeService.timeDuration(start, TimeUnit.NANOSECONDS));
+      decompressions.increment();
+      return buf;
+   }
+
+   private static int unsignedIntLength(int i) {
+      int length = 1;
+      while ((i & ~0x7F) != 0) {
+         i >>>= 7;
+         length++;
+      }
+      return length;
+   }
+
+   @ManagedAttribute(description = "Number of values stored compressed", displayName = "Compressed values", measurementType = MeasurementType.TRENDSUP, displayType = DisplayType.SUMMARY)
+   public long getCompressedValues() {
+      return compressedValues.sum();
+   }
+
+   @ManagedAttribute(description = "Number of values stored uncompressed because compressing them didn't save enough space", displayName = "Incompressible values", measurementType = MeasurementType.TRENDSUP, displayType = DisplayType.SUMMARY)
+   public long getIncompressibleValues() {
+      return incompressibleValues.sum();
+   }
+
+   @ManagedAttribute(description = "Size of the compressed values before compression", displayName = "Uncompressed bytes", units = Units.BYTES, measurementType = MeasurementType.TRENDSUP, displayType = DisplayType.SUMMARY)
+   public long getUncompressedBytes() {
+      return uncompressedBytes.sum();
+   }
+
+   @ManagedAttribute(description = "Size of the compressed values after compression", displayName = "Compressed bytes", units = Units.BYTES, measurementType = MeasurementType.TRENDSUP, displayType = DisplayType.SUMMARY)
+   public long getCompressedBytes() {
+      return compressedBytes.sum();
+   }
+
+   @ManagedAttribute(description = "Size of the compressed values before compression divided by their size after compression", displayName = "Compression ratio", displayType = DisplayType.SUMMARY)
+   public double getCompressionRatio() {
+      long compressed = compressedBytes.sum();
+      if (compressed == 0)
+         return 0;
+      return (double) uncompressedBytes.sum() / compressed;
+   }
+
+   @ManagedAttribute(description = "Time spent compressing values, including the values which were incompressible", displayName = "Compression time", units = Units.MILLISECONDS, measurementType = MeasurementType.TRENDSUP, displayType = DisplayType.SUMMARY)
+   public long getCompressionTime() {
+      return TimeUnit.NANOSECONDS.toMillis(compressionNanos.sum());
+   }
+
+   @ManagedAttribute(description = "Number of values decompressed", displayName = "Decompressions", measurementType = MeasurementType.TRENDSUP, displayType = DisplayType.SUMMARY)
+   public long getDecompressions() {
+      return decompressions.sum();
+   }
+
+   @ManagedAttribute(description = "Time spent decompressing values", displayName = "Decompression time", units = Units.MILLISECONDS, measurementType = MeasurementType.TRENDSUP, displayType = DisplayType.SUMMARY)
+   public long getDecompressionTime() {
+      return TimeUnit.NANOSECONDS.toMillis(decompressionNanos.sum());
+   }
+
+   @ManagedOperation(description = "Resets statistics gathered by this component", displayName = "Reset statistics")
+   public void resetStatistics() {
+      compressedValues.reset();
+      incompressibleValues.reset();
+      uncompressedBytes.reset();
+      compressedBytes.reset();
+      compressionNanos.reset();
+      decompressions.reset();
+      decompressionNanos.reset();
+   }
+}
@@ -0,0 +1,213 @@
+package org.infinispan.marshall.core;
+
+import net.jcip.annotations.ThreadSafe;
+import org.infinispan.commons.marshall.NotSerializableException;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.concurrent.jdk8backported.LongAdder;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+import org.jboss.marshalling.ByteOutput;
+
+import java.io.IOException;
+import java.io.ObjectOutput;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A pool of the buffers which marshalled objects are only needed in until they have been sent or written, e.g. the
+ * commands sent to other nodes or the entries written to a cache store. Instead of allocating a new byte array for
+ * each marshalled object, {@link #marshall(StreamingMarshaller, Object)} marshalls it into a pooled buffer, which must
+ * be given back with {@link #release(PooledBuffer)} once its contents are no longer used.
+ * <p />
+ * Each thread keeps the last buffer it released, and the buffers released while the thread already keeps one go to a
+ * bounded pool shared by all the threads. Buffers that grew beyond {@link #MAX_POOLED_BUFFER_SIZE} are not pooled.
+ * A buffer which is never released is simply garbage collected, so callers which can't tell when the buffer is no
+ * longer used just don't release it.
+ *
+ * @since 6.0
+ */
+@ThreadSafe
+@Scope(Scopes.GLOBAL)
+@MBean(objectName = "MarshallingBufferPool", description = "Pool of the buffers used for marshalling commands and cache store entries.")
+public class MarshallingBufferPool {
+   private static final Log log = LogFactory.getLog(MarshallingBufferPool.class);
+
+   static final int DEFAULT_BUFFER_SIZE = 1024;
+   static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+   static final int SHARED_POOL_SIZE = 64;
+
+   private final ThreadLocal<PooledBuffer> threadBuffers = new ThreadLocal<PooledBuffer>();
+   private final BlockingQueue<PooledBuffer> sharedBuffers = new ArrayBlockingQueue<PooledBuffer>(SHARED_POOL_SIZE);
+
+   private final LongAdder hits = new LongAdder();
+   private final LongAdder overflowAllocations = new LongAdder();
+   private final LongAdder discards = new LongAdder();
+
+   /**
+    * Returns an empty buffer, which must be given back with {@link #release(PooledBuffer)}.
+    */
+   public PooledBuffer acquire() {
+      PooledBuffer buffer = threadBuffers.get();
+      if (buffer != null) {
+         threadBuffers.set(null);
+      } else {
+         buffer = sharedBuffers.poll();
+      }
+
+      if (buffer != null) {
+         hits.increment();
+      } else {
+         overflowAllocations.increment();
+         buffer = new PooledBuffer(DEFAULT_BUFFER_SIZE);
+      }
+      buffer.count = 0;
+      buffer.inUse = true;
+      return buffer;
+   }
+
+   /**
+    * Gives back a buffer returned by {@link #acquire()} or {@link #marshall(StreamingMarshaller, Object)}. Its
+    * contents must not be used after this call.
+    */
+   public void release(PooledBuffer buffer) {
+      if (!buffer.inUse)
+         throw new IllegalStateException("Buffer already released");
+
+      buffer.inUse = false;
+      if (buffer.buf.length > MAX_POOLED_BUFFER_SIZE) {
+         discards.increment();
+      } else if (threadBuffers.get() == null) {
+         threadBuffers.set(buffer);
+      } else if (!sharedBuffers.offer(buffer)) {
+         discards.increment();
+      }
+   }
+
+   /**
+    * Marshalls an object into a pooled buffer, the same way {@link StreamingMarshaller#objectToBuffer(Object)} does.
+    * The buffer must be given back with {@link #release(PooledBuffer)}.
+    */
+   public PooledBuffer marshall(StreamingMarshaller marshaller, Object obj) throws IOException {
+      PooledBuffer buffer = acquire();
+      try {
+         marshall(marshaller, obj, buffer);
+         return buffer;
+      } catch (IOException e) {
+         release(buffer);
+         throw e;
+      } catch (RuntimeException e) {
+         release(buffer);
+         throw e;
+      }
+   }
+
+   /**
+    * Marshalls an object at the end of the given buffer.
+    */
+   public static void marshall(StreamingMarshaller marshaller, Object obj, PooledBuffer buffer) throws IOException {
+      // The object might be marshalled while the thread is marshalling another one, e.g. a MarshalledValue
+      ObjectOutput out = marshaller.startObjectOutput(buffer, true, DEFAULT_BUFFER_SIZE);
+      try {
+         marshaller.objectToObjectStream(obj, out);
+      } catch (java.io.NotSerializableException nse) {
+         if (log.isDebugEnabled()) log.debug("Object is not serializable", nse);
+         throw new NotSerializableException(nse.getMessage(), nse.getCause());
+      } finally {
+         marshaller.finishObjectOutput(out);
+      }
+   }
+
+   @ManagedAttribute(description = "Number of buffers taken from the pool", displayName = "Pool hits", measurementType = MeasurementType.TRENDSUP, displayType = DisplayType.SUMMARY)
+   public long getHits() {
+      return hits.sum();
+   }
+
+   @ManagedAttribute(description = "Number of buffers allocated because the pool was empty", displayName = "Overflow allocations", measurementType = MeasurementType.TRENDSUP, displayType = DisplayType.SUMMARY)
+   public long getOverflowAllocations() {
+      return overflowAllocations.sum();
+   }
+
+   @ManagedAttribute(description = "Number of released buffers not pooled, because they were too big or the pool was full", displayName = "Discarded buffers", measurementType = MeasurementType.TRENDSUP, displayType = DisplayType.SUMMARY)
+   public long getDiscards() {
+      return discards.sum();
+   }
+
+   @ManagedAttribute(description = "Number of buffers in the pool shared by all threads", displayName = "Shared pool size", displayType = DisplayType.SUMMARY)
+   public int getSharedPoolSize() {
+      return sharedBuffers.size();
+   }
+
+   @ManagedAttribute(description = "Maximum number of buffers in the pool shared by all threads", displayName = "Maximum shared pool size", dataType = DataType.TRAIT)
+   public int getMaxSharedPoolSize() {
+      return SHARED_POOL_SIZE;
+   }
+
+   @ManagedOperation(description = "Resets statistics gathered by this component", displayName = "Reset statistics")
+   public void resetStatistics() {
+      hits.reset();
+      overflowAllocations.reset();
+      discards.reset();
+   }
+
+   /**
+    * A growable byte array output stream, whose array is exposed so that it can be sent or written without copying
+    * it.
+    */
+   public static final class PooledBuffer extends OutputStream implements ByteOutput {
+      private byte[] buf;
+      private int count;
+      private boolean inUse;
+
+      PooledBuffer(int size) {
+         buf = new byte[size];
+      }
+
+      /**
+       * Returns the underlying array. Only the first {@link #size()} bytes are meaningful.
+       */
+      public byte[] getBuf() {
+         return buf;
+      }
+
+      public int size() {
+         return count;
+      }
+
+      /**
+       * Moves the end of the buffer, e.g. to reserve space for a header which is only known once the rest of the
+       * buffer has been written.
+       */
+      public void setSize(int size) {
+         ensureCapacity(size);
+         count = size;
+      }
+
+      private void ensureCapacity(int size) {
+         if (size > buf.length)
+            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, size));
+      }
+
+      @Override
+      public void write(int b) {
+         ensureCapacity(count + 1);
+         buf[count++] = (byte) b;
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) {
+         ensureCapacity(count + len);
+         System.arraycopy(b, off, buf, count, len);
+         count += len;
+      }
+   }
+}
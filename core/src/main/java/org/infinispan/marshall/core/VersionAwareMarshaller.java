@@ -35,7 +35,7 @@ public class VersionAwareMarshaller extends AbstractMarshaller implements Stream
 
    private static final int VERSION_510 = 510;
 
-   private final JBossMarshaller defaultMarshaller;
+   final JBossMarshaller defaultMarshaller;
    private String cacheName;
 
    public VersionAwareMarshaller() {
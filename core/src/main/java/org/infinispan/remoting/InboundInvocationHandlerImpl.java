@@ -3,14 +3,19 @@
 import org.infinispan.commands.CancellableCommand;
 import org.infinispan.commands.CancellationService;
 import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.remote.CacheRpcCommand;
 import org.infinispan.commands.tx.PrepareCommand;
+import org.infinispan.commands.tx.TransactionBoundaryCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderCommitCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderPrepareCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderRollbackCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderVersionedCommitCommand;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.context.Flag;
 import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.factories.GlobalComponentRegistry;
 import org.infinispan.factories.KnownComponentNames;
@@ -20,6 +25,8 @@
 import org.infinispan.factories.scopes.Scopes;
 import org.infinispan.interceptors.totalorder.RetryPrepareException;
 import org.infinispan.remoting.responses.CacheNotFoundResponse;
+import org.infinispan.statetransfer.StateConsumer;
+import org.infinispan.statetransfer.StateResponseCommand;
 import org.infinispan.statetransfer.StateTransferManager;
 import org.infinispan.remoting.responses.ExceptionResponse;
 import org.infinispan.remoting.responses.Response;
@@ -29,11 +36,17 @@
 import org.infinispan.transaction.TotalOrderRemoteTransactionState;
 import org.infinispan.transaction.totalorder.TotalOrderLatch;
 import org.infinispan.transaction.totalorder.TotalOrderManager;
+import org.infinispan.transaction.xa.GlobalTransaction;
 import org.infinispan.util.concurrent.BlockingRunnable;
 import org.infinispan.util.concurrent.BlockingTaskAwareExecutorService;
+import org.infinispan.util.concurrent.TimeoutException;
+import org.infinispan.util.concurrent.locks.LockManager;
+import org.infinispan.util.concurrent.locks.LockRequestCallback;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.concurrent.ExecutorService;
 
 /**
@@ -161,7 +174,7 @@ public void run() {
          });
          return;
       } else if (!preserveOrder && cmd.canBlock()) {
-         remoteCommandsExecutor.execute(new Runnable() {
+         final Runnable task = new Runnable() {
             @Override
             public void run() {
                Response resp;
@@ -174,7 +187,45 @@ public void run() {
                reply(response, resp);
                afterResponseSent(cmd, resp);
             }
-         });
+         };
+         final Collection<?> keysToLock = getKeysToLock(cmd, cr);
+         if (cmd instanceof StateResponseCommand) {
+            // Don't hold a thread while other chunks of state are being applied
+            final StateConsumer stateConsumer = cr.getComponent(StateConsumer.class);
+            remoteCommandsExecutor.execute(new Runnable() {
+               @Override
+               public void run() {
+                  stateConsumer.executeWithInboundChunkPermit(task);
+               }
+            });
+         } else if (keysToLock == null) {
+            remoteCommandsExecutor.execute(task);
+         } else {
+            // Don't hold a thread while the keys are locked by other transactions
+            final long lockTimeout = cr.getComponent(Configuration.class).locking().lockAcquisitionTimeout();
+            final GlobalTransaction globalTransaction = ((TransactionBoundaryCommand) cmd).getGlobalTransaction();
+            boolean available = cr.getComponent(LockManager.class).invokeWhenLocksAvailable(keysToLock,
+                  globalTransaction, lockTimeout, new LockRequestCallback() {
+               @Override
+               public void locksAvailable() {
+                  // already running in the async operations executor
+                  task.run();
+               }
+
+               @Override
+               public void timedOut() {
+                  // the originator's lock timeout is used up, don't wait for the locks again
+                  Response resp = new ExceptionResponse(new TimeoutException("Unable to acquire locks after [" +
+                        Util.prettyPrintTime(lockTimeout) + "] on keys " + keysToLock + " for requestor [" +
+                        globalTransaction + "]"));
+                  reply(response, resp);
+                  afterResponseSent(cmd, resp);
+               }
+            });
+            if (available) {
+               remoteCommandsExecutor.execute(task);
+            }
+         }
          return;
       }
       Response resp = handleInternal(cmd, cr);
@@ -188,6 +239,33 @@ public void run() {
       afterResponseSent(cmd, resp);
    }
    
+   /**
+    * @return the keys the locking interceptors will lock when executing the command, or null if the command does not
+    *         acquire locks that might be held by other transactions
+    */
+   private Collection<?> getKeysToLock(CacheRpcCommand cmd, ComponentRegistry cr) {
+      Configuration configuration = cr.getComponent(Configuration.class);
+      // deadlocks can only be detected by the threads waiting for the locks
+      if (!configuration.transaction().transactionMode().isTransactional() ||
+            configuration.transaction().transactionProtocol().isTotalOrder() ||
+            configuration.deadlockDetection().enabled()) {
+         return null;
+      }
+      if (cmd instanceof LockControlCommand) {
+         LockControlCommand lockControlCommand = (LockControlCommand) cmd;
+         if (lockControlCommand.isUnlock() || lockControlCommand.hasFlag(Flag.SKIP_LOCKING) ||
+               lockControlCommand.hasFlag(Flag.ZERO_LOCK_ACQUISITION_TIMEOUT)) {
+            return null;
+         }
+         return lockControlCommand.getKeys();
+      } else if (cmd instanceof PrepareCommand) {
+         Object[] keys = ((PrepareCommand) cmd).getAffectedKeysToLock(false);
+         // a clear locks all the keys
+         return keys == null || keys.length == 0 ? null : Arrays.asList(keys);
+      }
+      return null;
+   }
+
    private void reply(org.jgroups.blocks.Response response, Object retVal) {
       if (response != null) {
          response.send(retVal, false);
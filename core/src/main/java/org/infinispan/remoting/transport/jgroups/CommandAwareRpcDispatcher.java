@@ -9,6 +9,8 @@
 import org.infinispan.commons.util.Util;
 import org.infinispan.context.Flag;
 import org.infinispan.factories.GlobalComponentRegistry;
+import org.infinispan.marshall.core.MarshallingBufferPool;
+import org.infinispan.marshall.core.MarshallingBufferPool.PooledBuffer;
 import org.infinispan.remoting.responses.SuccessfulResponse;
 import org.infinispan.statetransfer.StateRequestCommand;
 import org.infinispan.statetransfer.StateResponseCommand;
@@ -73,6 +75,7 @@ public class CommandAwareRpcDispatcher extends RpcDispatcher {
    private final JGroupsTransport transport;
    private final GlobalComponentRegistry gcr;
    private final BackupReceiverRepository backupReceiverRepository;
+   private final MarshallingBufferPool bufferPool;
 
    public CommandAwareRpcDispatcher(Channel channel,
                                     JGroupsTransport transport,
@@ -87,6 +90,7 @@ public CommandAwareRpcDispatcher(Channel channel,
       this.transport = transport;
       this.gcr = gcr;
       this.backupReceiverRepository = backupReceiverRepository;
+      this.bufferPool = gcr.getComponent(MarshallingBufferPool.class);
 
       // MessageDispatcher superclass constructors will call start() so perform all init here
       this.setMembershipListener(transport);
@@ -335,6 +339,26 @@ static Buffer marshallCall(Marshaller marshaller, ReplicableCommand command) {
       return buf;
    }
 
+   /**
+    * Marshalls the command into a buffer from the {@link MarshallingBufferPool}, or returns {@code null} if the
+    * marshaller can't write into it. The buffer must only be released once all the recipients have received the
+    * message, as JGroups keeps referencing it until then and could retransmit it.
+    */
+   private static PooledBuffer marshallPooledCall(MarshallingBufferPool pool, Marshaller marshaller, ReplicableCommand command) {
+      if (pool == null || !(marshaller instanceof MarshallerAdapter))
+         return null;
+
+      try {
+         return pool.marshall(((MarshallerAdapter) marshaller).m, command);
+      } catch (Exception e) {
+         throw new RuntimeException("Failure to marshal argument(s)", e);
+      }
+   }
+
+   private static Buffer toBuffer(PooledBuffer pooledBuf) {
+      return new Buffer(pooledBuf.getBuf(), 0, pooledBuf.size());
+   }
+
    private static Response processSingleCall(ReplicableCommand command, long timeout,
                                              Address destination, ResponseMode mode,
                                              Marshaller marshaller, CommandAwareRpcDispatcher card, boolean oob,
@@ -349,9 +373,15 @@ private static Response processSingleCall(ReplicableCommand command, long timeou
 
       Response retval;
       Buffer buf;
-      buf = marshallCall(marshaller, command);
+      PooledBuffer pooledBuf = null;
+      if (mode != ResponseMode.GET_NONE)
+         pooledBuf = marshallPooledCall(card.bufferPool, marshaller, command);
+      buf = pooledBuf != null ? toBuffer(pooledBuf) : marshallCall(marshaller, command);
       retval = card.sendMessage(constructMessage(buf, destination, oob, mode, rsvp, false),
                                 new RequestOptions(mode, timeout));
+      // sendMessage() only returns once the recipient replied, so it doesn't need the message any more
+      if (pooledBuf != null)
+         card.bufferPool.release(pooledBuf);
 
       // we only bother parsing responses if we are not in ASYNC mode.
       if (trace) log.tracef("Response: %s", retval);
@@ -389,7 +419,11 @@ private static RspList<Object> processCalls(ReplicableCommand command, boolean b
 
          retval = card.castMessage(dests, message, new RequestOptions(mode, timeout, false, filter));
       } else if (broadcast || FORCE_MCAST) {
-         buf = marshallCall(marshaller, command);
+         // With a filter or with FORCE_MCAST, members that weren't waited for might still need the message
+         PooledBuffer pooledBuf = null;
+         if (broadcast && filter == null && mode == ResponseMode.GET_ALL)
+            pooledBuf = marshallPooledCall(card.bufferPool, marshaller, command);
+         buf = pooledBuf != null ? toBuffer(pooledBuf) : marshallCall(marshaller, command);
          RequestOptions opts = new RequestOptions(mode, timeout, false, filter);
 
          //Only the commands in total order must be received...
@@ -397,6 +431,8 @@ private static RspList<Object> processCalls(ReplicableCommand command, boolean b
          opts.setExclusionList(card.getChannel().getAddress());
 
          retval = card.castMessage(dests, constructMessage(buf, null, oob, mode, rsvp, totalOrder),opts);
+         if (pooledBuf != null && allReceived(retval))
+            card.bufferPool.release(pooledBuf);
       } else {
          RequestOptions opts = new RequestOptions(mode, timeout);
 
@@ -404,7 +440,10 @@ private static RspList<Object> processCalls(ReplicableCommand command, boolean b
          opts.setExclusionList(card.getChannel().getAddress());
 
          if (dests.isEmpty()) return new RspList<Object>();
-         buf = marshallCall(marshaller, command);
+         PooledBuffer pooledBuf = null;
+         if (filter == null && mode == ResponseMode.GET_ALL)
+            pooledBuf = marshallPooledCall(card.bufferPool, marshaller, command);
+         buf = pooledBuf != null ? toBuffer(pooledBuf) : marshallCall(marshaller, command);
 
          // if at all possible, try not to use JGroups' ANYCAST for now.  Multiple (parallel) UNICASTs are much faster.
          if (filter != null) {
@@ -425,6 +464,7 @@ private static RspList<Object> processCalls(ReplicableCommand command, boolean b
                futures.put(dest, card.sendMessageWithFuture(constructMessage(buf, dest, oob, mode, rsvp, false), opts));
 
             retval = new RspList<Object>();
+            boolean allReceived = true;
 
             // a get() on each future will block till that call completes.
             for (Map.Entry<Address, Future<Object>> entry : futures.entrySet()) {
@@ -437,11 +477,14 @@ private static RspList<Object> processCalls(ReplicableCommand command, boolean b
                } catch (ExecutionException e) {
                   if (ignoreLeavers && e.getCause() instanceof SuspectedException) {
                      log.tracef(formatString("Ignoring node %s that left during the remote call", target));
+                     allReceived = false;
                   } else {
                      throw e;
                   }
                }
             }
+            if (pooledBuf != null && allReceived)
+               card.bufferPool.release(pooledBuf);
          } else if (mode == ResponseMode.GET_NONE) {
             // An ASYNC call.  We don't care about responses.
             for (Address dest : dests) card.sendMessage(constructMessage(buf, dest, oob, mode, rsvp, false), opts);
@@ -464,6 +507,16 @@ private static RspList<Object> processCalls(ReplicableCommand command, boolean b
       return retval;
    }
 
+   private static boolean allReceived(RspList<Object> rsps) {
+      if (rsps == null)
+         return false;
+      for (Rsp<Object> rsp : rsps.values()) {
+         if (!rsp.wasReceived() || rsp.wasSuspected() || rsp.wasUnreachable())
+            return false;
+      }
+      return true;
+   }
+
    private static boolean isRsvpCommand(ReplicableCommand command) {
       return command instanceof FlagAffectedCommand
             && ((FlagAffectedCommand) command).hasFlag(Flag.GUARANTEED_DELIVERY);
@@ -4,17 +4,19 @@
 import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.commons.util.InfinispanCollections;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.DefaultEntrySizeCalculator;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.loaders.CacheLoaderException;
 import org.infinispan.loaders.manager.CacheLoaderManager;
+import org.infinispan.loaders.spi.CacheLoader;
 import org.infinispan.loaders.spi.CacheStore;
 import org.infinispan.remoting.rpc.ResponseMode;
 import org.infinispan.remoting.rpc.RpcManager;
 import org.infinispan.remoting.rpc.RpcOptions;
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.remoting.transport.jgroups.SuspectException;
-import org.infinispan.util.ReadOnlyDataContainerBackedKeySet;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -22,12 +24,18 @@
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Outbound state transfer task. Pushes data segments to another cluster member on request. Instances of
  * OutboundTransferTask are created and managed by StateTransferManagerImpl. There should be at most
  * one such task per destination at any time.
+ * <p/>
+ * Up to {@code maxConcurrentChunks} chunks are sent concurrently on the given sender executor, while the task goes on
+ * collecting the next ones. The entries of the cache store are read in parallel. The last chunk of each segment is
+ * only sent once all the other chunks were received.
  *
  * @author anistor@redhat.com
  * @since 5.2
@@ -48,6 +56,19 @@ public class OutboundTransferTask implements Runnable {
 
    private final int stateTransferChunkSize;
 
+   private final long stateTransferChunkSizeBytes;
+
+   private final int maxConcurrentChunks;
+
+   /**
+    * Limits the number of chunks being sent at any time to {@link #maxConcurrentChunks}.
+    */
+   private final Semaphore sendPermits;
+
+   private final ExecutorService chunkSenderExecutor;
+
+   private final DefaultEntrySizeCalculator entrySizeCalculator;
+
    private final ConsistentHash readCh;
 
    private final DataContainer dataContainer;
@@ -65,21 +86,33 @@ public class OutboundTransferTask implements Runnable {
    private final Map<Integer, List<InternalCacheEntry>> entriesBySegment = CollectionFactory.makeConcurrentMap();
 
    /**
-    * The total number of entries from all segments accumulated in entriesBySegment.
+    * The total number of entries from all segments accumulated in entriesBySegment. Guarded by this.
     */
    private int accumulatedEntries;
 
+   /**
+    * The estimated size of the entries accumulated in entriesBySegment, if chunks are bounded by size. Guarded by this.
+    */
+   private long accumulatedBytes;
+
    /**
     * The Future obtained from submitting this task to an executor service. This is used for cancellation.
     */
    private FutureTask<Void> runnableFuture;
 
+   /**
+    * The executor running this task, also used to read the cache store in parallel.
+    */
+   private ExecutorService executorService;
+
    private final RpcOptions rpcOptions;
 
    public OutboundTransferTask(Address destination, Set<Integer> segments, int stateTransferChunkSize,
-                               int topologyId, ConsistentHash readCh, StateProviderImpl stateProvider, DataContainer dataContainer,
+                               long stateTransferChunkSizeBytes, int topologyId, ConsistentHash readCh,
+                               StateProviderImpl stateProvider, DataContainer dataContainer,
                                CacheLoaderManager cacheLoaderManager, RpcManager rpcManager,
-                               CommandsFactory commandsFactory, long timeout, String cacheName) {
+                               CommandsFactory commandsFactory, long timeout, String cacheName,
+                               int maxConcurrentChunks, ExecutorService chunkSenderExecutor) {
       if (segments == null || segments.isEmpty()) {
          throw new IllegalArgumentException("Segments must not be null or empty");
       }
@@ -89,10 +122,18 @@ public OutboundTransferTask(Address destination, Set<Integer> segments, int stat
       if (stateTransferChunkSize <= 0) {
          throw new IllegalArgumentException("stateTransferChunkSize must be greater than 0");
       }
+      if (maxConcurrentChunks <= 0) {
+         throw new IllegalArgumentException("maxConcurrentChunks must be greater than 0");
+      }
       this.stateProvider = stateProvider;
       this.destination = destination;
       this.segments.addAll(segments);
       this.stateTransferChunkSize = stateTransferChunkSize;
+      this.stateTransferChunkSizeBytes = stateTransferChunkSizeBytes;
+      this.entrySizeCalculator = stateTransferChunkSizeBytes > 0 ? new DefaultEntrySizeCalculator() : null;
+      this.maxConcurrentChunks = maxConcurrentChunks;
+      this.sendPermits = new Semaphore(maxConcurrentChunks);
+      this.chunkSenderExecutor = chunkSenderExecutor;
       this.topologyId = topologyId;
       this.readCh = readCh;
       this.dataContainer = dataContainer;
@@ -110,6 +151,7 @@ public void execute(ExecutorService executorService) {
       if (runnableFuture != null) {
          throw new IllegalStateException("This task was already submitted");
       }
+      this.executorService = executorService;
       runnableFuture = new FutureTask<Void>(this, null) {
          @Override
          protected void done() {
@@ -131,11 +173,22 @@ public Set<Integer> getSegments() {
    public void run() {
       try {
          // send data container entries
-         for (InternalCacheEntry ice : dataContainer) {
-            Object key = ice.getKey();  //todo [anistor] should we check for expired entries?
-            int segmentId = readCh.getSegment(key);
-            if (segments.contains(segmentId)) {
-               sendEntry(ice, segmentId);
+         if (dataContainer instanceof SegmentedDataContainer
+               && ((SegmentedDataContainer) dataContainer).getNumSegments() == readCh.getNumSegments()) {
+            // only go through the requested segments
+            SegmentedDataContainer segmentedDataContainer = (SegmentedDataContainer) dataContainer;
+            for (int segmentId : segments) {
+               for (Iterator<InternalCacheEntry> it = segmentedDataContainer.iterator(segmentId); it.hasNext(); ) {
+                  sendEntry(it.next(), segmentId);
+               }
+            }
+         } else {
+            for (InternalCacheEntry ice : dataContainer) {
+               Object key = ice.getKey();  //todo [anistor] should we check for expired entries?
+               int segmentId = readCh.getSegment(key);
+               if (segments.contains(segmentId)) {
+                  sendEntry(ice, segmentId);
+               }
             }
          }
 
@@ -143,21 +196,22 @@ public void run() {
          CacheStore cacheStore = getCacheStore();
          if (cacheStore != null) {
             try {
-               //todo [anistor] need to extend CacheStore interface to be able to specify a filter when loading keys (ie. keys should belong to desired segments)
-               Set<Object> storedKeys = cacheStore.loadAllKeys(new ReadOnlyDataContainerBackedKeySet(dataContainer));
-               for (Object key : storedKeys) {
-                  int segmentId = readCh.getSegment(key);
-                  if (segments.contains(segmentId)) {
-                     try {
-                        InternalCacheEntry ice = cacheStore.load(key);
-                        if (ice != null) { // check entry still exists
-                           sendEntry(ice, segmentId);
-                        }
-                     } catch (CacheLoaderException e) {
-                        log.failedLoadingValueFromCacheStore(key, e);
+               // the entries are read in parallel, skipping those already sent from the data container
+               cacheStore.process(new CacheLoader.KeyFilter() {
+                  @Override
+                  public boolean shouldLoadKey(Object key) {
+                     return segments.contains(readCh.getSegment(key)) && !dataContainer.containsKey(key);
+                  }
+               }, new CacheLoader.CacheLoaderTask() {
+                  @Override
+                  public void processEntry(InternalCacheEntry ice, CacheLoader.TaskContext taskContext) throws InterruptedException {
+                     if (isCancelled()) {
+                        taskContext.stop();
+                        return;
                      }
+                     sendEntry(ice, readCh.getSegment(ice.getKey()));
                   }
-               }
+               }, executorService);
             } catch (CacheLoaderException e) {
                log.failedLoadingKeysFromCacheStore(e);
             }
@@ -168,7 +222,7 @@ public void run() {
          }
 
          // send the last chunk of all segments
-         sendEntries(true);
+         sendLastEntries();
       } catch (Throwable t) {
          // ignore eventual exceptions caused by cancellation (have InterruptedException as the root cause)
          if (!runnableFuture.isCancelled()) {
@@ -191,23 +245,83 @@ private CacheStore getCacheStore() {
       return null;
    }
 
-   private void sendEntry(InternalCacheEntry ice, int segmentId) {
-      // send if we have a full chunk
-      if (accumulatedEntries >= stateTransferChunkSize) {
-         sendEntries(false);
-         accumulatedEntries = 0;
+   private void sendEntry(InternalCacheEntry ice, int segmentId) throws InterruptedException {
+      List<StateChunk> chunks = null;
+      int chunkEntries = 0;
+      synchronized (this) {
+         List<InternalCacheEntry> entries = entriesBySegment.get(segmentId);
+         if (entries == null) {
+            entries = new ArrayList<InternalCacheEntry>();
+            entriesBySegment.put(segmentId, entries);
+         }
+         entries.add(ice);
+         accumulatedEntries++;
+         if (entrySizeCalculator != null) {
+            accumulatedBytes += entrySizeCalculator.calculateSize(ice.getKey(), ice);
+         }
+
+         // send if we have a full chunk
+         if (accumulatedEntries >= stateTransferChunkSize
+               || (entrySizeCalculator != null && accumulatedBytes >= stateTransferChunkSizeBytes)) {
+            chunkEntries = accumulatedEntries;
+            chunks = collectChunks(false);
+            accumulatedEntries = 0;
+            accumulatedBytes = 0;
+         }
+      }
+      if (chunks != null) {
+         sendChunks(chunks, chunkEntries);
+      }
+   }
+
+   /**
+    * Sends the accumulated entries on the sender executor, once less than maxConcurrentChunks chunks are being sent.
+    */
+   private void sendChunks(final List<StateChunk> chunks, final int chunkEntries) throws InterruptedException {
+      sendPermits.acquire();
+      if (chunkSenderExecutor != null) {
+         try {
+            chunkSenderExecutor.execute(new Runnable() {
+               @Override
+               public void run() {
+                  try {
+                     if (!isCancelled()) {
+                        sendEntries(chunks, chunkEntries, false);
+                     }
+                  } finally {
+                     sendPermits.release();
+                  }
+               }
+            });
+            return;
+         } catch (RejectedExecutionException e) {
+            // the state provider is stopping, send from this thread
+         }
+      }
+      try {
+         sendEntries(chunks, chunkEntries, false);
+      } finally {
+         sendPermits.release();
       }
+   }
 
-      List<InternalCacheEntry> entries = entriesBySegment.get(segmentId);
-      if (entries == null) {
-         entries = new ArrayList<InternalCacheEntry>();
-         entriesBySegment.put(segmentId, entries);
+   private void sendLastEntries() throws InterruptedException {
+      // wait for the chunks being sent, the last chunk must be received last in order to correctly detect completion of the stream of chunks
+      sendPermits.acquire(maxConcurrentChunks);
+      try {
+         List<StateChunk> chunks;
+         int chunkEntries;
+         synchronized (this) {
+            chunkEntries = accumulatedEntries;
+            chunks = collectChunks(true);
+         }
+         sendEntries(chunks, chunkEntries, true);
+      } finally {
+         sendPermits.release(maxConcurrentChunks);
       }
-      entries.add(ice);
-      accumulatedEntries++;
    }
 
-   private void sendEntries(boolean isLast) {
+   private List<StateChunk> collectChunks(boolean isLast) {
       List<StateChunk> chunks = new ArrayList<StateChunk>();
       for (Map.Entry<Integer, List<InternalCacheEntry>> e : entriesBySegment.entrySet()) {
          List<InternalCacheEntry> entries = e.getValue();
@@ -225,20 +339,24 @@ private void sendEntries(boolean isLast) {
             }
          }
       }
+      return chunks;
+   }
 
+   private void sendEntries(List<StateChunk> chunks, int chunkEntries, boolean isLast) {
       if (!chunks.isEmpty()) {
          if (trace) {
             if (isLast) {
-               log.tracef("Sending last chunk containing %d cache entries from segments %s of cache %s to node %s", accumulatedEntries, segments, cacheName, destination);
+               log.tracef("Sending last chunk containing %d cache entries from segments %s of cache %s to node %s", chunkEntries, segments, cacheName, destination);
             } else {
-               log.tracef("Sending %d cache entries from segments %s of cache %s to node %s", accumulatedEntries, entriesBySegment.keySet(), cacheName, destination);
+               log.tracef("Sending %d cache entries from segments %s of cache %s to node %s", chunkEntries, entriesBySegment.keySet(), cacheName, destination);
             }
          }
 
          StateResponseCommand cmd = commandsFactory.buildStateResponseCommand(rpcManager.getAddress(), topologyId, chunks);
-         // send synchronously, in order. it is important that the last chunk is received last in order to correctly detect completion of the stream of chunks
+         // send synchronously, so that a chunk is released only once the destination applied it
          try {
             rpcManager.invokeRemotely(Collections.singleton(destination), cmd, rpcOptions);
+            stateProvider.onEntriesSent(chunkEntries);
          } catch (SuspectException e) {
             log.errorf(e, "Node %s left cache %s: %s", destination, cacheName, e.getMessage());
             cancel();
@@ -285,6 +403,8 @@ public String toString() {
             ", destination=" + destination +
             ", segments=" + segments +
             ", stateTransferChunkSize=" + stateTransferChunkSize +
+            ", stateTransferChunkSizeBytes=" + stateTransferChunkSizeBytes +
+            ", maxConcurrentChunks=" + maxConcurrentChunks +
             ", timeout=" + timeout +
             ", cacheName='" + cacheName + '\'' +
             '}';
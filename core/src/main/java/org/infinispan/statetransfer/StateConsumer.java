@@ -31,8 +31,29 @@ public interface StateConsumer {
     */
    void onTopologyUpdate(CacheTopology cacheTopology, boolean isRebalance);
 
+   /**
+    * Runs a task applying received state, i.e. performing a {@link StateResponseCommand} and replying to it, once
+    * fewer than {@link org.infinispan.configuration.cache.StateTransferConfiguration#maxInboundChunks()} chunks are
+    * being applied. The calling thread never waits for a permit: if there is none, the task is queued and run by the
+    * thread which finishes applying an earlier chunk.
+    */
+   void executeWithInboundChunkPermit(Runnable task);
+
+   /**
+    * Applies the received cache entries.
+    */
    void applyState(Address sender, int topologyId, Collection<StateChunk> stateChunks);
 
+   /**
+    * @return the number of segments this node is still waiting to receive
+    */
+   int getPendingInboundSegmentCount();
+
+   /**
+    * @return the number of cache entries received per second during the current rebalance, or during the last one
+    */
+   double getInboundTransferRate();
+
    /**
     * Cancels all incoming state transfers. The already received data is not discarded.
     * This is executed when the cache is shutting down.
@@ -8,6 +8,7 @@
 import org.infinispan.commons.util.InfinispanCollections;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
@@ -46,6 +47,7 @@
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.infinispan.context.Flag.*;
 import static org.infinispan.factories.KnownComponentNames.ASYNC_TRANSPORT_EXECUTOR;
@@ -129,6 +131,21 @@ public class StateConsumerImpl implements StateConsumer {
 
    private RpcOptions rpcOptions;
 
+   /**
+    * The maximum number of chunks applied at the same time, or 0 if there is no limit. The senders wait for their
+    * chunks to be applied before sending more, so they are held back as well.
+    */
+   private int maxInboundChunks;
+
+   private final AtomicInteger inboundChunksInProgress = new AtomicInteger();
+
+   /**
+    * Tasks applying the chunks received while maxInboundChunks chunks were being applied.
+    */
+   private final Queue<Runnable> pendingInboundChunks = new ConcurrentLinkedQueue<Runnable>();
+
+   private final TransferRate inboundRate = new TransferRate();
+
    public StateConsumerImpl() {
    }
 
@@ -210,6 +227,8 @@ public void init(Cache cache,
       isTotalOrder = configuration.transaction().transactionProtocol().isTotalOrder();
 
       timeout = configuration.clustering().stateTransfer().timeout();
+
+      maxInboundChunks = Math.max(0, configuration.clustering().stateTransfer().maxInboundChunks());
    }
 
    public boolean hasActiveTransfers() {
@@ -258,6 +277,7 @@ public void onTopologyUpdate(final CacheTopology cacheTopology, final boolean is
             ownsData = true;
          }
          rebalanceInProgress.set(true);
+         inboundRate.start();
          cacheNotifier.notifyDataRehashed(cacheTopology.getCurrentCH(), cacheTopology.getPendingCH(),
                cacheTopology.getTopologyId(), true);
 
@@ -363,6 +383,7 @@ public void onTopologyUpdate(final CacheTopology cacheTopology, final boolean is
                // we have received a topology update without a pending CH, signalling the end of the rebalance
                boolean changed = rebalanceInProgress.compareAndSet(true, false);
                if (changed) {
+                  inboundRate.stop();
                   // if the coordinator changed, we might get two concurrent topology updates,
                   // but we only want to notify the @DataRehashed listeners once
                   cacheNotifier.notifyDataRehashed(previousReadCh, cacheTopology.getCurrentCH(),
@@ -399,6 +420,7 @@ private void notifyEndOfRebalanceIfNeeded(int topologyId) {
       if (waitingForState.get() && !hasActiveTransfers()) {
          if (waitingForState.compareAndSet(true, false)) {
             log.debugf("Finished receiving of segments for cache %s for topology %d.", cacheName, topologyId);
+            inboundRate.stop();
             stopApplyingState();
             stateTransferManager.notifyEndOfRebalance(topologyId);
          }
@@ -411,6 +433,41 @@ private Set<Integer> getOwnedSegments(ConsistentHash consistentHash) {
             : InfinispanCollections.<Integer>emptySet();
    }
 
+   @Override
+   public void executeWithInboundChunkPermit(Runnable task) {
+      if (maxInboundChunks == 0) {
+         task.run();
+         return;
+      }
+
+      pendingInboundChunks.add(task);
+      // Run the queued tasks as long as there are permits, the threads finishing a task run the next one
+      while (true) {
+         int inProgress = inboundChunksInProgress.get();
+         if (inProgress >= maxInboundChunks)
+            return;
+         if (!inboundChunksInProgress.compareAndSet(inProgress, inProgress + 1))
+            continue;
+
+         Runnable next = pendingInboundChunks.poll();
+         if (next != null) {
+            try {
+               next.run();
+            } catch (Throwable t) {
+               log.errorf(t, "Failed to apply state received by cache %s", cacheName);
+            } finally {
+               inboundChunksInProgress.decrementAndGet();
+            }
+         } else {
+            inboundChunksInProgress.decrementAndGet();
+            // a task may have been queued by a thread which found no permit before this one was released
+            if (pendingInboundChunks.isEmpty())
+               return;
+         }
+      }
+   }
+
+   @Override
    public void applyState(Address sender, int topologyId, Collection<StateChunk> stateChunks) {
       ConsistentHash wCh = cacheTopology.getWriteConsistentHash();
       // ignore responses received after we are no longer a member
@@ -442,6 +499,7 @@ public void applyState(Address sender, int topologyId, Collection<StateChunk> st
          if (inboundTransfer != null) {
             if (stateChunk.getCacheEntries() != null) {
                doApplyState(sender, stateChunk.getSegmentId(), stateChunk.getCacheEntries());
+               inboundRate.entriesTransferred(stateChunk.getCacheEntries().size());
             }
 
             inboundTransfer.onStateReceived(stateChunk.getSegmentId(), stateChunk.isLastChunk());
@@ -566,6 +624,19 @@ public void stop() {
       } catch (Throwable t) {
          log.errorf(t, "Failed to stop StateConsumer of cache %s on node %s", cacheName, rpcManager.getAddress());
       }
+      inboundRate.stop();
+   }
+
+   @Override
+   public int getPendingInboundSegmentCount() {
+      synchronized (this) {
+         return transfersBySegment.size();
+      }
+   }
+
+   @Override
+   public double getInboundTransferRate() {
+      return inboundRate.getEntriesPerSecond();
    }
 
    @Override
@@ -806,13 +877,30 @@ private void invalidateSegments(Set<Integer> newSegments, Set<Integer> segmentsT
       Set<Object> keysToRemove = new HashSet<Object>();
 
       // gather all keys from data container that belong to the segments that are being removed/moved to L1
-      for (InternalCacheEntry ice : dataContainer) {
-         Object key = ice.getKey();
-         int keySegment = getSegment(key);
-         if (segmentsToL1.contains(keySegment)) {
-            keysToL1.add(key);
-         } else if (!newSegments.contains(keySegment)) {
-            keysToRemove.add(key);
+      SegmentedDataContainer segmentedDataContainer = getSegmentedDataContainer();
+      Set<Integer> segmentsToRemove = null;
+      if (segmentedDataContainer != null) {
+         // only go through the segments we do not own
+         segmentsToRemove = new HashSet<Integer>();
+         for (int segment = 0; segment < segmentedDataContainer.getNumSegments(); segment++) {
+            if (newSegments.contains(segment))
+               continue;
+            if (!segmentsToL1.contains(segment))
+               segmentsToRemove.add(segment);
+            Set<Object> keys = segmentsToL1.contains(segment) ? keysToL1 : keysToRemove;
+            for (Iterator<InternalCacheEntry> it = segmentedDataContainer.iterator(segment); it.hasNext(); ) {
+               keys.add(it.next().getKey());
+            }
+         }
+      } else {
+         for (InternalCacheEntry ice : dataContainer) {
+            Object key = ice.getKey();
+            int keySegment = getSegment(key);
+            if (segmentsToL1.contains(keySegment)) {
+               keysToL1.add(key);
+            } else if (!newSegments.contains(keySegment)) {
+               keysToRemove.add(key);
+            }
          }
       }
 
@@ -867,6 +955,23 @@ private void invalidateSegments(Set<Integer> newSegments, Set<Integer> segmentsT
             log.failedToInvalidateKeys(e);
          }
       }
+
+      // without L1, nothing can be stored in these segments, release them altogether
+      if (segmentsToRemove != null && !configuration.clustering().l1().enabled()) {
+         segmentedDataContainer.removeSegments(segmentsToRemove);
+      }
+   }
+
+   /**
+    * @return the data container, if it is partitioned by segment the same way as the consistent hash, or {@code null}
+    */
+   private SegmentedDataContainer getSegmentedDataContainer() {
+      if (dataContainer instanceof SegmentedDataContainer) {
+         SegmentedDataContainer segmentedDataContainer = (SegmentedDataContainer) dataContainer;
+         if (segmentedDataContainer.getNumSegments() == cacheTopology.getReadConsistentHash().getNumSegments())
+            return segmentedDataContainer;
+      }
+      return null;
    }
 
    /**
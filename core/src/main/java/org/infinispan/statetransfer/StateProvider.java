@@ -49,6 +49,11 @@ public interface StateProvider {
     */
    void startOutboundTransfer(Address destination, int topologyId, Set<Integer> segments) throws InterruptedException;
 
+   /**
+    * @return the number of cache entries sent per second by the current outbound state transfer, or by the last one
+    */
+   double getOutboundTransferRate();
+
    /**
     * Cancel sending of cache entries that belong to the given set of segments. This is invoked in response to a
     * StateRequestCommand of type StateRequestCommand.Type.CANCEL_STATE_TRANSFER.
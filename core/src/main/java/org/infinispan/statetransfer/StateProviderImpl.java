@@ -27,6 +27,7 @@
 import java.util.concurrent.ExecutorService;
 
 import static org.infinispan.factories.KnownComponentNames.ASYNC_TRANSPORT_EXECUTOR;
+import static org.infinispan.factories.KnownComponentNames.STATE_TRANSFER_EXECUTOR;
 
 /**
  * {@link StateProvider} implementation.
@@ -52,6 +53,15 @@ public class StateProviderImpl implements StateProvider {
    private StateTransferLock stateTransferLock;
    private long timeout;
    private int chunkSize;
+   private long chunkSizeBytes;
+   private int maxOutboundChunks;
+
+   /**
+    * Sends the chunks of the outbound transfers, if more than one chunk can be sent at a time to a destination.
+    */
+   private ExecutorService chunkSenderExecutor;
+
+   private final TransferRate outboundRate = new TransferRate();
 
    private StateConsumer stateConsumer;
 
@@ -93,6 +103,13 @@ public void init(Cache cache,
       // ignore chunk sizes <= 0
       int chunkSize = configuration.clustering().stateTransfer().chunkSize();
       this.chunkSize = chunkSize > 0 ? chunkSize : Integer.MAX_VALUE;
+      chunkSizeBytes = configuration.clustering().stateTransfer().chunkSizeBytes();
+      maxOutboundChunks = configuration.clustering().stateTransfer().maxOutboundChunks();
+   }
+
+   @Inject
+   public void injectChunkSenderExecutor(@ComponentName(STATE_TRANSFER_EXECUTOR) ExecutorService chunkSenderExecutor) {
+      this.chunkSenderExecutor = chunkSenderExecutor;
    }
 
    public boolean isStateTransferInProgress() {
@@ -155,6 +172,12 @@ public void stop() {
       } catch (Throwable t) {
          log.errorf(t, "Failed to stop StateProvider of cache %s on node %s", cacheName, rpcManager.getAddress());
       }
+      outboundRate.stop();
+   }
+
+   @Override
+   public double getOutboundTransferRate() {
+      return outboundRate.getEntriesPerSecond();
    }
 
    public List<TransactionInfo> getTransactionsForSegments(Address destination, int requestTopologyId, Set<Integer> segments) throws InterruptedException {
@@ -260,8 +283,10 @@ public void startOutboundTransfer(Address destination, int requestTopologyId, Se
       final CacheTopology cacheTopology = getCacheTopology(requestTopologyId, destination, false);
 
       // the destination node must already have an InboundTransferTask waiting for these segments
-      OutboundTransferTask outboundTransfer = new OutboundTransferTask(destination, segments, chunkSize, cacheTopology.getTopologyId(),
-            cacheTopology.getReadConsistentHash(), this, dataContainer, cacheLoaderManager, rpcManager, commandsFactory, timeout, cacheName);
+      OutboundTransferTask outboundTransfer = new OutboundTransferTask(destination, segments, chunkSize, chunkSizeBytes,
+            cacheTopology.getTopologyId(), cacheTopology.getReadConsistentHash(), this, dataContainer, cacheLoaderManager,
+            rpcManager, commandsFactory, timeout, cacheName, maxOutboundChunks,
+            maxOutboundChunks > 1 ? chunkSenderExecutor : null);
       addTransfer(outboundTransfer);
       outboundTransfer.execute(executorService);
    }
@@ -271,6 +296,9 @@ private void addTransfer(OutboundTransferTask transferTask) {
          log.tracef("Adding outbound transfer of segments %s to %s", transferTask.getSegments(), transferTask.getDestination());
       }
       synchronized (transfersByDestination) {
+         if (transfersByDestination.isEmpty()) {
+            outboundRate.start();
+         }
          List<OutboundTransferTask> transfers = transfersByDestination.get(transferTask.getDestination());
          if (transfers == null) {
             transfers = new ArrayList<OutboundTransferTask>();
@@ -307,9 +335,16 @@ private void removeTransfer(OutboundTransferTask transferTask) {
                transfersByDestination.remove(transferTask.getDestination());
             }
          }
+         if (transfersByDestination.isEmpty()) {
+            outboundRate.stop();
+         }
       }
    }
 
+   void onEntriesSent(int count) {
+      outboundRate.entriesTransferred(count);
+   }
+
    void onTaskCompletion(OutboundTransferTask transferTask) {
       if (trace) {
          log.tracef("Removing %s outbound transfer of segments %s to %s for cache %s",
@@ -31,6 +31,15 @@ public interface StateTransferManager {
    @ManagedAttribute(description = "Checks whether there is a pending inbound state transfer on this cluster member.", displayName = "Is state transfer in progress?", dataType = DataType.TRAIT)
    boolean isStateTransferInProgress();
 
+   @ManagedAttribute(description = "The number of segments this cluster member is still waiting to receive.", displayName = "Pending inbound segments")
+   int getPendingInboundSegmentCount();
+
+   @ManagedAttribute(description = "The number of cache entries received per second during the current rebalance, or during the last one.", displayName = "Inbound transfer rate")
+   double getInboundTransferRate();
+
+   @ManagedAttribute(description = "The number of cache entries sent per second by the current outbound state transfers, or by the last ones.", displayName = "Outbound transfer rate")
+   double getOutboundTransferRate();
+
    /**
     * Checks if an inbound state transfer is in progress for a given key.
     *
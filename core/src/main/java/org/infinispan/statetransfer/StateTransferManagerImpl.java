@@ -221,6 +221,21 @@ public boolean isStateTransferInProgress() {
       return stateConsumer.isStateTransferInProgress();
    }
 
+   @Override
+   public int getPendingInboundSegmentCount() {
+      return stateConsumer.getPendingInboundSegmentCount();
+   }
+
+   @Override
+   public double getInboundTransferRate() {
+      return stateConsumer.getInboundTransferRate();
+   }
+
+   @Override
+   public double getOutboundTransferRate() {
+      return stateProvider.getOutboundTransferRate();
+   }
+
    @Override
    public boolean isStateTransferInProgressForKey(Object key) {
       return stateConsumer.isStateTransferInProgressForKey(key);
@@ -0,0 +1,49 @@
+package org.infinispan.statetransfer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the number of cache entries transferred per second, from the start of a state transfer until its end. Once
+ * the transfer is over, the rate of that transfer is reported until the next one starts.
+ *
+ * @since 6.0
+ */
+class TransferRate {
+
+   private final AtomicLong entries = new AtomicLong();
+   private long startTime;
+   private long endTime;
+   private boolean started;
+   private boolean inProgress;
+
+   synchronized void start() {
+      if (!inProgress) {
+         started = true;
+         inProgress = true;
+         entries.set(0);
+         startTime = System.nanoTime();
+      }
+   }
+
+   synchronized void stop() {
+      if (inProgress) {
+         inProgress = false;
+         endTime = System.nanoTime();
+      }
+   }
+
+   void entriesTransferred(int count) {
+      entries.addAndGet(count);
+   }
+
+   /**
+    * @return the number of entries transferred per second, or 0 if no transfer took place yet
+    */
+   synchronized double getEntriesPerSecond() {
+      if (!started)
+         return 0;
+      long duration = (inProgress ? System.nanoTime() : endTime) - startTime;
+      return duration <= 0 ? 0 : entries.get() * (double) TimeUnit.SECONDS.toNanos(1) / duration;
+   }
+}
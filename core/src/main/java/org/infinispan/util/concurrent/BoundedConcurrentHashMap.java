@@ -19,9 +19,7 @@
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 
 
@@ -137,6 +135,20 @@
     */
    static final int MAX_SEGMENTS = 1 << 16; // slightly conservative
 
+   /**
+    * The smallest entry size assumed when sizing the tables of a map bounded only by memory, which
+    * cannot know up front how many entries it will hold. Entries are rarely this small, which keeps
+    * hash chains short: removing an entry clones the nodes ahead of it in its chain, and cloned
+    * nodes lose their place in the eviction order.
+    */
+   static final int MEMORY_BOUNDED_ENTRY_SIZE_HINT = 64;
+
+   /**
+    * The largest table capacity, across all segments, allocated up front for a map bounded only by
+    * memory.
+    */
+   static final int MEMORY_BOUNDED_MAXIMUM_CAPACITY = 1 << 24;
+
    /**
     * Number of unsynchronized retries in size and containsValue
     * methods before resorting to locking. This is used to avoid
@@ -170,7 +182,10 @@
    private transient final Equivalence<K> keyEquivalence;
    private transient final Equivalence<V> valueEquivalence;
    private transient final EvictionListener<K, V> evictionListener;
+   private transient final EntrySizeCalculator<? super K, ? super V> sizeCalculator;
    private final int evictCap;
+   private final long maxMemory;
+   private final long evictMemory;
 
    /* ---------------- Small Utilities -------------- */
 
@@ -220,6 +235,11 @@ final Segment<K,V> segmentFor(int hash) {
       final int hash;
       volatile V value;
       final HashEntry<K, V> next;
+      /**
+       * Estimated memory footprint of this entry, only maintained (under the segment lock) when the map is bounded
+       * by memory.
+       */
+      int memorySize;
 
       HashEntry(K key, int hash, HashEntry<K, V> next, V value) {
          this.key = key;
@@ -271,16 +291,22 @@ public <K, V> EvictionPolicy<K, V> make(Segment<K, V> s, int capacity, float lf)
          public <K, V> EvictionPolicy<K, V> make(Segment<K, V> s, int capacity, float lf) {
             boolean isIBMJavaVendor = Util.isIBMJavaVendor();
             if (isIBMJavaVendor) {
-               return new IBMLRU<K, V>(s,capacity,lf,capacity*10,lf);
+               return new IBMLRU<K, V>(s,capacity,lf,lf);
             } else {
-               return new LRU<K, V>(s,capacity,lf,capacity*10,lf);
+               return new LRU<K, V>(s,capacity,lf,lf);
             }
          }
       },
       LIRS {
          @Override
          public <K, V> EvictionPolicy<K, V> make(Segment<K, V> s, int capacity, float lf) {
-            return new LIRS<K,V>(s,capacity,capacity*10,lf);
+            return new LIRS<K,V>(s,capacity,lf);
+         }
+      },
+      TINY_LFU {
+         @Override
+         public <K, V> EvictionPolicy<K, V> make(Segment<K, V> s, int capacity, float lf) {
+            return new TinyLFU<K, V>(s, capacity, lf);
          }
       };
 
@@ -298,6 +324,18 @@ public <K, V> EvictionPolicy<K, V> make(Segment<K, V> s, int capacity, float lf)
       void onEntryRemoved(Object key);
    }
 
+   /**
+    * Estimates the memory retained by a mapping, used when the map is bounded by memory rather than (or as well as) by
+    * number of entries.
+    */
+   public interface EntrySizeCalculator<K, V> {
+
+      /**
+       * @return the estimated number of bytes retained by the given key and value, including any per-entry overhead
+       */
+      long calculateSize(K key, V value);
+   }
+
    static final class NullEvictionListener<K, V> implements EvictionListener<K, V> {
       @Override
       public void onEntryEviction(Map<K, V> evicted) {
@@ -319,8 +357,6 @@ public void onEntryRemoved(Object key) {
 
    public interface EvictionPolicy<K, V> {
 
-      int MAX_BATCH_SIZE = 64;
-      
       HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V value);
 
       /**
@@ -388,6 +424,26 @@ public void onEntryRemoved(Object key) {
        * @return true if batching threshold has expired, false otherwise.
        */
       boolean thresholdExpired();
+
+      /**
+       * Returns the entry this eviction algorithm would evict next, without evicting it. Used to free memory when the
+       * map is bounded by memory.
+       * <p>
+       * Invoked while holding a lock on Segment.
+       *
+       * @return the next entry to evict, or null if there is none
+       */
+      HashEntry<K, V> evictionCandidate();
+
+      /**
+       * Creates a copy of an entry, linked to a different next entry, to replace it in Segment. Hash
+       * entries are immutable, so removing an entry copies the entries ahead of it in its bucket.
+       * <p>
+       * Invoked while holding a lock on Segment.
+       *
+       * @return the copy, which the eviction algorithm now tracks instead of e
+       */
+      HashEntry<K, V> copyEntry(HashEntry<K, V> e, HashEntry<K, V> next);
    }
 
    static class NullEvictionPolicy<K, V> implements EvictionPolicy<K, V> {
@@ -426,6 +482,16 @@ public boolean thresholdExpired() {
       public Eviction strategy() {
          return Eviction.NONE;
       }
+
+      @Override
+      public HashEntry<K, V> evictionCandidate() {
+         return null;
+      }
+
+      @Override
+      public HashEntry<K, V> copyEntry(HashEntry<K, V> e, HashEntry<K, V> next) {
+         return createNewEntry(e.key, e.hash, next, e.value);
+      }
       
       @Override
       public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V value) {
@@ -438,33 +504,30 @@ public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V v
       /** The serialVersionUID */
       private static final long serialVersionUID = -7645068174197717838L;
 
-      private final ConcurrentLinkedQueue<HashEntry<K, V>> accessQueue;
+      private final ReadBuffer<HashEntry<K, V>> readBuffer;
+      private final List<HashEntry<K, V>> drained = new ArrayList<HashEntry<K, V>>();
       private final Segment<K,V> segment;
-      private final int maxBatchQueueSize;
       private final int trimDownSize;
-      private final float batchQueueSizeThreshold;
       private final Set<HashEntry<K, V>> evicted;
-      private final AtomicInteger accessQueueSize = new AtomicInteger(0);
 
-      public LRU(Segment<K,V> s, int capacity, float lf, int maxBatchSize, float batchThresholdFactor) {
-         super(capacity, lf, true);
+      public LRU(Segment<K,V> s, int capacity, float lf, float batchThresholdFactor) {
+         super(Math.min(capacity, DEFAULT_MAXIMUM_CAPACITY), lf, true);
          this.segment = s;
          this.trimDownSize = capacity;
-         this.maxBatchQueueSize = maxBatchSize > MAX_BATCH_SIZE ? MAX_BATCH_SIZE : maxBatchSize;
-         this.batchQueueSizeThreshold = batchThresholdFactor * this.maxBatchQueueSize;
-         this.accessQueue = new ConcurrentLinkedQueue<HashEntry<K, V>>();
+         this.readBuffer = new ReadBuffer<HashEntry<K, V>>(batchThresholdFactor);
          this.evicted = new HashSet<HashEntry<K, V>>();
       }
 
       @Override
       public Set<HashEntry<K, V>> execute() {
          Set<HashEntry<K, V>> evictedCopy = new HashSet<HashEntry<K, V>>();
-         for (HashEntry<K, V> e : accessQueue) {
-            put(e, e.value);
+         readBuffer.drainTo(drained);
+         for (HashEntry<K, V> e : drained) {
+            // moves the entry to the end of the access order, unless it was removed since it was read
+            get(e);
          }
+         drained.clear();
          evictedCopy.addAll(evicted);
-         accessQueue.clear();
-         accessQueueSize.set(0);
          evicted.clear();
          return evictedCopy;
       }
@@ -487,9 +550,7 @@ public Set<HashEntry<K, V>> onEntryMiss(HashEntry<K, V> e) {
        */
       @Override
       public boolean onEntryHit(HashEntry<K, V> e) {
-         accessQueue.add(e);
-         int sz = accessQueueSize.incrementAndGet();
-         return sz >= batchQueueSizeThreshold;
+         return readBuffer.offer(e);
       }
 
       /*
@@ -497,23 +558,19 @@ public boolean onEntryHit(HashEntry<K, V> e) {
        */
       @Override
       public boolean thresholdExpired() {
-         return accessQueueSize.get() >= maxBatchQueueSize;
+         return readBuffer.needsDrain();
       }
 
       @Override
       public void onEntryRemove(HashEntry<K, V> e) {
+         // e may still be in the read buffer, but draining it will not find it in the map any more
          remove(e);
-         // we could have multiple instances of e in accessQueue; remove them all
-         while (accessQueue.remove(e)) {
-            accessQueueSize.decrementAndGet();            
-         }
       }
 
       @Override
       public void clear() {
          super.clear();
-         accessQueue.clear();
-         accessQueueSize.set(0);
+         readBuffer.clear();
       }
 
       @Override
@@ -525,6 +582,21 @@ protected boolean isAboveThreshold(){
          return size() > trimDownSize;
       }
 
+      @Override
+      public HashEntry<K, V> evictionCandidate() {
+         // access ordered, so the first key is the least recently used one
+         return isEmpty() ? null : keySet().iterator().next();
+      }
+
+      @Override
+      public HashEntry<K, V> copyEntry(HashEntry<K, V> e, HashEntry<K, V> next) {
+         // the copy is tracked as if it was just added
+         onEntryRemove(e);
+         HashEntry<K, V> copy = createNewEntry(e.key, e.hash, next, e.value);
+         onEntryMiss(copy);
+         return copy;
+      }
+
       @Override
       protected boolean removeEldestEntry(Map.Entry<HashEntry<K,V>,V> eldest){
          boolean aboveThreshold = isAboveThreshold();
@@ -551,22 +623,18 @@ public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V v
 
       private static final long serialVersionUID = -6475176618082216057L;
 
-      private final ConcurrentLinkedQueue<LRUHashEntry<K, V>> accessQueue;
+      private final ReadBuffer<LRUHashEntry<K, V>> readBuffer;
+      private final List<LRUHashEntry<K, V>> drained = new ArrayList<LRUHashEntry<K, V>>();
       private final Segment<K,V> segment;
-      private final int maxBatchQueueSize;
       private final int trimDownSize;
-      private final float batchQueueSizeThreshold;
       private final Set<HashEntry<K, V>> evicted;
       private LRUHashEntry<K, V> head;
-      private final AtomicInteger accessQueueSize = new AtomicInteger(0);
 
-      public IBMLRU(Segment<K,V> s, int capacity, float lf, int maxBatchSize, float batchThresholdFactor) {
-         super(capacity, lf);
+      public IBMLRU(Segment<K,V> s, int capacity, float lf, float batchThresholdFactor) {
+         super(Math.min(capacity, DEFAULT_MAXIMUM_CAPACITY), lf);
          this.segment = s;
          this.trimDownSize = capacity;
-         this.maxBatchQueueSize = maxBatchSize > MAX_BATCH_SIZE ? MAX_BATCH_SIZE : maxBatchSize;
-         this.batchQueueSizeThreshold = batchThresholdFactor * this.maxBatchQueueSize;
-         this.accessQueue = new ConcurrentLinkedQueue<LRUHashEntry<K, V>>();
+         this.readBuffer = new ReadBuffer<LRUHashEntry<K, V>>(batchThresholdFactor);
          this.evicted = new HashSet<HashEntry<K, V>>();
          this.head = (LRUHashEntry<K, V>) createNewEntry(null,-1, null, null);
          this.head.previousEntry = this.head.nextEntry = this.head;
@@ -575,13 +643,16 @@ public IBMLRU(Segment<K,V> s, int capacity, float lf, int maxBatchSize, float ba
       @Override
       public Set<HashEntry<K, V>> execute() {
          Set<HashEntry<K, V>> evictedCopy = new HashSet<HashEntry<K, V>>();
-         for (HashEntry<K, V> e : accessQueue) {
-            put(e, e.value);
-            addAndRemoveEldest(e);
+         readBuffer.drainTo(drained);
+         for (LRUHashEntry<K, V> e : drained) {
+            // skip entries removed since they were read
+            if (e.isLinked()) {
+               e.remove();
+               e.addBefore(head);
+            }
          }
+         drained.clear();
          evictedCopy.addAll(evicted);
-         accessQueue.clear();
-         accessQueueSize.set(0);
          evicted.clear();
          return evictedCopy;
       }
@@ -617,9 +688,7 @@ public void addAndRemoveEldest(HashEntry<K, V> entry) {
        */
       @Override
       public boolean onEntryHit(HashEntry<K, V> e) {
-         accessQueue.add((LRUHashEntry<K, V>) e);
-         int sz = accessQueueSize.incrementAndGet();
-         return sz >= batchQueueSizeThreshold;
+         return readBuffer.offer((LRUHashEntry<K, V>) e);
       }
 
       /*
@@ -627,17 +696,16 @@ public boolean onEntryHit(HashEntry<K, V> e) {
        */
       @Override
       public boolean thresholdExpired() {
-         return accessQueueSize.get() >= maxBatchQueueSize;
+         return readBuffer.needsDrain();
       }
 
       @Override
       public void onEntryRemove(HashEntry<K, V> e) {
          remove(e);
-         //remove entry from doubly-linked list
-         ((LRUHashEntry<K, V>)e).remove();
-         // we could have multiple instances of e in accessQueue; remove them all
-         while (accessQueue.remove(e)) {
-            accessQueueSize.decrementAndGet();            
+         //remove entry from doubly-linked list, unless it was already evicted
+         LRUHashEntry<K, V> entry = (LRUHashEntry<K, V>) e;
+         if (entry.isLinked()) {
+            entry.remove();
          }
       }
 
@@ -645,8 +713,7 @@ public void onEntryRemove(HashEntry<K, V> e) {
       public void clear() {
          super.clear();
          head.previousEntry = head.nextEntry = head;
-         accessQueue.clear();
-         accessQueueSize.set(0);
+         readBuffer.clear();
       }
 
       @Override
@@ -658,6 +725,20 @@ protected boolean isAboveThreshold(){
          return size() > trimDownSize;
       }
 
+      @Override
+      public HashEntry<K, V> evictionCandidate() {
+         return head.nextEntry == head ? null : head.nextEntry;
+      }
+
+      @Override
+      public HashEntry<K, V> copyEntry(HashEntry<K, V> e, HashEntry<K, V> next) {
+         // the copy is tracked as if it was just added
+         onEntryRemove(e);
+         HashEntry<K, V> copy = createNewEntry(e.key, e.hash, next, e.value);
+         onEntryMiss(copy);
+         return copy;
+      }
+
       public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V value) {
          return new LRUHashEntry<K, V>(key, hash, next, value);
       }
@@ -679,6 +760,11 @@ public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V v
       private void remove() {
          previousEntry.nextEntry = nextEntry;
          nextEntry.previousEntry = previousEntry;
+         previousEntry = nextEntry = null;
+      }
+
+      private boolean isLinked() {
+         return previousEntry != null;
       }
 
       private void addBefore(LRUHashEntry<K,V> entry) {
@@ -1108,29 +1194,19 @@ private V remove() {
       private final Segment<K,V> segment;
       
       /**
-       * The accessQueue for reducing lock contention 
+       * The read buffer for reducing lock contention 
        * See "BP-Wrapper: a system framework making any replacement algorithms
        * (almost) lock contention free"
        *  
        * http://www.cse.ohio-state.edu/hpcs/WWW/HTML/publications/abs09-1.html
        * 
        * */
-      private final ConcurrentLinkedQueue<LIRSHashEntry<K, V>> accessQueue;
-      private final AtomicInteger accessQueueSize = new AtomicInteger(0);
-      
-      /**
-       * The maxBatchQueueSize
-       * 
-       * See "BP-Wrapper: a system framework making any replacement algorithms (almost) lock
-       * contention free"
-       * */
-      private final int maxBatchQueueSize;     
+      private final ReadBuffer<LIRSHashEntry<K, V>> readBuffer;
+      private final List<LIRSHashEntry<K, V>> drained = new ArrayList<LIRSHashEntry<K, V>>();
       
       /** The number of LIRS entries in a segment */
       private int size;
       
-      private final float batchQueueSizeThreshold;
-      
       
       /**
        * This header encompasses two data structures:
@@ -1163,13 +1239,11 @@ private V remove() {
 
             
 
-      public LIRS(Segment<K,V> s, int capacity, int maxBatchSize, float batchThresholdFactor) {
+      public LIRS(Segment<K,V> s, int capacity, float batchThresholdFactor) {
          this.segment = s;
          this.maximumSize = capacity;
          this.maximumHotSize = calculateLIRSize(capacity);
-         this.maxBatchQueueSize = maxBatchSize > MAX_BATCH_SIZE ? MAX_BATCH_SIZE : maxBatchSize;
-         this.batchQueueSizeThreshold = batchThresholdFactor * this.maxBatchQueueSize;
-         this.accessQueue = new ConcurrentLinkedQueue<LIRSHashEntry<K, V>>();                         
+         this.readBuffer = new ReadBuffer<LIRSHashEntry<K, V>>(batchThresholdFactor);
       }
       
       private static int calculateLIRSize(int maximumSize) {
@@ -1181,15 +1255,15 @@ private static int calculateLIRSize(int maximumSize) {
       public Set<HashEntry<K, V>> execute() {
          Set<HashEntry<K, V>> evicted = new HashSet<HashEntry<K, V>>();
          try {
-            for (LIRSHashEntry<K, V> e : accessQueue) {
+            readBuffer.drainTo(drained);
+            for (LIRSHashEntry<K, V> e : drained) {
                if(e.isResident()){ 
                   e.hit(evicted);
                }
             }
             removeFromSegment(evicted);
          } finally {
-            accessQueue.clear();
-            accessQueueSize.set(0);
+            drained.clear();
          }
          return evicted;
       }          
@@ -1241,9 +1315,7 @@ private void removeFromSegment(Set<HashEntry<K, V>> evicted) {
        */
       @Override
       public boolean onEntryHit(HashEntry<K, V> e) {
-         accessQueue.add((LIRSHashEntry<K, V>) e);
-         int sz = accessQueueSize.incrementAndGet();
-         return sz >= batchQueueSizeThreshold;
+         return readBuffer.offer((LIRSHashEntry<K, V>) e);
       }
 
       /*
@@ -1251,23 +1323,18 @@ public boolean onEntryHit(HashEntry<K, V> e) {
        */
       @Override
       public boolean thresholdExpired() {
-         return accessQueueSize.get() >= maxBatchQueueSize;
+         return readBuffer.needsDrain();
       }
 
       @Override
       public void onEntryRemove(HashEntry<K, V> e) {
-         
+         // e may still be in the read buffer, but it is not resident any more so draining skips it
          ((LIRSHashEntry<K,V>)e).remove();
-         // we could have multiple instances of e in accessQueue; remove them all
-         while (accessQueue.remove(e)) {
-            accessQueueSize.decrementAndGet();
-         }
       }
 
       @Override
       public void clear() {
-         accessQueue.clear();
-         accessQueueSize.set(0);
+         readBuffer.clear();
       }
 
       @Override
@@ -1275,6 +1342,22 @@ public Eviction strategy() {
          return Eviction.LIRS;
       }
 
+      @Override
+      public HashEntry<K, V> evictionCandidate() {
+         // cold resident entries go first; once there are none left, the least recent hot entry
+         LIRSHashEntry<K, V> front = queueFront();
+         return front != null ? front : stackBottom();
+      }
+
+      @Override
+      public HashEntry<K, V> copyEntry(HashEntry<K, V> e, HashEntry<K, V> next) {
+         // the copy is tracked as if it was just added
+         onEntryRemove(e);
+         HashEntry<K, V> copy = createNewEntry(e.key, e.hash, next, e.value);
+         onEntryMiss(copy);
+         return copy;
+      }
+
       /**
        * Returns the entry at the bottom of the stack.
        */
@@ -1306,6 +1389,283 @@ public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V v
       }
    }
 
+   private static final class TinyLFUHashEntry<K, V> extends HashEntry<K, V> {
+
+      static final byte REMOVED = 0;
+      static final byte WINDOW = 1;
+      static final byte PROBATION = 2;
+      static final byte PROTECTED = 3;
+
+      // doubly-linked list of the queue this entry is in, only accessed while holding the segment lock
+      TinyLFUHashEntry<K, V> previous;
+      TinyLFUHashEntry<K, V> next;
+      byte queue;
+
+      TinyLFUHashEntry(K key, int hash, HashEntry<K, V> next, V value) {
+         super(key, hash, next, value);
+      }
+
+      /**
+       * Creates the header of an empty queue.
+       */
+      static <K, V> TinyLFUHashEntry<K, V> newQueue() {
+         TinyLFUHashEntry<K, V> header = new TinyLFUHashEntry<K, V>(null, 0, null, null);
+         header.previous = header;
+         header.next = header;
+         return header;
+      }
+
+      void linkFirst(TinyLFUHashEntry<K, V> header, byte queue) {
+         this.queue = queue;
+         previous = header;
+         next = header.next;
+         next.previous = this;
+         header.next = this;
+      }
+
+      void unlink() {
+         previous.next = next;
+         next.previous = previous;
+         previous = null;
+         next = null;
+      }
+   }
+
+   /**
+    * Window TinyLFU eviction. New entries enter a small LRU window, sized at 1% of the capacity, which absorbs bursts
+    * of accesses. Entries leaving the window join the probation segment of a segmented LRU, and when the segment is
+    * full the newest entry on probation competes with the least recently used one: whichever a
+    * {@link FrequencySketch} estimates was accessed less often recently is evicted. Entries hit while on probation
+    * move to the protected segment, which takes up to 80% of the main space, so a scan of entries that are only
+    * accessed once cannot flush the frequently accessed ones.
+    * <p>
+    * Like the other policies, hits are recorded in a {@link ReadBuffer} and replayed when the segment lock is held, so
+    * the read path neither allocates nor blocks.
+    *
+    * @see <a href="http://arxiv.org/abs/1512.00727">TinyLFU: A Highly Efficient Cache Admission Policy</a>
+    */
+   static final class TinyLFU<K, V> implements EvictionPolicy<K, V> {
+
+      private static final float WINDOW_RATIO = 0.01f;
+      private static final float PROTECTED_RATIO = 0.8f;
+      /** The number of entries the sketch is first sized for when the segment is only bounded by memory. */
+      private static final int INITIAL_SKETCH_SIZE = 256;
+
+      private final Segment<K, V> segment;
+      /** Integer.MAX_VALUE if the segment is only bounded by memory. */
+      private final int maximumSize;
+      private final FrequencySketch sketch;
+      private final TinyLFUHashEntry<K, V> window = TinyLFUHashEntry.newQueue();
+      private final TinyLFUHashEntry<K, V> probation = TinyLFUHashEntry.newQueue();
+      private final TinyLFUHashEntry<K, V> protectedQueue = TinyLFUHashEntry.newQueue();
+      private int windowSize;
+      private int probationSize;
+      private int protectedSize;
+
+      private final ReadBuffer<TinyLFUHashEntry<K, V>> readBuffer;
+      private final List<TinyLFUHashEntry<K, V>> drained = new ArrayList<TinyLFUHashEntry<K, V>>();
+
+      public TinyLFU(Segment<K, V> s, int capacity, float batchThresholdFactor) {
+         this.segment = s;
+         this.maximumSize = capacity;
+         this.sketch = new FrequencySketch(capacity == Integer.MAX_VALUE ? INITIAL_SKETCH_SIZE : capacity);
+         this.readBuffer = new ReadBuffer<TinyLFUHashEntry<K, V>>(batchThresholdFactor);
+      }
+
+      @Override
+      public Set<HashEntry<K, V>> execute() {
+         drainReadBuffer();
+         // hits only reorder entries, evictions happen as entries are added
+         return new HashSet<HashEntry<K, V>>();
+      }
+
+      @Override
+      public Set<HashEntry<K, V>> onEntryMiss(HashEntry<K, V> en) {
+         TinyLFUHashEntry<K, V> e = (TinyLFUHashEntry<K, V>) en;
+         sketch.increment(e.hash);
+         e.linkFirst(window, TinyLFUHashEntry.WINDOW);
+         windowSize++;
+
+         int size = windowSize + probationSize + protectedSize;
+         if (maximumSize == Integer.MAX_VALUE && size > sketch.capacity()) {
+            sketch.ensureCapacity(size << 1);
+         }
+         int maxWindow = maxWindowSize();
+         while (windowSize > maxWindow) {
+            TinyLFUHashEntry<K, V> candidate = window.previous;
+            candidate.unlink();
+            windowSize--;
+            candidate.linkFirst(probation, TinyLFUHashEntry.PROBATION);
+            probationSize++;
+         }
+         if (size <= maximumSize) {
+            return InfinispanCollections.emptySet();
+         }
+
+         Set<HashEntry<K, V>> evicted = new HashSet<HashEntry<K, V>>();
+         while (size-- > maximumSize) {
+            HashEntry<K, V> victim = evictionCandidate();
+            unlink((TinyLFUHashEntry<K, V>) victim);
+            evicted.add(victim);
+         }
+         // the victims are no longer tracked, so removing them is not seen as a removal by the policy
+         for (HashEntry<K, V> victim : evicted) {
+            segment.remove(victim.key, victim.hash, null, true);
+         }
+         return evicted;
+      }
+
+      /*
+       * Invoked without holding a lock on Segment
+       */
+      @Override
+      public boolean onEntryHit(HashEntry<K, V> e) {
+         return readBuffer.offer((TinyLFUHashEntry<K, V>) e);
+      }
+
+      /*
+       * Invoked without holding a lock on Segment
+       */
+      @Override
+      public boolean thresholdExpired() {
+         return readBuffer.needsDrain();
+      }
+
+      @Override
+      public void onEntryRemove(HashEntry<K, V> e) {
+         TinyLFUHashEntry<K, V> entry = (TinyLFUHashEntry<K, V>) e;
+         if (entry.queue != TinyLFUHashEntry.REMOVED) {
+            unlink(entry);
+         }
+      }
+
+      @Override
+      public void clear() {
+         readBuffer.clear();
+         for (TinyLFUHashEntry<K, V> header : Arrays.asList(window, probation, protectedQueue)) {
+            while (header.next != header) {
+               unlink(header.next);
+            }
+         }
+         sketch.clear();
+      }
+
+      @Override
+      public Eviction strategy() {
+         return Eviction.TINY_LFU;
+      }
+
+      @Override
+      public HashEntry<K, V> evictionCandidate() {
+         TinyLFUHashEntry<K, V> victim = probation.previous;
+         TinyLFUHashEntry<K, V> candidate = probation.next;
+         if (victim == probation) {
+            // nothing on probation, so fall back to the window and then the protected entries
+            victim = window.previous != window ? window.previous : protectedQueue.previous;
+            return victim == protectedQueue ? null : victim;
+         }
+         // the entry most recently admitted from the window only stays if it is more popular than the victim
+         if (candidate != victim && sketch.frequency(candidate.hash) <= sketch.frequency(victim.hash)) {
+            return candidate;
+         }
+         return victim;
+      }
+
+      @Override
+      public HashEntry<K, V> copyEntry(HashEntry<K, V> e, HashEntry<K, V> next) {
+         TinyLFUHashEntry<K, V> original = (TinyLFUHashEntry<K, V>) e;
+         TinyLFUHashEntry<K, V> copy = new TinyLFUHashEntry<K, V>(e.key, e.hash, next, e.value);
+         if (original.queue != TinyLFUHashEntry.REMOVED) {
+            // take the place of the original, keeping its position in the eviction order
+            copy.queue = original.queue;
+            copy.previous = original.previous;
+            copy.next = original.next;
+            copy.previous.next = copy;
+            copy.next.previous = copy;
+            original.previous = null;
+            original.next = null;
+            original.queue = TinyLFUHashEntry.REMOVED;
+         }
+         return copy;
+      }
+
+      @Override
+      public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V value) {
+         return new TinyLFUHashEntry<K, V>(key, hash, next, value);
+      }
+
+      /**
+       * Replays the hits recorded since the last drain. Call only while holding lock.
+       */
+      private void drainReadBuffer() {
+         readBuffer.drainTo(drained);
+         for (TinyLFUHashEntry<K, V> e : drained) {
+            onAccess(e);
+         }
+         drained.clear();
+      }
+
+      private void onAccess(TinyLFUHashEntry<K, V> e) {
+         switch (e.queue) {
+            case TinyLFUHashEntry.WINDOW:
+               e.unlink();
+               e.linkFirst(window, TinyLFUHashEntry.WINDOW);
+               break;
+            case TinyLFUHashEntry.PROBATION:
+               e.unlink();
+               probationSize--;
+               e.linkFirst(protectedQueue, TinyLFUHashEntry.PROTECTED);
+               protectedSize++;
+               int maxProtected = maxProtectedSize();
+               while (protectedSize > maxProtected) {
+                  TinyLFUHashEntry<K, V> demoted = protectedQueue.previous;
+                  demoted.unlink();
+                  protectedSize--;
+                  demoted.linkFirst(probation, TinyLFUHashEntry.PROBATION);
+                  probationSize++;
+               }
+               break;
+            case TinyLFUHashEntry.PROTECTED:
+               e.unlink();
+               e.linkFirst(protectedQueue, TinyLFUHashEntry.PROTECTED);
+               break;
+            default:
+               // removed since it was read
+               return;
+         }
+         sketch.increment(e.hash);
+      }
+
+      private void unlink(TinyLFUHashEntry<K, V> e) {
+         switch (e.queue) {
+            case TinyLFUHashEntry.WINDOW:
+               windowSize--;
+               break;
+            case TinyLFUHashEntry.PROBATION:
+               probationSize--;
+               break;
+            case TinyLFUHashEntry.PROTECTED:
+               protectedSize--;
+               break;
+         }
+         e.unlink();
+         e.queue = TinyLFUHashEntry.REMOVED;
+      }
+
+      private int capacity() {
+         // a segment only bounded by memory sizes its queues after the number of entries it currently holds
+         return maximumSize == Integer.MAX_VALUE ? windowSize + probationSize + protectedSize : maximumSize;
+      }
+
+      private int maxWindowSize() {
+         return Math.max(1, (int) (capacity() * WINDOW_RATIO));
+      }
+
+      private int maxProtectedSize() {
+         return (int) ((capacity() - maxWindowSize()) * PROTECTED_RATIO);
+      }
+   }
+
    /**
     * Segments are specialized versions of hash tables.  This
     * subclasses from ReentrantLock opportunistically, just to
@@ -1390,6 +1750,11 @@ public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V v
 
       transient final BoundedConcurrentHashMap map;
 
+      /**
+       * Estimated memory retained by the entries in this segment. Only maintained when the map is bounded by memory.
+       */
+      transient volatile long memory;
+
       Segment(int cap, float lf, Eviction es, BoundedConcurrentHashMap map) {
          this.map = map;
          loadFactor = lf;
@@ -1516,9 +1881,11 @@ boolean replace(K key, int hash, V oldValue, V newValue) {
             if (e != null && map.valueEquivalence.equals(oldValue, e.value)) {
                replaced = true;
                e.value = newValue;
+               updateMemorySize(e);
                if (eviction.onEntryHit(e)) {
                   evicted = attemptEviction(true);
                }
+               evicted = evictToMemoryBound(evicted);
             }
             return replaced;
          } finally {
@@ -1540,9 +1907,11 @@ V replace(K key, int hash, V newValue) {
             if (e != null) {
                oldValue = e.value;
                e.value = newValue;
+               updateMemorySize(e);
                if (eviction.onEntryHit(e)) {
                   evicted = attemptEviction(true);
                }
+               evicted = evictToMemoryBound(evicted);
             }
             return oldValue;
          } finally {
@@ -1572,6 +1941,7 @@ V put(K key, int hash, V value, boolean onlyIfAbsent) {
                oldValue = e.value;
                if (!onlyIfAbsent) {
                   e.value = value;
+                  updateMemorySize(e);
                   eviction.onEntryHit(e);
                }
             } else {
@@ -1587,6 +1957,7 @@ V put(K key, int hash, V value, boolean onlyIfAbsent) {
                   }
                   // add a new entry
                   tab[index] = eviction.createNewEntry(key, hash, first, value);
+                  updateMemorySize(tab[index]);
                   // notify a miss
                   Set<HashEntry<K, V>> newlyEvicted = eviction.onEntryMiss(tab[index]);
                   if (!newlyEvicted.isEmpty()) {
@@ -1602,6 +1973,7 @@ V put(K key, int hash, V value, boolean onlyIfAbsent) {
                // When entry not present, attempt to activate if necessary
                map.evictionListener.onEntryActivated(key);
             }
+            evicted = evictToMemoryBound(evicted);
             return oldValue;
          } finally {
             unlock();
@@ -1705,15 +2077,16 @@ V remove(Object key, int hash, Object value, boolean isEvict) {
 
                   // e was removed
                   eviction.onEntryRemove(e);
+                  if (map.isBoundedByMemory()) {
+                     memory -= e.memorySize;
+                  }
 
                   HashEntry<K, V> newFirst = e.next;
                   for (HashEntry<K, V> p = first; p != e; p = p.next) {
                      // TODO A remove operation makes the map behave like all the other keys in the bucket were just added???
-                     // allow p to be GC-ed
-                     eviction.onEntryRemove(p);
-                     newFirst = eviction.createNewEntry(p.key, p.hash, newFirst, p.value);
-                     // and notify eviction algorithm about new hash entries
-                     eviction.onEntryMiss(newFirst);
+                     // (except with TINY_LFU, where the copies keep their place in the eviction order)
+                     newFirst = eviction.copyEntry(p, newFirst);
+                     newFirst.memorySize = p.memorySize;
                   }
 
                   tab[index] = newFirst;
@@ -1750,6 +2123,7 @@ void clear() {
                }
                ++modCount;
                eviction.clear();
+               memory = 0;
                count = 0; // write-volatile
             } finally {
                unlock();
@@ -1757,6 +2131,52 @@ void clear() {
          }
       }
 
+      /**
+       * Recomputes the estimated size of an entry after its value changed.
+       * Call only while holding lock.
+       */
+      private void updateMemorySize(HashEntry<K, V> e) {
+         if (map.isBoundedByMemory()) {
+            long size = map.sizeCalculator.calculateSize(e.key, e.value);
+            int newSize = size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+            memory += newSize - e.memorySize;
+            e.memorySize = newSize;
+         }
+      }
+
+      /**
+       * Evicts entries, in the order chosen by the eviction algorithm, until the estimated memory footprint of
+       * this segment is back within its budget.
+       * Call only while holding lock.
+       *
+       * @return previously evicted entries, if any, plus the entries evicted to free memory
+       */
+      private Set<HashEntry<K, V>> evictToMemoryBound(Set<HashEntry<K, V>> evicted) {
+         if (!map.isBoundedByMemory() || memory <= map.evictMemory) {
+            return evicted;
+         }
+         Set<HashEntry<K, V>> result = new HashSet<HashEntry<K, V>>();
+         if (evicted != null) {
+            result.addAll(evicted);
+         }
+         // apply buffered accesses first so that recency information is up to date
+         for (HashEntry<K, V> e : eviction.execute()) {
+            result.add(e);
+         }
+         while (memory > map.evictMemory) {
+            HashEntry<K, V> candidate = eviction.evictionCandidate();
+            V value = candidate == null ? null : remove(candidate.key, candidate.hash, null, true);
+            if (value == null) {
+               break;
+            }
+            if (trace)
+               log.tracef("Evicted %s to keep segment memory within %d bytes", candidate.key, map.evictMemory);
+            // the candidate may be a node the policy tracks but no longer in the table, with a stale value
+            result.add(new HashEntry<K, V>(candidate.key, candidate.hash, null, value));
+         }
+         return result.isEmpty() ? null : result;
+      }
+
       private Set<HashEntry<K, V>> attemptEviction(boolean lockedAlready) {
          boolean shouldAttemptEvict = lockedAlready || tryLock();
 
@@ -1832,26 +2252,70 @@ private void notifyEvictionListener(Set<HashEntry<K, V>> evicted) {
    public BoundedConcurrentHashMap(int capacity, int concurrencyLevel,
          Eviction evictionStrategy, EvictionListener<K, V> evictionListener,
          Equivalence<K> keyEquivalence, Equivalence<V> valueEquivalence) {
+      this(capacity, -1, concurrencyLevel, evictionStrategy, evictionListener, null,
+           keyEquivalence, valueEquivalence);
+   }
+
+   /**
+    * Creates a new, empty map bounded by number of elements and/or by estimated memory footprint.
+    *
+    * @param capacity
+    *            is the upper bound capacity for the number of elements in this map, or a negative
+    *            value if the map is only bounded by memory
+    *
+    * @param maxMemory
+    *            is the upper bound, in bytes, for the estimated memory retained by the elements of
+    *            this map, or a non-positive value if the map is only bounded by number of elements
+    *
+    * @param concurrencyLevel
+    *            the estimated number of concurrently updating threads. The implementation performs
+    *            internal sizing to try to accommodate this many threads.
+    *
+    * @param evictionStrategy
+    *            the algorithm used to evict elements from this map
+    *
+    * @param evictionListener
+    *            the evicton listener callback to be notified about evicted elements
+    *
+    * @param sizeCalculator
+    *            estimates the memory retained by each element; required if maxMemory is positive
+    *
+    * @throws IllegalArgumentException
+    *             if neither bound is set, if the concurrencyLevel is nonpositive or if a memory
+    *             bound is set without an eviction strategy or size calculator.
+    */
+   public BoundedConcurrentHashMap(int capacity, long maxMemory, int concurrencyLevel,
+         Eviction evictionStrategy, EvictionListener<K, V> evictionListener,
+         EntrySizeCalculator<? super K, ? super V> sizeCalculator,
+         Equivalence<K> keyEquivalence, Equivalence<V> valueEquivalence) {
       this.keyEquivalence = keyEquivalence;
       this.valueEquivalence = valueEquivalence;
 
-      if (capacity < 0 || concurrencyLevel <= 0) {
+      boolean boundedByCount = capacity >= 0;
+      if ((!boundedByCount && maxMemory <= 0) || concurrencyLevel <= 0) {
          throw new IllegalArgumentException();
       }
 
-      concurrencyLevel = Math.min(capacity / 2, concurrencyLevel); // concurrencyLevel cannot be > capacity/2
-      concurrencyLevel = Math.max(concurrencyLevel, 1); // concurrencyLevel cannot be less than 1
+      if (boundedByCount) {
+         concurrencyLevel = Math.min(capacity / 2, concurrencyLevel); // concurrencyLevel cannot be > capacity/2
+         concurrencyLevel = Math.max(concurrencyLevel, 1); // concurrencyLevel cannot be less than 1
 
-      // minimum two elements per segment
-      if (capacity < concurrencyLevel * 2 && capacity != 1) {
-         throw new IllegalArgumentException("Maximum capacity has to be at least twice the concurrencyLevel");
+         // minimum two elements per segment
+         if (capacity < concurrencyLevel * 2 && capacity != 1) {
+            throw new IllegalArgumentException("Maximum capacity has to be at least twice the concurrencyLevel");
+         }
       }
 
       if (evictionStrategy == null || evictionListener == null) {
          throw new IllegalArgumentException();
       }
 
+      if (maxMemory > 0 && (evictionStrategy == Eviction.NONE || sizeCalculator == null)) {
+         throw new IllegalArgumentException("Bounding by memory requires an eviction strategy and an entry size calculator");
+      }
+
       this.evictionListener = evictionListener;
+      this.sizeCalculator = sizeCalculator;
 
       if (concurrencyLevel > MAX_SEGMENTS) {
          concurrencyLevel = MAX_SEGMENTS;
@@ -1871,13 +2335,19 @@ public BoundedConcurrentHashMap(int capacity, int concurrencyLevel,
       if (capacity > MAXIMUM_CAPACITY) {
          capacity = MAXIMUM_CAPACITY;
       }
-      int c = capacity / ssize;
+      int c = boundedByCount ? capacity / ssize : Integer.MAX_VALUE;
+      // bounded maps never rehash, so size the tables of a map only bounded by memory after the number
+      // of entries it would hold if they were of a typical size
+      int initial = boundedByCount ? c
+            : (int) Math.min(maxMemory / MEMORY_BOUNDED_ENTRY_SIZE_HINT, MEMORY_BOUNDED_MAXIMUM_CAPACITY) / ssize;
       int cap = 1;
-      while (cap < c) {
+      while (cap < initial) {
          cap <<= 1;
       }
 
       this.evictCap = c;
+      this.maxMemory = maxMemory > 0 ? maxMemory : -1;
+      this.evictMemory = maxMemory > 0 ? Math.max(1, maxMemory / ssize) : -1;
 
       for (int i = 0; i < this.segments.length; ++i) {
          this.segments[i] = new Segment<K, V>(cap, DEFAULT_LOAD_FACTOR, evictionStrategy, this);
@@ -1951,6 +2421,41 @@ public BoundedConcurrentHashMap(Equivalence<K> keyEquivalence, Equivalence<V> va
       this(DEFAULT_MAXIMUM_CAPACITY, DEFAULT_CONCURRENCY_LEVEL, keyEquivalence, valueEquivalence);
    }
 
+   boolean isBoundedByCount() {
+      return evictCap != Integer.MAX_VALUE;
+   }
+
+   boolean isBoundedByMemory() {
+      return evictMemory > 0;
+   }
+
+   /**
+    * Returns the estimated number of bytes retained by the elements of this map, or -1 if this map
+    * is not bounded by memory.
+    *
+    * @return estimated memory footprint of this map's elements
+    */
+   public long memoryUsage() {
+      if (!isBoundedByMemory()) {
+         return -1;
+      }
+      long sum = 0;
+      for (Segment<K, V> segment : segments) {
+         sum += segment.memory;
+      }
+      return sum;
+   }
+
+   /**
+    * Returns the upper bound, in bytes, for the estimated memory retained by the elements of this
+    * map, or -1 if this map is not bounded by memory.
+    *
+    * @return the memory bound of this map
+    */
+   public long maxMemory() {
+      return maxMemory;
+   }
+
    /**
     * Returns <tt>true</tt> if this map contains no key-value mappings.
     *
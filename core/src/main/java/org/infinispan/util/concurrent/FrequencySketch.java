@@ -0,0 +1,120 @@
+package org.infinispan.util.concurrent;
+
+/**
+ * A probabilistic set of 4-bit counters estimating how often each hash has been seen recently, used by the TinyLFU
+ * eviction policy of {@link BoundedConcurrentHashMap} to decide whether a new entry is worth admitting in place of an
+ * existing one.
+ * <p/>
+ * This is a count-min sketch of depth 4 with the counters of an item packed in a single group of each long, so it
+ * takes 8 bytes per expected entry. Once the number of increments reaches ten times the expected number of entries,
+ * all counters are halved so that the popularity of entries which are no longer accessed decays over time.
+ * <p/>
+ * This class is not thread safe, callers must hold the lock of the owning segment.
+ *
+ * @see <a href="http://arxiv.org/abs/1512.00727">TinyLFU: A Highly Efficient Cache Admission Policy</a>
+ * @since 6.0
+ */
+final class FrequencySketch {
+
+   static final int MAXIMUM_FREQUENCY = 15;
+
+   private static final long[] SEED = {
+         0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+   private static final long RESET_MASK = 0x7777777777777777L;
+   private static final long ONE_MASK = 0x1111111111111111L;
+
+   private long[] table;
+   private int tableMask;
+   private int sampleSize;
+   private int size;
+
+   FrequencySketch(int expectedEntries) {
+      ensureCapacity(expectedEntries);
+   }
+
+   /**
+    * Grows the sketch, discarding all the frequencies recorded so far, if it was sized for fewer entries.
+    */
+   void ensureCapacity(int expectedEntries) {
+      int maximum = Math.min(Math.max(expectedEntries, 1), 1 << 30);
+      if (table != null && table.length >= maximum) {
+         return;
+      }
+      table = new long[ceilingPowerOfTwo(maximum)];
+      tableMask = table.length - 1;
+      sampleSize = maximum > Integer.MAX_VALUE / 10 ? Integer.MAX_VALUE : 10 * maximum;
+      size = 0;
+   }
+
+   int capacity() {
+      return table.length;
+   }
+
+   /**
+    * Returns the estimated number of occurrences of the given hash, up to {@link #MAXIMUM_FREQUENCY}.
+    */
+   int frequency(int hash) {
+      int start = (hash & 3) << 2;
+      int frequency = MAXIMUM_FREQUENCY;
+      for (int i = 0; i < 4; i++) {
+         int index = indexOf(hash, i);
+         int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+         frequency = Math.min(frequency, count);
+      }
+      return frequency;
+   }
+
+   /**
+    * Records one more occurrence of the given hash, aging all counters if the sample period has ended.
+    */
+   void increment(int hash) {
+      int start = (hash & 3) << 2;
+      boolean added = false;
+      for (int i = 0; i < 4; i++) {
+         added |= incrementAt(indexOf(hash, i), start + i);
+      }
+      if (added && ++size == sampleSize) {
+         reset();
+      }
+   }
+
+   void clear() {
+      for (int i = 0; i < table.length; i++) {
+         table[i] = 0L;
+      }
+      size = 0;
+   }
+
+   private boolean incrementAt(int i, int j) {
+      int offset = j << 2;
+      long mask = 0xfL << offset;
+      if ((table[i] & mask) != mask) {
+         table[i] += 1L << offset;
+         return true;
+      }
+      return false;
+   }
+
+   private void reset() {
+      int odd = 0;
+      for (int i = 0; i < table.length; i++) {
+         odd += Long.bitCount(table[i] & ONE_MASK);
+         table[i] = (table[i] >>> 1) & RESET_MASK;
+      }
+      size = (size >>> 1) - (odd >>> 2);
+   }
+
+   private int indexOf(int hash, int i) {
+      long h = (hash + SEED[i]) * SEED[i];
+      h += h >>> 32;
+      return ((int) h) & tableMask;
+   }
+
+   private static int ceilingPowerOfTwo(int x) {
+      int n = 1;
+      while (n < x) {
+         n <<= 1;
+      }
+      return n;
+   }
+}
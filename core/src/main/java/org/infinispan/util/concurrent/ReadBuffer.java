@@ -0,0 +1,136 @@
+package org.infinispan.util.concurrent;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records the entries read from a segment of {@link BoundedConcurrentHashMap} until the eviction policy applies them
+ * to its eviction order, so that readers neither take the segment lock nor contend on a shared queue.
+ * <p/>
+ * Reads are recorded in one of several fixed size ring buffers, picked by the id of the reading thread. Recording a
+ * read is a single compare-and-swap on the write counter of the ring buffer; if the ring buffer is full, or another
+ * reader won the slot, the read is dropped instead, which only costs some accuracy of the eviction order. Whoever
+ * holds the segment lock drains the recorded reads in batches.
+ *
+ * @see <a href="http://www.cse.ohio-state.edu/hpcs/WWW/HTML/publications/abs09-1.html">BP-Wrapper: a system framework
+ *      making any replacement algorithms (almost) lock contention free</a>
+ * @since 6.0
+ */
+final class ReadBuffer<E> {
+
+   static final int BUFFER_SIZE = 16;
+   private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+   private static final int BUFFER_SHIFT = 4;
+   private static final int MAX_STRIPES = 8;
+   private static final int STRIPES = stripes();
+   private static final int STRIPE_MASK = STRIPES - 1;
+   /** Counters of different stripes are 64 bytes apart, so that they do not share a cache line. */
+   private static final int COUNTER_SHIFT = 3;
+
+   private final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<E>(STRIPES << BUFFER_SHIFT);
+   private final AtomicLongArray writeCounts = new AtomicLongArray(STRIPES << COUNTER_SHIFT);
+   private final AtomicLongArray readCounts = new AtomicLongArray(STRIPES << COUNTER_SHIFT);
+   private final int drainThreshold;
+
+   /**
+    * @param drainThresholdFactor how full, between 0 and 1, a ring buffer can get before its reads should be drained
+    */
+   ReadBuffer(float drainThresholdFactor) {
+      this.drainThreshold = Math.max(1, (int) (drainThresholdFactor * BUFFER_SIZE));
+   }
+
+   /**
+    * Records a read, unless the ring buffer of the current thread is full.
+    * <p/>
+    * Safe to invoke without holding the segment lock.
+    *
+    * @return true if the recorded reads should be drained
+    */
+   boolean offer(E e) {
+      int stripe = stripe();
+      int counter = stripe << COUNTER_SHIFT;
+      long writes = writeCounts.get(counter);
+      long pending = writes - readCounts.get(counter);
+      if (pending < BUFFER_SIZE && writeCounts.compareAndSet(counter, writes, writes + 1)) {
+         buffer.lazySet((stripe << BUFFER_SHIFT) + (int) (writes & BUFFER_MASK), e);
+         pending++;
+      }
+      return pending >= drainThreshold;
+   }
+
+   /**
+    * Safe to invoke without holding the segment lock.
+    *
+    * @return true if any of the ring buffers is full enough to be drained
+    */
+   boolean needsDrain() {
+      for (int stripe = 0; stripe < STRIPES; stripe++) {
+         int counter = stripe << COUNTER_SHIFT;
+         if (writeCounts.get(counter) - readCounts.get(counter) >= drainThreshold) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Moves the reads recorded so far to the given collection, in the order they were recorded by each thread. At most
+    * one full ring buffer per stripe is drained, so that readers cannot keep the lock holder draining forever.
+    * <p/>
+    * Call only while holding the segment lock.
+    */
+   void drainTo(Collection<? super E> sink) {
+      for (int stripe = 0; stripe < STRIPES; stripe++) {
+         int counter = stripe << COUNTER_SHIFT;
+         long reads = readCounts.get(counter);
+         long writes = writeCounts.get(counter);
+         for (; reads < writes; reads++) {
+            int index = (stripe << BUFFER_SHIFT) + (int) (reads & BUFFER_MASK);
+            E e = buffer.get(index);
+            if (e == null) {
+               // a reader claimed the slot but did not publish the entry yet, pick it up next time
+               break;
+            }
+            buffer.lazySet(index, null);
+            sink.add(e);
+         }
+         readCounts.lazySet(counter, reads);
+      }
+   }
+
+   /**
+    * Drops all the reads recorded so far.
+    * <p/>
+    * Call only while holding the segment lock.
+    */
+   void clear() {
+      for (int stripe = 0; stripe < STRIPES; stripe++) {
+         int counter = stripe << COUNTER_SHIFT;
+         long reads = readCounts.get(counter);
+         long writes = writeCounts.get(counter);
+         for (; reads < writes; reads++) {
+            int index = (stripe << BUFFER_SHIFT) + (int) (reads & BUFFER_MASK);
+            if (buffer.getAndSet(index, null) == null) {
+               break;
+            }
+         }
+         readCounts.lazySet(counter, reads);
+      }
+   }
+
+   private static int stripe() {
+      // spread the ids of threads created one after the other
+      int h = (int) Thread.currentThread().getId() * 0x9e3779b9;
+      return (h ^ (h >>> 16)) & STRIPE_MASK;
+   }
+
+   private static int stripes() {
+      int processors = Runtime.getRuntime().availableProcessors();
+      int stripes = 1;
+      while (stripes < processors && stripes < MAX_STRIPES) {
+         stripes <<= 1;
+      }
+      return stripes;
+   }
+}
@@ -128,4 +128,23 @@ public interface LockManager {
     */
    boolean acquireLockNoCheck(InvocationContext ctx, Object key, long timeoutMillis, boolean skipLocking) throws InterruptedException, TimeoutException;
 
+   /**
+    * Notifies the callback, without blocking the calling thread, once none of the keys is locked by an owner other
+    * than the given one, or once the timeout expires, whichever happens first. This allows a command to wait for its
+    * locks without holding a thread, and to be handed to a thread only once it is likely to acquire them straight away.
+    * <p/>
+    * The locks are not acquired: another owner may still acquire one of them after the callback is notified. If the
+    * keys are not locked by other owners already, or if the timeout is not positive, the callback is not notified and
+    * this method returns {@code true}. Otherwise the callback is notified exactly once, from the
+    * {@link org.infinispan.factories.KnownComponentNames#ASYNC_OPERATIONS_EXECUTOR} unless its queue is full, so it
+    * may block.
+    *
+    * @param keys          the keys the owner is about to lock
+    * @param owner         the lock owner, i.e. a {@link org.infinispan.transaction.xa.GlobalTransaction}
+    * @param timeoutMillis the maximum time to wait for the keys to be released
+    * @param callback      notified once the keys are released or the timeout expired
+    * @return true if the caller can proceed straight away, false if the callback will be notified later
+    */
+   boolean invokeWhenLocksAvailable(Collection<?> keys, Object owner, long timeoutMillis, LockRequestCallback callback);
+
 }
@@ -4,7 +4,10 @@
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Stop;
 import org.infinispan.jmx.annotations.DataType;
 import org.infinispan.jmx.annotations.MBean;
 import org.infinispan.jmx.annotations.ManagedAttribute;
@@ -16,9 +19,15 @@
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -38,6 +47,11 @@ public class LockManagerImpl implements LockManager {
    private static final Log log = LogFactory.getLog(LockManagerImpl.class);
    protected static final boolean trace = log.isTraceEnabled();
    private static final String ANOTHER_THREAD = "(another thread)";
+   // Indexed by the keys the requests wait for, or by lock stripe if the locks are striped. Guarded by itself.
+   private final Map<Object, List<PendingLockRequest>> pendingLockRequests = new HashMap<Object, List<PendingLockRequest>>();
+   private volatile int pendingLockRequestCount;
+   private ScheduledExecutorService timeoutExecutor;
+   private ExecutorService asyncOperationsExecutor;
 
    @Inject
    public void injectDependencies(Configuration configuration, LockContainer<?> lockContainer) {
@@ -45,6 +59,23 @@ public void injectDependencies(Configuration configuration, LockContainer<?> loc
       this.lockContainer = lockContainer;
    }
 
+   @Inject
+   public void injectExecutors(@ComponentName(KnownComponentNames.EVICTION_SCHEDULED_EXECUTOR)
+                               ScheduledExecutorService timeoutExecutor,
+                               @ComponentName(KnownComponentNames.ASYNC_OPERATIONS_EXECUTOR)
+                               ExecutorService asyncOperationsExecutor) {
+      this.timeoutExecutor = timeoutExecutor;
+      this.asyncOperationsExecutor = asyncOperationsExecutor;
+   }
+
+   @Stop
+   public void stop() {
+      // Let the pending commands run, they will fail since the cache is stopping
+      for (PendingLockRequest request : pendingLockRequests(null)) {
+         request.complete(false);
+      }
+   }
+
    @Override
    public boolean lockAndRecord(Object key, InvocationContext ctx, long timeoutMillis) throws InterruptedException {
       if (trace) log.tracef("Attempting to lock %s with acquisition timeout of %s millis", toStr(key), timeoutMillis);
@@ -74,12 +105,14 @@ public boolean lockAndRecord(Object key, InvocationContext ctx, long timeoutMill
    public void unlock(Collection<Object> lockedKeys, Object lockOwner) {
       log.tracef("Attempting to unlock keys %s", lockedKeys);
       for (Object k : lockedKeys) lockContainer.releaseLock(lockOwner, k);
+      completeAvailableLockRequests(lockedKeys);
    }
 
    @Override
    @SuppressWarnings("unchecked")
    public void unlockAll(InvocationContext ctx) {
-      for (Object k : ctx.getLockedKeys()) {
+      Set<Object> lockedKeys = ctx.getLockedKeys();
+      for (Object k : lockedKeys) {
          if (trace) log.tracef("Attempting to unlock %s", toStr(k));
          try {
             lockContainer.releaseLock(ctx.getLockOwner(), k);
@@ -89,9 +122,88 @@ public void unlockAll(InvocationContext ctx) {
             }
          }
       }
+      completeAvailableLockRequests(lockedKeys);
       ctx.clearLockedKeys();
    }
 
+   @Override
+   public boolean invokeWhenLocksAvailable(Collection<?> keys, Object owner, long timeoutMillis,
+                                           LockRequestCallback callback) {
+      PendingLockRequest request = new PendingLockRequest(keys, owner, callback);
+      if (timeoutMillis <= 0 || request.isAvailable())
+         return true;
+
+      if (trace) log.tracef("Keys %s are locked, waiting for them to be released for %s", toStr(keys), owner);
+      synchronized (pendingLockRequests) {
+         for (Object key : keys) {
+            Object indexKey = pendingIndexKey(key);
+            List<PendingLockRequest> requests = pendingLockRequests.get(indexKey);
+            if (requests == null) {
+               requests = new ArrayList<PendingLockRequest>(2);
+               pendingLockRequests.put(indexKey, requests);
+            }
+            requests.add(request);
+         }
+         pendingLockRequestCount++;
+      }
+      // The keys may have been released before the request was registered
+      if (request.isAvailable()) {
+         request.complete(false);
+      } else if (timeoutExecutor != null) {
+         request.timeoutFuture = timeoutExecutor.schedule(request, timeoutMillis, MILLISECONDS);
+      }
+      return false;
+   }
+
+   private void completeAvailableLockRequests(Collection<?> releasedKeys) {
+      if (pendingLockRequestCount == 0)
+         return;
+
+      for (PendingLockRequest request : pendingLockRequests(releasedKeys)) {
+         if (request.isAvailable()) {
+            request.complete(false);
+         }
+      }
+   }
+
+   /**
+    * @return the pending requests waiting for any of the given keys, or all of them if the keys are null
+    */
+   private Set<PendingLockRequest> pendingLockRequests(Collection<?> keys) {
+      Set<PendingLockRequest> result = new LinkedHashSet<PendingLockRequest>();
+      synchronized (pendingLockRequests) {
+         if (keys == null) {
+            for (List<PendingLockRequest> requests : pendingLockRequests.values()) {
+               result.addAll(requests);
+            }
+         } else {
+            for (Object key : keys) {
+               List<PendingLockRequest> requests = pendingLockRequests.get(pendingIndexKey(key));
+               if (requests != null) result.addAll(requests);
+            }
+         }
+      }
+      return result;
+   }
+
+   private void removePendingLockRequest(PendingLockRequest request) {
+      synchronized (pendingLockRequests) {
+         for (Object key : request.keys) {
+            Object indexKey = pendingIndexKey(key);
+            List<PendingLockRequest> requests = pendingLockRequests.get(indexKey);
+            if (requests != null && requests.remove(request) && requests.isEmpty()) {
+               pendingLockRequests.remove(indexKey);
+            }
+         }
+         pendingLockRequestCount--;
+      }
+   }
+
+   private Object pendingIndexKey(Object key) {
+      // Releasing a stripe releases all the keys mapped to it
+      return lockContainer instanceof AbstractStripedLockContainer ? lockContainer.getLockId(key) : key;
+   }
+
    @Override
    public boolean ownsLock(Object key, Object owner) {
       return lockContainer.ownsLock(key, owner);
@@ -115,6 +227,11 @@ public Object getOwner(Object key) {
             // JDK ReentrantLocks can return null e.g. if another thread is in the process of acquiring the lock
             if (owner != null)
                return owner;
+         } else if (l instanceof LockWordStripedLockContainer.StripeLock) {
+            Object owner = ((LockWordStripedLockContainer.StripeLock) l).getOwner();
+            // The stripe may have been released since isLocked() was called
+            if (owner != null)
+               return owner;
          }
 
          return ANOTHER_THREAD;
@@ -150,6 +267,11 @@ public int getNumberOfLocksAvailable() {
       return lockContainer.size() - lockContainer.getNumLocksHeld();
    }
 
+   @ManagedAttribute(description = "The number of commands waiting for locks held by other transactions without holding a thread.", displayName = "Number of pending lock requests")
+   public int getNumberOfPendingLockRequests() {
+      return pendingLockRequestCount;
+   }
+
    @Override
    public int getLockId(Object key) {
       return lockContainer.getLockId(key);
@@ -200,6 +322,67 @@ private boolean lock(InvocationContext ctx, Object key, long timeoutMillis) thro
       }
    }
 
+   /**
+    * A callback waiting for keys to be released. Runs itself when its timeout expires.
+    */
+   private class PendingLockRequest implements Runnable {
+      private final Collection<?> keys;
+      private final Object owner;
+      private final LockRequestCallback callback;
+      private final AtomicBoolean completed = new AtomicBoolean();
+      volatile ScheduledFuture<?> timeoutFuture;
+
+      PendingLockRequest(Collection<?> keys, Object owner, LockRequestCallback callback) {
+         this.keys = keys;
+         this.owner = owner;
+         this.callback = callback;
+      }
+
+      boolean isAvailable() {
+         for (Object key : keys) {
+            if (lockContainer.isLocked(key) && !lockContainer.ownsLock(key, owner))
+               return false;
+         }
+         return true;
+      }
+
+      void complete(final boolean timedOut) {
+         if (!completed.compareAndSet(false, true))
+            return;
+
+         removePendingLockRequest(this);
+         ScheduledFuture<?> future = timeoutFuture;
+         if (future != null) future.cancel(false);
+         Runnable notification = new Runnable() {
+            @Override
+            public void run() {
+               try {
+                  if (timedOut) {
+                     callback.timedOut();
+                  } else {
+                     callback.locksAvailable();
+                  }
+               } catch (Throwable t) {
+                  log.errorf(t, "Error invoking the callback waiting for locks on keys %s", keys);
+               }
+            }
+         };
+         // Don't notify the callback from the thread releasing the locks or from the timer thread, unless the
+         // executor is saturated
+         if (asyncOperationsExecutor != null) {
+            asyncOperationsExecutor.execute(notification);
+         } else {
+            notification.run();
+         }
+      }
+
+      @Override
+      public void run() {
+         if (trace) log.tracef("Timed out waiting for keys %s to be released for %s", toStr(keys), owner);
+         complete(true);
+      }
+   }
+
    private void logLockNotAcquired(boolean skipLocking) {
       if (trace) {
          if (skipLocking)
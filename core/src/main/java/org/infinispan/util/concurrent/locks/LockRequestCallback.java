@@ -0,0 +1,19 @@
+package org.infinispan.util.concurrent.locks;
+
+/**
+ * Notified when a request registered with {@link LockManager#invokeWhenLocksAvailable} completes.
+ *
+ * @since 6.0
+ */
+public interface LockRequestCallback {
+
+   /**
+    * Invoked once none of the keys is locked by an owner other than the one which registered the request.
+    */
+   void locksAvailable();
+
+   /**
+    * Invoked if the keys were still locked by other owners when the timeout of the request expired.
+    */
+   void timedOut();
+}
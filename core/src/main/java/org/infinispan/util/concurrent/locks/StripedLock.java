@@ -4,6 +4,8 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
@@ -155,20 +157,29 @@ static final int hash(Object x) {
     *
     * @param keys keys to unlock
     */
-   public void releaseAllLocks(List<Object> keys) {
+   public void releaseAllLocks(List<?> keys) {
       for (Object k : keys) {
         releaseLock(k);
     }
    }
 
    /**
-    * Acquires locks on keys passed in.  Makes multiple calls to {@link #acquireLock(Object, boolean)}
+    * Acquires locks on keys passed in.  Makes multiple calls to {@link #acquireLock(Object, boolean)}, in the order of
+    * the lock stripes, so that concurrent callers locking several keys cannot deadlock.
     *
     * @param keys      keys to unlock
     * @param exclusive whether locks are exclusive.
     */
-   public void acquireAllLocks(List<Object> keys, boolean exclusive) {
-      for (Object k : keys) {
+   public void acquireAllLocks(List<?> keys, boolean exclusive) {
+      Object[] ordered = keys.toArray();
+      Arrays.sort(ordered, new Comparator<Object>() {
+         @Override
+         public int compare(Object o1, Object o2) {
+            int i1 = hashToIndex(o1), i2 = hashToIndex(o2);
+            return i1 < i2 ? -1 : (i1 == i2 ? 0 : 1);
+         }
+      });
+      for (Object k : ordered) {
         acquireLock(k, exclusive);
     }
    }
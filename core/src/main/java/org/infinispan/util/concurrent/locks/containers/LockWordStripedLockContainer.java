@@ -0,0 +1,259 @@
+package org.infinispan.util.concurrent.locks.containers;
+
+import net.jcip.annotations.ThreadSafe;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A striped LockContainer whose locks are owner based and reentrant, like the locks of {@link
+ * OwnableReentrantStripedLockContainer}, but which keeps the state of all the locks in a table of lock words instead of
+ * in one synchronizer per lock.
+ * <p/>
+ * The lock word of a stripe is the reference to its owner, or null if the stripe is not locked. An uncontended
+ * acquisition is a single compare-and-swap of the lock word, and an uncontended release a plain write of it, neither of
+ * them allocates. A thread which finds the stripe locked by another owner queues itself and parks, and is unparked by
+ * the owner when the stripe is released. The queue of a stripe is only created the first time a thread waits on it.
+ * <p/>
+ * Lock acquisition is not fair: a thread may acquire a stripe that was just released while threads are waiting on it.
+ *
+ * @see OwnableReentrantStripedLockContainer
+ * @since 6.0
+ */
+@ThreadSafe
+public class LockWordStripedLockContainer extends AbstractStripedLockContainer<LockWordStripedLockContainer.StripeLock> {
+
+   private static final Log log = LogFactory.getLog(LockWordStripedLockContainer.class);
+
+   private AtomicReferenceArray<Object> owners;
+   private AtomicIntegerArray holdCounts;
+   private AtomicIntegerArray waiterCounts;
+   private AtomicReferenceArray<Queue<Thread>> waitQueues;
+   private StripeLock[] locks;
+
+   @Override
+   protected Log getLog() {
+      return log;
+   }
+
+   /**
+    * Creates a new LockContainer which uses a certain number of shared locks across all elements that need to be
+    * locked.
+    *
+    * @param concurrencyLevel concurrency level for number of stripes to create.  Stripes are created in powers of two,
+    *                         with a minimum of concurrencyLevel created.
+    */
+   public LockWordStripedLockContainer(int concurrencyLevel) {
+      initLocks(calculateNumberOfSegments(concurrencyLevel));
+   }
+
+   @Override
+   protected void initLocks(int numLocks) {
+      owners = new AtomicReferenceArray<Object>(numLocks);
+      holdCounts = new AtomicIntegerArray(numLocks);
+      waiterCounts = new AtomicIntegerArray(numLocks);
+      waitQueues = new AtomicReferenceArray<Queue<Thread>>(numLocks);
+      locks = new StripeLock[numLocks];
+      for (int i = 0; i < numLocks; i++) locks[i] = new StripeLock(i);
+   }
+
+   @Override
+   public final StripeLock getLock(Object key) {
+      return locks[hashToIndex(key)];
+   }
+
+   @Override
+   public final boolean ownsLock(Object key, Object owner) {
+      return owner.equals(owners.get(hashToIndex(key)));
+   }
+
+   @Override
+   public final boolean isLocked(Object key) {
+      return owners.get(hashToIndex(key)) != null;
+   }
+
+   @Override
+   public final int getNumLocksHeld() {
+      int i = 0;
+      for (int stripe = 0; stripe < owners.length(); stripe++) if (owners.get(stripe) != null) i++;
+      return i;
+   }
+
+   @Override
+   public int size() {
+      return owners.length();
+   }
+
+   public String toString() {
+      return "LockWordStripedLockContainer{" +
+            "numLocks=" + size() +
+            ", numLocksHeld=" + getNumLocksHeld() +
+            '}';
+   }
+
+   @Override
+   protected boolean tryLock(StripeLock lock, long timeout, TimeUnit unit, Object lockOwner) throws InterruptedException {
+      int stripe = lock.stripe;
+      if (tryAcquire(stripe, lockOwner))
+         return true;
+      long nanos = unit.toNanos(timeout);
+      return nanos > 0 && acquireContended(stripe, lockOwner, nanos);
+   }
+
+   @Override
+   protected void lock(StripeLock lock, Object lockOwner) {
+      boolean interrupted = false;
+      while (true) {
+         try {
+            if (tryLock(lock, Long.MAX_VALUE, TimeUnit.NANOSECONDS, lockOwner))
+               break;
+         } catch (InterruptedException e) {
+            interrupted = true;
+         }
+      }
+      if (interrupted) Thread.currentThread().interrupt();
+   }
+
+   @Override
+   protected void unlock(StripeLock lock, Object lockOwner) {
+      int stripe = lock.stripe;
+      Object owner = owners.get(stripe);
+      if (owner == null || !owner.equals(lockOwner)) {
+         throw new IllegalMonitorStateException(lock + "[Requestor is " + lockOwner + "]");
+      }
+      int holds = holdCounts.get(stripe) - 1;
+      holdCounts.set(stripe, holds);
+      if (holds == 0) {
+         owners.set(stripe, null);
+         if (waiterCounts.get(stripe) != 0) unparkNextWaiter(stripe);
+      }
+   }
+
+   private boolean tryAcquire(int stripe, Object lockOwner) {
+      Object owner = owners.get(stripe);
+      if (owner == null) {
+         if (owners.compareAndSet(stripe, null, lockOwner)) {
+            holdCounts.set(stripe, 1);
+            return true;
+         }
+      } else if (owner.equals(lockOwner)) {
+         holdCounts.incrementAndGet(stripe);
+         return true;
+      }
+      return false;
+   }
+
+   private boolean acquireContended(int stripe, Object lockOwner, long nanos) throws InterruptedException {
+      final long deadline = System.nanoTime() + nanos;
+      final Thread thread = Thread.currentThread();
+      final Queue<Thread> queue = waitQueue(stripe);
+      // The waiter count is incremented and the thread queued before trying again, so that an owner releasing the
+      // stripe after that attempt finds the thread and unparks it
+      waiterCounts.incrementAndGet(stripe);
+      queue.add(thread);
+      boolean acquired = false;
+      try {
+         while (!(acquired = tryAcquire(stripe, lockOwner))) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0)
+               return false;
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.interrupted())
+               throw new InterruptedException();
+         }
+         return true;
+      } finally {
+         queue.remove(thread);
+         waiterCounts.decrementAndGet(stripe);
+         // We may have been unparked by a release, so let the next waiter try in our place
+         if (!acquired && owners.get(stripe) == null) unparkNextWaiter(stripe);
+      }
+   }
+
+   private Queue<Thread> waitQueue(int stripe) {
+      Queue<Thread> queue = waitQueues.get(stripe);
+      if (queue == null) {
+         queue = new ConcurrentLinkedQueue<Thread>();
+         if (!waitQueues.compareAndSet(stripe, null, queue))
+            queue = waitQueues.get(stripe);
+      }
+      return queue;
+   }
+
+   private void unparkNextWaiter(int stripe) {
+      Queue<Thread> queue = waitQueues.get(stripe);
+      Thread next = queue == null ? null : queue.peek();
+      if (next != null) LockSupport.unpark(next);
+   }
+
+   /**
+    * A view of a stripe of the container. It holds no state of its own. The container acquires it on behalf of a lock
+    * owner, while the {@link Lock} methods use the current thread as the owner.
+    */
+   public final class StripeLock implements Lock {
+
+      private final int stripe;
+
+      private StripeLock(int stripe) {
+         this.stripe = stripe;
+      }
+
+      /**
+       * @return the owner of the stripe, or null if it is currently unlocked.
+       */
+      public Object getOwner() {
+         return owners.get(stripe);
+      }
+
+      public boolean isLocked() {
+         return getOwner() != null;
+      }
+
+      @Override
+      public void lock() {
+         LockWordStripedLockContainer.this.lock(this, Thread.currentThread());
+      }
+
+      @Override
+      public void lockInterruptibly() throws InterruptedException {
+         if (Thread.interrupted())
+            throw new InterruptedException();
+         while (!LockWordStripedLockContainer.this.tryLock(this, Long.MAX_VALUE, TimeUnit.NANOSECONDS, Thread.currentThread())) {
+            // Long.MAX_VALUE nanoseconds have passed, try again
+         }
+      }
+
+      @Override
+      public boolean tryLock() {
+         return tryAcquire(stripe, Thread.currentThread());
+      }
+
+      @Override
+      public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+         return LockWordStripedLockContainer.this.tryLock(this, time, unit, Thread.currentThread());
+      }
+
+      @Override
+      public void unlock() {
+         LockWordStripedLockContainer.this.unlock(this, Thread.currentThread());
+      }
+
+      @Override
+      public Condition newCondition() {
+         throw new UnsupportedOperationException("Not supported in this implementation!");
+      }
+
+      @Override
+      public String toString() {
+         return "StripeLock{stripe=" + stripe + ", owner=" + getOwner() + ", holds=" + holdCounts.get(stripe) + '}';
+      }
+   }
+}
@@ -942,5 +942,13 @@ void asyncStoreShutdownTimeoutTooHigh(long configuredAsyncStopTimeout,
 
    @Message(value = "Invalid Cache Loader class: %s", id = 252)
    CacheConfigurationException invalidCacheLoaderClass(String name);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Log file %s is corrupt or was not completely written after offset %d, truncating it", id = 253)
+   void truncatingLogFile(String path, long offset);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Problems compacting log file %s", id = 254)
+   void problemCompactingLogFile(String path, @Cause Throwable cause);
 }
 
@@ -0,0 +1,105 @@
+package org.infinispan.api;
+
+import org.infinispan.commands.read.GetKeyValueCommand;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryVisited;
+import org.infinispan.notifications.cachelistener.event.CacheEntryVisitedEvent;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests the reads of a local cache which bypass the interceptor chain.
+ *
+ * @since 6.0
+ */
+@Test(groups = "functional", testName = "api.FastLocalReadTest")
+public class FastLocalReadTest extends SingleCacheManagerTest {
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = getDefaultStandaloneCacheConfig(false);
+      builder.unsafe().fastLocalReads(true);
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   private InterceptorChain chain() {
+      return TestingUtil.extractComponent(cache, InterceptorChain.class);
+   }
+
+   public void testReadsGoThroughCustomInterceptors() {
+      cache.put("k", "v");
+      assertTrue(chain().hasSideEffectFreeReads());
+
+      GetCountingInterceptor interceptor = new GetCountingInterceptor();
+      cache.getAdvancedCache().addInterceptor(interceptor, 1);
+      try {
+         assertFalse(chain().hasSideEffectFreeReads());
+         assertEquals("v", cache.get("k"));
+         assertEquals(1, interceptor.gets);
+      } finally {
+         cache.getAdvancedCache().removeInterceptor(GetCountingInterceptor.class);
+      }
+      assertTrue(chain().hasSideEffectFreeReads());
+      assertEquals("v", cache.get("k"));
+      assertEquals(1, interceptor.gets);
+   }
+
+   public void testExpiredEntriesAreNotRead() throws Exception {
+      cache.put("k", "v", 10, TimeUnit.MILLISECONDS);
+      Thread.sleep(50);
+      assertNull(cache.get("k"));
+      assertEquals(0, cache.getAdvancedCache().getDataContainer().size());
+   }
+
+   public void testVisitedListenersAreNotified() {
+      cache.put("k", "v");
+      VisitedListener listener = new VisitedListener();
+      cache.addListener(listener);
+      try {
+         assertEquals("v", cache.get("k"));
+         assertEquals(2, listener.events.size());
+         assertTrue(listener.events.get(0).isPre());
+         assertFalse(listener.events.get(1).isPre());
+         assertEquals("k", listener.events.get(1).getKey());
+         assertEquals("v", listener.events.get(1).getValue());
+      } finally {
+         cache.removeListener(listener);
+      }
+   }
+
+   static class GetCountingInterceptor extends CommandInterceptor {
+      volatile int gets;
+
+      @Override
+      public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand command) throws Throwable {
+         gets++;
+         return invokeNextInterceptor(ctx, command);
+      }
+   }
+
+   @Listener
+   public static class VisitedListener {
+      final List<CacheEntryVisitedEvent> events = new ArrayList<CacheEntryVisitedEvent>();
+
+      @CacheEntryVisited
+      public void visited(CacheEntryVisitedEvent event) {
+         events.add(event);
+      }
+   }
+}
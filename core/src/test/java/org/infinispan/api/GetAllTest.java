@@ -0,0 +1,83 @@
+package org.infinispan.api;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.loaders.dummy.DummyInMemoryCacheStoreConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests {@link org.infinispan.AdvancedCache#getAll(java.util.Set)} on a local transactional cache with a cache store.
+ *
+ * @since 6.0
+ */
+@Test(groups = "functional", testName = "api.GetAllTest")
+public class GetAllTest extends SingleCacheManagerTest {
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = getDefaultStandaloneCacheConfig(true);
+      builder.loaders().addStore(DummyInMemoryCacheStoreConfigurationBuilder.class)
+            .storeName(getClass().getSimpleName());
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   public void testGetAll() {
+      cache.put("k1", "v1");
+      cache.put("k2", "v2");
+      Map<Object, Object> expected = new HashMap<Object, Object>();
+      expected.put("k1", "v1");
+      expected.put("k2", "v2");
+      assertEquals(expected, cache.getAdvancedCache().getAll(keys("k1", "k2", "k3")));
+   }
+
+   public void testGetAllOfNoKeys() {
+      assertTrue(cache.getAdvancedCache().getAll(keys()).isEmpty());
+   }
+
+   public void testGetAllLoadsFromStore() {
+      cache.put("k1", "v1");
+      cache.put("k2", "v2");
+      cache.evict("k1");
+      assertEquals(1, cache.getAdvancedCache().getDataContainer().size());
+      Map<Object, Object> expected = new HashMap<Object, Object>();
+      expected.put("k1", "v1");
+      expected.put("k2", "v2");
+      assertEquals(expected, cache.getAdvancedCache().getAll(keys("k1", "k2")));
+      assertEquals(2, cache.getAdvancedCache().getDataContainer().size());
+   }
+
+   public void testGetAllSeesTransactionalChanges() throws Exception {
+      cache.put("k1", "v1");
+      cache.put("k2", "v2");
+      tm().begin();
+      try {
+         cache.put("k1", "v1-tx");
+         cache.remove("k2");
+         cache.put("k3", "v3-tx");
+         Map<Object, Object> expected = new HashMap<Object, Object>();
+         expected.put("k1", "v1-tx");
+         expected.put("k3", "v3-tx");
+         assertEquals(expected, cache.getAdvancedCache().getAll(keys("k1", "k2", "k3")));
+      } finally {
+         tm().rollback();
+      }
+      Map<Object, Object> expected = new HashMap<Object, Object>();
+      expected.put("k1", "v1");
+      expected.put("k2", "v2");
+      assertEquals(expected, cache.getAdvancedCache().getAll(keys("k1", "k2", "k3")));
+   }
+
+   private static HashSet<Object> keys(Object... keys) {
+      return new HashSet<Object>(Arrays.asList(keys));
+   }
+}
@@ -11,6 +11,8 @@
 import org.infinispan.test.fwk.TestCacheManagerFactory;
 import org.testng.annotations.Test;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
@@ -74,6 +76,19 @@ public void testPutAsyncWithVersion() throws Exception {
       assertEquals(EQUAL, version.compareTo(entry.getMetadata().version()));
    }
 
+   public void testPutAllWithVersion() {
+      Map<Integer, String> entries = new HashMap<Integer, String>();
+      entries.put(100, "v100");
+      entries.put(101, "v101");
+      NumericVersion version = new NumericVersion(1);
+      advCache.putAll(entries, withVersion(version));
+      for (Integer key : entries.keySet()) {
+         CacheEntry entry = advCache.getCacheEntry(key);
+         assertEquals(entries.get(key), entry.getValue());
+         assertEquals(EQUAL, version.compareTo(entry.getMetadata().version()));
+      }
+   }
+
    public void testGetCustomMetadataForMortalEntries() throws Exception {
       final Integer key = 5;
       Metadata meta = new CustomMetadata(3000, -1);
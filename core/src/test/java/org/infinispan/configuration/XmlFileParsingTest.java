@@ -269,6 +269,40 @@ public void call() {
       });
    }
 
+   public void testCompressionThreshold() throws IOException {
+      String config = INFINISPAN_START_TAG_NO_SCHEMA +
+            "<default>\n" +
+            "<storeAsBinary enabled=\"true\" compressionThreshold=\"1024\" />\n" +
+            "</default>\n" +
+            INFINISPAN_END_TAG;
+      InputStream is = new ByteArrayInputStream(config.getBytes());
+      withCacheManager(new CacheManagerCallable(TestCacheManagerFactory.fromStream(is)) {
+         @Override
+         public void call() {
+            Configuration cfg = cm.getDefaultCacheConfiguration();
+            assertTrue(cfg.storeAsBinary().enabled());
+            assertEquals(1024, cfg.storeAsBinary().compressionThreshold());
+         }
+      });
+   }
+
+   public void testLockWordStriping() throws IOException {
+      String config = INFINISPAN_START_TAG_NO_SCHEMA +
+            "<default>\n" +
+            "<locking useLockStriping=\"true\" useLockWordStriping=\"true\" />\n" +
+            "</default>\n" +
+            INFINISPAN_END_TAG;
+      InputStream is = new ByteArrayInputStream(config.getBytes());
+      withCacheManager(new CacheManagerCallable(TestCacheManagerFactory.fromStream(is)) {
+         @Override
+         public void call() {
+            Configuration cfg = cm.getDefaultCacheConfiguration();
+            assertTrue(cfg.locking().useLockStriping());
+            assertTrue(cfg.locking().useLockWordStriping());
+         }
+      });
+   }
+
    public void testCompatibility() throws Exception {
       String config = INFINISPAN_START_TAG +
             "   <default>\n" +
@@ -387,6 +421,14 @@ private void assertNamedCacheFile(EmbeddedCacheManager cm, boolean deprecated) {
          assertEquals("1", gc.totalOrderExecutor().properties().getProperty("coreThreads"));
          assertEquals("1000", gc.totalOrderExecutor().properties().getProperty("keepAliveTime"));
          assertEquals("0", gc.totalOrderExecutor().properties().getProperty("queueSize"));
+
+         assertTrue(gc.stateTransferExecutor().factory() instanceof DefaultExecutorFactory);
+         assertEquals("4", gc.stateTransferExecutor().properties().getProperty("maxThreads"));
+         assertEquals("StateTransferThread", gc.stateTransferExecutor().properties().getProperty("threadNamePrefix"));
+
+         assertTrue(gc.asyncOperationsExecutor().factory() instanceof DefaultExecutorFactory);
+         assertEquals("16", gc.asyncOperationsExecutor().properties().getProperty("maxThreads"));
+         assertEquals("1000", gc.asyncOperationsExecutor().properties().getProperty("queueSize"));
       }
 
       assertTrue(gc.evictionScheduledExecutor().factory() instanceof DefaultScheduledExecutorFactory);
@@ -0,0 +1,94 @@
+package org.infinispan.container;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+
+@Test(groups = "functional", testName = "container.SegmentedDataContainerTest")
+public class SegmentedDataContainerTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_KEYS = 200;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(1).numSegments(20);
+      createCluster(builder, 2);
+      waitForClusterToForm();
+   }
+
+   private SegmentedDataContainer container(int index) {
+      DataContainer dc = advancedCache(index).getDataContainer();
+      assertSame(SegmentedDataContainer.class, dc.getClass());
+      return (SegmentedDataContainer) dc;
+   }
+
+   public void testEntriesArePartitionedBySegment() {
+      Cache<Object, Object> c0 = cache(0);
+      c0.clear();
+      for (int i = 0; i < NUM_KEYS; i++) {
+         c0.put("k" + i, "v" + i);
+      }
+
+      ConsistentHash ch = advancedCache(0).getDistributionManager().getReadConsistentHash();
+      int total = 0;
+      for (int node = 0; node < 2; node++) {
+         SegmentedDataContainer container = container(node);
+         assertEquals(ch.getNumSegments(), container.getNumSegments());
+         Set<Integer> ownedSegments = ch.getSegmentsForOwner(address(node));
+         int size = 0;
+         for (int segment = 0; segment < container.getNumSegments(); segment++) {
+            int count = 0;
+            for (Iterator<InternalCacheEntry> it = container.iterator(segment); it.hasNext(); ) {
+               InternalCacheEntry entry = it.next();
+               assertEquals(segment, ch.getSegment(entry.getKey()));
+               assertEquals(segment, container.getSegment(entry.getKey()));
+               count++;
+            }
+            assertEquals(count, container.size(segment));
+            if (!ownedSegments.contains(segment)) {
+               assertEquals(0, count);
+            }
+            size += count;
+         }
+         assertEquals(size, container.size());
+         assertEquals(size, container.keySet().size());
+         total += size;
+      }
+      assertEquals(NUM_KEYS, total);
+   }
+
+   public void testRemoveSegments() {
+      Cache<Object, Object> c0 = cache(0);
+      c0.put("removed", "v");
+      SegmentedDataContainer container = container(0);
+      if (container.peek("removed") == null) {
+         container = container(1);
+      }
+      int segment = container.getSegment("removed");
+      assertTrue(container.containsKey("removed"));
+
+      container.removeSegments(Collections.singleton(segment));
+      assertEquals(0, container.size(segment));
+      assertNull(container.peek("removed"));
+      assertFalse(container.iterator(segment).hasNext());
+
+      Set<Object> keys = new HashSet<Object>(container.keySet());
+      assertFalse(keys.contains("removed"));
+   }
+}
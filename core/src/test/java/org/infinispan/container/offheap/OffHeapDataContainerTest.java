@@ -0,0 +1,153 @@
+package org.infinispan.container.offheap;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.loaders.dummy.DummyInMemoryCacheStore;
+import org.infinispan.loaders.dummy.DummyInMemoryCacheStoreConfigurationBuilder;
+import org.infinispan.loaders.manager.CacheLoaderManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+
+@Test(groups = "functional", testName = "container.offheap.OffHeapDataContainerTest")
+public class OffHeapDataContainerTest extends SingleCacheManagerTest {
+
+   private static final int MAX_ENTRIES = 4;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.dataContainer().dataContainer(new OffHeapDataContainer())
+            .locking().concurrencyLevel(1)
+            .eviction().strategy(EvictionStrategy.LRU).maxEntries(MAX_ENTRIES)
+            .loaders().passivation(true).addStore(DummyInMemoryCacheStoreConfigurationBuilder.class);
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   private OffHeapDataContainer container() {
+      DataContainer dc = cache.getAdvancedCache().getDataContainer();
+      assertSame(OffHeapDataContainer.class, dc.getClass());
+      return (OffHeapDataContainer) dc;
+   }
+
+   public void testPutGetRemove() {
+      cache.put("k1", "v1");
+      cache.put("k2", "v2");
+      assertEquals("v1", cache.get("k1"));
+      assertEquals(2, container().size());
+
+      cache.put("k1", "v1-updated");
+      assertEquals("v1-updated", cache.get("k1"));
+      assertEquals(2, container().size());
+
+      assertEquals("v2", cache.remove("k2"));
+      assertNull(cache.get("k2"));
+      assertEquals(1, container().size());
+      assertFalse(container().containsKey("k2"));
+      cache.clear();
+   }
+
+   public void testIteration() {
+      cache.put("k1", "v1");
+      cache.put("k2", "v2", 100, TimeUnit.MINUTES);
+      cache.put("k3", "v3", -1, TimeUnit.MINUTES, 100, TimeUnit.MINUTES);
+
+      Set<Object> keys = new HashSet<Object>();
+      for (InternalCacheEntry ice : container()) keys.add(ice.getKey());
+      assertEquals(new HashSet<Object>(container().keySet()), keys);
+      assertEquals(3, keys.size());
+      assertTrue(container().values().contains("v3"));
+      cache.clear();
+   }
+
+   public void testExpiration() throws Exception {
+      OffHeapDataContainer dc = container();
+      dc.put("mortal", "v", new EmbeddedMetadata.Builder().lifespan(10, TimeUnit.MILLISECONDS).build());
+      dc.put("transient", "v", new EmbeddedMetadata.Builder().maxIdle(100, TimeUnit.MINUTES).build());
+      long lastUsed = dc.get("transient").getLastUsed();
+      Thread.sleep(50);
+
+      assertTrue(dc.get("transient").getLastUsed() > lastUsed);
+      assertEquals(2, dc.size());
+      dc.purgeExpired();
+      assertEquals(1, dc.size());
+      assertNull(dc.get("mortal"));
+      dc.clear();
+   }
+
+   public void testEvictionPassivatesLeastRecentlyUsed() throws Exception {
+      for (int i = 0; i < MAX_ENTRIES; i++) cache.put("k" + i, "v" + i);
+      // k0 becomes the most recently used entry, so k1 is the first to go
+      cache.get("k0");
+      cache.put("k" + MAX_ENTRIES, "v" + MAX_ENTRIES);
+
+      assertEquals(MAX_ENTRIES, container().size());
+      assertFalse(container().containsKey("k1"));
+      assertTrue(container().containsKey("k0"));
+
+      DummyInMemoryCacheStore store = (DummyInMemoryCacheStore) TestingUtil.extractComponent(cache, CacheLoaderManager.class).getCacheStore();
+      assertTrue(store.containsKey("k1"));
+
+      // activation loads it back from the store
+      assertEquals("v1", cache.get("k1"));
+      assertTrue(container().containsKey("k1"));
+      cache.clear();
+   }
+
+   public void testAllocatedMemory() {
+      assertEquals(0, container().getAllocatedMemory());
+      cache.put("k", new byte[1024]);
+      assertTrue(container().getAllocatedMemory() > 1024);
+      cache.clear();
+      assertEquals(0, container().getAllocatedMemory());
+   }
+
+   public void testIteratorRemove() {
+      cache.put("k1", "v1");
+      cache.put("k2", "v2");
+      cache.put("k3", "v3");
+
+      for (Iterator<InternalCacheEntry> it = container().iterator(); it.hasNext(); ) {
+         if (it.next().getKey().equals("k1"))
+            it.remove();
+      }
+      assertFalse(container().containsKey("k1"));
+      assertTrue(container().keySet().remove("k2"));
+      assertFalse(container().containsKey("k2"));
+      assertTrue(container().values().remove("v3"));
+      assertEquals(0, container().size());
+      assertEquals(0, container().getAllocatedMemory());
+   }
+
+   public void testStopReleasesMemory() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.dataContainer().dataContainer(new OffHeapDataContainer());
+      final EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(builder);
+      OffHeapDataContainer dc;
+      try {
+         cm.getCache().put("k", new byte[1024]);
+         dc = (OffHeapDataContainer) cm.getCache().getAdvancedCache().getDataContainer();
+         assertTrue(dc.getAllocatedMemory() > 1024);
+      } finally {
+         TestingUtil.killCacheManagers(cm);
+      }
+      assertEquals(0, dc.getAllocatedMemory());
+      assertEquals(0, dc.size());
+   }
+}
@@ -0,0 +1,80 @@
+package org.infinispan.distribution;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests {@link org.infinispan.AdvancedCache#getAll(java.util.Set)} with keys owned by different nodes.
+ *
+ * @since 6.0
+ */
+@Test(groups = "functional", testName = "distribution.DistGetAllTest")
+public class DistGetAllTest extends MultipleCacheManagersTest {
+
+   protected boolean transactional = false;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, transactional);
+      builder.clustering().hash().numOwners(1).l1().enable();
+      createCluster(builder, 3);
+      waitForClusterToForm();
+   }
+
+   public void testGetAllFromAllOwners() {
+      MagicKey k0 = new MagicKey("k0", cache(0));
+      MagicKey k1 = new MagicKey("k1", cache(1));
+      MagicKey k2 = new MagicKey("k2", cache(2));
+      MagicKey k3 = new MagicKey("k3", cache(2));
+      MagicKey missing = new MagicKey("missing", cache(1));
+      Map<Object, Object> expected = new HashMap<Object, Object>();
+      expected.put(k0, "v0");
+      expected.put(k1, "v1");
+      expected.put(k2, "v2");
+      expected.put(k3, "v3");
+      cache(0).putAll(expected);
+
+      Map<Object, Object> values = cache(0).getAdvancedCache().getAll(keys(k0, k1, k2, k3, missing));
+      assertEquals(expected, values);
+   }
+
+   public void testGetAllStoresInL1() {
+      MagicKey k1 = new MagicKey("l1-k1", cache(1));
+      MagicKey k2 = new MagicKey("l1-k2", cache(2));
+      cache(1).put(k1, "v1");
+      cache(2).put(k2, "v2");
+      assertFalse(isInL1(cache(0), k1));
+      assertFalse(isInL1(cache(0), k2));
+
+      Map<Object, Object> values = cache(0).getAdvancedCache().getAll(keys(k1, k2));
+      assertEquals(2, values.size());
+      assertTrue(isInL1(cache(0), k1));
+      assertTrue(isInL1(cache(0), k2));
+
+      // the owners must invalidate the L1 entries they served
+      cache(1).put(k1, "v1-new");
+      assertFalse(isInL1(cache(0), k1));
+      assertEquals("v1-new", cache(0).getAdvancedCache().getAll(keys(k1)).get(k1));
+   }
+
+   private static boolean isInL1(Cache<?, ?> cache, Object key) {
+      return cache.getAdvancedCache().getDataContainer().containsKey(key);
+   }
+
+   private static Set<Object> keys(Object... keys) {
+      return new HashSet<Object>(Arrays.asList(keys));
+   }
+}
@@ -90,7 +90,7 @@ static class MockMarshalledValueInterceptor extends MarshalledValueInterceptor {
       boolean marshalledValueCreated;
 
       MockMarshalledValueInterceptor(StreamingMarshaller marshaller) {
-         injectMarshaller(marshaller, new InternalEntryFactoryImpl());
+         injectMarshaller(marshaller, new InternalEntryFactoryImpl(), null, null);
       }
 
       @Override
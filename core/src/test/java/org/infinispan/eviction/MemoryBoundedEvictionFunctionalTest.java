@@ -0,0 +1,141 @@
+package org.infinispan.eviction;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DefaultDataContainer;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap.Eviction;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap.EntrySizeCalculator;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap.EvictionListener;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests eviction of caches bounded by the estimated memory footprint of their entries.
+ *
+ * @since 6.0
+ */
+@Test(groups = "functional", testName = "eviction.MemoryBoundedEvictionFunctionalTest")
+public class MemoryBoundedEvictionFunctionalTest extends SingleCacheManagerTest {
+
+   private static final long MAX_MEMORY = 64 * 1024;
+   private static final int VALUE_SIZE = 1024;
+   private static final int ENTRY_SIZE = 100;
+
+   public MemoryBoundedEvictionFunctionalTest() {
+      cleanup = CleanupPhase.AFTER_METHOD;
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.eviction().maxMemory(MAX_MEMORY).strategy(EvictionStrategy.LRU)
+            .locking().concurrencyLevel(4);
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   private DefaultDataContainer container() {
+      return (DefaultDataContainer) cache.getAdvancedCache().getDataContainer();
+   }
+
+   public void testEvictionKeepsMemoryWithinBound() {
+      int puts = (int) (4 * MAX_MEMORY / VALUE_SIZE);
+      for (int i = 0; i < puts; i++) {
+         cache.put("key-" + i, new byte[VALUE_SIZE]);
+      }
+      assertEquals(MAX_MEMORY, container().getMaxMemory());
+      long used = container().getEstimatedMemory();
+      assertTrue("Estimated memory too big: " + used, used <= MAX_MEMORY);
+      assertTrue("Nothing was evicted", container().size() < puts);
+      assertTrue(container().size() > 0);
+   }
+
+   public void testMemoryReleasedOnRemoveAndClear() {
+      cache.put("k1", new byte[VALUE_SIZE]);
+      cache.put("k2", new byte[VALUE_SIZE]);
+      long twoEntries = container().getEstimatedMemory();
+      assertTrue(twoEntries > 2 * VALUE_SIZE);
+
+      cache.remove("k1");
+      long oneEntry = container().getEstimatedMemory();
+      assertTrue(oneEntry < twoEntries);
+
+      cache.put("k2", new byte[2 * VALUE_SIZE]);
+      assertTrue(container().getEstimatedMemory() > oneEntry + VALUE_SIZE / 2);
+
+      cache.clear();
+      assertEquals(0, container().getEstimatedMemory());
+   }
+
+   public void testCountBoundedContainerDoesNotTrackMemory() {
+      DefaultDataContainer dc = (DefaultDataContainer) DefaultDataContainer.boundedDataContainer(
+            1, 16, EvictionStrategy.LRU, EvictionThreadPolicy.DEFAULT,
+            AnyEquivalence.getInstance(), AnyEquivalence.getInstance());
+      assertEquals(-1, dc.getEstimatedMemory());
+      assertEquals(-1, dc.getMaxMemory());
+   }
+
+   public void testLeastRecentlyUsedEvictedFirst() {
+      for (Eviction eviction : new Eviction[]{Eviction.LRU, Eviction.LIRS}) {
+         BoundedConcurrentHashMap<Integer, Integer> map = createMap(eviction, 10 * ENTRY_SIZE);
+         for (int i = 0; i < 10; i++) map.put(i, i);
+         assertEquals(10 * ENTRY_SIZE, map.memoryUsage());
+         map.get(0);
+         map.put(10, 10);
+         assertTrue(eviction + " exceeded bound: " + map.memoryUsage(), map.memoryUsage() <= 10 * ENTRY_SIZE);
+         assertTrue(eviction + " evicted recently used entry", map.containsKey(0));
+         assertTrue(map.containsKey(10));
+         assertFalse(eviction + " did not evict", map.size() > 10);
+      }
+   }
+
+   public void testMapBoundedOnlyByMemory() {
+      BoundedConcurrentHashMap<Integer, Integer> map = createMap(Eviction.LRU, 10000 * ENTRY_SIZE);
+      for (int i = 0; i < 20000; i++) map.put(i, i);
+      assertEquals(10000, map.size());
+      assertEquals(10000 * ENTRY_SIZE, map.memoryUsage());
+      int recent = 0;
+      for (int i = 10000; i < 20000; i++) {
+         if (map.containsKey(i)) recent++;
+      }
+      // removals refresh the recency of entries sharing a hash bucket, so only most of them survive
+      assertTrue("Only " + recent + " recent entries kept", recent > 7500);
+      assertTrue(map.containsKey(19999));
+   }
+
+   private static BoundedConcurrentHashMap<Integer, Integer> createMap(Eviction eviction, long maxMemory) {
+      EntrySizeCalculator<Integer, Integer> calculator = new EntrySizeCalculator<Integer, Integer>() {
+         @Override
+         public long calculateSize(Integer key, Integer value) {
+            return ENTRY_SIZE;
+         }
+      };
+      return new BoundedConcurrentHashMap<Integer, Integer>(-1, maxMemory, 1, eviction,
+            new EvictionListener<Integer, Integer>() {
+               @Override
+               public void onEntryEviction(Map<Integer, Integer> evicted) {
+               }
+
+               @Override
+               public void onEntryChosenForEviction(Integer internalCacheEntry) {
+               }
+
+               @Override
+               public void onEntryActivated(Object key) {
+               }
+
+               @Override
+               public void onEntryRemoved(Object key) {
+               }
+            }, calculator,
+            AnyEquivalence.<Integer>getInstance(), AnyEquivalence.<Integer>getInstance());
+   }
+}
@@ -9,6 +9,11 @@
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import org.infinispan.commands.VisitableCommand;
+import org.infinispan.commands.read.GetKeyValueCommand;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.context.SingleKeyNonTxInvocationContext;
 import org.infinispan.factories.components.ComponentMetadataRepo;
 import org.infinispan.factories.components.ModuleMetadataFileFinder;
 import org.infinispan.interceptors.base.CommandInterceptor;
@@ -60,6 +65,65 @@ public void testConcurrentAddRemove() throws Exception {
       assert ic.asList().size() == 5 : "Resulting interceptor chain was actually " + ic.asList();
    }
 
+   public void testDispatchSkipsInterceptorsNotHandlingCommand() {
+      ComponentMetadataRepo componentMetadataRepo = new ComponentMetadataRepo();
+      componentMetadataRepo.initialize(Collections.<ModuleMetadataFileFinder>emptyList(), InterceptorChainTest.class.getClassLoader());
+      InterceptorChain ic = new InterceptorChain(componentMetadataRepo);
+      ic.setFirstInChain(new DefaultHandlingInterceptor());
+      ic.appendInterceptor(new PassThroughInterceptor1(), false);
+      ic.appendInterceptor(new PassThroughInterceptor2(), false);
+      ic.appendInterceptor(new PassThroughInterceptor3(), false);
+      ic.appendInterceptor(new GetHandlingInterceptor(), false);
+
+      InvocationContext ctx = new SingleKeyNonTxInvocationContext(true, AnyEquivalence.getInstance());
+      GetKeyValueCommand command = new GetKeyValueCommand("k", null, false);
+      // only the first pass through interceptor is visited, it passes the command straight to the last one
+      assert ic.invoke(ctx, command).equals(3) : "The command should have visited 3 interceptors";
+
+      // the dispatch must take into account the interceptors added later
+      GetHandlingInterceptor added = new GetHandlingInterceptor() {};
+      ic.addInterceptor(added, 3);
+      // the pass through interceptor following the added one is visited, and skips the remaining one
+      assert ic.invoke(ctx, command).equals(5) : "The command should have visited 5 interceptors";
+      assert added.visits == 1;
+
+      ic.removeInterceptor(added.getClass());
+      assert ic.invoke(ctx, command).equals(3) : "The command should have visited 3 interceptors";
+      assert added.visits == 1;
+   }
+
+   private static class DefaultHandlingInterceptor extends CommandInterceptor {
+      @Override
+      protected Object handleDefault(InvocationContext ctx, VisitableCommand command) throws Throwable {
+         return invokeNextInterceptor(ctx, command);
+      }
+   }
+
+   private static class PassThroughInterceptor1 extends CommandInterceptor {
+   }
+
+   private static class PassThroughInterceptor2 extends CommandInterceptor {
+   }
+
+   private static class PassThroughInterceptor3 extends CommandInterceptor {
+   }
+
+   private static class GetHandlingInterceptor extends CommandInterceptor {
+      int visits;
+
+      @Override
+      public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand command) throws Throwable {
+         visits++;
+         if (hasNext()) return invokeNextInterceptor(ctx, command);
+         // count the interceptors the command went through
+         int visited = 0;
+         for (StackTraceElement element : new Throwable().getStackTrace()) {
+            if (element.getMethodName().equals("visitGetKeyValueCommand")) visited++;
+         }
+         return visited;
+      }
+   }
+
    private static class InterceptorChainUpdater implements Callable<Void> {
       private final InterceptorChain ic;
       private final CyclicBarrier barrier;
@@ -18,6 +18,9 @@
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import junit.framework.Assert;
 
@@ -32,12 +35,14 @@
 import org.infinispan.loaders.modifications.Modification;
 import org.infinispan.loaders.modifications.Remove;
 import org.infinispan.loaders.modifications.Store;
+import org.infinispan.loaders.spi.CacheLoader;
 import org.infinispan.loaders.spi.CacheStore;
 import org.infinispan.loaders.spi.LockSupportCacheStore;
 import org.infinispan.marshall.TestObjectStreamMarshaller;
 import org.infinispan.marshall.core.MarshalledValue;
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.Util;
+import org.infinispan.util.concurrent.ConcurrentHashSet;
 import org.infinispan.test.AbstractInfinispanTest;
 import org.infinispan.test.fwk.TestInternalCacheEntryFactory;
 import org.infinispan.transaction.xa.GlobalTransaction;
@@ -489,6 +494,28 @@ public void testStoreAndRemoveAll() throws CacheLoaderException {
       assert expected.isEmpty();
    }
 
+   public void testStoreBatch() throws CacheLoaderException {
+      cs.store(TestInternalCacheEntryFactory.create("k1", "v1"));
+      cs.store(TestInternalCacheEntryFactory.create("k4", "v4"));
+
+      List<InternalCacheEntry> batch = new ArrayList<InternalCacheEntry>();
+      batch.add(TestInternalCacheEntryFactory.create("k1", "v1-new"));
+      batch.add(TestInternalCacheEntryFactory.create("k2", "v2"));
+      batch.add(TestInternalCacheEntryFactory.create("k3", "v3"));
+      cs.storeBatch(batch);
+
+      assertEquals(cs.load("k1").getValue(), "v1-new");
+      assertEquals(cs.load("k2").getValue(), "v2");
+      assertEquals(cs.load("k3").getValue(), "v3");
+      assertEquals(cs.load("k4").getValue(), "v4");
+      assertEquals(cs.loadAll().size(), 4);
+
+      // values stored in the space freed by the batch must not clash with it
+      cs.store(TestInternalCacheEntryFactory.create("k5", "v5"));
+      assertEquals(cs.load("k2").getValue(), "v2");
+      assertEquals(cs.load("k5").getValue(), "v5");
+   }
+
    public void testPurgeExpired() throws Exception {
       // Increased lifespan and idle timeouts to accommodate slower cache stores
       long lifespan = 6000;
@@ -534,6 +561,52 @@ public void testLoadKeys() throws CacheLoaderException {
       assert !s.contains("k3");
    }
 
+   public void testProcess() throws Exception {
+      for (int i = 0; i < 500; i++) {
+         cs.store(TestInternalCacheEntryFactory.create("k" + i, "v" + i));
+      }
+      cs.store(TestInternalCacheEntryFactory.create("expired", "v", 1));
+      Thread.sleep(10);
+
+      ExecutorService executor = Executors.newFixedThreadPool(3);
+      try {
+         final Set<Object> processed = new ConcurrentHashSet<Object>();
+         cs.process(null, new CacheLoader.CacheLoaderTask() {
+            @Override
+            public void processEntry(InternalCacheEntry entry, CacheLoader.TaskContext taskContext) {
+               assertEquals("v" + ((String) entry.getKey()).substring(1), entry.getValue());
+               assert processed.add(entry.getKey()) : "Entry processed twice: " + entry;
+            }
+         }, executor);
+         assertEquals(500, processed.size());
+
+         processed.clear();
+         cs.process(new CacheLoader.KeyFilter() {
+            @Override
+            public boolean shouldLoadKey(Object key) {
+               return ((String) key).endsWith("7");
+            }
+         }, new CacheLoader.CacheLoaderTask() {
+            @Override
+            public void processEntry(InternalCacheEntry entry, CacheLoader.TaskContext taskContext) {
+               processed.add(entry.getKey());
+            }
+         }, executor);
+         assertEquals(50, processed.size());
+
+         final AtomicInteger count = new AtomicInteger();
+         cs.process(null, new CacheLoader.CacheLoaderTask() {
+            @Override
+            public void processEntry(InternalCacheEntry entry, CacheLoader.TaskContext taskContext) {
+               if (count.incrementAndGet() == 10) taskContext.stop();
+            }
+         }, executor);
+         assert count.get() < 500 : "Processing did not stop, " + count.get() + " entries processed";
+      } finally {
+         executor.shutdownNow();
+      }
+   }
+
    public void testStreamingAPI() throws IOException, CacheLoaderException {
       cs.store(TestInternalCacheEntryFactory.create("k1", "v1"));
       cs.store(TestInternalCacheEntryFactory.create("k2", "v2"));
@@ -34,9 +34,14 @@
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.TimeUnit;
@@ -569,6 +574,59 @@ public boolean remove(Object key) {
       }
    }
 
+   public void testModificationsAppliedInBatches(Method m) throws Exception {
+      final String k1 = k(m, 1), k2 = k(m, 2), k3 = k(m, 3), v1 = v(m, 1), v2 = v(m, 2), v3 = v(m, 3);
+      final List<Collection<InternalCacheEntry>> storeBatches = new CopyOnWriteArrayList<Collection<InternalCacheEntry>>();
+      final List<Set<Object>> removeBatches = new CopyOnWriteArrayList<Set<Object>>();
+      final DummyInMemoryCacheStore underlying = new DummyInMemoryCacheStore() {
+         @Override
+         public void storeBatch(Collection<InternalCacheEntry> entries) throws CacheLoaderException {
+            storeBatches.add(new ArrayList<InternalCacheEntry>(entries));
+            super.storeBatch(entries);
+         }
+
+         @Override
+         public void removeAll(Set<Object> keys) throws CacheLoaderException {
+            removeBatches.add(new HashSet<Object>(keys));
+            super.removeAll(keys);
+         }
+      };
+      store = new AsyncStore(underlying);
+      DummyInMemoryCacheStoreConfigurationBuilder dummyCfg = TestCacheManagerFactory
+            .getDefaultCacheConfiguration(false)
+            .loaders().addLoader(DummyInMemoryCacheStoreConfigurationBuilder.class)
+            .storeName(m.getName());
+      dummyCfg.async().enable().threadPoolSize(1);
+      store.init(dummyCfg.create(), getCache(), null);
+      store.start();
+      try {
+         underlying.store(TestInternalCacheEntryFactory.create(k3, v3));
+
+         List<Modification> mods = new ArrayList<Modification>();
+         mods.add(new Store(TestInternalCacheEntryFactory.create(k1, v1)));
+         mods.add(new Store(TestInternalCacheEntryFactory.create(k2, v2)));
+         mods.add(new Remove(k3));
+         store.prepare(mods, null, true);
+
+         eventually(new Condition() {
+            @Override
+            public boolean isSatisfied() throws Exception {
+               return !removeBatches.isEmpty();
+            }
+         }, 10000);
+
+         assert storeBatches.size() == 1 : "Expected a single batch, got " + storeBatches;
+         assert storeBatches.get(0).size() == 2;
+         assert removeBatches.size() == 1;
+         assert removeBatches.get(0).equals(Collections.singleton(k3));
+         assert underlying.load(k1).getValue().equals(v1);
+         assert underlying.load(k2).getValue().equals(v2);
+         assert !underlying.containsKey(k3);
+      } finally {
+         underlying.clear();
+      }
+   }
+
    public void testModificationQueueSize(final Method m) throws Exception {
       LockableCacheStore underlying = new LockableCacheStore();
       ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
@@ -0,0 +1,221 @@
+package org.infinispan.loaders.file;
+
+import org.infinispan.configuration.cache.LogFileCacheStoreConfiguration;
+import org.infinispan.configuration.cache.LogFileCacheStoreConfigurationBuilder;
+import org.infinispan.loaders.BaseCacheStoreTest;
+import org.infinispan.loaders.spi.CacheStore;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.test.fwk.TestInternalCacheEntryFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.util.Arrays;
+
+import static org.infinispan.test.TestingUtil.recursiveFileRemove;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Low level log file cache store tests.
+ *
+ * @since 6.0
+ */
+@Test(groups = "unit", testName = "loaders.file.LogFileCacheStoreTest")
+public class LogFileCacheStoreTest extends BaseCacheStoreTest {
+
+   private static final int MAX_FILE_SIZE = 1024;
+
+   LogFileCacheStore store;
+   String tmpDirectory;
+
+   @BeforeClass
+   protected void setUpTempDir() {
+      tmpDirectory = TestingUtil.tmpDirectory(this);
+   }
+
+   @AfterClass
+   protected void clearTempDir() {
+      recursiveFileRemove(tmpDirectory);
+   }
+
+   @Override
+   protected CacheStore createCacheStore() throws Exception {
+      clearTempDir();
+      store = new LogFileCacheStore();
+      LogFileCacheStoreConfiguration fileStoreConfiguration = TestCacheManagerFactory
+            .getDefaultCacheConfiguration(false)
+            .loaders()
+               .addLoader(LogFileCacheStoreConfigurationBuilder.class)
+                  .location(this.tmpDirectory)
+                  .maxFileSize(MAX_FILE_SIZE)
+                  .compactionInterval(0)
+                  .purgeSynchronously(true)
+                  .create();
+      store.init(fileStoreConfiguration, getCache(), getMarshaller());
+      store.start();
+      return store;
+   }
+
+   public void testCompaction() throws Exception {
+      for (int i = 0; i < 100; i++)
+         store.store(TestInternalCacheEntryFactory.create("k" + (i % 10), "v" + i));
+      store.remove("k0");
+      int fileCount = store.getLogFileCount();
+      assertTrue(fileCount > 2);
+
+      store.compact();
+      assertTrue(store.getLogFileCount() < fileCount);
+      assertEquals(store.getLogFileCount(), countFiles(".log"));
+
+      assertNull(store.load("k0"));
+      for (int i = 1; i < 10; i++)
+         assertEquals("v" + (90 + i), store.load("k" + i).getValue());
+   }
+
+   public void testRestart() throws Exception {
+      for (int i = 0; i < 100; i++)
+         store.store(TestInternalCacheEntryFactory.create("k" + (i % 10), "v" + i));
+      store.remove("k0");
+      store.stop();
+      assertEquals(countFiles(".log"), countFiles(".hint"));
+
+      store.start();
+      assertFalse(store.containsKey("k0"));
+      for (int i = 1; i < 10; i++)
+         assertEquals("v" + (90 + i), store.load("k" + i).getValue());
+   }
+
+   public void testRestartAfterCrash() throws Exception {
+      for (int i = 0; i < 10; i++)
+         store.store(TestInternalCacheEntryFactory.create("k" + i, "v" + i));
+      store.stop();
+
+      // simulate a crash while writing to the last log file: no hint file and an incomplete record
+      File[] hints = listFiles(".hint");
+      for (File hint : hints)
+         assertTrue(hint.delete());
+      File lastLog = lastFile(".log");
+      FileOutputStream out = new FileOutputStream(lastLog, true);
+      try {
+         out.write(new byte[]{1, 2, 3, 4, 5, 6, 7});
+      } finally {
+         out.close();
+      }
+      long corruptLength = lastLog.length();
+
+      store.start();
+      assertTrue(lastLog.length() < corruptLength);
+      for (int i = 0; i < 10; i++)
+         assertEquals("v" + i, store.load("k" + i).getValue());
+   }
+
+   public void testRestartAfterCrashFollowingCompaction() throws Exception {
+      store.store(TestInternalCacheEntryFactory.create("live", "v"));
+      for (int i = 0; i < 100; i++)
+         store.store(TestInternalCacheEntryFactory.create("k" + (i % 10), "v" + i));
+      store.compact();
+
+      // simulate a crash after more writes to the active file: only its hint file written by the compaction is left
+      File activeHint = lastFile(".hint");
+      File compactionHint = new File(activeHint.getPath() + ".bak");
+      assertTrue(activeHint.renameTo(compactionHint));
+      store.store(TestInternalCacheEntryFactory.create("after", "v"));
+      store.remove("k0");
+      store.stop();
+      assertTrue(activeHint.delete());
+      assertTrue(compactionHint.renameTo(activeHint));
+
+      store.start();
+      assertEquals("v", store.load("live").getValue());
+      assertEquals("v", store.load("after").getValue());
+      assertFalse(store.containsKey("k0"));
+      for (int i = 1; i < 10; i++)
+         assertEquals("v" + (90 + i), store.load("k" + i).getValue());
+   }
+
+   public void testExpiredKeyNotRestoredAfterLoadAndCompaction() throws Exception {
+      assertExpiredKeyStaysRemovedAfterRestart(false, false);
+   }
+
+   public void testExpiredKeyNotRestoredAfterPurgeAndCompaction() throws Exception {
+      assertExpiredKeyStaysRemovedAfterRestart(true, false);
+   }
+
+   public void testExpiredKeyNotRestoredAfterCompactingItsTombstone() throws Exception {
+      assertExpiredKeyStaysRemovedAfterRestart(true, true);
+   }
+
+   /**
+    * Stores an immortal and then a mortal value of a key, in two log files, lets the mortal value expire, and compacts
+    * its log file but not the one holding the immortal value.
+    */
+   private void assertExpiredKeyStaysRemovedAfterRestart(boolean purge, boolean compactTombstone) throws Exception {
+      char[] chars = new char[MAX_FILE_SIZE - 200];
+      Arrays.fill(chars, 'x');
+      String big = new String(chars);
+      store.store(TestInternalCacheEntryFactory.create("k", "immortal"));
+      store.store(TestInternalCacheEntryFactory.create("live", big.substring(300)));
+      store.store(TestInternalCacheEntryFactory.create("k", big, 10));
+      store.store(TestInternalCacheEntryFactory.create("filler", big));
+      assertEquals(3, store.getLogFileCount());
+      int mortalFileId = store.getEntries().get("k").getFileId();
+      TestingUtil.sleepThread(100);
+
+      if (purge) {
+         store.purgeExpired();
+         assertFalse(store.containsKey("k"));
+      } else {
+         assertNull(store.load("k"));
+      }
+      if (compactTombstone) {
+         // the tombstone of k is in the active file, seal it and make it obsolete
+         store.remove("filler");
+         store.store(TestInternalCacheEntryFactory.create("filler2", big));
+      }
+      store.compact();
+      assertFalse(new File(new File(tmpDirectory, getCache().getName()), mortalFileId + ".log").exists());
+      assertTrue(new File(new File(tmpDirectory, getCache().getName()), "0.log").exists());
+      if (compactTombstone)
+         assertFalse(store.containsKey("filler"));
+
+      store.stop();
+      store.start();
+      assertNull(store.load("k"));
+      assertFalse(store.containsKey("k"));
+      assertEquals(big.substring(300), store.load("live").getValue());
+   }
+
+   private File lastFile(String extension) {
+      File last = null;
+      for (File file : listFiles(extension)) {
+         if (last == null || fileId(file) > fileId(last))
+            last = file;
+      }
+      return last;
+   }
+
+   private static int fileId(File log) {
+      return Integer.parseInt(log.getName().substring(0, log.getName().indexOf('.')));
+   }
+
+   private int countFiles(String extension) {
+      return listFiles(extension).length;
+   }
+
+   private File[] listFiles(final String extension) {
+      return new File(tmpDirectory, getCache().getName()).listFiles(new FilenameFilter() {
+         @Override
+         public boolean accept(File dir, String name) {
+            return name.endsWith(extension);
+         }
+      });
+   }
+
+}
@@ -0,0 +1,89 @@
+package org.infinispan.loaders.file;
+
+import org.infinispan.configuration.cache.SingleFileCacheStoreConfiguration;
+import org.infinispan.configuration.cache.SingleFileCacheStoreConfigurationBuilder;
+import org.infinispan.loaders.spi.CacheStore;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.test.fwk.TestInternalCacheEntryFactory;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+/**
+ * Low level single-file cache store tests, reading from a memory mapped file
+ * with windows small enough for many entries to cross their boundaries.
+ *
+ * @since 6.0
+ */
+@Test(groups = "unit", testName = "loaders.file.MemoryMappedSingleFileCacheStoreTest")
+public class MemoryMappedSingleFileCacheStoreTest extends SingleFileCacheStoreTest {
+
+   @Override
+   protected CacheStore createCacheStore() throws Exception {
+      clearTempDir();
+      store = new SingleFileCacheStore();
+      SingleFileCacheStoreConfiguration fileStoreConfiguration = TestCacheManagerFactory
+            .getDefaultCacheConfiguration(false)
+            .loaders()
+               .addLoader(SingleFileCacheStoreConfigurationBuilder.class)
+                  .location(this.tmpDirectory)
+                  .memoryMapped(true)
+                  .mappedWindowSize(4096)
+                  .purgeSynchronously(true)
+                  .create();
+      store.init(fileStoreConfiguration, getCache(), getMarshaller());
+      store.start();
+      return store;
+   }
+
+   public void testLoadWhileFileGrows() throws Exception {
+      for (int i = 0; i < 200; i++) {
+         store.store(TestInternalCacheEntryFactory.create("k" + i, "v" + i));
+         // every load may need to map the window again, as the file grew
+         for (int j = 0; j <= i; j += 10)
+            assertEquals("v" + j, store.load("k" + j).getValue());
+      }
+      store.clear();
+      store.store(TestInternalCacheEntryFactory.create("k", "v"));
+      assertEquals("v", store.load("k").getValue());
+   }
+
+   public void testConcurrentLoadsWhileWindowsAreMappedAgain() throws Exception {
+      final AtomicInteger stored = new AtomicInteger();
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+         List<Future<Void>> readers = new ArrayList<Future<Void>>();
+         for (int r = 0; r < 3; r++) {
+            readers.add(executor.submit(new Callable<Void>() {
+               @Override
+               public Void call() throws Exception {
+                  // the previous mappings are released while other threads read
+                  while (stored.get() < 500) {
+                     int i = stored.get() - 1;
+                     if (i >= 0)
+                        assertEquals("v" + i, store.load("k" + i).getValue());
+                  }
+                  return null;
+               }
+            }));
+         }
+         for (int i = 0; i < 500; i++) {
+            store.store(TestInternalCacheEntryFactory.create("k" + i, "v" + i));
+            stored.incrementAndGet();
+         }
+         for (Future<Void> reader : readers)
+            reader.get();
+      } finally {
+         executor.shutdownNow();
+      }
+   }
+
+}
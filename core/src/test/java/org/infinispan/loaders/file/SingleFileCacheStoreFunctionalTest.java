@@ -20,6 +20,7 @@
 
 import static org.infinispan.test.TestingUtil.*;
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertTrue;
 import static org.testng.AssertJUnit.fail;
 
@@ -79,6 +80,7 @@ public void call() {
             }
             assertEquals("Infinispan-SingleFileCacheStore", storeConfiguration.location());
             assertEquals(-1, storeConfiguration.maxEntries());
+            assertFalse(storeConfiguration.memoryMapped());
          }
       });
    }
@@ -88,7 +90,8 @@ public void testParsingElement() throws Exception {
             "<default>\n" +
             "<eviction maxEntries=\"100\"/>" +
             "<loaders passivation=\"false\" shared=\"false\" preload=\"true\"> \n" +
-            "<singleFileStore maxEntries=\"100\" location=\"other-location\"/> \n" +
+            "<singleFileStore maxEntries=\"100\" location=\"other-location\" memoryMapped=\"true\" " +
+            "mappedWindowSize=\"1048576\"/> \n" +
             "</loaders>\n" +
             "</default>\n" + INFINISPAN_END_TAG;
       InputStream is = new ByteArrayInputStream(config.getBytes());
@@ -109,6 +112,8 @@ public void call() {
             }
             assertEquals("other-location", storeConfiguration.location());
             assertEquals(100, storeConfiguration.maxEntries());
+            assertTrue(storeConfiguration.memoryMapped());
+            assertEquals(1048576, storeConfiguration.mappedWindowSize());
          }
       });
    }
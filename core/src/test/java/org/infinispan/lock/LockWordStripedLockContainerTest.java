@@ -0,0 +1,182 @@
+package org.infinispan.lock;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.CacheManagerCallable;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.concurrent.locks.containers.LockContainer;
+import org.infinispan.util.concurrent.locks.containers.LockWordStripedLockContainer;
+import org.infinispan.util.concurrent.locks.containers.ReentrantStripedLockContainer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+
+@Test(groups = "functional", testName = "lock.LockWordStripedLockContainerTest")
+public class LockWordStripedLockContainerTest extends AbstractInfinispanTest {
+
+   private LockWordStripedLockContainer lc;
+
+   @BeforeMethod
+   public void setUp() {
+      lc = new LockWordStripedLockContainer(16);
+   }
+
+   public void testReentrancyIsPerOwner() throws Exception {
+      Object owner = new Object();
+      assertNotNull(lc.acquireLock(owner, "k", 0, TimeUnit.MILLISECONDS));
+      assertNotNull(lc.acquireLock(owner, "k", 0, TimeUnit.MILLISECONDS));
+      assertTrue(lc.ownsLock("k", owner));
+      assertSame(owner, lc.getLock("k").getOwner());
+      assertEquals(1, lc.getNumLocksHeld());
+
+      assertNull(lc.acquireLock(new Object(), "k", 10, TimeUnit.MILLISECONDS));
+
+      lc.releaseLock(owner, "k");
+      assertTrue(lc.isLocked("k"));
+      lc.releaseLock(owner, "k");
+      assertFalse(lc.isLocked("k"));
+      assertEquals(0, lc.getNumLocksHeld());
+   }
+
+   public void testReleaseByOtherOwnerIsIgnored() throws Exception {
+      Object owner = new Object();
+      assertNotNull(lc.acquireLock(owner, "k", 0, TimeUnit.MILLISECONDS));
+      lc.releaseLock(new Object(), "k");
+      assertTrue(lc.ownsLock("k", owner));
+      lc.releaseLock(owner, "k");
+      assertFalse(lc.isLocked("k"));
+   }
+
+   public void testWaiterAcquiresOnRelease() throws Exception {
+      Object owner = new Object();
+      assertNotNull(lc.acquireLock(owner, "k", 0, TimeUnit.MILLISECONDS));
+
+      final Object waiter = new Object();
+      Future<Boolean> acquired = fork(new Callable<Boolean>() {
+         @Override
+         public Boolean call() throws Exception {
+            return lc.acquireLock(waiter, "k", 10, TimeUnit.SECONDS) != null;
+         }
+      });
+
+      Thread.sleep(100);
+      assertFalse(acquired.isDone());
+      lc.releaseLock(owner, "k");
+      assertTrue(acquired.get(10, TimeUnit.SECONDS));
+      assertTrue(lc.ownsLock("k", waiter));
+      lc.releaseLock(waiter, "k");
+   }
+
+   public void testInterruptedWaiter() throws Exception {
+      Object owner = new Object();
+      assertNotNull(lc.acquireLock(owner, "k", 0, TimeUnit.MILLISECONDS));
+
+      final CountDownLatch started = new CountDownLatch(1);
+      final AtomicInteger interrupted = new AtomicInteger();
+      Thread thread = fork(new Runnable() {
+         @Override
+         public void run() {
+            started.countDown();
+            try {
+               lc.acquireLock(new Object(), "k", 10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+               interrupted.incrementAndGet();
+            }
+         }
+      }, false);
+
+      started.await();
+      Thread.sleep(100);
+      thread.interrupt();
+      thread.join(10000);
+      assertEquals(1, interrupted.get());
+      assertTrue(lc.ownsLock("k", owner));
+      lc.releaseLock(owner, "k");
+      assertFalse(lc.isLocked("k"));
+   }
+
+   public void testMutualExclusion() throws Exception {
+      final int threads = 4;
+      final int iterations = 10000;
+      final int[] counter = new int[1];
+      Future<?>[] futures = new Future[threads];
+      for (int t = 0; t < threads; t++) {
+         futures[t] = fork(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+               Object owner = new Object();
+               for (int i = 0; i < iterations; i++) {
+                  assertNotNull(lc.acquireLock(owner, "k", 10, TimeUnit.SECONDS));
+                  counter[0]++;
+                  lc.releaseLock(owner, "k");
+               }
+               return null;
+            }
+         });
+      }
+      for (Future<?> future : futures) {
+         future.get(60, TimeUnit.SECONDS);
+      }
+      assertEquals(threads * iterations, counter[0]);
+      assertEquals(0, lc.getNumLocksHeld());
+   }
+
+   public void testLockInterfaceUsesTheCurrentThread() throws Exception {
+      final Lock lock = lc.getLock("k");
+      lock.lock();
+      assertTrue(lock.tryLock());
+      assertTrue(lc.ownsLock("k", Thread.currentThread()));
+
+      Future<Boolean> other = fork(new Callable<Boolean>() {
+         @Override
+         public Boolean call() throws Exception {
+            return lock.tryLock() || lock.tryLock(10, TimeUnit.MILLISECONDS);
+         }
+      });
+      assertFalse(other.get(10, TimeUnit.SECONDS));
+
+      lock.unlock();
+      lock.unlock();
+      assertFalse(lc.isLocked("k"));
+
+      lock.lockInterruptibly();
+      assertTrue(lc.ownsLock("k", Thread.currentThread()));
+      lock.unlock();
+      assertFalse(lc.isLocked("k"));
+   }
+
+   public void testLockWordStripingIsOptIn() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.locking().useLockStriping(true);
+      TestingUtil.withCacheManager(new CacheManagerCallable(TestCacheManagerFactory.createCacheManager(builder)) {
+         @Override
+         public void call() {
+            assertEquals(ReentrantStripedLockContainer.class,
+                         TestingUtil.extractComponent(cm.getCache(), LockContainer.class).getClass());
+         }
+      });
+
+      builder.locking().useLockWordStriping(true);
+      TestingUtil.withCacheManager(new CacheManagerCallable(TestCacheManagerFactory.createCacheManager(builder)) {
+         @Override
+         public void call() {
+            assertEquals(LockWordStripedLockContainer.class,
+                         TestingUtil.extractComponent(cm.getCache(), LockContainer.class).getClass());
+         }
+      });
+   }
+}
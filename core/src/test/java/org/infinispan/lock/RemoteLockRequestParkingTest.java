@@ -0,0 +1,186 @@
+package org.infinispan.lock;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.remoting.RemoteException;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.transaction.LockingMode;
+import org.infinispan.util.concurrent.TimeoutException;
+import org.infinispan.util.concurrent.locks.LockManager;
+import org.infinispan.util.concurrent.locks.LockManagerImpl;
+import org.infinispan.util.concurrent.locks.LockRequestCallback;
+import org.testng.annotations.Test;
+
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests that remote lock requests for keys locked by other transactions wait for the keys to be released without
+ * holding a thread.
+ *
+ * @since 6.0
+ */
+@Test(groups = "functional", testName = "lock.RemoteLockRequestParkingTest")
+public class RemoteLockRequestParkingTest extends MultipleCacheManagersTest {
+
+   private static final long LOCK_TIMEOUT = 2000;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, true);
+      builder.transaction().lockingMode(LockingMode.PESSIMISTIC);
+      builder.locking().lockAcquisitionTimeout(LOCK_TIMEOUT);
+      builder.clustering().hash().numOwners(2);
+      createCluster(builder, 2);
+      waitForClusterToForm();
+   }
+
+   private LockManagerImpl lockManagerImpl(int index) {
+      return (LockManagerImpl) TestingUtil.extractComponent(cache(index), LockManager.class);
+   }
+
+   public void testRemoteLockWaitsForRelease() throws Exception {
+      final Object key = getKeyForCache(0);
+      TransactionManager tm0 = tm(0);
+      tm0.begin();
+      advancedCache(0).lock(key);
+      Transaction tx0 = tm0.suspend();
+
+      Future<Void> locker = fork(new Callable<Void>() {
+         @Override
+         public Void call() throws Exception {
+            TransactionManager tm1 = tm(1);
+            tm1.begin();
+            try {
+               advancedCache(1).lock(key);
+               cache(1).put(key, "v1");
+            } finally {
+               tm1.commit();
+            }
+            return null;
+         }
+      });
+
+      eventually(new Condition() {
+         @Override
+         public boolean isSatisfied() throws Exception {
+            return lockManagerImpl(0).getNumberOfPendingLockRequests() == 1;
+         }
+      });
+      assertFalse(locker.isDone());
+
+      tm0.resume(tx0);
+      tm0.commit();
+
+      locker.get(10, TimeUnit.SECONDS);
+      assertEquals(lockManagerImpl(0).getNumberOfPendingLockRequests(), 0);
+      assertEquals(cache(0).get(key), "v1");
+   }
+
+   public void testRemoteLockTimesOutOnce() throws Exception {
+      final Object key = getKeyForCache(0);
+      TransactionManager tm0 = tm(0);
+      tm0.begin();
+      advancedCache(0).lock(key);
+      Transaction tx0 = tm0.suspend();
+
+      TransactionManager tm1 = tm(1);
+      tm1.begin();
+      long start = System.currentTimeMillis();
+      try {
+         advancedCache(1).lock(key);
+         fail("The lock should not have been acquired");
+      } catch (RemoteException e) {
+         assertTrue(e.getCause() instanceof TimeoutException, "Unexpected cause " + e.getCause());
+      } finally {
+         tm1.rollback();
+      }
+      // The parked request must not wait for the lock again once its timeout expired
+      long duration = System.currentTimeMillis() - start;
+      assertTrue(duration < LOCK_TIMEOUT * 3 / 2, "Timed out after " + duration + " millis");
+      assertEquals(lockManagerImpl(0).getNumberOfPendingLockRequests(), 0);
+
+      tm0.resume(tx0);
+      tm0.commit();
+   }
+
+   public void testCallbackNotifiedOnTimeout() throws Exception {
+      final Object key = getKeyForCache(0);
+      TransactionManager tm0 = tm(0);
+      tm0.begin();
+      advancedCache(0).lock(key);
+      Transaction tx0 = tm0.suspend();
+
+      RecordingCallback callback = new RecordingCallback();
+      assertFalse(lockManagerImpl(0).invokeWhenLocksAvailable(Collections.singleton(key), "owner", 100, callback));
+      assertTrue(callback.latch.await(10, TimeUnit.SECONDS));
+      assertTrue(callback.timedOut);
+      assertEquals(lockManagerImpl(0).getNumberOfPendingLockRequests(), 0);
+
+      tm0.resume(tx0);
+      tm0.commit();
+   }
+
+   public void testCallbackNotNotifiedByTheReleasingThread() throws Exception {
+      final Object key = getKeyForCache(0);
+      TransactionManager tm0 = tm(0);
+      tm0.begin();
+      advancedCache(0).lock(key);
+      Transaction tx0 = tm0.suspend();
+
+      RecordingCallback callback = new RecordingCallback();
+      RecordingCallback otherCallback = new RecordingCallback();
+      assertFalse(lockManagerImpl(0).invokeWhenLocksAvailable(Collections.singleton(key), "owner", 10000, callback));
+      assertFalse(lockManagerImpl(0).invokeWhenLocksAvailable(Collections.singleton(key), "other", 10000, otherCallback));
+      assertEquals(lockManagerImpl(0).getNumberOfPendingLockRequests(), 2);
+
+      tm0.resume(tx0);
+      tm0.commit();
+
+      for (RecordingCallback c : Arrays.asList(callback, otherCallback)) {
+         assertTrue(c.latch.await(10, TimeUnit.SECONDS));
+         assertFalse(c.timedOut);
+         assertNotSame(c.thread, Thread.currentThread());
+      }
+      assertEquals(lockManagerImpl(0).getNumberOfPendingLockRequests(), 0);
+   }
+
+   public void testCallbackNotNotifiedWhenNotLocked() {
+      RecordingCallback callback = new RecordingCallback();
+      assertTrue(lockManagerImpl(0).invokeWhenLocksAvailable(Collections.singleton("free"), "owner", 10000, callback));
+      assertEquals(callback.latch.getCount(), 1);
+      assertEquals(lockManagerImpl(0).getNumberOfPendingLockRequests(), 0);
+   }
+
+   private static class RecordingCallback implements LockRequestCallback {
+      final CountDownLatch latch = new CountDownLatch(1);
+      volatile boolean timedOut;
+      volatile Thread thread;
+
+      @Override
+      public void locksAvailable() {
+         thread = Thread.currentThread();
+         latch.countDown();
+      }
+
+      @Override
+      public void timedOut() {
+         thread = Thread.currentThread();
+         timedOut = true;
+         latch.countDown();
+      }
+   }
+}
@@ -0,0 +1,127 @@
+package org.infinispan.marshall;
+
+import org.infinispan.commands.remote.SingleRpcCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commons.io.ExposedByteArrayOutputStream;
+import org.infinispan.commons.marshall.NotSerializableException;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.container.entries.metadata.MetadataImmortalCacheValue;
+import org.infinispan.context.Flag;
+import org.infinispan.marshall.core.CompactMarshaller;
+import org.infinispan.marshall.core.ExternalizerTable;
+import org.infinispan.marshall.core.VersionAwareMarshaller;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.data.Person;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Runs the {@link VersionAwareMarshallerTest} tests with the {@link CompactMarshaller}.
+ *
+ * @since 6.0
+ */
+@Test(groups = "functional", testName = "marshall.CompactMarshallerTest")
+public class CompactMarshallerTest extends VersionAwareMarshallerTest {
+
+   @Override
+   protected GlobalConfigurationBuilder createGlobalConfigurationBuilder() {
+      GlobalConfigurationBuilder builder = super.createGlobalConfigurationBuilder();
+      builder.serialization().marshaller(new CompactMarshaller());
+      return builder;
+   }
+
+   @Override
+   public void testNestedNonSerializable() throws Exception {
+      PutKeyValueCommand cmd = new PutKeyValueCommand(
+            "k", new Object(), false, null, new EmbeddedMetadata.Builder().build(),
+            Collections.<Flag>emptySet());
+      try {
+         marshaller.objectToByteBuffer(cmd);
+         assert false : "Should have failed marshalling a non serializable value";
+      } catch (NotSerializableException e) {
+         // expected, the trace information only covers the value
+      }
+   }
+
+   public void testPrimitivesAndStrings() throws Exception {
+      Object[] objects = {null, true, false, (byte) -3, (short) 1234, 'x', 1 << 30, -5L, 1.5f, -2.25d,
+                          "", "ascii", "\u00e9t\u00e9 \u4e2d\u6587 \uffff"};
+      for (Object o : objects) {
+         byte[] bytes = marshaller.objectToByteBuffer(o);
+         assertEquals(o, marshaller.objectFromByteBuffer(bytes));
+      }
+      Object[] read = (Object[]) marshaller.objectFromByteBuffer(marshaller.objectToByteBuffer(objects));
+      assertTrue(Arrays.equals(objects, read));
+   }
+
+   public void testCommandsAreSmallerThanWithJBossMarshalling() throws Exception {
+      PutKeyValueCommand put = new PutKeyValueCommand("key", "value", false, null,
+            new EmbeddedMetadata.Builder().lifespan(1000).build(), Collections.<Flag>emptySet());
+      SingleRpcCommand command = new SingleRpcCommand(cm.getCache().getName(), put);
+
+      StreamingMarshaller globalMarshaller = TestingUtil.extractGlobalMarshaller(cm);
+      byte[] compactBytes = globalMarshaller.objectToByteBuffer(command);
+      VersionAwareMarshaller versionAwareMarshaller = new VersionAwareMarshaller();
+      versionAwareMarshaller.inject(null, null, null, TestingUtil.extractGlobalComponent(cm, ExternalizerTable.class),
+            cm.getCacheManagerConfiguration());
+      versionAwareMarshaller.start();
+      try {
+         byte[] jbossBytes = versionAwareMarshaller.objectToByteBuffer(command);
+         assertTrue(compactBytes.length + " >= " + jbossBytes.length, compactBytes.length < jbossBytes.length);
+      } finally {
+         versionAwareMarshaller.stop();
+      }
+
+      SingleRpcCommand read = (SingleRpcCommand) globalMarshaller.objectFromByteBuffer(compactBytes);
+      PutKeyValueCommand readPut = (PutKeyValueCommand) read.getCommand();
+      assertEquals("key", readPut.getKey());
+      assertEquals("value", readPut.getValue());
+      assertEquals(1000, readPut.getMetadata().lifespan());
+   }
+
+   public void testStreamsLargerThanTheBuffer() throws Exception {
+      byte[] value = new byte[100000];
+      Arrays.fill(value, (byte) 7);
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < 10000; i++)
+         sb.append("\u00e9").append(i);
+      Person person = new Person("person");
+      MetadataImmortalCacheValue icv = new MetadataImmortalCacheValue(value,
+            new EmbeddedMetadata.Builder().build());
+
+      ExposedByteArrayOutputStream baos = new ExposedByteArrayOutputStream();
+      ObjectOutput out = marshaller.startObjectOutput(baos, false, 16);
+      try {
+         marshaller.objectToObjectStream(sb.toString(), out);
+         marshaller.objectToObjectStream(icv, out);
+         out.writeInt(42);
+         marshaller.objectToObjectStream(person, out);
+         marshaller.objectToObjectStream(null, out);
+      } finally {
+         marshaller.finishObjectOutput(out);
+      }
+
+      ObjectInput in = marshaller.startObjectInput(new ByteArrayInputStream(baos.getRawBuffer(), 0, baos.size()), false);
+      try {
+         assertEquals(sb.toString(), marshaller.objectFromObjectStream(in));
+         MetadataImmortalCacheValue readIcv = (MetadataImmortalCacheValue) marshaller.objectFromObjectStream(in);
+         assertTrue(Arrays.equals(value, (byte[]) readIcv.getValue()));
+         assertEquals(42, in.readInt());
+         assertEquals(person, marshaller.objectFromObjectStream(in));
+         assertNull(marshaller.objectFromObjectStream(in));
+      } finally {
+         marshaller.finishObjectInput(in);
+      }
+   }
+}
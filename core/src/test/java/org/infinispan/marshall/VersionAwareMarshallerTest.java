@@ -32,6 +32,7 @@
 import org.infinispan.commons.util.Immutables;
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
 import org.infinispan.container.entries.ImmortalCacheEntry;
 import org.infinispan.container.entries.ImmortalCacheValue;
 import org.infinispan.container.entries.InternalCacheEntry;
@@ -89,8 +90,8 @@
 public class VersionAwareMarshallerTest extends AbstractInfinispanTest {
 
    private static final Log log = LogFactory.getLog(VersionAwareMarshallerTest.class);
-   private org.infinispan.commons.marshall.AbstractDelegatingMarshaller marshaller;
-   private EmbeddedCacheManager cm;
+   protected org.infinispan.commons.marshall.AbstractDelegatingMarshaller marshaller;
+   protected EmbeddedCacheManager cm;
 
    private final TransactionFactory gtf = new TransactionFactory();
 
@@ -103,10 +104,14 @@ public void setUp() {
       // Use a clustered cache manager to be able to test global marshaller interaction too
       ConfigurationBuilder builder = new ConfigurationBuilder();
       builder.clustering().cacheMode(CacheMode.DIST_SYNC);
-      cm = TestCacheManagerFactory.createClusteredCacheManager(builder);
+      cm = TestCacheManagerFactory.createClusteredCacheManager(createGlobalConfigurationBuilder(), builder);
       marshaller = extractCacheMarshaller(cm.getCache());
    }
 
+   protected GlobalConfigurationBuilder createGlobalConfigurationBuilder() {
+      return GlobalConfigurationBuilder.defaultClusteredBuilder();
+   }
+
    @AfterClass
    public void tearDown() {
       cm.stop();
@@ -0,0 +1,210 @@
+package org.infinispan.marshall.core;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.io.UnsignedNumeric;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.io.CompressedMarshalledValueByteStream;
+import org.infinispan.loaders.manager.CacheLoaderManager;
+import org.infinispan.loaders.spi.CacheStore;
+import org.infinispan.loaders.dummy.DummyInMemoryCacheStoreConfigurationBuilder;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.data.Person;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+/**
+ * Tests the compression of the values stored as binary.
+ *
+ * @since 6.0
+ */
+@Test(groups = "functional", testName = "marshall.core.MarshalledValueCompressionTest")
+public class MarshalledValueCompressionTest extends MultipleCacheManagersTest {
+
+   private static final int THRESHOLD = 256;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.REPL_SYNC, false);
+      builder.storeAsBinary().enable().compressionThreshold(THRESHOLD)
+            .loaders().addStore(DummyInMemoryCacheStoreConfigurationBuilder.class);
+      createClusteredCaches(2, builder);
+   }
+
+   public void testCodecRoundTrip() throws Exception {
+      Random random = new Random(42);
+      for (int length : new int[]{0, 1, 12, 13, 14, 100, 1000, 65536, 100000}) {
+         byte[] randomBytes = new byte[length];
+         random.nextBytes(randomBytes);
+         assertRoundTrip(randomBytes);
+
+         byte[] repetitiveBytes = new byte[length];
+         for (int i = 0; i < length; i++)
+            repetitiveBytes[i] = (byte) "compressible ".charAt(i % 13);
+         assertRoundTrip(repetitiveBytes);
+      }
+   }
+
+   public void testCodecRejectsCorruptedBlocks() {
+      byte[] src = new byte[1000];
+      byte[] compressed = new byte[LZ4Codec.maxCompressedLength(src.length)];
+      int compressedLength = LZ4Codec.compress(src, 0, src.length, compressed, 0);
+      try {
+         LZ4Codec.decompress(compressed, 0, compressedLength - 1, new byte[src.length], 0, src.length);
+         fail("Truncated block should not be decompressed");
+      } catch (StreamCorruptedException e) {
+         // expected
+      }
+      try {
+         LZ4Codec.decompress(compressed, 0, compressedLength, new byte[src.length + 1], 0, src.length + 1);
+         fail("Block should not be decompressed to the wrong length");
+      } catch (StreamCorruptedException e) {
+         // expected
+      }
+   }
+
+   private void assertRoundTrip(byte[] src) throws Exception {
+      // Use offsets in both arrays
+      byte[] compressed = new byte[LZ4Codec.maxCompressedLength(src.length) + 3];
+      int compressedLength = LZ4Codec.compress(src, 0, src.length, compressed, 3);
+      assertTrue(compressedLength <= LZ4Codec.maxCompressedLength(src.length));
+      byte[] decompressed = new byte[src.length + 5];
+      LZ4Codec.decompress(compressed, 3, compressedLength, decompressed, 5, src.length);
+      assertTrue(Arrays.equals(src, Arrays.copyOfRange(decompressed, 5, decompressed.length)));
+   }
+
+   public void testBigValuesAreCompressed() throws Exception {
+      MarshalledValueCompressor compressor = TestingUtil.extractGlobalComponent(manager(0), MarshalledValueCompressor.class);
+      compressor.resetStatistics();
+      Cache<Object, Object> cache0 = cache(0);
+      Cache<Object, Object> cache1 = cache(1);
+
+      String document = repeat("<document>some text</document>", 100);
+      Person person = new Person(document);
+      cache0.put("string", document);
+      cache0.put("person", person);
+      cache0.put("small", new Person("small"));
+
+      assertEquals(2, compressor.getCompressedValues());
+      assertTrue(compressor.getCompressionRatio() > 5);
+      assertTrue(compressor.getUncompressedBytes() > compressor.getCompressedBytes());
+
+      for (Cache<Object, Object> cache : Arrays.asList(cache0, cache1)) {
+         assertCompressed(true, cache.getAdvancedCache().getDataContainer().get("string").getValue());
+         assertCompressed(true, cache.getAdvancedCache().getDataContainer().get("person").getValue());
+         assertCompressed(false, cache.getAdvancedCache().getDataContainer().get("small").getValue());
+
+         CacheStore store = TestingUtil.extractComponent(cache, CacheLoaderManager.class).getCacheStore();
+         assertCompressed(true, store.load("person").getValue());
+         assertCompressed(false, store.load("small").getValue());
+
+         assertEquals(document, cache.get("string"));
+         assertEquals(person, cache.get("person"));
+         assertEquals(new Person("small"), cache.get("small"));
+      }
+      assertTrue(compressor.getDecompressions() > 0);
+
+      // Reading the value doesn't keep it uncompressed
+      MarshalledValue mv = (MarshalledValue) cache0.getAdvancedCache().getDataContainer().get("person").getValue();
+      assertNull(mv.instance);
+
+      // Values loaded from the store are still compressed
+      cache1.evict("person");
+      assertEquals(person, cache1.get("person"));
+      assertCompressed(true, cache1.getAdvancedCache().getDataContainer().get("person").getValue());
+
+      assertTrue(cache0.replace("person", new Person(document), new Person("replaced")));
+      assertEquals(new Person("replaced"), cache1.get("person"));
+   }
+
+   public void testCompressedEqualsUncompressed() {
+      Person person = new Person(repeat("name", 100));
+      MarshalledValueCompressor compressor = new MarshalledValueCompressor();
+      MarshalledValue compressed = new MarshalledValue(person, false, TestingUtil.extractGlobalMarshaller(manager(0)),
+                                                       null, compressor, 0);
+      MarshalledValue uncompressed = new MarshalledValue(person, false, TestingUtil.extractGlobalMarshaller(manager(0)));
+      compressed.compact(true, true);
+      uncompressed.compact(true, true);
+
+      assertTrue(compressed.isCompressed());
+      assertFalse(uncompressed.isCompressed());
+      assertTrue(compressed.getRaw() instanceof CompressedMarshalledValueByteStream);
+      assertEquals(compressed, uncompressed);
+      assertEquals(uncompressed, compressed);
+      assertEquals(person, compressed.get());
+   }
+
+   public void testUncompressedValuesKeepTheExternalizedFormat() throws Exception {
+      StreamingMarshaller marshaller = TestingUtil.extractGlobalMarshaller(manager(0));
+      Person person = new Person(repeat("name", 100));
+      MarshalledValue mv = new MarshalledValue(person, false, marshaller);
+      byte[] raw = Arrays.copyOf(mv.getRaw().getRaw(), mv.getRaw().size());
+
+      // The format written before compression was added: length, serialized bytes, hash code
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      ObjectOutputStream oldFormat = new ObjectOutputStream(bytes);
+      UnsignedNumeric.writeUnsignedInt((ObjectOutput) oldFormat, raw.length);
+      oldFormat.write(raw);
+      oldFormat.writeInt(person.hashCode());
+      oldFormat.close();
+
+      MarshalledValue.Externalizer externalizer = new MarshalledValue.Externalizer(marshaller);
+      MarshalledValue read = externalizer.readObject(new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+      assertFalse(read.isCompressed());
+      assertEquals(person.hashCode(), read.hashCode());
+      assertEquals(person, read.get());
+
+      assertTrue(Arrays.equals(bytes.toByteArray(), externalize(externalizer, read)));
+   }
+
+   public void testCompressedValuesAreExternalized() throws Exception {
+      StreamingMarshaller marshaller = TestingUtil.extractGlobalMarshaller(manager(0));
+      Person person = new Person(repeat("name", 100));
+      MarshalledValue mv = new MarshalledValue(person, false, marshaller, null, new MarshalledValueCompressor(), 0);
+      mv.compact(true, true);
+      assertTrue(mv.isCompressed());
+
+      MarshalledValue.Externalizer externalizer = new MarshalledValue.Externalizer(marshaller);
+      byte[] bytes = externalize(externalizer, mv);
+      MarshalledValue read = externalizer.readObject(new ObjectInputStream(new ByteArrayInputStream(bytes)));
+      assertTrue(read.isCompressed());
+      assertEquals(mv, read);
+      assertEquals(person, read.get());
+   }
+
+   private static byte[] externalize(MarshalledValue.Externalizer externalizer, MarshalledValue mv) throws Exception {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      ObjectOutputStream output = new ObjectOutputStream(bytes);
+      externalizer.writeObject(output, mv);
+      output.close();
+      return bytes.toByteArray();
+   }
+
+   private static void assertCompressed(boolean compressed, Object value) {
+      assertTrue("Not a marshalled value: " + value, value instanceof MarshalledValue);
+      assertEquals(compressed, ((MarshalledValue) value).isCompressed());
+   }
+
+   private static String repeat(String s, int times) {
+      StringBuilder sb = new StringBuilder(s.length() * times);
+      for (int i = 0; i < times; i++)
+         sb.append(s);
+      return sb.toString();
+   }
+}
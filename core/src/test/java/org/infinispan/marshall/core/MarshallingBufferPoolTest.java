@@ -0,0 +1,117 @@
+package org.infinispan.marshall.core;
+
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.marshall.core.MarshallingBufferPool.PooledBuffer;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.data.Person;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotSame;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+/**
+ * Tests the reuse of marshalling buffers by the {@link MarshallingBufferPool}.
+ *
+ * @since 6.0
+ */
+@Test(groups = "functional", testName = "marshall.core.MarshallingBufferPoolTest")
+public class MarshallingBufferPoolTest extends MultipleCacheManagersTest {
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      createClusteredCaches(2, getDefaultClusteredCacheConfig(CacheMode.REPL_SYNC, false));
+   }
+
+   public void testBuffersAreReused() {
+      MarshallingBufferPool pool = new MarshallingBufferPool();
+      PooledBuffer first = pool.acquire();
+      PooledBuffer second = pool.acquire();
+      assertNotSame(first, second);
+      assertEquals(0, pool.getHits());
+      assertEquals(2, pool.getOverflowAllocations());
+
+      // the first released buffer is kept by the thread, the second one goes to the shared pool
+      first.write(1);
+      pool.release(first);
+      pool.release(second);
+      assertEquals(1, pool.getSharedPoolSize());
+
+      PooledBuffer reused = pool.acquire();
+      assertSame(first, reused);
+      assertEquals(0, reused.size());
+      assertSame(second, pool.acquire());
+      assertEquals(2, pool.getHits());
+      assertEquals(0, pool.getSharedPoolSize());
+
+      pool.resetStatistics();
+      assertEquals(0, pool.getHits());
+      assertEquals(0, pool.getOverflowAllocations());
+   }
+
+   public void testBigBuffersAreDiscarded() {
+      MarshallingBufferPool pool = new MarshallingBufferPool();
+      PooledBuffer buffer = pool.acquire();
+      buffer.setSize(MarshallingBufferPool.MAX_POOLED_BUFFER_SIZE + 1);
+      pool.release(buffer);
+      assertEquals(1, pool.getDiscards());
+      assertNotSame(buffer, pool.acquire());
+   }
+
+   public void testSharedPoolIsBounded() {
+      MarshallingBufferPool pool = new MarshallingBufferPool();
+      PooledBuffer[] buffers = new PooledBuffer[MarshallingBufferPool.SHARED_POOL_SIZE + 2];
+      for (int i = 0; i < buffers.length; i++)
+         buffers[i] = pool.acquire();
+      for (PooledBuffer buffer : buffers)
+         pool.release(buffer);
+      assertEquals(MarshallingBufferPool.SHARED_POOL_SIZE, pool.getSharedPoolSize());
+      assertEquals(1, pool.getDiscards());
+   }
+
+   public void testDoubleRelease() {
+      MarshallingBufferPool pool = new MarshallingBufferPool();
+      PooledBuffer buffer = pool.acquire();
+      pool.release(buffer);
+      try {
+         pool.release(buffer);
+         fail("Should not release a buffer twice");
+      } catch (IllegalStateException e) {
+         // expected
+      }
+   }
+
+   public void testMarshallIntoPooledBuffer() throws Exception {
+      StreamingMarshaller marshaller = TestingUtil.extractGlobalMarshaller(manager(0));
+      MarshallingBufferPool pool = new MarshallingBufferPool();
+      Person person = new Person("person");
+
+      PooledBuffer buffer = pool.marshall(marshaller, person);
+      try {
+         byte[] expected = marshaller.objectToByteBuffer(person);
+         assertTrue(Arrays.equals(expected, Arrays.copyOf(buffer.getBuf(), buffer.size())));
+         assertEquals(person, marshaller.objectFromByteBuffer(buffer.getBuf(), 0, buffer.size()));
+      } finally {
+         pool.release(buffer);
+      }
+   }
+
+   public void testSyncReplicationReleasesBuffers() {
+      MarshallingBufferPool pool = TestingUtil.extractGlobalComponent(manager(0), MarshallingBufferPool.class);
+      cache(0).put("warmup", "value");
+      pool.resetStatistics();
+
+      for (int i = 0; i < 10; i++)
+         cache(0).put("k" + i, "v" + i);
+
+      assertEquals("v9", cache(1).get("k9"));
+      assertTrue("Expected pool hits, but got " + pool.getOverflowAllocations() + " overflow allocations",
+            pool.getHits() >= 10);
+   }
+}
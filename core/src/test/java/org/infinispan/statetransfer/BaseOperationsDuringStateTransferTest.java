@@ -1,6 +1,7 @@
 package org.infinispan.statetransfer;
 
 import org.infinispan.commands.VisitableCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.RemoveCommand;
@@ -31,6 +32,8 @@
 import org.infinispan.util.logging.LogFactory;
 import org.testng.annotations.Test;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.*;
 
 import static org.junit.Assert.*;
@@ -430,4 +433,127 @@ public Object call() {
       Object value = getFuture.get(15, TimeUnit.SECONDS);
       assertEquals("myValue", value);
    }
+
+   public void testGetAll() throws Exception {
+      cache(0).put("myKey", "myValue");
+
+      // add an interceptor on node B that will block state transfer until we are ready
+      final CountDownLatch applyStateProceedLatch = new CountDownLatch(1);
+      final CountDownLatch applyStateStartedLatch = new CountDownLatch(1);
+      cacheConfigBuilder.customInterceptors().addInterceptor().before(InvocationContextInterceptor.class).interceptor(new CommandInterceptor() {
+         @Override
+         protected Object handleDefault(InvocationContext ctx, VisitableCommand cmd) throws Throwable {
+            // if this 'put' command is caused by state transfer we block until GET_ALL begins
+            if (cmd instanceof PutKeyValueCommand && ((PutKeyValueCommand) cmd).hasFlag(Flag.PUT_FOR_STATE_TRANSFER)) {
+               // signal we encounter a state transfer PUT
+               applyStateStartedLatch.countDown();
+               // wait until it is ok to apply state
+               if (!applyStateProceedLatch.await(15, TimeUnit.SECONDS)) {
+                  throw new TimeoutException();
+               }
+            }
+            return super.handleDefault(ctx, cmd);
+         }
+      });
+
+      // add an interceptor on node B that will block GET_ALL commands until we are ready
+      final CountDownLatch getAllStartedLatch = new CountDownLatch(1);
+      final CountDownLatch getAllProceedLatch = new CountDownLatch(1);
+      cacheConfigBuilder.customInterceptors().addInterceptor().before(CallInterceptor.class).interceptor(new CommandInterceptor() {
+         @Override
+         protected Object handleDefault(InvocationContext ctx, VisitableCommand cmd) throws Throwable {
+            if (cmd instanceof GetAllCommand) {
+               // signal we encounter a GET_ALL
+               getAllStartedLatch.countDown();
+               // wait until it is ok to continue with GET_ALL
+               if (!getAllProceedLatch.await(15, TimeUnit.SECONDS)) {
+                  throw new TimeoutException();
+               }
+            }
+            return super.handleDefault(ctx, cmd);
+         }
+      });
+
+      log.info("Adding a new node ..");
+      addClusterEnabledCacheManager(cacheConfigBuilder);
+      log.info("Added a new node");
+
+      // state transfer is blocked, no keys should be present on node B yet
+      assertTrue(cache(1).keySet().isEmpty());
+
+      // wait for state transfer on node B to progress to the point where data segments are about to be applied
+      if (!applyStateStartedLatch.await(15, TimeUnit.SECONDS)) {
+         throw new TimeoutException();
+      }
+
+      // initiate a GET_ALL
+      Future<Map<Object, Object>> getAllFuture = fork(new Callable<Map<Object, Object>>() {
+         @Override
+         public Map<Object, Object> call() {
+            return cache(1).getAdvancedCache().getAll(Collections.singleton("myKey"));
+         }
+      });
+
+      // wait for GET_ALL command on node B to reach beyond *DistributionInterceptor, where it will block.
+      // the value seen so far is null
+      if (!getAllStartedLatch.await(15, TimeUnit.SECONDS)) {
+         throw new TimeoutException();
+      }
+
+      // allow state transfer to apply state
+      applyStateProceedLatch.countDown();
+
+      // wait for state transfer to end
+      TestingUtil.waitForRehashToComplete(cache(0), cache(1));
+
+      assertEquals(1, cache(1).keySet().size());
+
+      // allow GET_ALL to continue
+      getAllProceedLatch.countDown();
+
+      Map<Object, Object> values = getAllFuture.get(15, TimeUnit.SECONDS);
+      assertEquals(Collections.<Object, Object>singletonMap("myKey", "myValue"), values);
+   }
+
+   public void testGetAllFallsBackToRemoteGet() throws Exception {
+      cache(0).put("myKey", "myValue");
+
+      // add an interceptor on node B that will block state transfer until the test is done
+      final CountDownLatch applyStateProceedLatch = new CountDownLatch(1);
+      final CountDownLatch applyStateStartedLatch = new CountDownLatch(1);
+      cacheConfigBuilder.customInterceptors().addInterceptor().before(InvocationContextInterceptor.class).interceptor(new CommandInterceptor() {
+         @Override
+         protected Object handleDefault(InvocationContext ctx, VisitableCommand cmd) throws Throwable {
+            if (cmd instanceof PutKeyValueCommand && ((PutKeyValueCommand) cmd).hasFlag(Flag.PUT_FOR_STATE_TRANSFER)) {
+               applyStateStartedLatch.countDown();
+               if (!applyStateProceedLatch.await(15, TimeUnit.SECONDS)) {
+                  throw new TimeoutException();
+               }
+            }
+            return super.handleDefault(ctx, cmd);
+         }
+      });
+
+      log.info("Adding a new node ..");
+      addClusterEnabledCacheManager(cacheConfigBuilder);
+      log.info("Added a new node");
+
+      try {
+         // starting the cache on node B starts the state transfer
+         cache(1);
+         if (!applyStateStartedLatch.await(15, TimeUnit.SECONDS)) {
+            throw new TimeoutException();
+         }
+
+         // the state of node B was not applied yet, so both the single key and the multi key reads have to fetch the
+         // value from node A
+         assertEquals(0, cache(1).getAdvancedCache().getDataContainer().size());
+         assertEquals("myValue", cache(1).get("myKey"));
+         assertEquals(Collections.<Object, Object>singletonMap("myKey", "myValue"),
+                      cache(1).getAdvancedCache().getAll(Collections.singleton("myKey")));
+      } finally {
+         applyStateProceedLatch.countDown();
+      }
+      TestingUtil.waitForRehashToComplete(cache(0), cache(1));
+   }
 }
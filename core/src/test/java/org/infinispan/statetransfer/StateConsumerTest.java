@@ -54,6 +54,7 @@
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingDeque;
@@ -62,6 +63,8 @@
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
@@ -255,4 +258,48 @@ public Object call() throws Exception {
       stateConsumer.stop();
       assertFalse(stateConsumer.hasActiveTransfers());
    }
+
+   public void testInboundChunksWaitWithoutHoldingThreads() throws Exception {
+      ConfigurationBuilder cb = new ConfigurationBuilder();
+      cb.clustering().cacheMode(CacheMode.DIST_SYNC).stateTransfer().maxInboundChunks(1);
+      Cache cache = mock(Cache.class);
+      when(cache.getName()).thenReturn("testCache");
+      final StateConsumerImpl stateConsumer = new StateConsumerImpl();
+      stateConsumer.init(cache, null, null, null, null, cb.build(), null, null, null, null, null, null, null, null, null);
+
+      final CountDownLatch applyingFirstChunk = new CountDownLatch(1);
+      final CountDownLatch releaseFirstChunk = new CountDownLatch(1);
+      final Thread[] secondChunkThread = new Thread[1];
+      Future<Object> first = fork(new Callable<Object>() {
+         @Override
+         public Object call() throws Exception {
+            stateConsumer.executeWithInboundChunkPermit(new Runnable() {
+               @Override
+               public void run() {
+                  applyingFirstChunk.countDown();
+                  try {
+                     releaseFirstChunk.await(10, TimeUnit.SECONDS);
+                  } catch (InterruptedException e) {
+                     Thread.currentThread().interrupt();
+                  }
+               }
+            });
+            return Thread.currentThread();
+         }
+      });
+      assertTrue(applyingFirstChunk.await(10, TimeUnit.SECONDS));
+
+      // the second chunk is queued, the calling thread doesn't wait for it to be applied
+      stateConsumer.executeWithInboundChunkPermit(new Runnable() {
+         @Override
+         public void run() {
+            secondChunkThread[0] = Thread.currentThread();
+         }
+      });
+      assertNull(secondChunkThread[0]);
+
+      // the thread applying the first chunk applies the second one
+      releaseFirstChunk.countDown();
+      assertSame(first.get(10, TimeUnit.SECONDS), secondChunkThread[0]);
+   }
 }
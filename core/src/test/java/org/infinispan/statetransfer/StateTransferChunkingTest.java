@@ -0,0 +1,62 @@
+package org.infinispan.statetransfer;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests state transfer with chunks bounded by size, sent and applied concurrently.
+ *
+ * @since 6.0
+ */
+@Test(groups = "functional", testName = "statetransfer.StateTransferChunkingTest")
+public class StateTransferChunkingTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_KEYS = 500;
+
+   private ConfigurationBuilder builder;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      builder = getDefaultClusteredCacheConfig(CacheMode.REPL_SYNC, false);
+      builder.clustering().stateTransfer().fetchInMemoryState(true)
+            .chunkSize(100).chunkSizeBytes(2048).maxOutboundChunks(3).maxInboundChunks(2);
+      createCluster(builder, 2);
+      waitForClusterToForm();
+   }
+
+   public void testJoinerReceivesAllEntries() {
+      Cache<Object, Object> c0 = cache(0);
+      StringBuilder value = new StringBuilder();
+      for (int i = 0; i < 100; i++) {
+         value.append('x');
+      }
+      for (int i = 0; i < NUM_KEYS; i++) {
+         c0.put("k" + i, value.toString() + i);
+      }
+
+      addClusterEnabledCacheManager(builder);
+      Cache<Object, Object> c2 = cache(2);
+      waitForClusterToForm();
+
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertEquals(c2.getAdvancedCache().getDataContainer().get("k" + i).getValue(), value.toString() + i);
+      }
+
+      StateTransferManager joinerStm = TestingUtil.extractComponent(c2, StateTransferManager.class);
+      assertEquals(joinerStm.getPendingInboundSegmentCount(), 0);
+      assertTrue(joinerStm.getInboundTransferRate() > 0);
+
+      double outboundRate = 0;
+      for (int i = 0; i < 2; i++) {
+         outboundRate += TestingUtil.extractComponent(cache(i), StateTransferManager.class).getOutboundTransferRate();
+      }
+      assertTrue(outboundRate > 0);
+   }
+}
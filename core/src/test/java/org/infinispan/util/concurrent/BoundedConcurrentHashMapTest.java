@@ -1,11 +1,20 @@
 package org.infinispan.util.concurrent;
 
+import org.infinispan.commons.equivalence.AnyEquivalence;
 import org.infinispan.util.EquivalentHashMapTest;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap.Eviction;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.testng.AssertJUnit.*;
 import static org.testng.AssertJUnit.assertTrue;
@@ -38,6 +47,53 @@ public void testByteArrayPutIfAbsentFail() {
       byteArrayPutIfAbsentFail(createComparingConcurrentMap(), true);
    }
 
+   public void testConcurrentReadsAndWrites() throws Exception {
+      for (Eviction eviction : new Eviction[]{Eviction.LRU, Eviction.LIRS, Eviction.TINY_LFU}) {
+         concurrentReadsAndWrites(eviction);
+      }
+   }
+
+   private void concurrentReadsAndWrites(Eviction eviction) throws Exception {
+      final int capacity = 512;
+      final BoundedConcurrentHashMap<Integer, Integer> map = new BoundedConcurrentHashMap<Integer, Integer>(
+            capacity, 4, eviction, AnyEquivalence.<Integer>getInstance(), AnyEquivalence.<Integer>getInstance());
+      int threads = 8;
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try {
+         List<Future<Void>> futures = new ArrayList<Future<Void>>();
+         for (int t = 0; t < threads; t++) {
+            final Random random = new Random(t);
+            futures.add(executor.submit(new Callable<Void>() {
+               @Override
+               public Void call() throws Exception {
+                  for (int i = 0; i < 50000; i++) {
+                     int key = random.nextInt(4 * capacity);
+                     Integer value = map.get(key);
+                     if (value == null) {
+                        map.put(key, key);
+                     } else {
+                        assertEquals(key, value.intValue());
+                     }
+                     if (i % 100 == 0) {
+                        map.remove(random.nextInt(4 * capacity));
+                     }
+                  }
+                  return null;
+               }
+            }));
+         }
+         for (Future<Void> future : futures) {
+            future.get();
+         }
+      } finally {
+         executor.shutdownNow();
+      }
+      assertTrue(eviction + " exceeded capacity: " + map.size(), map.size() <= capacity);
+      for (Integer key : map.keySet()) {
+         assertEquals(key, map.get(key));
+      }
+   }
+
    protected void byteArrayConditionalRemove(
          ConcurrentMap<byte[], byte[]> map, boolean expectRemove) {
       byte[] key = {1, 2, 3};
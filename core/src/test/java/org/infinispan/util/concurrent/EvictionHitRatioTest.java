@@ -0,0 +1,113 @@
+package org.infinispan.util.concurrent;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap.Eviction;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Compares the hit ratios of the eviction algorithms of {@link BoundedConcurrentHashMap} when replaying access
+ * traces. The traces are generated from fixed seeds, so every run replays exactly the same accesses.
+ *
+ * @since 6.0
+ */
+@Test(groups = "functional", testName = "util.concurrent.EvictionHitRatioTest")
+public class EvictionHitRatioTest {
+
+   private static final Log log = LogFactory.getLog(EvictionHitRatioTest.class);
+
+   private static final int CAPACITY = 1000;
+   private static final int KEYS = 50000;
+   private static final int ACCESSES = 500000;
+
+   /**
+    * Skewed accesses to a key space much larger than the cache, like a typical web workload.
+    */
+   public void testZipfTrace() {
+      int[] trace = zipfTrace(new Random(17), 0.9, 0, 0);
+      double lru = hitRatio(Eviction.LRU, trace);
+      double tinyLfu = hitRatio(Eviction.TINY_LFU, trace);
+      log.debugf("Zipf trace hit ratios: LRU %.3f, LIRS %.3f, TINY_LFU %.3f", lru, hitRatio(Eviction.LIRS, trace), tinyLfu);
+      assertTrue("TINY_LFU " + tinyLfu + " vs LRU " + lru, tinyLfu > lru + 0.05);
+   }
+
+   /**
+    * The same skewed accesses, interleaved with long scans of keys that are only read once, like a nightly batch job.
+    */
+   public void testZipfTraceWithScans() {
+      int[] trace = zipfTrace(new Random(23), 0.9, 20000, 5 * CAPACITY);
+      double lru = hitRatio(Eviction.LRU, trace);
+      double lirs = hitRatio(Eviction.LIRS, trace);
+      double tinyLfu = hitRatio(Eviction.TINY_LFU, trace);
+      log.debugf("Zipf trace with scans hit ratios: LRU %.3f, LIRS %.3f, TINY_LFU %.3f", lru, lirs, tinyLfu);
+      assertTrue("TINY_LFU " + tinyLfu + " vs LRU " + lru, tinyLfu > lru + 0.05);
+      assertTrue("TINY_LFU " + tinyLfu + " vs LIRS " + lirs, tinyLfu >= lirs);
+   }
+
+   /**
+    * Short loops over slightly more keys than fit in the cache, where recency based algorithms never hit.
+    */
+   public void testLoopTrace() {
+      int[] trace = new int[ACCESSES];
+      int loop = CAPACITY + CAPACITY / 2;
+      for (int i = 0; i < trace.length; i++) {
+         trace[i] = i % loop;
+      }
+      double lru = hitRatio(Eviction.LRU, trace);
+      double tinyLfu = hitRatio(Eviction.TINY_LFU, trace);
+      log.debugf("Loop trace hit ratios: LRU %.3f, LIRS %.3f, TINY_LFU %.3f", lru, hitRatio(Eviction.LIRS, trace), tinyLfu);
+      assertTrue("TINY_LFU " + tinyLfu + " vs LRU " + lru, tinyLfu > lru + 0.3);
+   }
+
+   private static double hitRatio(Eviction eviction, int[] trace) {
+      BoundedConcurrentHashMap<Integer, Integer> map = new BoundedConcurrentHashMap<Integer, Integer>(
+            CAPACITY, 1, eviction, AnyEquivalence.<Integer>getInstance(), AnyEquivalence.<Integer>getInstance());
+      int hits = 0;
+      for (int key : trace) {
+         if (map.get(key) != null) {
+            hits++;
+         } else {
+            map.put(key, key);
+         }
+         assertTrue(map.size() <= CAPACITY);
+      }
+      return (double) hits / trace.length;
+   }
+
+   /**
+    * Generates accesses to keys following a Zipf distribution with the given exponent, every {@code scanInterval}
+    * accesses (if positive) followed by a scan of {@code scanLength} keys that are never accessed again.
+    */
+   private static int[] zipfTrace(Random random, double exponent, int scanInterval, int scanLength) {
+      double[] cumulative = new double[KEYS];
+      double sum = 0;
+      for (int i = 0; i < KEYS; i++) {
+         sum += 1 / Math.pow(i + 1, exponent);
+         cumulative[i] = sum;
+      }
+      int[] trace = new int[ACCESSES];
+      int nextScanKey = KEYS;
+      int i = 0;
+      while (i < trace.length) {
+         double r = random.nextDouble() * sum;
+         int low = 0, high = KEYS - 1;
+         while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < r) low = mid + 1; else high = mid;
+         }
+         // spread the popular keys over the hash table
+         trace[i++] = low * 31;
+         if (scanInterval > 0 && i % scanInterval == 0) {
+            for (int j = 0; j < scanLength && i < trace.length; j++) {
+               trace[i++] = (nextScanKey++) * 31 + 1;
+            }
+         }
+      }
+      return trace;
+   }
+}
@@ -1,6 +1,8 @@
 package org.infinispan.util.mocks;
 
 import org.infinispan.Cache;
+import org.infinispan.commands.read.GetAllCommand;
+import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.atomic.Delta;
 import org.infinispan.commands.CancelCommand;
@@ -155,6 +157,11 @@ public GetKeyValueCommand buildGetKeyValueCommand(Object key, Set<Flag> flags, b
       return actual.buildGetKeyValueCommand(key, flags, returnEntry);
    }
 
+   @Override
+   public GetAllCommand buildGetAllCommand(Collection<?> keys, Set<Flag> flags, boolean returnEntries) {
+      return actual.buildGetAllCommand(keys, flags, returnEntries);
+   }
+
    @Override
    public KeySetCommand buildKeySetCommand(Set<Flag> flags) {
       return actual.buildKeySetCommand(flags);
@@ -225,6 +232,11 @@ public ClusteredGetCommand buildClusteredGetCommand(Object key, Set<Flag> flags,
       return actual.buildClusteredGetCommand(key, flags, acquireRemoteLock, gtx);
    }
 
+   @Override
+   public ClusteredGetAllCommand buildClusteredGetAllCommand(List<Object> keys, Set<Flag> flags) {
+      return actual.buildClusteredGetAllCommand(keys, flags);
+   }
+
    @Override
    public LockControlCommand buildLockControlCommand(Collection<Object> keys, Set<Flag> flags, GlobalTransaction gtx) {
       return actual.buildLockControlCommand(keys, flags, gtx);
@@ -0,0 +1,101 @@
+package org.infinispan.nearcache.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.client.hotrod.ServerStatistics;
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+
+/**
+ * Measures the read throughput of a Hot Rod client with and without its near cache, when a few hot keys get most of
+ * the reads.
+ * <p/>
+ * Start a Hot Rod server, then run this class with the server address as argument (defaults to 127.0.0.1:11222):
+ * <pre>
+ *    java org.infinispan.nearcache.benchmark.NearCacheBenchmark 127.0.0.1:11222
+ * </pre>
+ * The number of keys, hot keys, threads and the duration of each run can be changed through the
+ * <tt>keys</tt>, <tt>hotKeys</tt>, <tt>threads</tt> and <tt>duration</tt> (in seconds) system properties.
+ *
+ * @since 6.0
+ */
+public class NearCacheBenchmark {
+
+   private static final int KEYS = Integer.getInteger("keys", 10000);
+   private static final int HOT_KEYS = Integer.getInteger("hotKeys", 100);
+   private static final int THREADS = Integer.getInteger("threads", 8);
+   private static final int DURATION = Integer.getInteger("duration", 10);
+   // percentage of the reads targeting the hot keys
+   private static final int HOT_READS = 90;
+
+   public static void main(String[] args) throws Exception {
+      String servers = args.length > 0 ? args[0] : "127.0.0.1:11222";
+
+      RemoteCacheManager loader = new RemoteCacheManager(new ConfigurationBuilder().addServers(servers).build());
+      try {
+         RemoteCache<String, String> cache = loader.getCache();
+         System.out.printf("Loading %d entries%n", KEYS);
+         for (int i = 0; i < KEYS; i++) {
+            cache.put(key(i), "value-" + i);
+         }
+      } finally {
+         loader.stop();
+      }
+
+      double without = run("without near cache", new ConfigurationBuilder().addServers(servers));
+      ConfigurationBuilder nearCacheBuilder = new ConfigurationBuilder().addServers(servers);
+      nearCacheBuilder.nearCache().enable().maxEntries(HOT_KEYS * 2).lifespan(TimeUnit.SECONDS.toMillis(30));
+      double with = run("with near cache", nearCacheBuilder);
+      System.out.printf("Near cache speed-up: %.1fx%n", with / without);
+   }
+
+   private static double run(String name, ConfigurationBuilder builder) throws InterruptedException {
+      RemoteCacheManager rcm = new RemoteCacheManager(builder.build());
+      try {
+         final RemoteCache<String, String> cache = rcm.getCache();
+         final AtomicLong reads = new AtomicLong();
+         final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION);
+         final CountDownLatch done = new CountDownLatch(THREADS);
+         for (int t = 0; t < THREADS; t++) {
+            final Random random = new Random(t);
+            new Thread("Reader-" + t) {
+               @Override
+               public void run() {
+                  try {
+                     long count = 0;
+                     while (System.nanoTime() < end) {
+                        int k = random.nextInt(100) < HOT_READS ? random.nextInt(HOT_KEYS) : random.nextInt(KEYS);
+                        cache.get(key(k));
+                        count++;
+                     }
+                     reads.addAndGet(count);
+                  } finally {
+                     done.countDown();
+                  }
+               }
+            }.start();
+         }
+         done.await();
+         double throughput = (double) reads.get() / DURATION;
+         System.out.printf("%s: %.0f reads/s%n", name, throughput);
+         ServerStatistics stats = cache.stats();
+         if (stats.getStatistic(ServerStatistics.NEAR_CACHE_HITS) != null) {
+            System.out.printf("   near cache hits = %s, misses = %s, entries = %s%n",
+                  stats.getStatistic(ServerStatistics.NEAR_CACHE_HITS),
+                  stats.getStatistic(ServerStatistics.NEAR_CACHE_MISSES),
+                  stats.getStatistic(ServerStatistics.NEAR_CACHE_ENTRIES));
+         }
+         return throughput;
+      } finally {
+         rcm.stop();
+      }
+   }
+
+   private static String key(int i) {
+      return "key-" + i;
+   }
+}
@@ -8,6 +8,7 @@
 import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.concurrent.locks.LockManager;
+import org.infinispan.util.concurrent.locks.LockRequestCallback;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -168,6 +169,12 @@ public boolean acquireLockNoCheck(InvocationContext ctx, Object key, long timeou
       return locked;
    }
 
+   @Override
+   public boolean invokeWhenLocksAvailable(Collection<?> keys, Object owner, long timeoutMillis,
+                                           LockRequestCallback callback) {
+      return actual.invokeWhenLocksAvailable(keys, owner, timeoutMillis, callback);
+   }
+
    private void updateContentionStats(Object key, LockInfo lockInfo) {
       Object holder = getOwner(key);
       if (holder != null) {
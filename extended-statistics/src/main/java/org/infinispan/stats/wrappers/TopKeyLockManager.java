@@ -5,6 +5,7 @@
 import org.infinispan.stats.topK.StreamSummaryContainer;
 import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.concurrent.locks.LockManager;
+import org.infinispan.util.concurrent.locks.LockRequestCallback;
 
 import java.util.Collection;
 
@@ -122,6 +123,12 @@ public boolean acquireLockNoCheck(InvocationContext ctx, Object key, long timeou
       }
    }
 
+   @Override
+   public boolean invokeWhenLocksAvailable(Collection<?> keys, Object owner, long timeoutMillis,
+                                           LockRequestCallback callback) {
+      return current.invokeWhenLocksAvailable(keys, owner, timeoutMillis, callback);
+   }
+
    private boolean isContented(Object key, Object requestor) {
       Object holder = current.getOwner(key);
       return holder != null && !holder.equals(requestor);
@@ -16,8 +16,12 @@ public abstract class ProtocolServerConfiguration {
    private final SslConfiguration ssl;
    private final boolean tcpNoDelay;
    private final int workerThreads;
+   private final int executionThreads;
+   private final long maxPendingRequestBytes;
+   private final int responseBatchSize;
 
-   protected ProtocolServerConfiguration(String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads) {
+   protected ProtocolServerConfiguration(String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads,
+         int executionThreads, long maxPendingRequestBytes, int responseBatchSize) {
       this.name = name;
       this.host = host;
       this.port = port;
@@ -27,6 +31,9 @@ protected ProtocolServerConfiguration(String name, String host, int port, int id
       this.ssl = ssl;
       this.tcpNoDelay = tcpNoDelay;
       this.workerThreads = workerThreads;
+      this.executionThreads = executionThreads;
+      this.maxPendingRequestBytes = maxPendingRequestBytes;
+      this.responseBatchSize = responseBatchSize;
    }
 
    public String name() {
@@ -65,10 +72,24 @@ public int workerThreads() {
       return workerThreads;
    }
 
+   public int executionThreads() {
+      return executionThreads;
+   }
+
+   public long maxPendingRequestBytes() {
+      return maxPendingRequestBytes;
+   }
+
+   public int responseBatchSize() {
+      return responseBatchSize;
+   }
+
    @Override
    public String toString() {
       return "ProtocolServerConfiguration [name=" + name + ", host=" + host + ", port=" + port + ", idleTimeout=" + idleTimeout + ", recvBufSize=" + recvBufSize + ", sendBufSize="
-            + sendBufSize + ", ssl=" + ssl + ", tcpNoDelay=" + tcpNoDelay + ", workerThreads=" + workerThreads + "]";
+            + sendBufSize + ", ssl=" + ssl + ", tcpNoDelay=" + tcpNoDelay + ", workerThreads=" + workerThreads
+            + ", executionThreads=" + executionThreads + ", maxPendingRequestBytes=" + maxPendingRequestBytes
+            + ", responseBatchSize=" + responseBatchSize + "]";
    }
 
 }
@@ -16,6 +16,9 @@
    protected final SslConfigurationBuilder ssl;
    protected boolean tcpNoDelay = true;
    protected int workerThreads = 2 * Runtime.getRuntime().availableProcessors();
+   protected int executionThreads = 0;
+   protected long maxPendingRequestBytes = 1024 * 1024;
+   protected int responseBatchSize = 64 * 1024;
 
    protected ProtocolServerConfigurationBuilder(int port) {
       this.port = port;
@@ -75,6 +78,24 @@ public S workerThreads(int workerThreads) {
       return this.self();
    }
 
+   @Override
+   public S executionThreads(int executionThreads) {
+      this.executionThreads = executionThreads;
+      return this.self();
+   }
+
+   @Override
+   public S maxPendingRequestBytes(long maxPendingRequestBytes) {
+      this.maxPendingRequestBytes = maxPendingRequestBytes;
+      return this.self();
+   }
+
+   @Override
+   public S responseBatchSize(int responseBatchSize) {
+      this.responseBatchSize = responseBatchSize;
+      return this.self();
+   }
+
    @Override
    public void validate() {
       ssl.validate();
@@ -90,6 +111,15 @@ public void validate() {
       if (workerThreads < 0) {
          throw log.illegalWorkerThreads(workerThreads);
       }
+      if (executionThreads < 0) {
+         throw log.illegalExecutionThreads(executionThreads);
+      }
+      if (maxPendingRequestBytes < 0) {
+         throw log.illegalMaxPendingRequestBytes(maxPendingRequestBytes);
+      }
+      if (responseBatchSize < 0) {
+         throw log.illegalResponseBatchSize(responseBatchSize);
+      }
    }
 
    @Override
@@ -102,6 +132,9 @@ public Builder<?> read(T template) {
       this.sendBufSize = template.sendBufSize();
       this.tcpNoDelay = template.tcpNoDelay();
       this.workerThreads = template.workerThreads();
+      this.executionThreads = template.executionThreads();
+      this.maxPendingRequestBytes = template.maxPendingRequestBytes();
+      this.responseBatchSize = template.responseBatchSize();
       this.ssl.read(template.ssl());
       return this;
    }
@@ -54,6 +54,28 @@
     */
    S workerThreads(int workerThreads);
 
+   /**
+    * Sets the number of threads executing the requests, separately from the worker threads reading and writing to
+    * the connections, so that a slow operation does not delay the other connections served by the same worker thread.
+    * The requests of a connection are still executed in the order they were received. Defaults to 0, which executes
+    * the requests on the worker threads.
+    */
+   S executionThreads(int executionThreads);
+
+   /**
+    * Sets the maximum size, in bytes, of the requests of a single connection waiting to be executed by the execution
+    * threads. Once reached, the server stops reading from the connection until some of its requests have been executed.
+    * Only used when {@link #executionThreads(int)} is greater than 0. Defaults to 1MB, 0 means no limit.
+    */
+   S maxPendingRequestBytes(long maxPendingRequestBytes);
+
+   /**
+    * Sets the maximum size, in bytes, of the responses written to a connection at once. The responses to the requests
+    * read from a connection in one go are written together, with a single flush, once all of them have been processed
+    * or once their size reaches this value. Defaults to 64KB, 0 writes and flushes every response on its own.
+    */
+   S responseBatchSize(int responseBatchSize);
+
    /**
     * Builds a configuration object
     */
@@ -83,4 +83,13 @@ public interface JavaLog extends org.infinispan.util.logging.Log {
 
    @Message(value = "Cannot configure custom KeyStore and/or TrustStore when specifying a SSLContext", id = 5018)
    CacheConfigurationException xorSSLContext();
+
+   @Message(value = "Illegal number of executionThreads: %d", id = 5019)
+   IllegalArgumentException illegalExecutionThreads(int executionThreads);
+
+   @Message(value = "Maximum size of the pending requests can't be lower than 0: %d", id = 5020)
+   IllegalArgumentException illegalMaxPendingRequestBytes(long maxPendingRequestBytes);
+
+   @Message(value = "Response batch size can't be lower than 0: %d", id = 5021)
+   IllegalArgumentException illegalResponseBatchSize(int responseBatchSize);
 }
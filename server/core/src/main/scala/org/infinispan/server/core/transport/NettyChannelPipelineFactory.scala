@@ -24,6 +24,9 @@ class NettyChannelPipelineFactory(server: ProtocolServer,
       val ssl = server.getConfiguration.ssl
       if (ssl.enabled())
          pipeline.addLast("ssl", new SslHandler(createSslEngine(ssl)))
+      val responseBatchSize = server.getConfiguration.responseBatchSize
+      if (responseBatchSize > 0)
+         pipeline.addLast("responseBatching", new ResponseBatchingHandler(responseBatchSize))
       pipeline.addLast("decoder", server.getDecoder)
       if (encoder != null)
          pipeline.addLast("encoder", encoder)
@@ -9,7 +9,7 @@ import org.infinispan.commons.util.Util
 import org.jboss.netty.util.ThreadNameDeterminer
 import org.jboss.netty.logging.{InternalLoggerFactory, Log4JLoggerFactory}
 import org.infinispan.server.core.logging.Log
-import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.{AtomicInteger, AtomicLong}
 import org.jboss.netty.channel.{WriteCompletionEvent, MessageEvent, ChannelDownstreamHandler}
 import org.jboss.netty.buffer.ChannelBuffer
 import java.net.InetSocketAddress
@@ -19,9 +19,10 @@ import org.infinispan.Cache
 import java.util
 import org.infinispan.jmx.JmxUtil
 import javax.management.ObjectName
-import util.concurrent.{TimeUnit, Executors}
+import util.concurrent.{ThreadFactory, TimeUnit, Executors}
 import org.infinispan.server.core.configuration.ProtocolServerConfiguration
-import org.jboss.netty.channel.ChannelPipelineFactory
+import org.jboss.netty.channel.{ChannelPipeline, ChannelPipelineFactory}
+import org.jboss.netty.handler.execution.ExecutionHandler
 
 /**
  * A Netty based transport.
@@ -61,6 +62,19 @@ class NettyTransport(server: ProtocolServer, pipeline: LifecycleChannelPipelineF
      }
    })
    private val factory = new NioServerSocketChannelFactory(masterPool, workerPool)
+   // Executes the requests out of the worker threads, if configured to
+   private val requestExecutor =
+      if (configuration.executionThreads > 0)
+         new RequestExecutor(configuration.executionThreads, configuration.maxPendingRequestBytes, new ThreadFactory {
+            private val threadIndex = new AtomicInteger
+            override def newThread(r: Runnable): Thread = {
+               val t = new Thread(r, threadNamePrefix + "-ServerHandler-" + threadIndex.incrementAndGet)
+               t.setDaemon(true)
+               t
+            }
+         })
+      else null
+   private val executionHandler = if (requestExecutor == null) null else new ExecutionHandler(requestExecutor)
 
    private val totalBytesWritten, totalBytesRead = new AtomicLong
    private val isTrace = isTraceEnabled
@@ -73,7 +87,18 @@ class NettyTransport(server: ProtocolServer, pipeline: LifecycleChannelPipelineF
          InternalLoggerFactory.setDefaultFactory(new Log4JLoggerFactory)
 
       val bootstrap = new ServerBootstrap(factory)
-      bootstrap.setPipelineFactory(pipeline)
+      if (executionHandler == null) {
+         bootstrap.setPipelineFactory(pipeline)
+      } else {
+         bootstrap.setPipelineFactory(new ChannelPipelineFactory {
+            override def getPipeline: ChannelPipeline = {
+               // First in the pipeline, so that decoding the requests is done by the execution threads too
+               val p = pipeline.getPipeline
+               p.addFirst("execution", executionHandler)
+               p
+            }
+         })
+      }
       bootstrap.setOption("child.tcpNoDelay", configuration.tcpNoDelay) // Sets server side tcpNoDelay
       if (configuration.sendBufSize > 0)
          bootstrap.setOption("child.sendBufferSize", configuration.sendBufSize) // Sets server side send buffer
@@ -117,6 +142,8 @@ class NettyTransport(server: ProtocolServer, pipeline: LifecycleChannelPipelineF
          }
       }
       pipeline.stop
+      if (executionHandler != null)
+         executionHandler.releaseExternalResources()
       if (isDebugEnabled)
          debug("Channel group completely closed, release external resources")
       factory.shutdown()
@@ -133,6 +160,14 @@ class NettyTransport(server: ProtocolServer, pipeline: LifecycleChannelPipelineF
 
    override def getNumberWorkerThreads = configuration.workerThreads.toString
 
+   override def getNumberExecutionThreads = configuration.executionThreads.toString
+
+   override def getNumberOfPendingRequests: java.lang.Integer =
+      Integer.valueOf(if (requestExecutor == null) 0 else requestExecutor.getPendingCount)
+
+   override def getAverageRequestWaitTime: java.lang.Long =
+      java.lang.Long.valueOf(if (requestExecutor == null) 0 else requestExecutor.getAverageWaitTime)
+
    override def getIdleTimeout = configuration.idleTimeout.toString
 
    override def getTcpNoDelay = configuration.tcpNoDelay.toString
@@ -0,0 +1,66 @@
+package org.infinispan.server.core.transport;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.netty.handler.execution.OrderedMemoryAwareThreadPoolExecutor;
+
+/**
+ * Executes the events received from the connections outside of the worker threads performing the network I/O, in the
+ * order they were received for each connection. Once the events of a connection waiting to be executed exceed the
+ * configured size, the worker thread stops reading from that connection until some of them are executed.
+ * <p/>
+ * Keeps track of the number of events waiting to be executed, and of the time they wait.
+ *
+ * @since 6.0
+ */
+public class RequestExecutor extends OrderedMemoryAwareThreadPoolExecutor {
+
+   private final ConcurrentMap<Runnable, Long> submitTimes = new ConcurrentHashMap<Runnable, Long>();
+   private final AtomicInteger pending = new AtomicInteger();
+   private final AtomicLong executed = new AtomicLong();
+   private final AtomicLong totalWaitTime = new AtomicLong();
+
+   public RequestExecutor(int threads, long maxChannelMemorySize, ThreadFactory threadFactory) {
+      // No limit for all the channels, which would block the worker threads once reached
+      super(threads, maxChannelMemorySize, 0, 30, TimeUnit.SECONDS, threadFactory);
+   }
+
+   @Override
+   protected void doExecute(Runnable task) {
+      submitTimes.put(task, System.nanoTime());
+      pending.incrementAndGet();
+      super.doExecute(task);
+   }
+
+   @Override
+   protected void beforeExecute(Thread t, Runnable r) {
+      super.beforeExecute(t, r);
+      // Also invoked for the tasks executing the events of a connection, which are not tracked
+      Long submitTime = submitTimes.remove(r);
+      if (submitTime != null) {
+         pending.decrementAndGet();
+         executed.incrementAndGet();
+         totalWaitTime.addAndGet(System.nanoTime() - submitTime);
+      }
+   }
+
+   /**
+    * @return the number of events waiting to be executed
+    */
+   public int getPendingCount() {
+      return pending.get();
+   }
+
+   /**
+    * @return the average time, in microseconds, the events executed so far waited before being executed
+    */
+   public long getAverageWaitTime() {
+      long count = executed.get();
+      return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalWaitTime.get() / count);
+   }
+}
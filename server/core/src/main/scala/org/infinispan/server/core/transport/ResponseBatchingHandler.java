@@ -0,0 +1,102 @@
+package org.infinispan.server.core.transport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.ChannelEvent;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelHandler;
+
+/**
+ * Batches the responses written to a connection while the requests read from it in one go are processed, so that
+ * clients pipelining many small requests get their responses with a single write, instead of one write per response.
+ * <p/>
+ * The batched responses are written as a composite buffer once all the requests have been processed, or once their
+ * size reaches the configured batch size. Responses written while no request is being processed are written straight
+ * away.
+ * <p/>
+ * It must be placed before the decoder in the pipeline, and after the encoder if any, so that it sees the encoded
+ * responses. A new instance is needed for each connection.
+ *
+ * @since 6.0
+ */
+public class ResponseBatchingHandler extends SimpleChannelHandler {
+
+   private final int batchSize;
+   private final List<MessageEvent> pending = new ArrayList<MessageEvent>();
+   private int pendingBytes;
+   private boolean batching;
+
+   public ResponseBatchingHandler(int batchSize) {
+      this.batchSize = batchSize;
+   }
+
+   @Override
+   public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
+      synchronized (this) {
+         batching = true;
+      }
+      try {
+         ctx.sendUpstream(e);
+      } finally {
+         synchronized (this) {
+            batching = false;
+            flush(ctx);
+         }
+      }
+   }
+
+   @Override
+   public void handleDownstream(ChannelHandlerContext ctx, ChannelEvent e) throws Exception {
+      synchronized (this) {
+         if (batching && e instanceof MessageEvent && ((MessageEvent) e).getMessage() instanceof ChannelBuffer) {
+            MessageEvent me = (MessageEvent) e;
+            pending.add(me);
+            pendingBytes += ((ChannelBuffer) me.getMessage()).readableBytes();
+            if (pendingBytes >= batchSize)
+               flush(ctx);
+         } else {
+            // Keep the order of the events, e.g. a close must follow the responses written before it
+            flush(ctx);
+            ctx.sendDownstream(e);
+         }
+      }
+   }
+
+   private void flush(ChannelHandlerContext ctx) {
+      if (pending.isEmpty())
+         return;
+
+      if (pending.size() == 1) {
+         ctx.sendDownstream(pending.get(0));
+      } else {
+         final MessageEvent[] events = pending.toArray(new MessageEvent[pending.size()]);
+         ChannelBuffer[] buffers = new ChannelBuffer[events.length];
+         for (int i = 0; i < events.length; i++)
+            buffers[i] = (ChannelBuffer) events[i].getMessage();
+
+         ChannelFuture future = Channels.future(ctx.getChannel());
+         future.addListener(new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) {
+               for (MessageEvent event : events) {
+                  if (future.isSuccess())
+                     event.getFuture().setSuccess();
+                  else
+                     event.getFuture().setFailure(future.getCause());
+               }
+            }
+         });
+         // Gathering, so that the responses are not copied into a single buffer before being written
+         Channels.write(ctx, future, ChannelBuffers.wrappedBuffer(true, buffers), events[0].getRemoteAddress());
+      }
+      pending.clear();
+      pendingBytes = 0;
+   }
+}
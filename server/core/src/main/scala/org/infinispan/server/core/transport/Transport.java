@@ -63,6 +63,30 @@ public interface Transport {
    )
    String getNumberWorkerThreads();
 
+   @ManagedAttribute(
+         description = "Returns the number of threads executing the requests, 0 if they are executed by the worker threads.",
+         displayName = "Number of execution threads",
+         dataType = DataType.TRAIT,
+         displayType = DisplayType.SUMMARY
+   )
+   String getNumberExecutionThreads();
+
+   @ManagedAttribute(
+         description = "Returns the number of requests waiting to be executed by the execution threads.",
+         displayName = "Pending requests",
+         dataType = DataType.MEASUREMENT,
+         displayType = DisplayType.SUMMARY
+   )
+   Integer getNumberOfPendingRequests();
+
+   @ManagedAttribute(
+         description = "Returns the average time, in microseconds, requests waited before being executed by the execution threads.",
+         displayName = "Average request wait time",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.SUMMARY
+   )
+   Long getAverageRequestWaitTime();
+
    @ManagedAttribute(
          description = "Returns the idle timeout.",
          displayName = "Idle timeout",
@@ -42,6 +42,24 @@ class AbstractProtocolServerTest {
       expectIllegalArgument(b, createServer)
    }
 
+   def testValidateNegativeExecutionThreads() {
+      val b = new MockServerConfigurationBuilder
+      b.executionThreads(-1);
+      expectIllegalArgument(b, createServer)
+   }
+
+   def testValidateNegativeMaxPendingRequestBytes() {
+      val b = new MockServerConfigurationBuilder
+      b.maxPendingRequestBytes(-1);
+      expectIllegalArgument(b, createServer)
+   }
+
+   def testValidateNegativeResponseBatchSize() {
+      val b = new MockServerConfigurationBuilder
+      b.responseBatchSize(-1);
+      expectIllegalArgument(b, createServer)
+   }
+
    private def expectIllegalArgument(builder: MockServerConfigurationBuilder, server: MockProtocolServer) {
       try {
          Stoppable.useCacheManager(TestCacheManagerFactory.createCacheManager) { cm =>
@@ -2,7 +2,8 @@
 
 public class MockServerConfiguration extends ProtocolServerConfiguration {
 
-   protected MockServerConfiguration(String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads) {
-      super(name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl, tcpNoDelay, workerThreads);
+   protected MockServerConfiguration(String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads,
+         int executionThreads, long maxPendingRequestBytes, int responseBatchSize) {
+      super(name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl, tcpNoDelay, workerThreads, executionThreads, maxPendingRequestBytes, responseBatchSize);
    }
 }
@@ -30,6 +30,7 @@ public MockServerConfiguration build(boolean validate) {
 
    @Override
    public MockServerConfiguration create() {
-      return new MockServerConfiguration(name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads);
+      return new MockServerConfiguration(name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads,
+            executionThreads, maxPendingRequestBytes, responseBatchSize);
    }
 }
@@ -0,0 +1,128 @@
+package org.infinispan.server.core.transport;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelHandler;
+import org.jboss.netty.handler.codec.embedder.DecoderEmbedder;
+import org.jboss.netty.util.CharsetUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the responses to pipelined requests are written together, in order.
+ *
+ * @since 6.0
+ */
+@Test(groups = "functional", testName = "server.core.transport.ResponseBatchingHandlerTest")
+public class ResponseBatchingHandlerTest {
+
+   public void testPipelinedResponsesWrittenTogether() {
+      Recorder recorder = new Recorder();
+      Responder responder = new Responder(1);
+      DecoderEmbedder<Object> embedder = new DecoderEmbedder<Object>(recorder, new ResponseBatchingHandler(64 * 1024), responder);
+
+      embedder.offer(request("abc"));
+      assertEquals(list("write abc"), recorder.events);
+      assertEquals(3, responder.futures.size());
+      for (ChannelFuture future : responder.futures)
+         assertTrue(future.isSuccess());
+
+      // Each read is flushed separately
+      embedder.offer(request("d"));
+      assertEquals(list("write abc", "write d"), recorder.events);
+   }
+
+   public void testCloseAfterBatchedResponses() {
+      Recorder recorder = new Recorder();
+      DecoderEmbedder<Object> embedder = new DecoderEmbedder<Object>(recorder, new ResponseBatchingHandler(64 * 1024), new Responder(1));
+
+      embedder.offer(request("ab!c"));
+      assertEquals(list("write ab", "close", "write c"), recorder.events);
+   }
+
+   public void testFlushedWhenBatchSizeReached() {
+      Recorder recorder = new Recorder();
+      DecoderEmbedder<Object> embedder = new DecoderEmbedder<Object>(recorder, new ResponseBatchingHandler(5), new Responder(2));
+
+      embedder.offer(request("abcde"));
+      assertEquals(list("write aabbcc", "write ddee"), recorder.events);
+   }
+
+   public void testResponsesOutsideOfReadsWrittenStraightAway() {
+      Recorder recorder = new Recorder();
+      DecoderEmbedder<Object> embedder = new DecoderEmbedder<Object>(recorder, new ResponseBatchingHandler(64 * 1024), new Responder(1));
+
+      ChannelFuture future = Channels.write(embedder.getPipeline().getChannel(), request("x"));
+      assertEquals(list("write x"), recorder.events);
+      assertTrue(future.isSuccess());
+   }
+
+   private static ChannelBuffer request(String requests) {
+      return ChannelBuffers.copiedBuffer(requests, CharsetUtil.US_ASCII);
+   }
+
+   private static List<String> list(String... events) {
+      List<String> list = new ArrayList<String>();
+      for (String event : events)
+         list.add(event);
+      return list;
+   }
+
+   /**
+    * Records the writes and closes reaching the socket, completing the writes.
+    */
+   private static class Recorder extends SimpleChannelHandler {
+      final List<String> events = new ArrayList<String>();
+
+      @Override
+      public void writeRequested(ChannelHandlerContext ctx, MessageEvent e) {
+         events.add("write " + ((ChannelBuffer) e.getMessage()).toString(CharsetUtil.US_ASCII));
+         e.getFuture().setSuccess();
+      }
+
+      @Override
+      public void closeRequested(ChannelHandlerContext ctx, ChannelStateEvent e) {
+         events.add("close");
+         e.getFuture().setSuccess();
+      }
+   }
+
+   /**
+    * Handles each byte received as a request, writing it back repeated as the response, and closing the channel on
+    * <tt>!</tt>.
+    */
+   private static class Responder extends SimpleChannelHandler {
+      final int responseLength;
+      final List<ChannelFuture> futures = new ArrayList<ChannelFuture>();
+
+      Responder(int responseLength) {
+         this.responseLength = responseLength;
+      }
+
+      @Override
+      public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) {
+         ChannelBuffer requests = (ChannelBuffer) e.getMessage();
+         while (requests.readable()) {
+            byte request = requests.readByte();
+            if (request == '!') {
+               Channels.close(ctx.getChannel());
+            } else {
+               ChannelBuffer response = ChannelBuffers.buffer(responseLength);
+               for (int i = 0; i < responseLength; i++)
+                  response.writeByte(request);
+               futures.add(Channels.write(ctx.getChannel(), response));
+            }
+         }
+      }
+   }
+}
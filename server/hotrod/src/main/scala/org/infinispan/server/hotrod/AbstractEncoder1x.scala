@@ -47,13 +47,14 @@ abstract class AbstractEncoder1x extends AbstractVersionedEncoder with Constants
    }
 
    override def writeResponse(r: Response, buf: ChannelBuffer,
-           cacheManager: EmbeddedCacheManager, server: HotRodServer) {
+           cacheManager: EmbeddedCacheManager, server: HotRodServer): ChannelBuffer = {
+      val out = new ResponseBuffer(buf, server.getConfiguration.largeValueThreshold)
       r match {
          case r: ResponseWithPrevious => {
             if (r.previous == None)
                writeUnsignedInt(0, buf)
             else
-               writeRangedBytes(r.previous.get, buf)
+               out.writeRangedBytes(r.previous.get)
          }
          case s: StatsResponse => {
             writeUnsignedInt(s.stats.size, buf)
@@ -65,7 +66,7 @@ abstract class AbstractEncoder1x extends AbstractVersionedEncoder with Constants
          case g: GetWithVersionResponse => {
             if (g.status == Success) {
                buf.writeLong(g.dataVersion)
-               writeRangedBytes(g.data.get, buf)
+               out.writeRangedBytes(g.data.get)
             }
          }
          case g: GetWithMetadataResponse => {
@@ -81,7 +82,7 @@ abstract class AbstractEncoder1x extends AbstractVersionedEncoder with Constants
                   writeUnsignedInt(g.maxIdle, buf)
                }
                buf.writeLong(g.dataVersion)
-               writeRangedBytes(g.data.get, buf)
+               out.writeRangedBytes(g.data.get)
             }
          }
          case g: BulkGetResponse => {
@@ -95,11 +96,11 @@ abstract class AbstractEncoder1x extends AbstractVersionedEncoder with Constants
                   iterator = iterator.take(g.count)
                }
                for (entry <- iterator) {
-                  buf.writeByte(1) // Not done
-                  writeRangedBytes(entry.getKey, buf)
-                  writeRangedBytes(entry.getValue, buf)
+                  out.buf.writeByte(1) // Not done
+                  out.writeRangedBytes(entry.getKey)
+                  out.writeRangedBytes(entry.getValue)
                }
-               buf.writeByte(0) // Done
+               out.buf.writeByte(0) // Done
             }
          }
          case g: BulkGetKeysResponse => {
@@ -111,20 +112,30 @@ abstract class AbstractEncoder1x extends AbstractVersionedEncoder with Constants
                var keys = BulkUtil.getAllKeys(cache, g.scope)
                var iterator = asScalaIterator(keys.iterator)
                for (key <- iterator) {
-                  buf.writeByte(1) // Not done
-                  writeRangedBytes(key, buf)
+                  out.buf.writeByte(1) // Not done
+                  out.writeRangedBytes(key)
                }
-               buf.writeByte(0) // Done
+               out.buf.writeByte(0) // Done
             }
          }
          case g: GetResponse =>
-            if (g.status == Success) writeRangedBytes(g.data.get, buf)
+            if (g.status == Success) out.writeRangedBytes(g.data.get)
+         case g: GetAllResponse => {
+            if (g.status == Success) {
+               writeUnsignedInt(g.entries.size, buf)
+               for ((key, value) <- g.entries) {
+                  out.writeRangedBytes(key)
+                  out.writeRangedBytes(value)
+               }
+            }
+         }
          case q: QueryResponse =>
-            writeRangedBytes(q.result, buf)
+            out.writeRangedBytes(q.result)
          case e: ErrorResponse => writeString(e.msg, buf)
          case _ => if (buf == null)
             throw new IllegalArgumentException("Response received is unknown: " + r)
       }
+      out.toChannelBuffer
    }
 
    def getTopologyResponse(r: Response, addressCache: Cache[Address, ServerAddress],
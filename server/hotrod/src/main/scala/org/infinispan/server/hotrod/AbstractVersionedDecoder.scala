@@ -30,6 +30,11 @@ abstract class AbstractVersionedDecoder {
     */
    def readParameters(header: HotRodHeader, buffer: ChannelBuffer): (RequestParameters, Boolean)
 
+   /**
+    * Read the key/value pairs of an operation that writes several entries at once.
+    */
+   def readEntries(header: HotRodHeader, buffer: ChannelBuffer): java.util.Map[Array[Byte], Array[Byte]]
+
    /**
     * Create a successful response.
     */
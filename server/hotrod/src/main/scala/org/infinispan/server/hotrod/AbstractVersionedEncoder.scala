@@ -21,8 +21,9 @@ abstract class AbstractVersionedEncoder {
          addressCache: Cache[Address, ServerAddress], server: HotRodServer)
 
    /**
-    * Write operation response using the given channel buffer
+    * Write operation response using the given channel buffer, and return the buffer holding the whole response, which
+    * might wrap large values instead of holding copies of them
     */
-   def writeResponse(r: Response, buf: ChannelBuffer, cacheManager: EmbeddedCacheManager, server: HotRodServer)
+   def writeResponse(r: Response, buf: ChannelBuffer, cacheManager: EmbeddedCacheManager, server: HotRodServer): ChannelBuffer
 
 }
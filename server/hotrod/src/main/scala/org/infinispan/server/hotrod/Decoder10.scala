@@ -49,6 +49,9 @@ object Decoder10 extends AbstractVersionedDecoder with ServerConstants with Log
          case 0x1B => (GetWithMetadataRequest, false)
          case 0x1D => (BulkGetKeysRequest, false)
          case 0x1F => (QueryRequest, false)
+         // bulk operations added in version 1.4
+         case 0x21 if version >= Constants.VERSION_14 => (GetAllRequest, false)
+         case 0x23 if version >= Constants.VERSION_14 => (PutAllRequest, false)
          case _ => throw new HotRodUnknownOperationException(
                "Unknown operation: " + streamOp, version, messageId)
       }
@@ -94,6 +97,11 @@ object Decoder10 extends AbstractVersionedDecoder with ServerConstants with Log
             val valueLength = readUnsignedInt(buffer)
             (new RequestParameters(valueLength, lifespan, maxIdle, version), false)
          }
+         case PutAllRequest => {
+            val lifespan = readLifespanOrMaxIdle(buffer, hasFlag(header, ProtocolFlag.DefaultLifespan))
+            val maxIdle = readLifespanOrMaxIdle(buffer, hasFlag(header, ProtocolFlag.DefaultMaxIdle))
+            (new RequestParameters(-1, lifespan, maxIdle, -1), false)
+         }
          case _ => {
             val lifespan = readLifespanOrMaxIdle(buffer, hasFlag(header, ProtocolFlag.DefaultLifespan))
             val maxIdle = readLifespanOrMaxIdle(buffer, hasFlag(header, ProtocolFlag.DefaultMaxIdle))
@@ -103,6 +111,14 @@ object Decoder10 extends AbstractVersionedDecoder with ServerConstants with Log
       }
    }
 
+   override def readEntries(h: HotRodHeader, buffer: ChannelBuffer): java.util.Map[Array[Byte], Array[Byte]] = {
+      val count = readUnsignedInt(buffer)
+      val entries = new java.util.HashMap[Array[Byte], Array[Byte]]()
+      for (i <- 0 until count)
+         entries.put(readKey(buffer), readRangedBytes(buffer))
+      entries
+   }
+
    private def hasFlag(h: HotRodHeader, f: ProtocolFlag): Boolean = {
       (h.flag & f.id) == f.id
    }
@@ -223,6 +239,17 @@ object Decoder10 extends AbstractVersionedDecoder with ServerConstants with Log
             new QueryResponse(h.version, h.messageId, h.cacheName, h.clientIntel,
                h.topologyId, result)
          }
+         case GetAllRequest => {
+            val count = readUnsignedInt(buffer)
+            val keys = new java.util.HashSet[Array[Byte]]()
+            for (i <- 0 until count)
+               keys.add(readKey(buffer))
+            // A single command for all the keys, the cache fetches the remote ones from their owners in parallel
+            val entries = cache.getAll(keys)
+            if (isTrace) trace("About to create get all response, found %d of %d keys", entries.size, count)
+            new GetAllResponse(h.version, h.messageId, h.cacheName, h.clientIntel,
+                               GetAllResponse, Success, h.topologyId, entries)
+         }
       }
    }
 
@@ -305,6 +332,8 @@ object Decoder10 extends AbstractVersionedDecoder with ServerConstants with Log
          case BulkGetRequest => BulkGetResponse
          case GetWithMetadataRequest => GetWithMetadataResponse
          case BulkGetKeysRequest => BulkGetKeysResponse
+         case GetAllRequest => GetAllResponse
+         case PutAllRequest => PutAllResponse
       }
    }
 
@@ -328,6 +357,8 @@ object OperationResponse extends Enumeration {
    val GetWithMetadataResponse = Value(0x1C)
    val BulkGetKeysResponse = Value(0x1E)
    val QueryResponse = Value(0x20)
+   val GetAllResponse = Value(0x22)
+   val PutAllResponse = Value(0x24)
    val ErrorResponse = Value(0x50)
 }
 
@@ -35,4 +35,9 @@ object Encoders {
     * Encoder for version 1.2 of the Hot Rod protocol.
     */
    object Encoder12 extends AbstractTopologyAwareEncoder1x with Log
+
+   /**
+    * Encoder for version 1.4 of the Hot Rod protocol, which adds the GetAll and PutAll operations.
+    */
+   object Encoder14 extends AbstractTopologyAwareEncoder1x with Log
 }
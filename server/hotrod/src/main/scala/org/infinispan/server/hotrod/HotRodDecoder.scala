@@ -55,7 +55,7 @@ class HotRodDecoder(cacheManager: EmbeddedCacheManager, transport: NettyTranspor
 
       try {
          val decoder = version match {
-            case VERSION_10 | VERSION_11 | VERSION_12 | VERSION_13 => Decoder10
+            case VERSION_10 | VERSION_11 | VERSION_12 | VERSION_13 | VERSION_14 => Decoder10
             case _ => throw new UnknownVersionException(
                "Unknown version:" + version, version, messageId)
          }
@@ -134,8 +134,22 @@ class HotRodDecoder(cacheManager: EmbeddedCacheManager, transport: NettyTranspor
    override protected def customDecodeHeader(ch: Channel, buffer: ChannelBuffer): AnyRef =
       writeResponse(ch, header.decoder.customReadHeader(header, buffer, cache))
 
-   override protected def customDecodeKey(ch: Channel, buffer: ChannelBuffer): AnyRef =
-      writeResponse(ch, header.decoder.customReadKey(header, buffer, cache, server.getQueryFacades))
+   override protected def customDecodeKey(ch: Channel, buffer: ChannelBuffer): AnyRef = {
+      header.op match {
+         case HotRodOperation.PutAllRequest => putAll(ch, buffer)
+         case _ => writeResponse(ch, header.decoder.customReadKey(header, buffer, cache, server.getQueryFacades))
+      }
+   }
+
+   private def putAll(ch: Channel, buffer: ChannelBuffer): AnyRef = {
+      // The expiration parameters are read like the ones of a single put,
+      // so that all the entries get the same versioned metadata
+      params = header.decoder.readParameters(header, buffer)._1
+      val entries = header.decoder.readEntries(header, buffer)
+      getOptimizedCache(cache).putAll(entries, buildMetadata())
+      writeResponse(ch, new Response(header.version, header.messageId, header.cacheName,
+            header.clientIntel, OperationResponse.PutAllResponse, Success, header.topologyId))
+   }
 
    override protected def customDecodeValue(ch: Channel, buffer: ChannelBuffer): AnyRef =
       writeResponse(ch, header.decoder.customReadValue(header, buffer, cache))
@@ -0,0 +1,48 @@
+package org.infinispan.server.hotrod
+
+import org.jboss.netty.buffer.{ChannelBuffers, ChannelBuffer}
+import org.infinispan.server.core.transport.ExtendedChannelBuffer._
+import collection.mutable.ArrayBuffer
+
+/**
+ * Holds the contents of a response while it's being encoded. Byte arrays at least as large as the given threshold are
+ * not copied into the response, but wrapped and written to the channel as they are, along with the rest of the
+ * response.
+ *
+ * @since 6.0
+ */
+class ResponseBuffer(first: ChannelBuffer, largeValueThreshold: Int) {
+
+   private val parts = new ArrayBuffer[ChannelBuffer]
+   private var current = first
+
+   /**
+    * The buffer to write the next fields of the response to.
+    */
+   def buf: ChannelBuffer = current
+
+   def writeRangedBytes(src: Array[Byte]) {
+      if (largeValueThreshold > 0 && src.length >= largeValueThreshold) {
+         writeUnsignedInt(src.length, current)
+         parts += current
+         parts += wrappedBuffer(src)
+         current = dynamicBuffer
+      } else {
+         org.infinispan.server.core.transport.ExtendedChannelBuffer.writeRangedBytes(src, current)
+      }
+   }
+
+   /**
+    * Returns the response to write to the channel. If some byte arrays were wrapped, it's a composite buffer, written
+    * with a single gathering write.
+    */
+   def toChannelBuffer: ChannelBuffer = {
+      if (parts.isEmpty) {
+         current
+      } else {
+         if (current.readable) parts += current
+         ChannelBuffers.wrappedBuffer(true, parts: _*)
+      }
+   }
+
+}
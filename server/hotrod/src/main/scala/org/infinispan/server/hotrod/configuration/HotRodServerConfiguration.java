@@ -14,10 +14,12 @@ public class HotRodServerConfiguration extends ProtocolServerConfiguration {
    private final long topologyReplTimeout;
    private final boolean topologyAwaitInitialTransfer;
    private final boolean topologyStateTransfer;
+   private final int largeValueThreshold;
 
    HotRodServerConfiguration(String proxyHost, int proxyPort, long topologyLockTimeout, long topologyReplTimeout, boolean topologyAwaitInitialTransfer, boolean topologyStateTransfer,
-         String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads) {
-      super(name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl, tcpNoDelay, workerThreads);
+         int largeValueThreshold, String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads,
+         int executionThreads, long maxPendingRequestBytes, int responseBatchSize) {
+      super(name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl, tcpNoDelay, workerThreads, executionThreads, maxPendingRequestBytes, responseBatchSize);
       this.proxyHost = proxyHost;
       this.proxyPort = proxyPort;
       this.topologyCacheName = TOPOLOGY_CACHE_NAME_PREFIX + (name.length() > 0 ? "_" + name : name);
@@ -25,6 +27,7 @@ public class HotRodServerConfiguration extends ProtocolServerConfiguration {
       this.topologyReplTimeout = topologyReplTimeout;
       this.topologyStateTransfer = topologyStateTransfer;
       this.topologyAwaitInitialTransfer = topologyAwaitInitialTransfer;
+      this.largeValueThreshold = largeValueThreshold;
    }
 
    public String proxyHost() {
@@ -55,10 +58,14 @@ public boolean topologyStateTransfer() {
       return topologyStateTransfer;
    }
 
+   public int largeValueThreshold() {
+      return largeValueThreshold;
+   }
+
    @Override
    public String toString() {
       return "HotRodServerConfiguration [proxyHost=" + proxyHost + ", proxyPort=" + proxyPort + ", topologyCacheName=" + topologyCacheName + ", topologyLockTimeout="
             + topologyLockTimeout + ", topologyReplTimeout=" + topologyReplTimeout + ", topologyAwaitInitialTransfer=" + topologyAwaitInitialTransfer + ", topologyStateTransfer="
-            + topologyStateTransfer + "]";
+            + topologyStateTransfer + ", largeValueThreshold=" + largeValueThreshold + "]";
    }
 }
@@ -21,6 +21,7 @@ public class HotRodServerConfigurationBuilder extends ProtocolServerConfiguratio
    private long topologyReplTimeout = 10000L;
    private boolean topologyAwaitInitialTransfer = true;
    private boolean topologyStateTransfer = true;
+   private int largeValueThreshold = 8 * 1024;
 
    public HotRodServerConfigurationBuilder() {
       super(11222);
@@ -80,10 +81,20 @@ public HotRodServerConfigurationBuilder topologyStateTransfer(boolean topologySt
       return this;
    }
 
+   /**
+    * Sets the size, in bytes, from which the values returned to the clients are written to the connection as they are
+    * stored, instead of being copied into the response first. Defaults to 8KB, 0 copies all the values.
+    */
+   public HotRodServerConfigurationBuilder largeValueThreshold(int largeValueThreshold) {
+      this.largeValueThreshold = largeValueThreshold;
+      return this;
+   }
+
    @Override
    public HotRodServerConfiguration create() {
-      return new HotRodServerConfiguration(proxyHost, proxyPort, topologyLockTimeout, topologyReplTimeout, topologyAwaitInitialTransfer, topologyStateTransfer, name, host, port, idleTimeout,
-            recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads);
+      return new HotRodServerConfiguration(proxyHost, proxyPort, topologyLockTimeout, topologyReplTimeout, topologyAwaitInitialTransfer, topologyStateTransfer, largeValueThreshold, name, host, port, idleTimeout,
+            recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads,
+            executionThreads, maxPendingRequestBytes, responseBatchSize);
    }
 
    @Override
@@ -95,6 +106,7 @@ public HotRodServerConfigurationBuilder read(HotRodServerConfiguration template)
       this.topologyReplTimeout = template.topologyReplTimeout();
       this.topologyAwaitInitialTransfer = template.topologyAwaitInitialTransfer();
       this.topologyStateTransfer = template.topologyStateTransfer();
+      this.largeValueThreshold = template.largeValueThreshold();
       return this;
    }
 
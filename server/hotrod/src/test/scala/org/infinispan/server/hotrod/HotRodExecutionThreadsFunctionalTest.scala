@@ -0,0 +1,23 @@
+package org.infinispan.server.hotrod
+
+import org.testng.annotations.Test
+import test.HotRodTestingUtil._
+import test.UniquePortThreadLocal
+import org.infinispan.manager.EmbeddedCacheManager
+import org.infinispan.server.hotrod.configuration.HotRodServerConfigurationBuilder
+
+/**
+ * Hot Rod server functional test with the requests executed outside of the Netty worker threads
+ *
+ * @since 6.0
+ */
+@Test(groups = Array("functional"), testName = "server.hotrod.HotRodExecutionThreadsFunctionalTest")
+class HotRodExecutionThreadsFunctionalTest extends HotRodFunctionalTest {
+
+   override protected def createStartHotRodServer(cacheManager: EmbeddedCacheManager) = {
+      val builder = new HotRodServerConfigurationBuilder
+      builder.proxyHost(host).proxyPort(UniquePortThreadLocal.get.intValue).idleTimeout(0)
+      builder.executionThreads(2).maxPendingRequestBytes(64 * 1024)
+      startHotRodServer(cacheManager, UniquePortThreadLocal.get.intValue, builder)
+   }
+}
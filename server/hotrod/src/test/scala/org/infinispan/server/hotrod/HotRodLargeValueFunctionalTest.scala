@@ -0,0 +1,32 @@
+package org.infinispan.server.hotrod
+
+import java.lang.reflect.Method
+import org.testng.annotations.Test
+import test.HotRodTestingUtil._
+import test.UniquePortThreadLocal
+import org.infinispan.manager.EmbeddedCacheManager
+import org.infinispan.server.hotrod.OperationStatus._
+import org.infinispan.server.hotrod.configuration.HotRodServerConfigurationBuilder
+
+/**
+ * Hot Rod server functional test with all the values written to the responses without being copied
+ *
+ * @since 6.0
+ */
+@Test(groups = Array("functional"), testName = "server.hotrod.HotRodLargeValueFunctionalTest")
+class HotRodLargeValueFunctionalTest extends HotRodFunctionalTest {
+
+   override protected def createStartHotRodServer(cacheManager: EmbeddedCacheManager) = {
+      val builder = new HotRodServerConfigurationBuilder
+      builder.proxyHost(host).proxyPort(UniquePortThreadLocal.get.intValue).idleTimeout(0)
+      builder.largeValueThreshold(1)
+      startHotRodServer(cacheManager, UniquePortThreadLocal.get.intValue, builder)
+   }
+
+   def testPutGetLargeValue(m: Method) {
+      val value = new Array[Byte](1024 * 1024)
+      for (i <- 0 until value.length) value(i) = i.toByte
+      assertStatus(client.put(k(m), 0, 0, value), Success)
+      assertSuccess(client.get(k(m), 0), value)
+   }
+}
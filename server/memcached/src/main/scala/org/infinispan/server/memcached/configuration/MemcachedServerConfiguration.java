@@ -14,8 +14,9 @@
 public class MemcachedServerConfiguration extends ProtocolServerConfiguration {
    private final String cache;
 
-   MemcachedServerConfiguration(String cache, String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads) {
-      super(name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl, tcpNoDelay, workerThreads);
+   MemcachedServerConfiguration(String cache, String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads,
+         int executionThreads, long maxPendingRequestBytes, int responseBatchSize) {
+      super(name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl, tcpNoDelay, workerThreads, executionThreads, maxPendingRequestBytes, responseBatchSize);
       this.cache = cache;
    }
 
@@ -29,7 +29,8 @@ public MemcachedServerConfigurationBuilder cache(String cache) {
 
    @Override
    public MemcachedServerConfiguration create() {
-      return new MemcachedServerConfiguration(cache, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads);
+      return new MemcachedServerConfiguration(cache, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads,
+            executionThreads, maxPendingRequestBytes, responseBatchSize);
    }
 
    public MemcachedServerConfiguration build(boolean validate) {
@@ -13,7 +13,8 @@
 @BuiltBy(WebSocketServerConfigurationBuilder.class)
 public class WebSocketServerConfiguration extends ProtocolServerConfiguration {
 
-   WebSocketServerConfiguration(String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads) {
-      super(name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl, tcpNoDelay, workerThreads);
+   WebSocketServerConfiguration(String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads,
+         int executionThreads, long maxPendingRequestBytes, int responseBatchSize) {
+      super(name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl, tcpNoDelay, workerThreads, executionThreads, maxPendingRequestBytes, responseBatchSize);
    }
 }
@@ -23,7 +23,8 @@ public WebSocketServerConfigurationBuilder self() {
 
    @Override
    public WebSocketServerConfiguration create() {
-      return new WebSocketServerConfiguration(name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads);
+      return new WebSocketServerConfiguration(name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads,
+            executionThreads, maxPendingRequestBytes, responseBatchSize);
    }
 
    public WebSocketServerConfiguration build(boolean validate) {
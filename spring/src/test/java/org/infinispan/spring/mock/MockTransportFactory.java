@@ -9,6 +9,7 @@
 import javax.net.ssl.SSLContext;
 
 import org.infinispan.client.hotrod.configuration.Configuration;
+import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHash;
 import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHashFactory;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
 import org.infinispan.client.hotrod.impl.transport.Transport;
@@ -78,6 +79,11 @@ public ConsistentHashFactory getConsistentHashFactory() {
       return null;
    }
 
+   @Override
+   public ConsistentHash getConsistentHash() {
+      return null;
+   }
+
    @Override
    public SSLContext getSSLContext() {
       return null;